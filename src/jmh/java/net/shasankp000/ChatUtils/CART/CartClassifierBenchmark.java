@@ -0,0 +1,109 @@
+package net.shasankp000.ChatUtils.CART;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Intent classification of a chat line by the CART model.
+ *
+ * <p>The tree, label and vocabulary files are generated into a temp directory with the same layout as the
+ * shipped model (a depth-12 tree over a 2,000-word vocabulary), so the benchmark runs without downloading it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CartClassifierBenchmark {
+
+    private static final int VOCABULARY = 2_000;
+    private static final int DEPTH = 12;
+    private static final String[] LABELS = {"GENERAL_CONVERSATION", "ASK_INFORMATION", "REQUEST_ACTION", "UNSPECIFIED"};
+    private static final String[] MESSAGES = {
+            "hey bot can you go and mine some iron ore for me",
+            "what time is it in the game right now",
+            "follow me to the village and guard the door",
+            "how are you doing today friend",
+            "w0rd12 w0rd401 w0rd77 please w0rd1999 now",
+            "collect wood then craft a crafting table and some sticks near the base"
+    };
+
+    private Path dir;
+    private CartClassifier classifier;
+    private int cursor;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("cart-bench");
+        Random random = new Random(5L);
+        Gson gson = new Gson();
+
+        Map<String, Integer> vocab = new LinkedHashMap<>();
+        for (String message : MESSAGES) {
+            for (String word : message.split(" ")) {
+                vocab.putIfAbsent(word, vocab.size());
+            }
+        }
+        for (int i = 0; vocab.size() < VOCABULARY; i++) {
+            vocab.putIfAbsent("w0rd" + i, vocab.size());
+        }
+        List<String> words = new ArrayList<>(vocab.keySet());
+
+        Path tree = dir.resolve("tree.json");
+        Path labels = dir.resolve("labels.json");
+        Path vocabFile = dir.resolve("vocab.json");
+        // The loader sniffs the first characters for "type" and "split", so keep them at the front.
+        Files.writeString(tree, gson.toJson(node(random, words, 0)));
+        Files.writeString(labels, gson.toJson(List.of(LABELS)));
+        Files.writeString(vocabFile, gson.toJson(vocab));
+        classifier = new CartClassifier(tree.toFile(), labels.toFile(), vocabFile.toFile());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public CartClassifier.ClassificationResult classify() {
+        return classifier.classify(MESSAGES[Math.floorMod(cursor++, MESSAGES.length)]);
+    }
+
+    private static JsonObject node(Random random, List<String> words, int depth) {
+        JsonObject node = new JsonObject();
+        if (depth == DEPTH || (depth > 4 && random.nextInt(6) == 0)) {
+            node.addProperty("type", "leaf");
+            node.addProperty("class", random.nextInt(LABELS.length));
+            node.addProperty("confidence", 0.5D + random.nextDouble() / 2.0D);
+            return node;
+        }
+        node.addProperty("type", "split");
+        node.addProperty("feature", words.get(random.nextInt(words.size())));
+        node.addProperty("threshold", 0.5D);
+        node.add("left", node(random, words, depth + 1));
+        node.add("right", node(random, words, depth + 1));
+        return node;
+    }
+}
@@ -0,0 +1,80 @@
+package net.shasankp000.ChatUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving a chat line to its dialogue sound over the full {@link DialogueTextMapper} table.
+ *
+ * <p>The message mix is every exact line plus templated lines with varying player names and counts, and lines
+ * with live data (coordinates, biomes) that have no sound. {@code linear} is the old scan over every template,
+ * {@code compiled} is the prefix-filtered matcher without the recent-lines cache (a line seen for the first
+ * time), and {@code cached} is the public lookup as chat bursts hit it. The sound events are created without
+ * touching the game registry, so no Minecraft bootstrap is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DialogueLookupBenchmark {
+
+    private static final String[] NAMES = {"Steve", "Alex", "Notch", "jeb_", "Dinnerbone", "Builder42"};
+    private static final String[] TEMPLATES = {
+            "Need something, %s?",
+            "Shh… I'm watching the bobber, %s.",
+            "I'm right behind you, %s.",
+            "Hey, %s.",
+            "Oh—%s, there you are.",
+            "Good to see you again, %s.",
+            "Welcome back, %s.",
+            "All quiet around here, %s."
+    };
+    private static final String[] UNVOICED = {
+            "Found iron ore at %d 12 -40.",
+            "It's %d o'clock and raining in the plains.",
+            "Heading to %d 64 220 now."
+    };
+
+    @Param({"linear", "compiled", "cached"})
+    public String mode;
+
+    private String[] messages;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11L);
+        List<String> lines = new ArrayList<>(DialogueTextMapper.exactLines());
+        for (int i = 0; i < 64; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            lines.add(String.format(TEMPLATES[random.nextInt(TEMPLATES.length)], name));
+            lines.add("I ate " + (1 + random.nextInt(9)) + " food item(s) so far.");
+            lines.add("On it — gathering " + (1 + random.nextInt(32)) + " logs.");
+            lines.add(String.format(UNVOICED[random.nextInt(UNVOICED.length)], random.nextInt(300)));
+        }
+        Collections.shuffle(lines, random);
+        messages = lines.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public Object lookup() {
+        // floorMod: the cursor wraps negative once a fast mode passes 2^31 calls on this one state instance.
+        String message = messages[Math.floorMod(cursor++, messages.length)];
+        return switch (mode) {
+            case "linear" -> DialogueTextMapper.lookupLinear(message);
+            case "compiled" -> DialogueTextMapper.lookupUncached(message);
+            default -> DialogueTextMapper.lookup(message);
+        };
+    }
+}
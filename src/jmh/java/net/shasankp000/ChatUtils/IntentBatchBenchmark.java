@@ -0,0 +1,113 @@
+package net.shasankp000.ChatUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt throughput of {@link IntentInferenceScheduler} as the batch size grows.
+ *
+ * <p>The model stages are simulated so the benchmark runs without the NLP assets: BERT and LIDSNet cost a
+ * fixed per-call overhead plus a smaller per-prompt cost (roughly how a TorchScript forward pass amortises),
+ * CART costs a little per prompt and resolution is free. Each invocation submits {@link #PROMPTS} distinct
+ * prompts at once and waits for all of them; {@code batchSize = 1} is the old one-prompt-at-a-time path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IntentBatchBenchmark {
+
+    private static final int PROMPTS = 64;
+    private static final long MODEL_CALL_NANOS = 400_000L;
+    private static final long MODEL_PROMPT_NANOS = 40_000L;
+    private static final long CART_PROMPT_NANOS = 5_000L;
+
+    @Param({"1", "4", "16", "32"})
+    public int batchSize;
+
+    private IntentInferenceScheduler scheduler;
+    private long round;
+
+    @Setup
+    public void setup() {
+        scheduler = new IntentInferenceScheduler(new SimulatedBackend(), 1_000L, batchSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROMPTS)
+    public void classifyBurst(Blackhole blackhole) {
+        long prefix = round++;
+        List<CompletableFuture<NLPProcessor.Intent>> futures = new ArrayList<>(PROMPTS);
+        for (int i = 0; i < PROMPTS; i++) {
+            futures.add(scheduler.submit("bot go mine some stone " + prefix + "-" + i));
+        }
+        for (CompletableFuture<NLPProcessor.Intent> future : futures) {
+            blackhole.consume(future.join());
+        }
+    }
+
+    private static final class SimulatedBackend implements IntentInferenceScheduler.Backend {
+
+        @Override
+        public NLPProcessor.Intent cached(String prompt) {
+            return null;
+        }
+
+        @Override
+        public List<IntentInferenceScheduler.StageResult> bert(List<String> prompts) {
+            return model(prompts, MODEL_CALL_NANOS, MODEL_PROMPT_NANOS);
+        }
+
+        @Override
+        public List<IntentInferenceScheduler.StageResult> cart(List<String> prompts) {
+            return model(prompts, 0L, CART_PROMPT_NANOS);
+        }
+
+        @Override
+        public List<IntentInferenceScheduler.StageResult> lidsNet(List<String> prompts) {
+            return model(prompts, MODEL_CALL_NANOS, MODEL_PROMPT_NANOS);
+        }
+
+        @Override
+        public NLPProcessor.Intent resolve(String prompt,
+                                           IntentInferenceScheduler.StageResult bert,
+                                           IntentInferenceScheduler.StageResult cart,
+                                           IntentInferenceScheduler.StageResult lidsNet) {
+            return NLPProcessor.Intent.valueOf(bert.label());
+        }
+
+        private static List<IntentInferenceScheduler.StageResult> model(List<String> prompts, long callNanos, long promptNanos) {
+            spin(callNanos + promptNanos * prompts.size());
+            List<IntentInferenceScheduler.StageResult> results = new ArrayList<>(prompts.size());
+            for (int i = 0; i < prompts.size(); i++) {
+                results.add(new IntentInferenceScheduler.StageResult("REQUEST_ACTION", 0.9));
+            }
+            return results;
+        }
+
+        private static void spin(long nanos) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
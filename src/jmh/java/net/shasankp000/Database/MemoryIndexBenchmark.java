@@ -0,0 +1,64 @@
+package net.shasankp000.Database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-5 nearest-memory lookup, the search behind {@code SQLiteDB.findRelevantMemories}.
+ *
+ * <p>The index is filled directly with seeded 384-dimension vectors (the size the default embedding model
+ * returns) instead of going through SQLite, which would need the native vector extension. Sizes on both sides
+ * of the exact-scan cut-over are covered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemoryIndexBenchmark {
+
+    private static final int DIMENSIONS = 384;
+    private static final int QUERIES = 64;
+    private static final String TYPE = "conversation";
+
+    @Param({"1000", "10000", "100000"})
+    public int vectors;
+
+    private MemoryVectorIndex index;
+    private float[][] queries;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11L);
+        index = new MemoryVectorIndex();
+        for (int i = 0; i < vectors; i++) {
+            index.add(TYPE, i, randomVector(random));
+        }
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = randomVector(random);
+        }
+    }
+
+    @Benchmark
+    public List<MemoryVectorIndex.Hit> searchTop5() {
+        return index.search(TYPE, queries[cursor++ & (QUERIES - 1)], 5);
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,91 @@
+package net.shasankp000.Database;
+
+import net.shasankp000.GameAI.State;
+import net.shasankp000.bench.StateFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and encoding {@link State}s: construction from raw fields, the legacy Java-serialization
+ * path, and the columnar {@link QTableBinaryFormat} round trip the Q-table is saved and loaded with.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StateCodecBenchmark {
+
+    @Param({"1000", "100000"})
+    public int entries;
+
+    private final Random random = new Random(7L);
+    private State sample;
+    private byte[] serializedSample;
+    private QTable table;
+    private byte[] encodedTable;
+
+    @Setup
+    public void setup() throws IOException {
+        sample = StateFixtures.state(new Random(3L));
+        serializedSample = javaSerialize(sample);
+        table = StateFixtures.table(entries, 42L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QTableBinaryFormat.write(table, out);
+        encodedTable = out.toByteArray();
+    }
+
+    @Benchmark
+    public State construct() {
+        return StateFixtures.state(random);
+    }
+
+    @Benchmark
+    public byte[] javaSerializeState() throws IOException {
+        return javaSerialize(sample);
+    }
+
+    @Benchmark
+    public Object javaDeserializeState() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedSample))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int writeTable() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encodedTable.length);
+        QTableBinaryFormat.write(table, out);
+        return out.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void readTable(Blackhole bh) throws IOException {
+        for (QTableBinaryFormat.Reader reader : QTableBinaryFormat.readAll(ByteBuffer.wrap(encodedTable))) {
+            bh.consume(reader.toQTable());
+        }
+    }
+
+    private static byte[] javaSerialize(State state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,66 @@
+package net.shasankp000.GameAI;
+
+import net.shasankp000.Database.QTable;
+import net.shasankp000.bench.StateFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Play-mode action choice and risk scoring against Q-tables of 1k to 1M entries.
+ *
+ * <p>Queries cycle through a fixed set of seeded states, so each call walks a realistic bucket rather than
+ * hitting the same one every time. The 1M case needs a few GB of heap (see the {@code jmh} block in
+ * {@code build.gradle}).
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RLAgentBenchmark {
+
+    private static final int QUERIES = 256;
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private QTable table;
+    private RLAgent agent;
+    private State[] queries;
+    private List<Map<StateActions.Action, Double>> riskMaps;
+    private final List<StateActions.Action> actions = Arrays.asList(StateActions.Action.values());
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        table = StateFixtures.table(entries, 1234L);
+        agent = new RLAgent(0.0D, table);
+        Random random = new Random(99L);
+        queries = new State[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = StateFixtures.state(random);
+        }
+        riskMaps = Arrays.stream(queries).map(q -> agent.calculateRisk(q, actions)).toList();
+    }
+
+    @Benchmark
+    public void chooseActionPlayMode(Blackhole bh) {
+        int i = cursor++ & (QUERIES - 1);
+        bh.consume(agent.chooseActionPlayMode(queries[i], table, riskMaps.get(i), "benchmark"));
+    }
+
+    @Benchmark
+    public void calculateRisk(Blackhole bh) {
+        bh.consume(agent.calculateRisk(queries[cursor++ & (QUERIES - 1)], actions));
+    }
+}
@@ -0,0 +1,57 @@
+package net.shasankp000.GameAI.services;
+
+import net.minecraft.util.math.BlockPos;
+import net.shasankp000.PathFinding.WalkabilityCache;
+import net.shasankp000.bench.FakeWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FollowPathService#planWaypoints(FollowPathService.FollowSnapshot, BlockPos)} on snapshots captured from a
+ * {@link FakeWorld} by the same {@link FollowPathService#capture(WalkabilityCache.View, BlockPos, BlockPos, boolean)}
+ * a live server runs. {@code captureSnapshot} measures building the snapshot grid itself, which on a server is the
+ * part that runs on the server thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FollowPlanBenchmark {
+
+    /** Horizontal distance between bot and commander; capture gives up beyond 60. */
+    @Param({"12", "40"})
+    public int distance;
+
+    private FakeWorld world;
+    private BlockPos start;
+    private BlockPos goal;
+    private FollowPathService.FollowSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        world = FakeWorld.create(96, 7L);
+        int x0 = world.minX() + 20;
+        int z0 = world.minZ() + 20;
+        start = world.standableNear(x0, z0);
+        goal = world.standableNear(x0 + distance * 3 / 4, z0 + distance / 4);
+        snapshot = FollowPathService.capture(world.view(), start, goal, false);
+    }
+
+    @Benchmark
+    public void planWaypoints(Blackhole bh) {
+        bh.consume(FollowPathService.planWaypoints(snapshot, null));
+    }
+
+    @Benchmark
+    public void captureSnapshot(Blackhole bh) {
+        bh.consume(FollowPathService.capture(world.view(), start, goal, false));
+    }
+}
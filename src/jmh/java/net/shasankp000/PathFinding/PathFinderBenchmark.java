@@ -0,0 +1,46 @@
+package net.shasankp000.PathFinding;
+
+import net.minecraft.util.math.BlockPos;
+import net.shasankp000.bench.FakeWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PathFinder#calculatePath} on a planner miss (search plus block tagging) across a {@link FakeWorld}.
+ *
+ * <p>Each invocation takes a fresh {@link WalkabilityCache.View}, as {@code calculatePath} does, and routes
+ * corner to corner. The {@code PathPlannerService} reuse layer is keyed by live worlds and is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathFinderBenchmark {
+
+    @Param({"64", "160"})
+    public int size;
+
+    private FakeWorld world;
+    private BlockPos start;
+    private BlockPos goal;
+
+    @Setup
+    public void setup() {
+        world = FakeWorld.create(size, 42L);
+        start = world.standableNear(world.minX() + 2, world.minZ() + 2);
+        goal = world.standableNear(world.minX() + world.spanX() - 3, world.minZ() + world.spanZ() - 3);
+    }
+
+    @Benchmark
+    public void calculatePath(Blackhole bh) {
+        bh.consume(PathFinder.searchAndTag(start, goal, world.view()));
+    }
+}
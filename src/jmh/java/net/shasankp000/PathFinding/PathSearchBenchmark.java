@@ -0,0 +1,127 @@
+package net.shasankp000.PathFinding;
+
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy object A* ({@link PathFinder#legacySearch}) versus {@link LongPathSearch} on synthetic terrain.
+ *
+ * <p>Both engines get the same neighbour rule as {@code PathFinder.getNeighbors} (6-way moves plus step-ups),
+ * restricted to non-solid cells of a seeded heightmap grid with scattered pillars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathSearchBenchmark {
+
+    private static final int SIZE_Y = 32;
+    private static final int[][] FLAT = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    @Param({"64", "160"})
+    public int size;
+
+    private boolean[] solid;
+    private int[] heights;
+    private BlockPos start;
+    private BlockPos goal;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        solid = new boolean[size * SIZE_Y * size];
+        heights = new int[size * size];
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                int h = 10 + (int) Math.round(3 * Math.sin(x / 9.0D) + 3 * Math.cos(z / 11.0D));
+                if (random.nextInt(40) == 0) {
+                    h += 4; // pillar/tree trunk stand-in
+                }
+                heights[x * size + z] = h;
+                for (int y = 0; y < h; y++) {
+                    solid[index(x, y, z)] = true;
+                }
+            }
+        }
+        start = surface(2, 2);
+        goal = surface(size - 3, size - 3);
+    }
+
+    private int index(int x, int y, int z) {
+        return (y * size + x) * size + z;
+    }
+
+    private boolean inBounds(int x, int y, int z) {
+        return x >= 0 && x < size && y >= 0 && y < SIZE_Y && z >= 0 && z < size;
+    }
+
+    private boolean isSolid(int x, int y, int z) {
+        return inBounds(x, y, z) && solid[index(x, y, z)];
+    }
+
+    private boolean isOpen(int x, int y, int z) {
+        return inBounds(x, y, z) && !solid[index(x, y, z)];
+    }
+
+    private BlockPos surface(int x, int z) {
+        return new BlockPos(x, heights[x * size + z], z);
+    }
+
+    private int expand(long packed, long[] out) {
+        int x = BlockPos.unpackLongX(packed);
+        int y = BlockPos.unpackLongY(packed);
+        int z = BlockPos.unpackLongZ(packed);
+        int count = 0;
+        for (int[] d : FLAT) {
+            if (isOpen(x + d[0], y, z + d[1])) {
+                out[count++] = BlockPos.asLong(x + d[0], y, z + d[1]);
+            }
+        }
+        if (isOpen(x, y - 1, z)) {
+            out[count++] = BlockPos.asLong(x, y - 1, z);
+        }
+        if (isOpen(x, y + 1, z)) {
+            out[count++] = BlockPos.asLong(x, y + 1, z);
+        }
+        for (int[] d : FLAT) {
+            int fx = x + d[0];
+            int fz = z + d[1];
+            if (isSolid(fx, y, fz) && isOpen(fx, y + 1, fz) && isOpen(fx, y + 2, fz)) {
+                out[count++] = BlockPos.asLong(fx, y + 1, fz);
+            }
+        }
+        return count;
+    }
+
+    private List<BlockPos> neighbors(BlockPos pos) {
+        long[] scratch = new long[LongPathSearch.MAX_NEIGHBORS];
+        int count = expand(pos.asLong(), scratch);
+        List<BlockPos> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(BlockPos.fromLong(scratch[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void legacyObjectAStar(Blackhole bh) {
+        bh.consume(PathFinder.legacySearch(start, goal, this::neighbors));
+    }
+
+    @Benchmark
+    public void primitiveLongAStar(Blackhole bh) {
+        bh.consume(LongPathSearch.search(start.asLong(), goal.asLong(), this::expand));
+    }
+}
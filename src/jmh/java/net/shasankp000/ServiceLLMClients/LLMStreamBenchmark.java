@@ -0,0 +1,98 @@
+package net.shasankp000.ServiceLLMClients;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One streamed reply through {@link LLMHttp}'s SSE and NDJSON readers and each provider's chunk parser, served by
+ * a local {@link MockStreamingLLMServer} with no delay between tokens, so the time is the client-side cost of
+ * reading and parsing a stream over loopback HTTP.
+ *
+ * <p>Setup first checks that each format reassembles to the canned reply, and that an Anthropic {@code error}
+ * event arriving mid-stream reaches the listener as an {@code Error:} token; the run fails if either does not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LLMStreamBenchmark {
+
+    private static final String REPLY = "Sure, heading to the birch forest now. I will chop logs until the stack is "
+            + "full, then craft planks and sticks, place a crafting table by the path and bring the tools back to "
+            + "you before it gets dark. Shout if you need anything else on the way.";
+    private static final String ERROR_MESSAGE = "Overloaded";
+
+    @Param({"openai", "anthropic", "ollama"})
+    public String format;
+
+    private MockStreamingLLMServer server;
+    private String base;
+
+    @Setup
+    public void setup() throws IOException {
+        server = MockStreamingLLMServer.start(0, REPLY, 0L);
+        base = "http://127.0.0.1:" + server.port();
+
+        String streamed = String.join("", stream());
+        if (!REPLY.equals(streamed)) {
+            throw new IllegalStateException(format + " stream reassembled to '" + streamed + "'");
+        }
+
+        List<String> tokens = new ArrayList<>();
+        LLMHttp.streamSse(request("/v1/messages", "{\"stream\":true}", ERROR_MESSAGE), "mock", tokens::add,
+                AnthropicClient::textDelta);
+        if (tokens.isEmpty() || !("Error: " + ERROR_MESSAGE).equals(tokens.get(tokens.size() - 1))) {
+            throw new IllegalStateException("Anthropic error event not surfaced; got " + tokens);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<String> streamReply() {
+        return stream();
+    }
+
+    private List<String> stream() {
+        List<String> tokens = new ArrayList<>();
+        switch (format) {
+            case "openai" -> sse("/v1/chat/completions", tokens, LLMHttp::openAiDelta);
+            case "anthropic" -> sse("/v1/messages", tokens, AnthropicClient::textDelta);
+            default -> LLMHttp.streamNdjson(request("/api/chat", "{\"stream\":true}", null), "mock", tokens::add,
+                    OllamaLocalClient::messageDelta);
+        }
+        return tokens;
+    }
+
+    private void sse(String path, List<String> tokens, Function<String, String> tokenOf) {
+        LLMHttp.streamSse(request(path, "{\"stream\":true}", null), "mock", tokens::add, tokenOf);
+    }
+
+    private HttpRequest request(String path, String body, String error) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (error != null) {
+            builder.header(MockStreamingLLMServer.ERROR_HEADER, error);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,213 @@
+package net.shasankp000.ServiceLLMClients;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the LLM providers' streaming endpoints, for exercising the clients without network
+ * access or API keys.
+ *
+ * <p>Serves a canned reply word by word with a fixed delay between tokens:
+ * <ul>
+ *     <li>{@code POST /v1/chat/completions} - OpenAI-style SSE (or a plain completion without {@code stream})</li>
+ *     <li>{@code POST /v1/messages} - Anthropic-style SSE; with an {@value #ERROR_HEADER} header the stream stops
+ *     halfway with an {@code error} event carrying the header's value as its message, as on an overload</li>
+ *     <li>{@code POST /api/chat} - Ollama NDJSON</li>
+ *     <li>{@code GET /v1/models} and {@code GET /} - reachability checks</li>
+ * </ul>
+ * Point {@link GenericOpenAIClient} at {@code http://127.0.0.1:<port>/v1/} or {@link OllamaLocalClient} at
+ * {@code http://127.0.0.1:<port>}. Run {@link #main} to start one from the command line; {@code LLMStreamBenchmark}
+ * drives the shared streaming code against it.
+ */
+public final class MockStreamingLLMServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("MockStreamingLLMServer");
+
+    static final String ERROR_HEADER = "X-Mock-Error";
+
+    private final HttpServer server;
+    private final String reply;
+    private final long tokenDelayMs;
+
+    private MockStreamingLLMServer(int port, String reply, long tokenDelayMs) throws IOException {
+        this.reply = reply;
+        this.tokenDelayMs = tokenDelayMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.createContext("/v1/chat/completions", this::openAi);
+        this.server.createContext("/v1/messages", this::anthropic);
+        this.server.createContext("/api/chat", this::ollama);
+        this.server.createContext("/v1/models", exchange -> respond(exchange, 200, "application/json", "{\"data\":[]}"));
+        this.server.createContext("/", exchange -> respond(exchange, 200, "text/plain", "Ollama is running"));
+    }
+
+    /**
+     * Starts a server on {@code port} (0 picks a free one) streaming {@code reply}.
+     */
+    public static MockStreamingLLMServer start(int port, String reply, long tokenDelayMs) throws IOException {
+        MockStreamingLLMServer mock = new MockStreamingLLMServer(port, reply, tokenDelayMs);
+        mock.server.start();
+        LOGGER.info("Mock LLM server listening on http://127.0.0.1:{}", mock.port());
+        return mock;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void openAi(HttpExchange exchange) throws IOException {
+        JsonObject request = readJson(exchange);
+        if (!request.has("stream") || !request.get("stream").getAsBoolean()) {
+            JsonObject message = new JsonObject();
+            message.addProperty("role", "assistant");
+            message.addProperty("content", reply);
+            JsonObject choice = new JsonObject();
+            choice.add("message", message);
+            JsonArray choices = new JsonArray();
+            choices.add(choice);
+            JsonObject body = new JsonObject();
+            body.add("choices", choices);
+            respond(exchange, 200, "application/json", body.toString());
+            return;
+        }
+        streamTokens(exchange, "text/event-stream", tokens(), token -> {
+            JsonObject delta = new JsonObject();
+            delta.addProperty("content", token);
+            JsonObject choice = new JsonObject();
+            choice.add("delta", delta);
+            JsonArray choices = new JsonArray();
+            choices.add(choice);
+            JsonObject chunk = new JsonObject();
+            chunk.add("choices", choices);
+            return "data: " + chunk + "\n\n";
+        }, "data: [DONE]\n\n");
+    }
+
+    private void anthropic(HttpExchange exchange) throws IOException {
+        readJson(exchange);
+        String error = exchange.getRequestHeaders().getFirst(ERROR_HEADER);
+        if (error != null) {
+            JsonObject detail = new JsonObject();
+            detail.addProperty("type", "overloaded_error");
+            detail.addProperty("message", error);
+            JsonObject event = new JsonObject();
+            event.addProperty("type", "error");
+            event.add("error", detail);
+            List<String> tokens = tokens();
+            streamTokens(exchange, "text/event-stream", tokens.subList(0, tokens.size() / 2),
+                    MockStreamingLLMServer::anthropicDelta, "event: error\ndata: " + event + "\n\n");
+            return;
+        }
+        streamTokens(exchange, "text/event-stream", tokens(), MockStreamingLLMServer::anthropicDelta,
+                "event: message_stop\ndata: {\"type\":\"message_stop\"}\n\n");
+    }
+
+    private static String anthropicDelta(String token) {
+        JsonObject delta = new JsonObject();
+        delta.addProperty("type", "text_delta");
+        delta.addProperty("text", token);
+        JsonObject event = new JsonObject();
+        event.addProperty("type", "content_block_delta");
+        event.addProperty("index", 0);
+        event.add("delta", delta);
+        return "event: content_block_delta\ndata: " + event + "\n\n";
+    }
+
+    private void ollama(HttpExchange exchange) throws IOException {
+        readJson(exchange);
+        streamTokens(exchange, "application/x-ndjson", tokens(), token -> {
+            JsonObject message = new JsonObject();
+            message.addProperty("role", "assistant");
+            message.addProperty("content", token);
+            JsonObject chunk = new JsonObject();
+            chunk.add("message", message);
+            chunk.addProperty("done", false);
+            return chunk + "\n";
+        }, "{\"message\":{\"role\":\"assistant\",\"content\":\"\"},\"done\":true}\n");
+    }
+
+    private interface Framer {
+        String frame(String token);
+    }
+
+    private void streamTokens(HttpExchange exchange, String contentType, List<String> tokens, Framer framer,
+                              String trailer) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, 0); // chunked
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String token : tokens) {
+                out.write(framer.frame(token).getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (tokenDelayMs > 0) {
+                    Thread.sleep(tokenDelayMs);
+                }
+            }
+            out.write(trailer.getBytes(StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client closed the stream early; nothing else to send.
+            LOGGER.debug("Mock stream closed by client: {}", e.getMessage());
+        }
+    }
+
+    /** The reply split into words, each keeping its trailing space, like typical tokenizer output. */
+    private List<String> tokens() {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < reply.length(); i++) {
+            if (reply.charAt(i) == ' ') {
+                tokens.add(reply.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < reply.length()) {
+            tokens.add(reply.substring(start));
+        }
+        return tokens;
+    }
+
+    private static JsonObject readJson(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        return body.isBlank() ? new JsonObject() : JsonParser.parseString(body).getAsJsonObject();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * {@code MockStreamingLLMServer [port] [tokenDelayMs] [reply...]}
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 11435;
+        long delay = args.length > 1 ? Long.parseLong(args[1]) : 50L;
+        String reply = args.length > 2
+                ? String.join(" ", java.util.Arrays.copyOfRange(args, 2, args.length))
+                : "Hello there! I am a mock bot. The quick brown fox jumps over the lazy dog, one token at a time.";
+        start(port, reply, delay);
+    }
+}
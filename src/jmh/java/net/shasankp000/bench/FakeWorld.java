@@ -0,0 +1,188 @@
+package net.shasankp000.bench;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.shasankp000.PathFinding.WalkabilityCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * In-memory block world for benchmarks: the same one-byte-per-block flags {@link WalkabilityCache} captures from a
+ * live server, stored as 16³ section arrays with no Minecraft world behind them.
+ *
+ * <p>Terrain is either synthetic (seeded rolling heightmap with tree-trunk pillars and small walled huts with a
+ * wooden door) or replayed from a file written by {@code /bot perf record_world}. Pass the file with
+ * {@code -Dbench.world=<path>}; {@link #create} then ignores the synthetic size.
+ */
+public final class FakeWorld {
+
+    public static final byte AIR = WalkabilityCache.PASSABLE;
+    public static final byte STONE = WalkabilityCache.SOLID | WalkabilityCache.COLLISION;
+    public static final byte LOG = WalkabilityCache.SOLID | WalkabilityCache.COLLISION;
+    public static final byte WOOD_DOOR = WalkabilityCache.DOOR | WalkabilityCache.COLLISION | WalkabilityCache.PASSABLE;
+
+    private static final int HEIGHT = 48;
+    /** Column scan range for {@link #surfaceY}; covers recorded overworld areas too. */
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 320;
+
+    private final Map<Long, byte[]> sections;
+    private int minX = Integer.MAX_VALUE;
+    private int minZ = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int maxZ = Integer.MIN_VALUE;
+
+    private FakeWorld(Map<Long, byte[]> sections) {
+        this.sections = sections;
+        for (long key : sections.keySet()) {
+            minX = Math.min(minX, ChunkSectionPos.unpackX(key) << 4);
+            minZ = Math.min(minZ, ChunkSectionPos.unpackZ(key) << 4);
+            maxX = Math.max(maxX, (ChunkSectionPos.unpackX(key) << 4) + 15);
+            maxZ = Math.max(maxZ, (ChunkSectionPos.unpackZ(key) << 4) + 15);
+        }
+    }
+
+    /**
+     * Recorded world from {@code -Dbench.world} when set, otherwise {@link #synthetic}.
+     */
+    public static FakeWorld create(int size, long seed) {
+        String recorded = System.getProperty("bench.world");
+        if (recorded != null && !recorded.isBlank()) {
+            try {
+                return new FakeWorld(WalkabilityCache.readSections(Path.of(recorded)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return synthetic(size, seed);
+    }
+
+    /**
+     * {@code size} x {@code size} blocks of seeded terrain starting at the origin.
+     */
+    public static FakeWorld synthetic(int size, long seed) {
+        Map<Long, byte[]> sections = new HashMap<>();
+        int sectionsXZ = (size + 15) >> 4;
+        for (int sx = 0; sx < sectionsXZ; sx++) {
+            for (int sz = 0; sz < sectionsXZ; sz++) {
+                for (int sy = 0; sy < HEIGHT >> 4; sy++) {
+                    byte[] data = new byte[16 * 16 * 16];
+                    Arrays.fill(data, AIR);
+                    sections.put(ChunkSectionPos.asLong(sx, sy, sz), data);
+                }
+            }
+        }
+        FakeWorld world = new FakeWorld(sections);
+        Random random = new Random(seed);
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                int h = 10 + (int) Math.round(3 * Math.sin(x / 9.0D) + 3 * Math.cos(z / 11.0D));
+                for (int y = 0; y < h; y++) {
+                    world.set(x, y, z, STONE);
+                }
+                if (random.nextInt(40) == 0) {
+                    for (int y = h; y < h + 4; y++) {
+                        world.set(x, y, z, LOG);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < size / 24; i++) {
+            world.hut(4 + random.nextInt(Math.max(1, size - 12)), 4 + random.nextInt(Math.max(1, size - 12)));
+        }
+        return world;
+    }
+
+    /** 5x5 stone hut with a wooden door on its south wall, standing on the local surface. */
+    private void hut(int x0, int z0) {
+        int floor = surfaceY(x0 + 2, z0 + 2);
+        if (floor < 0) {
+            return;
+        }
+        for (int x = x0; x < x0 + 5; x++) {
+            for (int z = z0; z < z0 + 5; z++) {
+                boolean wall = x == x0 || x == x0 + 4 || z == z0 || z == z0 + 4;
+                for (int y = floor; y < floor + 3; y++) {
+                    set(x, y, z, wall ? STONE : AIR);
+                }
+                set(x, floor - 1, z, STONE);
+            }
+        }
+        set(x0 + 2, floor, z0 + 4, WOOD_DOOR);
+        set(x0 + 2, floor + 1, z0 + 4, WOOD_DOOR);
+    }
+
+    public byte get(int x, int y, int z) {
+        byte[] data = sections.get(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        return data == null ? WalkabilityCache.UNLOADED : data[index(x, y, z)];
+    }
+
+    public void set(int x, int y, int z, byte flags) {
+        byte[] data = sections.get(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        if (data != null) {
+            data[index(x, y, z)] = flags;
+        }
+    }
+
+    /** A fresh reader, as a planner would take one per search. */
+    public WalkabilityCache.View view() {
+        return WalkabilityCache.detached(sections);
+    }
+
+    public int minX() {
+        return minX;
+    }
+
+    public int minZ() {
+        return minZ;
+    }
+
+    public int spanX() {
+        return maxX - minX + 1;
+    }
+
+    public int spanZ() {
+        return maxZ - minZ + 1;
+    }
+
+    /** Lowest standable Y in the column, or -1. */
+    public int surfaceY(int x, int z) {
+        for (int y = MIN_Y + 1; y < MAX_Y; y++) {
+            if (standable(x, y, z)) {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    /** Standable cell nearest to column (x, z), searching outwards up to 8 blocks. */
+    public BlockPos standableNear(int x, int z) {
+        for (int r = 0; r <= 8; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    int y = surfaceY(x + dx, z + dz);
+                    if (y >= 0) {
+                        return new BlockPos(x + dx, y, z + dz);
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No standable cell near " + x + "," + z);
+    }
+
+    private boolean standable(int x, int y, int z) {
+        return (get(x, y - 1, z) & WalkabilityCache.COLLISION) != 0
+                && (get(x, y, z) & WalkabilityCache.PASSABLE) != 0
+                && (get(x, y + 1, z) & WalkabilityCache.PASSABLE) != 0;
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+}
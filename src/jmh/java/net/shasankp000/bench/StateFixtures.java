@@ -0,0 +1,87 @@
+package net.shasankp000.bench;
+
+import net.shasankp000.Database.QTable;
+import net.shasankp000.Entity.EntityDetails;
+import net.shasankp000.GameAI.State;
+import net.shasankp000.GameAI.StateActions;
+import net.shasankp000.PlayerUtils.SelectedItemDetails;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded {@link State}s and Q-tables for the RL benchmarks.
+ *
+ * <p>States spread over a 512-block square, both times of day, every health band and a range of hostile
+ * distances, so a table spreads over many {@code QTableIndex} buckets the way a long-running server's does.
+ * Item fields stay empty: building an {@code ItemStack} would need the game's registries.
+ */
+public final class StateFixtures {
+
+    private static final String[] HOSTILES = {"Zombie", "Skeleton", "Creeper", "Spider", "Warden"};
+    private static final String[] PASSIVES = {"Cow", "Sheep", "Villager", "Chicken"};
+    private static final String[] BLOCKS = {"stone", "dirt", "grass_block", "oak_log", "water", "lava",
+            "sculk_sensor", "sand", "gravel", "coal_ore"};
+    private static final String[] DIRECTIONS = {"north", "south", "east", "west"};
+    private static final StateActions.Action[] ACTIONS = StateActions.Action.values();
+
+    private StateFixtures() {
+    }
+
+    public static State state(Random random) {
+        int entityCount = random.nextInt(6);
+        EntityDetails[] entities = new EntityDetails[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            boolean hostile = random.nextInt(3) > 0;
+            String name = hostile ? HOSTILES[random.nextInt(HOSTILES.length)] : PASSIVES[random.nextInt(PASSIVES.length)];
+            entities[i] = new EntityDetails(name, random.nextInt(32) - 16, 64, random.nextInt(32) - 16,
+                    hostile, DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+        }
+        String[] blocks = new String[3 + random.nextInt(4)];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = BLOCKS[random.nextInt(BLOCKS.length)];
+        }
+        return new State(
+                random.nextInt(512) - 256, 60 + random.nextInt(16), random.nextInt(512) - 256,
+                List.of(entities),
+                List.of(blocks),
+                random.nextDouble() * 40.0D,
+                random.nextInt(21),
+                random.nextDouble() * 30.0D,
+                List.of(),
+                new SelectedItemDetails("stone_sword", false, false),
+                random.nextBoolean() ? "day" : "night",
+                "overworld",
+                random.nextInt(21),
+                300,
+                0,
+                null,
+                Map.of(),
+                random.nextInt(8) == 0,
+                random.nextInt(7),
+                true,
+                random.nextInt(4) > 0,
+                ACTIONS[random.nextInt(ACTIONS.length)],
+                new EnumMap<>(StateActions.Action.class),
+                random.nextDouble(),
+                new EnumMap<>(StateActions.Action.class));
+    }
+
+    public static StateActions.Action action(Random random) {
+        return ACTIONS[random.nextInt(ACTIONS.length)];
+    }
+
+    /**
+     * A table of {@code entries} random transitions with Q-values in [-10, 10).
+     */
+    public static QTable table(int entries, long seed) {
+        Random random = new Random(seed);
+        QTable table = new QTable();
+        for (int i = 0; i < entries; i++) {
+            table.addEntry(state(random), action(random), random.nextDouble() * 20.0D - 10.0D, state(random));
+        }
+        return table;
+    }
+}
@@ -9,6 +9,14 @@ public class Predictor<T, R> implements AutoCloseable {
         return null;
     }
 
+    public java.util.List<R> batchPredict(java.util.List<T> inputs) throws Exception {
+        java.util.List<R> results = new java.util.ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            results.add(predict(input));
+        }
+        return results;
+    }
+
     @Override
     public void close() {
         // no-op
@@ -2,5 +2,6 @@ package ai.djl.translate;
 
 /** Minimal Batchifier stub. */
 public interface Batchifier {
-    // stub
+    Batchifier STACK = new Batchifier() {
+    };
 }
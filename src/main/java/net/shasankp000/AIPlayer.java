@@ -4,6 +4,7 @@ import ai.djl.ModelException;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
@@ -251,6 +252,8 @@ public class AIPlayer implements ModInitializer {
             System.out.println("Server instance is " + serverInstance);
 
             enqueueBertLoad();
+            net.shasankp000.GameAI.services.QTableService.preload();
+            net.shasankp000.GameAI.services.BotPerfService.onServerStarted(server);
             net.shasankp000.GameAI.services.BotControlApplier.applyPersistentSettings(server);
             
             // Load protected zones for all worlds
@@ -263,13 +266,24 @@ public class AIPlayer implements ModInitializer {
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
             net.shasankp000.GameAI.services.TaskService.resetAll("§cServer stopping; aborting active tasks.");
             BotPersistenceService.saveAll(server);
+            net.shasankp000.GameAI.services.QTableService.flush();
+            SQLiteDB.flushPendingWrites(2_000L);
         });
 
         ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
             BotEventHandler.resetAll();
             AutoFaceEntity.onServerStopped(server);
+            net.shasankp000.PathFinding.WalkabilityCache.onServerStopped();
+            net.shasankp000.GameAI.services.PerceptionService.onServerStopped();
+            net.shasankp000.GameAI.services.BlockLocatorIndex.onServerStopped();
+            net.shasankp000.PathFinding.SectionGraphPlanner.onServerStopped();
+            net.shasankp000.PathFinding.PathPlannerService.onServerStopped();
+            net.shasankp000.GameAI.services.BotPerfService.onServerStopped();
+            net.shasankp000.ServiceLLMClients.EmbeddingService.close();
             // Integrated-server world reloads keep mod static state alive. Ensure task locks don't leak across reloads.
             net.shasankp000.GameAI.services.TaskService.resetAll("§cServer stopped; clearing task state.");
+            net.shasankp000.GameAI.services.BotScheduler.cancelAll();
+            net.shasankp000.GameAI.services.WorldAccessService.onServerStopped();
             // Integrated-server world reloads also keep scheduler state alive; clear idle-hobby backoff so
             // "idle hobbies = on" resumes automatically when re-entering the world.
             net.shasankp000.GameAI.services.BotIdleHobbiesService.resetSession();
@@ -291,6 +305,7 @@ public class AIPlayer implements ModInitializer {
             }
             MODEL_LOAD_ENQUEUED.set(false);
             net.shasankp000.GameAI.services.BotControlApplier.resetSession();
+            net.shasankp000.GameAI.services.DebugFileLogger.flush(500L);
         });
 
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
@@ -394,6 +409,9 @@ public class AIPlayer implements ModInitializer {
             BotEventHandler.ensureBotPresence(newPlayer.getCommandSource().getServer());
         });
 
+        ServerChunkEvents.CHUNK_UNLOAD.register(net.shasankp000.PathFinding.WalkabilityCache::onChunkUnload);
+        ServerChunkEvents.CHUNK_UNLOAD.register(net.shasankp000.PathFinding.SectionGraphPlanner::onChunkUnload);
+        ServerChunkEvents.CHUNK_UNLOAD.register(net.shasankp000.GameAI.services.BlockLocatorIndex::onChunkUnload);
         ServerTickEvents.END_SERVER_TICK.register(BotPersistenceService::onServerTick);
         ServerTickEvents.END_SERVER_TICK.register(BotEventHandler::tickBurialRescue);
         ServerTickEvents.END_SERVER_TICK.register(BotEventHandler::tickHunger);
@@ -405,6 +423,9 @@ public class AIPlayer implements ModInitializer {
         ServerTickEvents.END_SERVER_TICK.register(BotAmbientSocialChatService::onServerTick);
         ServerTickEvents.END_SERVER_TICK.register(BotMoodManager::onServerTick);
         ServerTickEvents.END_SERVER_TICK.register(BotAmbientChatter::onServerTick);
+        ServerTickEvents.END_SERVER_TICK.register(net.shasankp000.GameAI.services.WorldAccessService::onServerTick);
+        // Registered last so it closes the tick after every other bot listener has run.
+        ServerTickEvents.END_SERVER_TICK.register(net.shasankp000.GameAI.services.BotPerfService::onServerTick);
 
         ServerMessageEvents.CHAT_MESSAGE.register((message, sender, params) -> {
             String raw = message.getContent().getString();
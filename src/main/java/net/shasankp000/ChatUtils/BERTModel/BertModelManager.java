@@ -147,6 +147,23 @@ public class BertModelManager {
         }
     }
 
+    /**
+     * Make predictions for several prompts with a single predictor call
+     */
+    public List<Classifications> batchPredict(List<String> texts) throws Exception {
+        lock.readLock().lock();
+        try {
+            if (!isModelLoaded) {
+                lock.readLock().unlock();
+                loadModel(); // This will acquire write lock
+                lock.readLock().lock();
+            }
+            return predictor.batchPredict(texts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Make a prediction and return a simple result with class name and confidence
      */
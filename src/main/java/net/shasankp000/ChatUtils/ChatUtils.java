@@ -4,15 +4,13 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.text.Text;
 import net.shasankp000.CommandUtils;
+import net.shasankp000.GameAI.services.BotScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class ChatUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger("ai-player");
@@ -21,14 +19,6 @@ public class ChatUtils {
     private static final int MAX_CHAT_LENGTH = 100;
     private static final long MESSAGE_DELAY_MS = 2500L;
 
-    private static final AtomicInteger CHAT_THREAD_ID = new AtomicInteger(0);
-    // Shared scheduler for delayed chat parts (avoid spawning a new Thread per delayed message part).
-    private static final ScheduledExecutorService CHAT_DELAY_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
-        Thread thread = new Thread(runnable, "chat-utils-delay-" + CHAT_THREAD_ID.incrementAndGet());
-        thread.setDaemon(true);
-        return thread;
-    });
-
     /**
      * Send a message from the bot with optional delay.
      * This method is designed to be called from any thread.
@@ -77,7 +67,8 @@ public class ChatUtils {
 
         // Schedule the next part if there are more to send and a delay is requested.
         if (withDelay && partIndex < messageParts.size() - 1) {
-            CHAT_DELAY_EXECUTOR.schedule(
+            BotScheduler.schedule(
+                    null,
                     () -> server.execute(() -> scheduleAndSendMessages(server, source, messageParts, partIndex + 1, true)),
                     MESSAGE_DELAY_MS,
                     TimeUnit.MILLISECONDS
@@ -0,0 +1,133 @@
+package net.shasankp000.ChatUtils;
+
+import net.minecraft.sound.SoundEvent;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of the dialogue table: exact lines in a hash map, and the regex templates behind a trie of their
+ * literal prefixes, so a line is only tested against templates whose fixed opening it actually starts with.
+ *
+ * <p>Templates are still tried in table order, so the first match wins exactly as in a linear scan. A template
+ * whose regex has no literal opening (or uses alternation) is always a candidate.
+ */
+final class DialogueMatcher {
+
+    private final Map<String, SoundEvent> exact;
+    private final Pattern[] patterns;
+    private final SoundEvent[] sounds;
+    private final Node root = new Node();
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final BitSet ending = new BitSet();
+    }
+
+    DialogueMatcher(Map<String, SoundEvent> exact, Map<Pattern, SoundEvent> patterns) {
+        this.exact = new HashMap<>(exact);
+        this.patterns = patterns.keySet().toArray(new Pattern[0]);
+        this.sounds = patterns.values().toArray(new SoundEvent[0]);
+        for (int i = 0; i < this.patterns.length; i++) {
+            Node node = root;
+            for (char c : literalPrefix(this.patterns[i].pattern()).toCharArray()) {
+                node = node.children.computeIfAbsent(Character.toLowerCase(c), k -> new Node());
+            }
+            node.ending.set(i);
+        }
+    }
+
+    /**
+     * The sound for an already-normalized line, or null.
+     */
+    SoundEvent match(String normalized) {
+        SoundEvent hit = exact.get(normalized);
+        if (hit != null) {
+            return hit;
+        }
+        BitSet candidates = candidates(normalized);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (patterns[i].matcher(normalized).matches()) {
+                return sounds[i];
+            }
+        }
+        return null;
+    }
+
+    /** Templates whose literal prefix the line starts with (compared case-insensitively). */
+    BitSet candidates(String normalized) {
+        BitSet candidates = (BitSet) root.ending.clone();
+        Node node = root;
+        for (int i = 0; i < normalized.length(); i++) {
+            node = node.children.get(Character.toLowerCase(normalized.charAt(i)));
+            if (node == null) {
+                break;
+            }
+            candidates.or(node.ending);
+        }
+        return candidates;
+    }
+
+    /**
+     * The text every match of {@code regex} must begin with. Stops at the first construct that is not a plain or
+     * escaped literal, and drops the last character when it is made optional or repeatable by a quantifier.
+     */
+    static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    break; // \d, \w, \Q and friends are classes or modes, not literals
+                }
+                prefix.append(regex.charAt(++i));
+                continue;
+            }
+            if (c == '?' || c == '*' || c == '{') {
+                if (!prefix.isEmpty()) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+            if (c == '+' || c == '[' || c == '(' || c == '.' || c == '^' || c == '$') {
+                break;
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Small access-ordered cache of recent line-to-sound resolutions, misses included.
+     */
+    static final class RecentLines {
+        private final int capacity;
+        private final LinkedHashMap<String, Optional<SoundEvent>> lines;
+
+        RecentLines(int capacity) {
+            this.capacity = capacity;
+            this.lines = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Optional<SoundEvent>> eldest) {
+                    return size() > RecentLines.this.capacity;
+                }
+            };
+        }
+
+        /** The cached resolution (empty for a known miss), or null if the line is not cached. */
+        synchronized Optional<SoundEvent> get(String text) {
+            return lines.get(text);
+        }
+
+        synchronized void put(String text, SoundEvent sound) {
+            lines.put(text, Optional.ofNullable(sound));
+        }
+    }
+}
@@ -4,8 +4,11 @@ import net.minecraft.sound.SoundEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -28,9 +31,16 @@ public final class DialogueTextMapper {
     // Use LinkedHashMap to maintain insertion order for pattern matching priority
     private static final Map<Pattern, SoundEvent> PATTERN_MAP = new LinkedHashMap<>();
     private static final Map<String, SoundEvent> EXACT_MAP = new LinkedHashMap<>();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int RECENT_LINES = 512;
+
+    private static final DialogueMatcher MATCHER;
+    // Bots repeat the same few lines, so most lookups are answered here without normalizing or matching.
+    private static final DialogueMatcher.RecentLines RECENT = new DialogueMatcher.RecentLines(RECENT_LINES);
 
     static {
         initializeMappings();
+        MATCHER = new DialogueMatcher(EXACT_MAP, PATTERN_MAP);
     }
 
     private DialogueTextMapper() {
@@ -47,27 +57,52 @@ public final class DialogueTextMapper {
             return null;
         }
 
+        Optional<SoundEvent> recent = RECENT.get(text);
+        if (recent != null) {
+            return recent.orElse(null);
+        }
+
         String normalized = normalize(text);
+        // Exact lines first, then the templates whose literal opening the line starts with, in table order
+        SoundEvent sound = MATCHER.match(normalized);
+        if (sound != null) {
+            LOGGER.debug("Sound match for '{}' -> {}", normalized, sound.id());
+        } else {
+            LOGGER.debug("No sound match for: '{}'", normalized);
+        }
+        RECENT.put(text, sound);
+        return sound;
+    }
 
-        // Try exact match first
+    /**
+     * The original linear lookup: exact lines, then every template in order. Kept as the baseline for benchmarks.
+     */
+    static SoundEvent lookupLinear(String text) {
+        String normalized = normalize(text);
         SoundEvent exact = EXACT_MAP.get(normalized);
         if (exact != null) {
-            LOGGER.debug("Exact match for '{}' -> {}", normalized, exact.id());
             return exact;
         }
-
-        // Try pattern matching
         for (Map.Entry<Pattern, SoundEvent> entry : PATTERN_MAP.entrySet()) {
             if (entry.getKey().matcher(normalized).matches()) {
-                LOGGER.debug("Pattern match for '{}' -> {}", normalized, entry.getValue().id());
                 return entry.getValue();
             }
         }
-
-        LOGGER.debug("No sound match for: '{}'", normalized);
         return null;
     }
 
+    /**
+     * Lookup without the recent-lines cache, as paid the first time a line is seen.
+     */
+    static SoundEvent lookupUncached(String text) {
+        return MATCHER.match(normalize(text));
+    }
+
+    /** Every exact line in the table. */
+    static Set<String> exactLines() {
+        return Collections.unmodifiableSet(EXACT_MAP.keySet());
+    }
+
     /**
      * Normalize text for matching:
      * - Convert ellipsis character (…) to three dots (...)
@@ -77,6 +112,9 @@ public final class DialogueTextMapper {
      * - Normalize multiple spaces to single space
      */
     private static String normalize(String text) {
+        if (isNormalized(text)) {
+            return text;
+        }
         return text
                 .replace("…", "...")
                 .replace("—", "-")
@@ -84,10 +122,38 @@ public final class DialogueTextMapper {
                 .replace("\u2018", "'")  // Left single quotation mark
                 .replace("\u201C", "\"") // Left double quotation mark
                 .replace("\u201D", "\"") // Right double quotation mark
-                .replaceAll("\\s+", " ")
+                .transform(s -> WHITESPACE.matcher(s).replaceAll(" "))
                 .trim();
     }
 
+    /**
+     * True when {@link #normalize} would return the text unchanged, which is the case for nearly every bot line.
+     */
+    private static boolean isNormalized(String text) {
+        int length = text.length();
+        if (length == 0 || text.charAt(0) <= ' ' || text.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '…', '—', '\u2019', '\u2018', '\u201C', '\u201D', '\t', '\n', '\u000B', '\f', '\r' -> {
+                    return false;
+                }
+                case ' ' -> {
+                    if (previous == ' ') {
+                        return false;
+                    }
+                }
+                default -> {
+                }
+            }
+            previous = c;
+        }
+        return true;
+    }
+
     /**
      * Create a pattern that matches text with any player name in place of {name}.
      */
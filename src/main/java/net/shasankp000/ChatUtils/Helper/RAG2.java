@@ -1,14 +1,14 @@
 package net.shasankp000.ChatUtils.Helper;
 
-import io.github.amithkoujalgi.ollama4j.core.OllamaAPI;
-import io.github.amithkoujalgi.ollama4j.core.types.OllamaModelType;
 import net.shasankp000.AIPlayer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.shasankp000.ChatUtils.ChatUtils;
+import net.shasankp000.ChatUtils.StreamingChatRelay;
 import net.shasankp000.ChatUtils.NLPProcessor;
 import net.shasankp000.Database.SQLiteDB;
 import net.shasankp000.Overlay.ThinkingStateManager;
 import net.shasankp000.FilingSystem.LLMClientFactory;
+import net.shasankp000.ServiceLLMClients.EmbeddingService;
 import net.shasankp000.ServiceLLMClients.LLMClient;
 import net.shasankp000.WebSearch.WebSearchTool;
 import net.shasankp000.Commands.modCommandRegistry;
@@ -16,6 +16,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,15 +26,8 @@ public class RAG2 {
     private static final Logger logger = LoggerFactory.getLogger("ai-player");
     private static final Pattern THINK_BLOCK = Pattern.compile("<think>([\\s\\S]*?)</think>");
     private static final int TOP_K = 5;
-
-    private static OllamaAPI createOllamaApi() {
-        String baseUrl = (AIPlayer.CONFIG != null)
-                ? AIPlayer.CONFIG.getOllamaBaseUrl()
-                : "http://127.0.0.1:11434";
-        OllamaAPI api = new OllamaAPI(baseUrl);
-        api.setRequestTimeoutSeconds(120);
-        return api;
-    }
+    // Bounds the wait for the query embedding when the embedding backend is slow or unreachable.
+    private static final long EMBED_TIMEOUT_SECONDS = 30L;
 
     private static String buildPrompt() {
         return "You are a context-aware Minecraft player named " + modCommandRegistry.botName + """
@@ -143,8 +138,15 @@ public class RAG2 {
         logger.info("⚡ RAG v2: Running with intent = {} using provider {}", intent, client.getProvider());
 
         try {
-            OllamaAPI embeddingApi = createOllamaApi();
-            List<Double> queryEmbedding = embeddingApi.generateEmbeddings(OllamaModelType.NOMIC_EMBED_TEXT, userPrompt);
+            // Repeated prompts ("follow me", "stop") are served from the embedding cache without a round trip.
+            List<Double> queryEmbedding;
+            try {
+                queryEmbedding = EmbeddingService.embed(userPrompt).get(EMBED_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("⚠️ RAG v2: query embedding timed out after {}s", EMBED_TIMEOUT_SECONDS);
+                ChatUtils.sendChatMessages(botSource, "The embedding backend didn't respond in time. Please try again!");
+                return;
+            }
 
             StringBuilder contextBuilder = new StringBuilder();
 
@@ -185,9 +187,10 @@ public class RAG2 {
             String systemPrompt = buildPrompt();
             String finalUserPrompt = "Context:\n" + contextBuilder.toString().trim() + "\n\nUser prompt:\n" + userPrompt;
 
-            String finalResponse = client.sendPrompt(systemPrompt, finalUserPrompt);
-
-            processLLMOutput(finalResponse, botSource.getName(), botSource);
+            // Stream so the first sentence reaches chat while the rest is still generating.
+            StreamingChatRelay relay = new StreamingChatRelay(botSource, botSource.getName(), botSource.getName() + ": ");
+            client.streamPrompt(systemPrompt, finalUserPrompt, relay);
+            String finalResponse = relay.finish();
 
             // 🔒 Always store final response
             SQLiteDB.storeMemory("conversation", userPrompt, finalResponse, queryEmbedding);
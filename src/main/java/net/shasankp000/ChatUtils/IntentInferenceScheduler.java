@@ -0,0 +1,211 @@
+package net.shasankp000.ChatUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces intent classification requests into batches.
+ *
+ * <p>Prompts submitted within {@link #DEFAULT_WINDOW_MICROS} of the first queued prompt (up to
+ * {@link #DEFAULT_MAX_BATCH}) are classified together: BERT and LIDSNet each get one
+ * {@code Predictor.batchPredict} call, and the three classifiers run concurrently. Once all three finish,
+ * each prompt is resolved on its own virtual thread, since {@code DecisionResolver} may block on the LLM.
+ */
+public final class IntentInferenceScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("NLPProcessor");
+
+    static final long DEFAULT_WINDOW_MICROS = 5_000L;
+    static final int DEFAULT_MAX_BATCH = 16;
+
+    /** One classifier's vote for a prompt; {@link #NONE} when that classifier was unavailable. */
+    record StageResult(String label, double confidence) {
+        static final StageResult NONE = new StageResult(null, 0);
+    }
+
+    /** The stages a batch runs through; {@link IntentPipeline} in production. */
+    interface Backend {
+        NLPProcessor.Intent cached(String prompt);
+
+        List<StageResult> bert(List<String> prompts);
+
+        List<StageResult> cart(List<String> prompts);
+
+        List<StageResult> lidsNet(List<String> prompts);
+
+        NLPProcessor.Intent resolve(String prompt, StageResult bert, StageResult cart, StageResult lidsNet);
+
+        default void recordTotal(long nanos) {
+        }
+    }
+
+    private record Pending(String prompt, CompletableFuture<NLPProcessor.Intent> future, long enqueuedNanos) {
+    }
+
+    private static final class Holder {
+        static final IntentInferenceScheduler SHARED = new IntentInferenceScheduler(new Backend() {
+            @Override
+            public NLPProcessor.Intent cached(String prompt) {
+                return IntentPipeline.cached(prompt);
+            }
+
+            @Override
+            public List<StageResult> bert(List<String> prompts) {
+                return IntentPipeline.runBert(prompts);
+            }
+
+            @Override
+            public List<StageResult> cart(List<String> prompts) {
+                return IntentPipeline.runCart(prompts);
+            }
+
+            @Override
+            public List<StageResult> lidsNet(List<String> prompts) {
+                return IntentPipeline.runLidsNet(prompts);
+            }
+
+            @Override
+            public NLPProcessor.Intent resolve(String prompt, StageResult bert, StageResult cart, StageResult lidsNet) {
+                return IntentPipeline.resolve(prompt, bert, cart, lidsNet);
+            }
+
+            @Override
+            public void recordTotal(long nanos) {
+                IntentPipeline.recordTotal(nanos);
+            }
+        }, DEFAULT_WINDOW_MICROS, DEFAULT_MAX_BATCH);
+    }
+
+    private final Backend backend;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    IntentInferenceScheduler(Backend backend, long windowMicros, int maxBatch) {
+        this.backend = backend;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.dispatcher = new Thread(this::dispatchLoop, "AI-Player-IntentBatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public static IntentInferenceScheduler shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Queues {@code prompt} for the next batch. Cache hits complete immediately.
+     */
+    public CompletableFuture<NLPProcessor.Intent> submit(String prompt) {
+        long start = System.nanoTime();
+        NLPProcessor.Intent cached = backend.cached(prompt);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<NLPProcessor.Intent> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("Intent scheduler is shut down"));
+            return future;
+        }
+        queue.add(new Pending(prompt, future, start));
+        return future;
+    }
+
+    /**
+     * Stops batching; prompts still queued are failed.
+     */
+    void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        workers.shutdown();
+        List<Pending> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(p -> p.future().completeExceptionally(new IllegalStateException("Intent scheduler is shut down")));
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            List<Pending> batch = new ArrayList<>(maxBatch);
+            try {
+                Pending first = queue.take();
+                batch.add(first);
+                long deadline = first.enqueuedNanos() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    Pending next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(p -> p.future().completeExceptionally(e));
+                Thread.currentThread().interrupt();
+                return;
+            }
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        List<String> prompts = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            prompts.add(pending.prompt());
+        }
+
+        CompletableFuture<List<StageResult>> bert = CompletableFuture.supplyAsync(() -> backend.bert(prompts), workers);
+        CompletableFuture<List<StageResult>> cart = CompletableFuture.supplyAsync(() -> backend.cart(prompts), workers);
+        CompletableFuture<List<StageResult>> lidsNet = CompletableFuture.supplyAsync(() -> backend.lidsNet(prompts), workers);
+
+        CompletableFuture.allOf(bert, cart, lidsNet).whenComplete((ignored, error) -> {
+            if (error != null) {
+                LOGGER.error("Intent batch of {} failed: {}", batch.size(), error.getMessage());
+            }
+            List<StageResult> bertResults = resultsOrNone(bert, batch.size());
+            List<StageResult> cartResults = resultsOrNone(cart, batch.size());
+            List<StageResult> lidsResults = resultsOrNone(lidsNet, batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Pending pending = batch.get(i);
+                StageResult b = bertResults.get(i);
+                StageResult c = cartResults.get(i);
+                StageResult l = lidsResults.get(i);
+                CompletableFuture.supplyAsync(() -> backend.resolve(pending.prompt(), b, c, l), workers)
+                        .whenComplete((intent, resolveError) -> {
+                            if (resolveError != null) {
+                                pending.future().completeExceptionally(resolveError);
+                            } else {
+                                backend.recordTotal(System.nanoTime() - pending.enqueuedNanos());
+                                pending.future().complete(intent);
+                            }
+                        });
+            }
+        });
+    }
+
+    private static List<StageResult> resultsOrNone(CompletableFuture<List<StageResult>> stage, int size) {
+        if (!stage.isCompletedExceptionally()) {
+            List<StageResult> results = stage.join();
+            if (results != null && results.size() == size) {
+                return results;
+            }
+        }
+        List<StageResult> none = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            none.add(StageResult.NONE);
+        }
+        return none;
+    }
+}
@@ -0,0 +1,458 @@
+package net.shasankp000.ChatUtils;
+
+import ai.djl.modality.Classifications;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.fabricmc.loader.api.FabricLoader;
+import net.shasankp000.AIPlayer;
+import net.shasankp000.ChatUtils.CART.CartClassifier;
+import net.shasankp000.ChatUtils.DecisionResolver.DecisionResolver;
+import net.shasankp000.ChatUtils.LIDSNetModel.LIDSNetModelManager;
+import net.shasankp000.ChatUtils.PreProcessing.OpenNLPProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Long-lived intent classification pipeline behind {@link NLPProcessor#getIntention(String)}.
+ *
+ * <p>The CART tree, OpenNLP models and LIDSNet feature map are parsed once and kept in memory; BERT and
+ * LIDSNet stay loaded in their managers. Model files are re-checked every few seconds and any component
+ * whose files changed is reloaded in place. Results are memoised in an LRU keyed on the normalised prompt,
+ * which is cleared whenever a model reloads. Each stage records its latency for {@link #metricsSummary()}.
+ */
+public final class IntentPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("NLPProcessor");
+
+    private static final int CACHE_CAPACITY = 512;
+    private static final long RELOAD_CHECK_INTERVAL_MS = 5_000L;
+
+    private static final Path MODEL_DIR = FabricLoader.getInstance().getConfigDir().resolve("ai-player/NLPModels");
+    private static final Path CART_DIR = MODEL_DIR.resolve("cart_files");
+    private static final Path CART_TREE = CART_DIR.resolve("cart_tree.json");
+    private static final Path CART_LABELS = CART_DIR.resolve("cart_class_labels.json");
+    private static final Path CART_VOCAB = CART_DIR.resolve("cart_vectorizer_vocab.json");
+    private static final Path OPEN_NLP_DIR = MODEL_DIR.resolve("OpenNLPModels");
+    private static final Path LIDSNET_DIR = MODEL_DIR.resolve("LIDSNet_torchscript/").resolve("LIDSNet_torchscript/");
+    private static final Path LIDSNET_FEATURE_MAP = LIDSNET_DIR.resolve("lidsnet_feature_map.json");
+    private static final Path LIDSNET_MODEL = LIDSNET_DIR.resolve("LIDSNet_intent_detect.pt");
+    private static final Path BERT_DIR = MODEL_DIR.resolve("distilbert-finetuned-intent-torchscript/");
+
+    public enum Stage { CART, BERT, LIDSNET, RESOLVE, TOTAL }
+
+    private static final Map<String, NLPProcessor.Intent> CACHE = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NLPProcessor.Intent> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+    private static final Map<Stage, StageStats> STATS = new LinkedHashMap<>();
+
+    static {
+        for (Stage stage : Stage.values()) {
+            STATS.put(stage, new StageStats());
+        }
+    }
+
+    private static final DecisionResolver RESOLVER = new DecisionResolver();
+
+    private static volatile CartClassifier cart;
+    private static volatile OpenNLPProcessor openNlp;
+    private static volatile LidsFeatures lidsFeatures;
+
+    private static long cartFingerprint = Long.MIN_VALUE;
+    private static long openNlpFingerprint = Long.MIN_VALUE;
+    private static long lidsFeatureFingerprint = Long.MIN_VALUE;
+    private static long lidsModelFingerprint = Long.MIN_VALUE;
+    private static long bertFingerprint = Long.MIN_VALUE;
+    private static volatile long lastReloadCheckMs;
+
+    private IntentPipeline() {
+    }
+
+    /** Class names and feature layout read from {@code lidsnet_feature_map.json}. */
+    private record LidsFeatures(List<String> classNames, List<String> featureNames) {
+    }
+
+    private static final class StageStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Lower-cased, trimmed, whitespace-collapsed prompt used as the cache key.
+     */
+    static String normalize(String prompt) {
+        return prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Classifies one prompt on the calling thread. Chat handlers go through {@link IntentInferenceScheduler},
+     * which batches concurrent prompts into the same stage methods.
+     */
+    public static NLPProcessor.Intent classify(String userPrompt) {
+        long start = System.nanoTime();
+        NLPProcessor.Intent cached = cached(userPrompt);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> prompts = Collections.singletonList(userPrompt);
+        NLPProcessor.Intent resolved = resolve(userPrompt,
+                runBert(prompts).get(0), runCart(prompts).get(0), runLidsNet(prompts).get(0));
+        recordTotal(System.nanoTime() - start);
+        return resolved;
+    }
+
+    /**
+     * Cached intent for {@code userPrompt}, or null on a miss. Also triggers the periodic model reload check.
+     */
+    static NLPProcessor.Intent cached(String userPrompt) {
+        refreshIfStale();
+        NLPProcessor.Intent cached = null;
+        if (userPrompt != null) {
+            String key = normalize(userPrompt);
+            synchronized (CACHE) {
+                cached = CACHE.get(key);
+            }
+        }
+        if (cached != null) {
+            CACHE_HITS.increment();
+        } else {
+            CACHE_MISSES.increment();
+        }
+        return cached;
+    }
+
+    static List<IntentInferenceScheduler.StageResult> runBert(List<String> prompts) {
+        List<IntentInferenceScheduler.StageResult> results = emptyResults(prompts.size());
+        if (AIPlayer.modelManager == null || !AIPlayer.isDjlAvailable()) {
+            return results;
+        }
+        long stageStart = System.nanoTime();
+        try {
+            List<Classifications> intents = AIPlayer.modelManager.batchPredict(prompts);
+            for (int i = 0; i < intents.size(); i++) {
+                Classifications intent = intents.get(i);
+                if (intent != null) {
+                    String bertLabel = intent.best().getClassName();
+                    double bertClassificationConfidence = intent.best().getProbability();
+                    results.set(i, new IntentInferenceScheduler.StageResult(bertLabel, bertClassificationConfidence));
+
+                    LOGGER.info("BERT predicted: {} with confidence: {}", bertLabel, bertClassificationConfidence);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error predicting intent using BERT: {}", e.getMessage());
+        }
+        STATS.get(Stage.BERT).record(System.nanoTime() - stageStart);
+        return results;
+    }
+
+    static List<IntentInferenceScheduler.StageResult> runCart(List<String> prompts) {
+        List<IntentInferenceScheduler.StageResult> results = emptyResults(prompts.size());
+        long stageStart = System.nanoTime();
+        try {
+            CartClassifier cartClassifier = cart;
+            if (cartClassifier == null) {
+                throw new Exception("CART classifier is null!");
+            }
+            for (int i = 0; i < prompts.size(); i++) {
+                CartClassifier.ClassificationResult result = cartClassifier.classify(prompts.get(i));
+                results.set(i, new IntentInferenceScheduler.StageResult(result.label, result.confidence));
+
+                LOGGER.info("CART predicted: {} with confidence: {}", result.label, result.confidence);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error predicting intent using CART: {}", e.getMessage());
+        }
+        STATS.get(Stage.CART).record(System.nanoTime() - stageStart);
+        return results;
+    }
+
+    static List<IntentInferenceScheduler.StageResult> runLidsNet(List<String> prompts) {
+        List<IntentInferenceScheduler.StageResult> results = emptyResults(prompts.size());
+        if (!AIPlayer.isDjlAvailable()) {
+            return results;
+        }
+        long stageStart = System.nanoTime();
+        try {
+            LidsFeatures features = lidsFeatures;
+            OpenNLPProcessor nlp = openNlp;
+            if (features == null || nlp == null) {
+                throw new IOException("LIDSNet feature map or OpenNLP models not loaded");
+            }
+
+            List<float[]> inputVectors = new ArrayList<>(prompts.size());
+            for (String userPrompt : prompts) {
+                inputVectors.add(featureVector(nlp, features.featureNames(), userPrompt));
+            }
+
+            LIDSNetModelManager lidsNet = LIDSNetModelManager.getInstance(LIDSNET_DIR);
+            lidsNet.loadModel(features.classNames());
+            List<Classifications> predictions = lidsNet.batchPredict(inputVectors, features.classNames());
+
+            for (int i = 0; i < predictions.size(); i++) {
+                Classifications.Classification best = predictions.get(i).best();
+                double confidencePercentage = best.getProbability() * 100.0;
+
+                System.out.printf("[LIDSNet Classifier] Sentence: \"%s\"\nPredicted intent: %s (Confidence: %.2f%%)\n",
+                        prompts.get(i), best.getClassName(), confidencePercentage);
+
+                results.set(i, new IntentInferenceScheduler.StageResult(best.getClassName(), confidencePercentage));
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error while running inference: {}", e.getMessage());
+        }
+        STATS.get(Stage.LIDSNET).record(System.nanoTime() - stageStart);
+        return results;
+    }
+
+    private static float[] featureVector(OpenNLPProcessor nlp, List<String> featureNames, String userPrompt) {
+        List<OpenNLPProcessor.TokenInfo> tokens;
+        // The OpenNLP ME taggers keep per-call state and are not thread-safe.
+        synchronized (nlp) {
+            tokens = nlp.analyze(userPrompt);
+        }
+
+        Set<String> presentFeatures = new HashSet<>();
+        for (OpenNLPProcessor.TokenInfo token : tokens) {
+            presentFeatures.add("POS=" + token.posTag);
+            presentFeatures.add("lemma=" + token.lemma);
+        }
+
+        float[] inputVector = new float[featureNames.size()];
+        for (int i = 0; i < featureNames.size(); i++) {
+            inputVector[i] = presentFeatures.contains(featureNames.get(i)) ? 1.0f : 0.0f;
+        }
+        return inputVector;
+    }
+
+    /**
+     * Combines the three classifier votes through {@link DecisionResolver} and caches the outcome.
+     */
+    static NLPProcessor.Intent resolve(String userPrompt,
+                                       IntentInferenceScheduler.StageResult bert,
+                                       IntentInferenceScheduler.StageResult cartResult,
+                                       IntentInferenceScheduler.StageResult lidsNet) {
+        String decision = null;
+        long stageStart = System.nanoTime();
+        try {
+            decision = RESOLVER.resolveIntent(
+                    // Player message
+                    userPrompt,
+                    // BERT model
+                    bert.label(), bert.confidence(),
+                    // Main CART
+                    cartResult.label(), cartResult.confidence(),
+                    // LIDSNet
+                    lidsNet.label(), lidsNet.confidence()
+            );
+        } catch (Exception e) {
+            LOGGER.error("Error while resolving the final decision: {}", e.getMessage());
+        }
+        STATS.get(Stage.RESOLVE).record(System.nanoTime() - stageStart);
+
+        NLPProcessor.Intent resolvedIntent = NLPProcessor.Intent.valueOf(decision);
+        if (resolvedIntent != NLPProcessor.Intent.REQUEST_ACTION && NLPProcessor.looksLikeDirectCommand(userPrompt)) {
+            resolvedIntent = NLPProcessor.Intent.REQUEST_ACTION;
+        }
+
+        if (userPrompt != null) {
+            String key = normalize(userPrompt);
+            synchronized (CACHE) {
+                CACHE.put(key, resolvedIntent);
+            }
+        }
+        return resolvedIntent;
+    }
+
+    static void recordTotal(long nanos) {
+        STATS.get(Stage.TOTAL).record(nanos);
+    }
+
+    private static List<IntentInferenceScheduler.StageResult> emptyResults(int size) {
+        return new ArrayList<>(Collections.nCopies(size, IntentInferenceScheduler.StageResult.NONE));
+    }
+
+    /**
+     * One line per stage: count, mean and max latency in milliseconds, plus cache hit rate.
+     */
+    public static String metricsSummary() {
+        StringBuilder sb = new StringBuilder("Intent pipeline: cache ")
+                .append(CACHE_HITS.sum()).append(" hits / ").append(CACHE_MISSES.sum()).append(" misses");
+        for (Map.Entry<Stage, StageStats> entry : STATS.entrySet()) {
+            StageStats stats = entry.getValue();
+            long count = stats.count.sum();
+            double mean = count == 0 ? 0.0 : stats.totalNanos.sum() / (double) count / 1_000_000.0;
+            sb.append(String.format(Locale.ROOT, "%n  %-8s n=%d mean=%.2fms max=%.2fms",
+                    entry.getKey(), count, mean, stats.maxNanos.get() / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Loading and hot reload
+
+    private static void refreshIfStale() {
+        long now = System.currentTimeMillis();
+        if (now - lastReloadCheckMs < RELOAD_CHECK_INTERVAL_MS) {
+            return;
+        }
+        reloadChanged();
+    }
+
+    /**
+     * Reloads every component whose model files changed since it was last loaded. Also loads components
+     * for the first time, so it can be called eagerly once the model downloads have finished.
+     */
+    public static synchronized void reloadChanged() {
+        lastReloadCheckMs = System.currentTimeMillis();
+        boolean changed = false;
+
+        long fingerprint = fingerprint(CART_TREE, CART_LABELS, CART_VOCAB);
+        if (fingerprint != cartFingerprint) {
+            cartFingerprint = fingerprint;
+            changed = true;
+            try {
+                cart = new CartClassifier(CART_TREE.toFile(), CART_LABELS.toFile(), CART_VOCAB.toFile());
+            } catch (Exception e) {
+                cart = null;
+                LOGGER.error("Error initializing CART classifier! {}", e.getMessage());
+            }
+        }
+
+        fingerprint = fingerprint(OPEN_NLP_DIR);
+        if (fingerprint != openNlpFingerprint) {
+            openNlpFingerprint = fingerprint;
+            changed = true;
+            try {
+                openNlp = new OpenNLPProcessor(OPEN_NLP_DIR.toString());
+            } catch (Exception e) {
+                openNlp = null;
+                LOGGER.error("Error loading OpenNLP models: {}", e.getMessage());
+            }
+        }
+
+        fingerprint = fingerprint(LIDSNET_FEATURE_MAP);
+        if (fingerprint != lidsFeatureFingerprint) {
+            lidsFeatureFingerprint = fingerprint;
+            changed = true;
+            lidsFeatures = loadLidsFeatures();
+        }
+
+        fingerprint = fingerprint(LIDSNET_MODEL);
+        if (fingerprint != lidsModelFingerprint) {
+            boolean firstCheck = lidsModelFingerprint == Long.MIN_VALUE;
+            lidsModelFingerprint = fingerprint;
+            changed = true;
+            if (!firstCheck) {
+                try {
+                    // Reloaded lazily by the next prediction.
+                    LIDSNetModelManager.getInstance(LIDSNET_DIR).unloadModel();
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to unload LIDSNet for reload: {}", e.getMessage());
+                }
+            }
+        }
+
+        fingerprint = fingerprint(BERT_DIR);
+        if (fingerprint != bertFingerprint) {
+            boolean firstCheck = bertFingerprint == Long.MIN_VALUE;
+            bertFingerprint = fingerprint;
+            changed = true;
+            if (!firstCheck && AIPlayer.modelManager != null && AIPlayer.modelManager.isModelLoaded()) {
+                try {
+                    AIPlayer.modelManager.unloadModel();
+                    AIPlayer.modelManager.loadModel();
+                    LOGGER.info("BERT intent model reloaded after files changed on disk.");
+                } catch (Exception e) {
+                    LOGGER.error("BERT intent model reload failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        if (changed) {
+            clearCache();
+            LOGGER.info("Intent pipeline models (re)loaded; result cache cleared.");
+        }
+    }
+
+    private static LidsFeatures loadLidsFeatures() {
+        try {
+            JsonNode root = new ObjectMapper().readTree(new File(LIDSNET_FEATURE_MAP.toString()));
+
+            // Class label index map
+            TreeMap<Integer, String> classIdxMap = new TreeMap<>();
+            root.get("idx2label").fields().forEachRemaining(entry ->
+                    classIdxMap.put(Integer.parseInt(entry.getKey()), entry.getValue().asText())
+            );
+
+            List<String> featureNames = new ArrayList<>();
+            root.get("features").forEach(f -> featureNames.add(f.asText()));
+            return new LidsFeatures(List.copyOf(classIdxMap.values()), List.copyOf(featureNames));
+        } catch (Exception e) {
+            LOGGER.error("Error loading LIDSNet feature map: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cheap change detector: size and modification time of each file (directories are walked one level).
+     */
+    private static long fingerprint(Path... paths) {
+        long hash = 17;
+        for (Path path : paths) {
+            try {
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> children = Files.list(path)) {
+                        for (Path child : (Iterable<Path>) children.sorted()::iterator) {
+                            hash = hash * 31 + child.getFileName().hashCode();
+                            hash = hash * 31 + Files.size(child);
+                            hash = hash * 31 + Files.getLastModifiedTime(child).toMillis();
+                        }
+                    }
+                } else if (Files.exists(path)) {
+                    hash = hash * 31 + Files.size(path);
+                    hash = hash * 31 + Files.getLastModifiedTime(path).toMillis();
+                } else {
+                    hash = hash * 31 - 1;
+                }
+            } catch (IOException e) {
+                hash = hash * 31 - 2;
+            }
+        }
+        return hash;
+    }
+}
@@ -114,6 +114,23 @@ public class LIDSNetModelManager {
         }
     }
 
+    /**
+     * Classifies several feature vectors in one forward pass.
+     */
+    public List<Classifications> batchPredict(List<float[]> featureVectors, List<String> classNames) throws Exception {
+        lock.readLock().lock();
+        try {
+            if (!isModelLoaded) {
+                lock.readLock().unlock();
+                loadModel(classNames);
+                lock.readLock().lock();
+            }
+            return predictor.batchPredict(featureVectors);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     // Optional: result wrapper
     public PredictionResult predictWithConfidence(float[] featureVector, List<String> classNames) throws Exception {
         Classifications classifications = predict(featureVector, classNames);
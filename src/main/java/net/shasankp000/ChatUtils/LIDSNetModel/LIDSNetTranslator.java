@@ -18,20 +18,20 @@ public class LIDSNetTranslator implements Translator<float[], Classifications> {
 
     @Override
     public NDList processInput(TranslatorContext ctx, float[] input) {
-        // Shape: [1, input_dim]
-        NDArray array = ctx.getNDManager().create(input).reshape(1, input.length);
+        // Shape: [input_dim]; the STACK batchifier adds the batch axis.
+        NDArray array = ctx.getNDManager().create(input);
         return new NDList(array);
     }
 
     @Override
     public Classifications processOutput(TranslatorContext ctx, NDList list) throws Exception {
-        NDArray output = list.singletonOrThrow();   // Shape: [1, num_classes]
-        NDArray prob = output.softmax(1);           // Shape preserved
+        NDArray output = list.singletonOrThrow();   // Shape: [num_classes] after unbatchify
+        NDArray prob = output.softmax(-1);          // Shape preserved
         return new Classifications(classNames, prob);
     }
 
     @Override
     public Batchifier getBatchifier() {
-        return null; // Set to Batchifier.STACK for batch inference
+        return Batchifier.STACK; // Fixed-length feature vectors stack into [batch, input_dim]
     }
 }
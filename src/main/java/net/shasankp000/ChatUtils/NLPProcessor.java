@@ -1,18 +1,11 @@
 package net.shasankp000.ChatUtils;
 
-import ai.djl.modality.Classifications;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.amithkoujalgi.ollama4j.core.OllamaAPI;
 import io.github.amithkoujalgi.ollama4j.core.models.chat.*;
 
 import net.fabricmc.loader.api.FabricLoader;
 import net.shasankp000.AIPlayer;
-import net.shasankp000.ChatUtils.CART.CartClassifier;
-import net.shasankp000.ChatUtils.DecisionResolver.DecisionResolver;
-import net.shasankp000.ChatUtils.LIDSNetModel.LIDSNetModelManager;
 import net.shasankp000.ChatUtils.PreProcessing.NLPModelSetup;
-import net.shasankp000.ChatUtils.PreProcessing.OpenNLPProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -387,7 +380,7 @@ public class NLPProcessor {
 
 
 
-    private static boolean looksLikeDirectCommand(String userPrompt) {
+    static boolean looksLikeDirectCommand(String userPrompt) {
         if (userPrompt == null) {
             return false;
         }
@@ -412,149 +405,19 @@ public class NLPProcessor {
     // Primary local prediction entry
     // -------------------------------
 
+    /**
+     * Classifies a player message. Models are loaded once and cached by {@link IntentPipeline}; concurrent
+     * calls are batched by {@link IntentInferenceScheduler}.
+     */
     public static Intent getIntention(String userPrompt) {
-        Path configDir = FabricLoader.getInstance().getConfigDir();
-        Path modelDir = configDir.resolve("ai-player/NLPModels");
-        Path cartDir = modelDir.resolve("cart_files");
-        Path vocabFilePath = cartDir.resolve("cart_vectorizer_vocab.json");
-        Path labelsFilePath = cartDir.resolve("cart_class_labels.json");
-        Path treeFilePath = cartDir.resolve("cart_tree.json");
-        Path openNlpModelsDir = modelDir.resolve("OpenNLPModels");
-        Path LidsNetModelDir = modelDir.resolve("LIDSNet_torchscript/");
-
-        double bertClassificationConfidence = 0;
-        double cartClassificationConfidence = 0;
-        double LIDSNetClassificationConfidence = 0;
-
-        CartClassifier cartClassifier = null;
-
-        try {
-            File vocabFile = vocabFilePath.toFile();
-            File labelFile = labelsFilePath.toFile();
-            File treeFile = treeFilePath.toFile();
-
-            cartClassifier = new CartClassifier(treeFile, labelFile, vocabFile);
-        } catch (IOException e) {
-            LOGGER.error("Error initializing CART classifier! {}", e.getMessage());
-        }
-
-
-        String bertLabel = null;
-        String cartLabel = null;
-        String LIDSNetLabel = null;
-        String decision = null;
-
-        if (AIPlayer.modelManager != null && AIPlayer.isDjlAvailable()) {
-            try {
-                Classifications intent = AIPlayer.modelManager.predict(userPrompt);
-                if (intent != null) {
-                    bertLabel = intent.best().getClassName();
-                    bertClassificationConfidence = intent.best().getProbability();
-
-                    LOGGER.info("BERT predicted: {} with confidence: {}", bertLabel, bertClassificationConfidence);
-                }
-            } catch (Exception e) {
-                LOGGER.error("Error predicting intent using BERT: {}", e.getMessage());
-            }
-        }
-
         try {
-            if (cartClassifier != null) {
-                CartClassifier.ClassificationResult result = cartClassifier.classify(userPrompt);
-                cartLabel = result.label;
-                cartClassificationConfidence = result.confidence;
-
-                LOGGER.info("CART predicted: {} with confidence: {}", cartLabel, cartClassificationConfidence);
-            }
-            else {
-                throw new Exception("CART classifier is null!");
-            }
-
-        } catch (Exception e) {
-            LOGGER.error("Error predicting intent using CART: {}", e.getMessage());
-        }
-
-        if (AIPlayer.isDjlAvailable()) {
-            try {
-
-                // --- 1. Load Feature Map JSON ---
-                ObjectMapper mapper = new ObjectMapper();
-                Path actualLidsNetModelDir = LidsNetModelDir.resolve("LIDSNet_torchscript/");
-                JsonNode root = mapper.readTree(new File(actualLidsNetModelDir.resolve("lidsnet_feature_map.json").toString()));
-
-                // Class label index map
-                TreeMap<Integer, String> classIdxMap = new TreeMap<>();
-                root.get("idx2label").fields().forEachRemaining(entry ->
-                        classIdxMap.put(Integer.parseInt(entry.getKey()), entry.getValue().asText())
-                );
-                List<String> classNames = new ArrayList<>(classIdxMap.values());
-
-                // Feature names
-                List<String> featureNames = new ArrayList<>();
-                root.get("features").forEach(f -> featureNames.add(f.asText()));
-
-                // --- 2. Initialize NLP processor ---
-                OpenNLPProcessor openNLP = new OpenNLPProcessor(openNlpModelsDir.toString());
-
-                // --- 3. Analyze user input ---
-                List<OpenNLPProcessor.TokenInfo> tokens = openNLP.analyze(userPrompt);
-
-                // --- 4. Build symbolic feature set ---
-                Set<String> presentFeatures = new HashSet<>();
-                for (OpenNLPProcessor.TokenInfo token : tokens) {
-                    presentFeatures.add("POS=" + token.posTag);
-                    presentFeatures.add("lemma=" + token.lemma);
-                }
-
-                // --- 5. Construct input vector ---
-                float[] inputVector = new float[featureNames.size()];
-                for (int i = 0; i < featureNames.size(); i++) {
-                    inputVector[i] = presentFeatures.contains(featureNames.get(i)) ? 1.0f : 0.0f;
-                }
-
-                // --- 6. Classify ---
-                LIDSNetModelManager lidsNet = LIDSNetModelManager.getInstance(actualLidsNetModelDir);
-                lidsNet.loadModel(classNames);
-                LIDSNetModelManager.PredictionResult pred = lidsNet.predictWithConfidence(inputVector, classNames);
-
-                // --- 7. Output
-                System.out.printf("[LIDSNet Classifier] Sentence: \"%s\"\nPredicted intent: %s (Confidence: %.2f%%)\n",
-                        userPrompt, pred.getClassName(), pred.getConfidencePercentage());
-
-                LIDSNetLabel = pred.getClassName();
-                LIDSNetClassificationConfidence = pred.getConfidencePercentage();
-
-
-            }
-            catch (Exception e) {
-                LOGGER.error("Error while running inference: {}", e.getMessage());
+            return IntentInferenceScheduler.shared().submit(userPrompt).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
         }
-
-
-
-        try {
-            DecisionResolver resolver = new DecisionResolver();
-            decision = resolver.resolveIntent(
-                    // Player message
-                    userPrompt,
-                    // BERT model
-                    bertLabel, bertClassificationConfidence,
-                    // Main CART
-                    cartLabel, cartClassificationConfidence,
-                    // LIDSNet
-                    LIDSNetLabel, LIDSNetClassificationConfidence
-            );
-        } catch (Exception e) {
-            LOGGER.error("Error while resolving the final decision: {}", e.getMessage());
-        }
-
-        Intent resolvedIntent = Intent.valueOf(decision);
-        if (resolvedIntent != Intent.REQUEST_ACTION && looksLikeDirectCommand(userPrompt)) {
-            resolvedIntent = Intent.REQUEST_ACTION;
-        }
-
-        return resolvedIntent;
     }
 
 
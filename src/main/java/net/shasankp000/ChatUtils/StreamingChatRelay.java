@@ -0,0 +1,144 @@
+package net.shasankp000.ChatUtils;
+
+import net.minecraft.server.command.ServerCommandSource;
+import net.shasankp000.Overlay.ThinkingStateManager;
+import net.shasankp000.ServiceLLMClients.LLMStreamListener;
+
+/**
+ * Turns a streamed LLM reply into chat lines while it is still being generated.
+ *
+ * <p>Text is sent a sentence (or line) at a time once enough has arrived, so the first words reach the
+ * player long before the full completion. {@code <think>...</think>} blocks go to the thinking overlay
+ * with the same "is thinking..." / "is done thinking!" markers as the buffered path. Call {@link #finish()}
+ * once the stream ends to flush the tail and get the complete text.
+ */
+public final class StreamingChatRelay implements LLMStreamListener {
+
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+    private static final int MIN_SENTENCE_CHARS = 40;
+
+    private final ServerCommandSource botSource;
+    private final String botName;
+    private final String linePrefix;
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder full = new StringBuilder();
+    private boolean thinking;
+
+    /**
+     * @param linePrefix Prepended to every spoken line, e.g. {@code "Bob: "}; may be empty
+     */
+    public StreamingChatRelay(ServerCommandSource botSource, String botName, String linePrefix) {
+        this.botSource = botSource;
+        this.botName = botName;
+        this.linePrefix = linePrefix == null ? "" : linePrefix;
+    }
+
+    @Override
+    public boolean onToken(String chunk) {
+        full.append(chunk);
+        pending.append(chunk);
+        drain(false);
+        return true;
+    }
+
+    /**
+     * Flushes whatever is still buffered and returns the complete response text.
+     */
+    public String finish() {
+        drain(true);
+        return full.toString();
+    }
+
+    private void drain(boolean end) {
+        while (true) {
+            if (thinking) {
+                int close = pending.indexOf(THINK_CLOSE);
+                if (close < 0) {
+                    int lastNewline = pending.lastIndexOf("\n");
+                    if (end) {
+                        appendThoughts(pending.toString());
+                        pending.setLength(0);
+                        endThinking();
+                    } else if (lastNewline >= 0) {
+                        appendThoughts(pending.substring(0, lastNewline));
+                        pending.delete(0, lastNewline + 1);
+                    }
+                    return;
+                }
+                appendThoughts(pending.substring(0, close));
+                pending.delete(0, close + THINK_CLOSE.length());
+                endThinking();
+                continue;
+            }
+
+            int open = pending.indexOf(THINK_OPEN);
+            if (open >= 0) {
+                say(pending.substring(0, open));
+                pending.delete(0, open + THINK_OPEN.length());
+                thinking = true;
+                ThinkingStateManager.start(botName);
+                ChatUtils.sendChatMessages(botSource, botName + " is thinking...", false);
+                continue;
+            }
+
+            if (end) {
+                say(pending.toString());
+                pending.setLength(0);
+                return;
+            }
+            int boundary = sentenceBoundary();
+            if (boundary > 0) {
+                say(pending.substring(0, boundary));
+                pending.delete(0, boundary);
+            }
+            return;
+        }
+    }
+
+    /**
+     * End of the last complete sentence or line worth sending now, or -1. Text that could be the start of a
+     * {@code <think>} tag is never split off.
+     */
+    private int sentenceBoundary() {
+        int limit = pending.length();
+        int tag = pending.lastIndexOf("<");
+        if (tag >= 0 && THINK_OPEN.startsWith(pending.substring(tag))) {
+            limit = tag;
+        }
+        int boundary = -1;
+        for (int i = 0; i < limit; i++) {
+            char c = pending.charAt(i);
+            if (c == '\n') {
+                boundary = i + 1;
+            } else if ((c == '.' || c == '!' || c == '?') && i + 1 < limit
+                    && Character.isWhitespace(pending.charAt(i + 1)) && i + 1 >= MIN_SENTENCE_CHARS) {
+                boundary = i + 1;
+            }
+        }
+        return boundary;
+    }
+
+    private void say(String text) {
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                ChatUtils.sendChatMessages(botSource, linePrefix + trimmed, false);
+            }
+        }
+    }
+
+    private void appendThoughts(String text) {
+        for (String line : text.split("\n")) {
+            if (!line.isBlank()) {
+                ThinkingStateManager.appendThoughtLine(line.trim());
+            }
+        }
+    }
+
+    private void endThinking() {
+        thinking = false;
+        ThinkingStateManager.end();
+        ChatUtils.sendChatMessages(botSource, botName + " is done thinking!", false);
+    }
+}
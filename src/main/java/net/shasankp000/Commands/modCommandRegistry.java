@@ -8,6 +8,7 @@ import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.block.BlockState;
 import net.minecraft.command.argument.BlockPosArgumentType;
 import net.minecraft.command.argument.EntityArgumentType;
@@ -44,6 +45,7 @@ import net.shasankp000.ChatUtils.BotDialogueSounds;
 import net.shasankp000.ChatUtils.ChatUtils;
 import net.shasankp000.DangerZoneDetector.DangerZoneDetector;
 import net.shasankp000.Database.QTableExporter;
+import net.shasankp000.Database.QTableStorage;
 import net.shasankp000.Entity.AutoFaceEntity;
 import net.shasankp000.Entity.LookController;
 import net.shasankp000.Entity.RayCasting;
@@ -53,6 +55,8 @@ import net.shasankp000.FilingSystem.LLMClientFactory;
 import net.shasankp000.FilingSystem.ManualConfig;
 import net.shasankp000.AIPlayer;
 import net.shasankp000.GameAI.BotEventHandler;
+import net.shasankp000.GameAI.services.BotScheduler;
+import net.shasankp000.GameAI.services.BotPerfService;
 import net.shasankp000.GameAI.services.BotPersistenceService;
 import net.shasankp000.GameAI.services.BotHomeService;
 import net.shasankp000.GameAI.services.BotIdleHobbiesService;
@@ -60,6 +64,7 @@ import net.shasankp000.GameAI.services.SafePositionService;
 import net.shasankp000.GameAI.State;
 import net.shasankp000.GameAI.StateActions;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.ObjectOutputStream;
 import net.shasankp000.OllamaClient.ollamaClient;
 import net.shasankp000.PathFinding.ChartPathToBlock;
@@ -98,9 +103,6 @@ import org.slf4j.LoggerFactory;
 import java.util.*;
 import net.minecraft.entity.ItemEntity;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -122,8 +124,6 @@ import net.shasankp000.PacketHandler.InputPacketHandler;
 
 public class modCommandRegistry {
 
-    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private static final ExecutorService skillExecutor = Executors.newCachedThreadPool();
     static final double DEFAULT_GUARD_RADIUS = 6.0D;
     public static boolean isTrainingMode = false;
     public static boolean enableReinforcementLearning = false;
@@ -210,6 +210,75 @@ public class modCommandRegistry {
 	                                        })
 	                                )
 	                        )
+                        // Tick-budget profiler: /bot perf, /bot perf dump, /bot perf record_world, /bot perf reset, /bot perf budget <ms>, /bot perf <on|off>
+                        .then(literal("perf")
+                                .executes(context -> {
+                                    ServerCommandSource source = context.getSource();
+                                    for (String line : BotPerfService.summaryLines(4)) {
+                                        ChatUtils.sendSystemMessage(source, line);
+                                    }
+                                    ChatUtils.sendSystemMessage(source, BotScheduler.metricsSummary());
+                                    ChatUtils.sendSystemMessage(source, net.shasankp000.GameAI.services.WorldAccessService.metricsSummary());
+                                    ChatUtils.sendSystemMessage(source, net.shasankp000.PathFinding.PathPlannerService.metricsSummary());
+                                    ChatUtils.sendSystemMessage(source, net.shasankp000.GameAI.services.DebugFileLogger.metricsSummary());
+                                    ChatUtils.sendSystemMessage(source, net.shasankp000.ServiceLLMClients.EmbeddingService.metricsSummary());
+                                    ChatUtils.sendSystemMessage(source, net.shasankp000.ChatUtils.IntentPipeline.metricsSummary());
+                                    return 1;
+                                })
+                                .then(literal("dump")
+                                        .executes(context -> {
+                                            try {
+                                                java.nio.file.Path dir = BotPerfService.dump();
+                                                ChatUtils.sendSystemMessage(context.getSource(), "Perf dump written to " + dir);
+                                                return 1;
+                                            } catch (IOException e) {
+                                                context.getSource().sendError(Text.literal("Failed to write perf dump: " + e.getMessage()));
+                                                return 0;
+                                            }
+                                        })
+                                )
+                                // Saves the walkability sections cached for this world for the JMH benchmarks (-Dbench.world=...)
+                                .then(literal("record_world")
+                                        .executes(context -> {
+                                            ServerCommandSource source = context.getSource();
+                                            java.nio.file.Path file = FabricLoader.getInstance().getConfigDir()
+                                                    .resolve("ai-player").resolve("perf").resolve("walkability.bin");
+                                            try {
+                                                int sections = net.shasankp000.PathFinding.WalkabilityCache.exportSections(source.getWorld(), file);
+                                                ChatUtils.sendSystemMessage(source, "Recorded " + sections + " cached sections to " + file);
+                                                return 1;
+                                            } catch (IOException e) {
+                                                source.sendError(Text.literal("Failed to record world: " + e.getMessage()));
+                                                return 0;
+                                            }
+                                        })
+                                )
+                                .then(literal("reset")
+                                        .executes(context -> {
+                                            BotPerfService.reset();
+                                            ChatUtils.sendSystemMessage(context.getSource(), "Perf counters cleared");
+                                            return 1;
+                                        })
+                                )
+                                .then(literal("budget")
+                                        .then(CommandManager.argument("ms", DoubleArgumentType.doubleArg(0.05D, 50.0D))
+                                                .executes(context -> {
+                                                    BotPerfService.setBudgetMs(DoubleArgumentType.getDouble(context, "ms"));
+                                                    ChatUtils.sendSystemMessage(context.getSource(),
+                                                            String.format(java.util.Locale.ROOT, "Per-bot tick budget set to %.2f ms", BotPerfService.budgetMs()));
+                                                    return 1;
+                                                })
+                                        )
+                                )
+                                .then(CommandManager.argument("mode", StringArgumentType.string())
+                                        .executes(context -> {
+                                            boolean enabled = parseToggle(StringArgumentType.getString(context, "mode"));
+                                            BotPerfService.setEnabled(enabled);
+                                            ChatUtils.sendSystemMessage(context.getSource(), "Perf profiling set to " + (enabled ? "on" : "off"));
+                                            return 1;
+                                        })
+                                )
+                        )
 	                        .then(literal("llm")
 	                                .then(literal("world")
 	                                        .then(CommandManager.argument("mode", StringArgumentType.string())
@@ -1025,7 +1094,7 @@ public class modCommandRegistry {
 
                                     ChatUtils.sendSystemMessage(serverSource, "Exporting Q-table to JSON. Please wait.... ");
 
-                                    QTableExporter.exportQTable(BotEventHandler.qTableDir + "/qtable.bin", BotEventHandler.qTableDir + "/fullQTable.json");
+                                    QTableExporter.exportQTable(QTableStorage.resolveQTableFile(BotEventHandler.qTableDir), BotEventHandler.qTableDir + "/fullQTable.json");
 
                                     ChatUtils.sendSystemMessage(serverSource, "Q-table has been successfully exported to a json file at: " + BotEventHandler.qTableDir + "/fullQTable.json" );
 
@@ -1385,7 +1454,7 @@ public class modCommandRegistry {
                                     "Please wait while " + botName + " connects to " + llmClient.getProvider() + "'s servers.");
                             LLMServiceHandler.sendInitialResponse(bot.getCommandSource().withSilent().withPermissions(net.shasankp000.AIPlayer.OPERATOR_PERMISSIONS), llmClient);
 
-                            new Thread(() -> {
+                            BotScheduler.runAsync(null, "LLM-Init-" + botName, () -> {
                                 try {
                                     while (!LLMServiceHandler.isInitialized) {
                                         try {
@@ -1402,7 +1471,7 @@ public class modCommandRegistry {
                                 } catch (Exception e) {
                                     LOGGER.error("Error in LLM initialization thread for bot {}", botName, e);
                                 }
-                            }, "LLM-Init-" + botName).start();
+                            });
                         }
 
                         case "ollama" -> {
@@ -1410,7 +1479,7 @@ public class modCommandRegistry {
                                     "Please wait while " + botName + " connects to the language model.");
                             ollamaClient.initializeOllamaClient();
 
-                            new Thread(() -> {
+                            BotScheduler.runAsync(null, "Ollama-Init-" + botName, () -> {
                                 try {
                                     while (!ollamaClient.isInitialized) {
                                         try {
@@ -1428,7 +1497,7 @@ public class modCommandRegistry {
                                 } catch (Exception e) {
                                     LOGGER.error("Error in Ollama initialization thread for bot {}", botName, e);
                                 }
-                            }, "Ollama-Init-" + botName).start();
+                            });
                         }
 
                         default -> {
@@ -1439,7 +1508,7 @@ public class modCommandRegistry {
                                     "Please wait while " + botName + " connects to the language model.");
                             ollamaClient.initializeOllamaClient();
 
-                            new Thread(() -> {
+                            BotScheduler.runAsync(null, "Ollama-Init-" + botName, () -> {
                                 try {
                                     while (!ollamaClient.isInitialized) {
                                         try {
@@ -1457,7 +1526,7 @@ public class modCommandRegistry {
                                 } catch (Exception e) {
                                     LOGGER.error("Error in Ollama initialization thread (default case) for bot {}", botName, e);
                                 }
-                            }, "Ollama-Init-" + botName).start();
+                            });
                         }
                     }
 
@@ -1536,7 +1605,7 @@ public class modCommandRegistry {
             ServerCommandSource botSource = bot.getCommandSource().withSilent().withPermissions(net.shasankp000.AIPlayer.OPERATOR_PERMISSIONS);
             moveForward(server, botSource, botName);
 
-            scheduler.schedule(new BotStopTask(server, botSource, botName), travelTime, TimeUnit.SECONDS);
+            BotScheduler.schedule(bot.getUuid(), new BotStopTask(server, botSource, botName), travelTime, TimeUnit.SECONDS);
 
 
         }
@@ -1612,7 +1681,8 @@ public class modCommandRegistry {
         }
         TaskService.TaskTicket ticket = ticketOpt.get();
 
-        skillExecutor.submit(() -> {
+        BotScheduler.runAsync(botUuid, "craft", () -> {
+            TaskService.attachExecutingThread(ticket, Thread.currentThread());
             int crafted = 0;
             boolean success = false;
             try {
@@ -2537,7 +2607,7 @@ public class modCommandRegistry {
         server.execute(() -> {
             // Queue up the skill execution once movement is roughly complete
             // Use TaskService to run shelter after a brief movement phase
-            java.util.concurrent.Executors.newSingleThreadScheduledExecutor().schedule(() -> {
+            BotScheduler.schedule(bot.getUuid(), () -> {
                 server.execute(() -> {
                     // Run the shelter skill
                     String skillArgs = finalShelterType;
@@ -3171,7 +3241,8 @@ public class modCommandRegistry {
             TaskService.TaskTicket ticket = ticketOpt.get();
             scheduled++;
 
-            skillExecutor.submit(() -> {
+            BotScheduler.runAsync(botUuid, "sleep", () -> {
+                TaskService.attachExecutingThread(ticket, Thread.currentThread());
                 boolean success = false;
                 try {
                     success = SleepService.sleep(source, bot) && !TaskService.isAbortRequested(botUuid);
@@ -4306,48 +4377,42 @@ public class modCommandRegistry {
         }
 
         ServerCommandSource botSource = bot.getCommandSource();
-        Map<String, Object> sharedState = safeSharedState();
-        net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill prepared name="
-                + skillName + " bot=" + bot.getGameProfile().name()
-                + " thread=" + Thread.currentThread().getName());
+        Map<String, Object> sharedState = safeSharedState(bot.getUuid());
+        net.shasankp000.GameAI.services.DebugFileLogger.event("command", "runSkill.prepared",
+                "name", skillName, "bot", bot.getGameProfile().name());
 
         LOGGER.info("Queueing skill '{}' for bot {} with args '{}'", skillName, bot.getGameProfile().name(), rawArgs);
         try {
-            skillExecutor.submit(() -> {
+            BotScheduler.runAsync(bot.getUuid(), "skill-" + skillName, () -> {
                 LOGGER.info("Running skill '{}' for bot {}", skillName, bot.getGameProfile().name());
-                net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill start name="
-                        + skillName + " bot=" + bot.getGameProfile().name()
-                        + " thread=" + Thread.currentThread().getName());
+                net.shasankp000.GameAI.services.DebugFileLogger.event("command", "runSkill.start",
+                        "name", skillName, "bot", bot.getGameProfile().name());
                 try {
-                    net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill preContext name="
-                            + skillName + " bot=" + bot.getGameProfile().name());
                     SkillContext skillContext = new SkillContext(botSource, sharedState, params, source);
-                    net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill postContext name="
-                            + skillName + " bot=" + bot.getGameProfile().name());
-                    net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill preRunSkill name="
-                            + skillName + " bot=" + bot.getGameProfile().name());
                     SkillExecutionResult result = SkillManager.runSkill(skillName, skillContext);
                     LOGGER.info("Skill '{}' finished for bot {}: success={} msg='{}'",
                             skillName,
                             bot.getGameProfile().name(),
                             result != null && result.success(),
                             result != null ? result.message() : "null");
-                    net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill end name="
-                            + skillName + " bot=" + bot.getGameProfile().name()
-                            + " success=" + (result != null && result.success())
-                            + " msg=" + (result != null ? result.message() : "null"));
+                    net.shasankp000.GameAI.services.DebugFileLogger.event("command", "runSkill.end",
+                            "name", skillName,
+                            "bot", bot.getGameProfile().name(),
+                            "success", result != null && result.success(),
+                            "msg", result != null ? result.message() : "null");
                     source.getServer().execute(() -> ChatUtils.sendSystemMessage(source, result.message()));
                 } catch (Exception e) {
                     LOGGER.error("An unexpected error occurred in /bot skill " + skillName, e);
-                    net.shasankp000.GameAI.services.DebugFileLogger.log("Command.runSkill error name="
-                            + skillName + " bot=" + bot.getGameProfile().name()
-                            + " err=" + e.getClass().getSimpleName());
+                    net.shasankp000.GameAI.services.DebugFileLogger.event("command", "runSkill.error",
+                            "name", skillName,
+                            "bot", bot.getGameProfile().name(),
+                            "err", e.getClass().getSimpleName());
                     source.getServer().execute(() -> ChatUtils.sendSystemMessage(source, "An unexpected error occurred trying to execute that command."));
                 }
             });
         } catch (RuntimeException e) {
             LOGGER.error("Failed to queue skill '{}' for bot {} (fallback to direct run)", skillName, bot.getGameProfile().name(), e);
-            SkillContext skillContext = new SkillContext(bot.getCommandSource(), FunctionCallerV2.getSharedState(), params, source);
+            SkillContext skillContext = new SkillContext(bot.getCommandSource(), FunctionCallerV2.getSharedState(bot.getUuid()), params, source);
             SkillExecutionResult result = SkillManager.runSkill(skillName, skillContext);
             source.getServer().execute(() -> ChatUtils.sendSystemMessage(source, result.message()));
         }
@@ -4709,12 +4774,12 @@ public class modCommandRegistry {
         return commander.getHorizontalFacing();
     }
 
-    private static Map<String, Object> safeSharedState() {
+    private static Map<String, Object> safeSharedState(UUID botId) {
         try {
-            return FunctionCallerV2.getSharedState();
+            return FunctionCallerV2.getSharedState(botId);
         } catch (Throwable t) {
-            net.shasankp000.GameAI.services.DebugFileLogger.log("Command.safeSharedState unavailable: "
-                    + t.getClass().getSimpleName());
+            net.shasankp000.GameAI.services.DebugFileLogger.event("command", "sharedState.unavailable",
+                    "err", t.getClass().getSimpleName());
             return new HashMap<>();
         }
     }
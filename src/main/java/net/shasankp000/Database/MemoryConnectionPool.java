@@ -0,0 +1,335 @@
+package net.shasankp000.Database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived connections to {@code memory_agent.db}.
+ *
+ * <p>One writer connection (WAL, {@code synchronous=NORMAL}) is owned by a background thread that drains a
+ * bounded queue and commits inserts in batches, so {@link SQLiteDB#storeMemory} is a non-blocking enqueue.
+ * A small pool of read-only connections serves searches. Every connection loads the vector extension and
+ * registers the {@code cosine_distance} UDF once, and keeps its statements prepared for its whole life.
+ *
+ * <p>The writer thread also owns the {@link MemoryVectorIndex}: it builds it before taking the first insert
+ * and adds each row once its transaction commits.
+ */
+final class MemoryConnectionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ai-player");
+
+    private static final int READER_COUNT = 2;
+    private static final int WRITE_QUEUE_CAPACITY = 4096;
+    private static final int WRITE_BATCH_SIZE = 64;
+    private static final long BORROW_TIMEOUT_MS = 2_000L;
+    private static final int BUSY_TIMEOUT_MS = 5_000;
+
+    static final String INSERT_SQL = """
+            INSERT INTO memories (type, prompt, response, embedding_blob)
+            VALUES (?, ?, ?, ?);
+        """;
+
+    static final String SEARCH_SQL = """
+            SELECT id, type, timestamp, prompt, response,
+                   1 - cosine_distance(COALESCE(embedding_blob, embedding), ?) AS similarity
+            FROM memories
+            WHERE type = ?
+            ORDER BY similarity DESC
+            LIMIT ?;
+        """;
+
+    static final String FETCH_BY_ID_SQL = """
+            SELECT id, type, timestamp, prompt, response
+            FROM memories
+            WHERE id = ?;
+        """;
+
+    static final String INITIAL_RESPONSE_SQL = """
+            SELECT id, type, timestamp, prompt, response, 0.0 AS similarity
+            FROM memories
+            WHERE type = 'conversation'
+            ORDER BY id ASC
+            LIMIT 1;
+        """;
+
+    private static volatile MemoryConnectionPool instance;
+
+    private final Connection writer;
+    private final PreparedStatement insert;
+    private final List<Reader> allReaders = new ArrayList<>();
+    private final BlockingQueue<Reader> idleReaders = new ArrayBlockingQueue<>(READER_COUNT);
+    private final BlockingQueue<PendingMemory> writes = new LinkedBlockingQueue<>(WRITE_QUEUE_CAPACITY);
+    private final AtomicInteger unwritten = new AtomicInteger();
+    private final MemoryVectorIndex index = new MemoryVectorIndex();
+    private final Object flushLock = new Object();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    /** A prepared insert waiting for the writer thread. */
+    record PendingMemory(String type, String prompt, String response, List<Double> embedding) {
+    }
+
+    /** A pooled read-only connection with its statements prepared. */
+    static final class Reader {
+        final Connection connection;
+        final PreparedStatement search;
+        final PreparedStatement fetchById;
+        final PreparedStatement initialResponse;
+
+        private Reader(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.search = connection.prepareStatement(SEARCH_SQL);
+            this.fetchById = connection.prepareStatement(FETCH_BY_ID_SQL);
+            this.initialResponse = connection.prepareStatement(INITIAL_RESPONSE_SQL);
+        }
+
+        private void close() {
+            closeQuietly(search);
+            closeQuietly(fetchById);
+            closeQuietly(initialResponse);
+            closeQuietly(connection);
+        }
+    }
+
+    @FunctionalInterface
+    interface ReaderWork<T> {
+        T apply(Reader reader) throws SQLException;
+    }
+
+    private MemoryConnectionPool(String url, Path vecPath) throws SQLException {
+        this.writer = open(url, vecPath, false);
+        this.writer.setAutoCommit(false);
+        this.insert = writer.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+        try {
+            for (int i = 0; i < READER_COUNT; i++) {
+                Reader reader = new Reader(open(url, vecPath, true));
+                allReaders.add(reader);
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            allReaders.forEach(Reader::close);
+            closeQuietly(insert);
+            closeQuietly(writer);
+            throw e;
+        }
+        this.writerThread = new Thread(this::drainWrites, "AI-Player-MemoryWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Opens the pool once the schema exists. Safe to call again; an existing pool is kept.
+     */
+    static synchronized void start(String url, Path vecPath) throws SQLException {
+        if (instance != null) {
+            return;
+        }
+        instance = new MemoryConnectionPool(url, vecPath);
+        Runtime.getRuntime().addShutdownHook(new Thread(MemoryConnectionPool::shutdown, "AI-Player-MemoryShutdown"));
+        LOGGER.info("✅ Memory DB pool ready: 1 writer, {} readers.", READER_COUNT);
+    }
+
+    static MemoryConnectionPool get() {
+        return instance;
+    }
+
+    /**
+     * The ANN index; {@link MemoryVectorIndex#isReady()} is false until the writer has finished loading it.
+     */
+    MemoryVectorIndex index() {
+        return index;
+    }
+
+    static synchronized void shutdown() {
+        MemoryConnectionPool pool = instance;
+        if (pool == null) {
+            return;
+        }
+        instance = null;
+        pool.running = false;
+        try {
+            pool.writerThread.join(5_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly(pool.insert);
+        closeQuietly(pool.writer);
+        pool.allReaders.forEach(Reader::close);
+    }
+
+    /**
+     * Queues an insert for the writer thread.
+     *
+     * @return false if the queue is full and the memory was dropped
+     */
+    boolean enqueue(PendingMemory memory) {
+        unwritten.incrementAndGet();
+        if (!writes.offer(memory)) {
+            unwritten.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for every queued insert to be committed.
+     */
+    boolean flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (flushLock) {
+            while (unwritten.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    flushLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code work} on a pooled reader, returning {@code fallback} if none frees up in time.
+     */
+    <T> T withReader(ReaderWork<T> work, T fallback) throws SQLException {
+        Reader reader;
+        try {
+            reader = idleReaders.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+        if (reader == null) {
+            LOGGER.warn("Memory DB readers busy for {} ms; skipping query.", BORROW_TIMEOUT_MS);
+            return fallback;
+        }
+        try {
+            return work.apply(reader);
+        } finally {
+            idleReaders.offer(reader);
+        }
+    }
+
+    private void drainWrites() {
+        try {
+            index.build(writer);
+        } catch (SQLException e) {
+            LOGGER.error("❌ Memory vector index build failed; searches use the SQL scan: {}", e.getMessage());
+            try {
+                writer.rollback();
+            } catch (SQLException ignored) {
+            }
+        }
+
+        List<PendingMemory> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        while (running || !writes.isEmpty()) {
+            PendingMemory first;
+            try {
+                first = writes.poll(250, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            writes.drainTo(batch, WRITE_BATCH_SIZE - 1);
+            writeBatch(batch);
+            unwritten.addAndGet(-batch.size());
+            batch.clear();
+            synchronized (flushLock) {
+                flushLock.notifyAll();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMemory> batch) {
+        long[] rowIds = new long[batch.size()];
+        float[][] vectors = new float[batch.size()][];
+        try {
+            // One transaction per batch; rows are inserted individually so each generated id is known.
+            for (int i = 0; i < batch.size(); i++) {
+                PendingMemory memory = batch.get(i);
+                vectors[i] = MemoryVectorIndex.toFloats(memory.embedding());
+                insert.setString(1, memory.type());
+                insert.setString(2, memory.prompt());
+                insert.setString(3, memory.response());
+                insert.setBytes(4, MemoryVectorIndex.toBlob(vectors[i]));
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    rowIds[i] = keys.next() ? keys.getLong(1) : -1L;
+                }
+            }
+            writer.commit();
+            if (index.isReady()) {
+                for (int i = 0; i < batch.size(); i++) {
+                    if (rowIds[i] >= 0) {
+                        index.add(batch.get(i).type(), rowIds[i], vectors[i]);
+                    }
+                }
+            }
+            LOGGER.info("📝 Stored {} memories with vector embeddings.", batch.size());
+        } catch (SQLException e) {
+            LOGGER.error("❌ Failed to store {} memories: SQLState={}, ErrorCode={}, Message={}",
+                    batch.size(), e.getSQLState(), e.getErrorCode(), e.getMessage());
+            try {
+                writer.rollback();
+            } catch (SQLException rollback) {
+                LOGGER.warn("Memory DB rollback failed: {}", rollback.getMessage());
+            }
+        }
+    }
+
+    private static Connection open(String url, Path vecPath, boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.enableLoadExtension(true);
+        if (!readOnly) {
+            // WAL is persistent in the file; readers just inherit it.
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        }
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        config.setReadOnly(readOnly);
+        Connection conn = DriverManager.getConnection(url, config.toProperties());
+        if (vecPath != null) {
+            try {
+                VectorExtensionHelper.loadSqliteVecExtension(conn, vecPath);
+            } catch (SQLException e) {
+                // Searches only need the UDF below; keep the connection.
+                LOGGER.warn("⚠️ sqlite-vec not loaded on pooled connection: {}", e.getMessage());
+            }
+        }
+        SQLiteDB.registerCosineDistanceUdf(conn);
+        return conn;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOGGER.debug("Memory DB close failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package net.shasankp000.Database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process approximate nearest-neighbour index over the {@code memories} table.
+ *
+ * <p>Rows are partitioned by {@code type} (and vector width, so a model change cannot mix dimensions). Each
+ * partition is an HNSW graph over unit-normalised float32 vectors kept in a direct, off-heap buffer, so a
+ * cosine query is a dot product and costs O(log n) distance evaluations instead of parsing every row's
+ * TEXT literal. Small partitions are scanned exactly, which is both faster and lossless below a few
+ * thousand rows.
+ *
+ * <p>The index is built once from the database by the memory writer thread and then updated by that thread
+ * after each committed insert. Searches may run concurrently from any thread.
+ */
+final class MemoryVectorIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ai-player");
+
+    private static final int M = 16;
+    private static final int M0 = 2 * M;
+    private static final int EF_CONSTRUCTION = 64;
+    private static final int MIN_EF_SEARCH = 64;
+    private static final int EXACT_SCAN_LIMIT = 2048;
+    private static final double LEVEL_MULTIPLIER = 1.0 / Math.log(M);
+
+    private final Map<PartitionKey, Partition> partitions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    record Hit(long rowId, double similarity) {
+    }
+
+    private record PartitionKey(String type, int dims) {
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    int size() {
+        return partitions.values().stream().mapToInt(p -> p.size).sum();
+    }
+
+    /**
+     * Loads every stored embedding, back-filling {@code embedding_blob} for rows that only have the legacy
+     * TEXT literal. Runs on the writer connection before it starts taking inserts.
+     */
+    void build(Connection writer) throws SQLException {
+        long start = System.nanoTime();
+        int backfilled = 0;
+        try (Statement select = writer.createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, type, embedding, embedding_blob FROM memories;");
+             PreparedStatement backfill = writer.prepareStatement("UPDATE memories SET embedding_blob = ? WHERE id = ?;")) {
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                String type = rs.getString(2);
+                byte[] blob = rs.getBytes(4);
+                float[] vector;
+                if (blob != null) {
+                    vector = fromBlob(blob);
+                } else {
+                    try {
+                        vector = parseLiteral(rs.getString(3));
+                    } catch (NumberFormatException e) {
+                        LOGGER.warn("Skipping memory {} with a malformed embedding literal.", id);
+                        continue;
+                    }
+                    if (vector.length == 0) {
+                        continue;
+                    }
+                    backfill.setBytes(1, toBlob(vector));
+                    backfill.setLong(2, id);
+                    backfill.addBatch();
+                    backfilled++;
+                }
+                add(type, id, vector);
+            }
+            if (backfilled > 0) {
+                backfill.executeBatch();
+                writer.commit();
+            }
+        }
+        ready = true;
+        LOGGER.info("✅ Memory vector index built: {} vectors in {} partitions ({} back-filled) in {} ms.",
+                size(), partitions.size(), backfilled, (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    void add(String type, long rowId, float[] vector) {
+        if (vector.length == 0) {
+            return;
+        }
+        partitions.computeIfAbsent(new PartitionKey(type, vector.length), k -> new Partition(k.dims()))
+                .add(rowId, vector);
+    }
+
+    /**
+     * Top {@code k} rows of {@code type} by cosine similarity to {@code query}, best first.
+     */
+    List<Hit> search(String type, float[] query, int k) {
+        Partition partition = partitions.get(new PartitionKey(type, query.length));
+        if (partition == null || k <= 0) {
+            return List.of();
+        }
+        return partition.search(query, k);
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Vector encoding
+
+    /** Little-endian float32 encoding used for {@code embedding_blob}. */
+    static byte[] toBlob(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float v : vector) {
+            buffer.putFloat(v);
+        }
+        return buffer.array();
+    }
+
+    static float[] fromBlob(byte[] blob) {
+        ByteBuffer buffer = ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN);
+        float[] vector = new float[blob.length / Float.BYTES];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = buffer.getFloat();
+        }
+        return vector;
+    }
+
+    static float[] toFloats(List<Double> values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    /**
+     * Parses a legacy {@code "[v1,v2,...]"} literal without regex or intermediate arrays of strings.
+     */
+    static float[] parseLiteral(String literal) {
+        if (literal == null) {
+            return new float[0];
+        }
+        int start = literal.indexOf('[') + 1;
+        int end = literal.lastIndexOf(']');
+        if (end < 0) {
+            end = literal.length();
+        }
+        if (start >= end || literal.substring(start, end).isBlank()) {
+            return new float[0];
+        }
+        int count = 1;
+        for (int i = start; i < end; i++) {
+            if (literal.charAt(i) == ',') {
+                count++;
+            }
+        }
+        float[] vector = new float[count];
+        int idx = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || literal.charAt(i) == ',') {
+                vector[idx++] = Float.parseFloat(literal.substring(tokenStart, i).trim());
+                tokenStart = i + 1;
+            }
+        }
+        return vector;
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // HNSW partition
+
+    private static final class Partition {
+        private final int dims;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Random random = new Random(42L);
+
+        // Unit vectors, node-major, off-heap (native order so float reads need no byte swapping).
+        private FloatBuffer vectors;
+        private long[] rowIds;
+        // links[node][level] = {count, n1, n2, ...}
+        private int[][][] links;
+        private int size;
+        private int entryPoint = -1;
+        private int maxLevel = -1;
+
+        Partition(int dims) {
+            this.dims = dims;
+            allocate(256);
+        }
+
+        private void allocate(int capacity) {
+            FloatBuffer grown = ByteBuffer.allocateDirect(capacity * dims * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            if (vectors != null) {
+                grown.put(vectors.duplicate().position(0).limit(size * dims));
+                grown.clear();
+            }
+            vectors = grown;
+            rowIds = rowIds == null ? new long[capacity] : Arrays.copyOf(rowIds, capacity);
+            links = links == null ? new int[capacity][][] : Arrays.copyOf(links, capacity);
+        }
+
+        void add(long rowId, float[] raw) {
+            float[] vector = normalise(raw);
+            lock.writeLock().lock();
+            try {
+                if (size == rowIds.length) {
+                    allocate(size * 2);
+                }
+                int node = size;
+                vectors.put(node * dims, vector);
+                rowIds[node] = rowId;
+
+                int level = (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * LEVEL_MULTIPLIER);
+                links[node] = new int[level + 1][];
+                for (int l = 0; l <= level; l++) {
+                    links[node][l] = new int[(l == 0 ? M0 : M) + 1];
+                }
+                size++;
+
+                if (entryPoint < 0) {
+                    entryPoint = node;
+                    maxLevel = level;
+                    return;
+                }
+
+                int ep = entryPoint;
+                for (int l = maxLevel; l > level; l--) {
+                    ep = greedy(vector, ep, l);
+                }
+                for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                    List<Candidate> found = searchLayer(vector, ep, EF_CONSTRUCTION, l);
+                    int limit = l == 0 ? M0 : M;
+                    int[] own = links[node][l];
+                    for (int i = 0; i < found.size() && own[0] < limit; i++) {
+                        int neighbour = found.get(i).node;
+                        own[++own[0]] = neighbour;
+                        connect(neighbour, node, l);
+                    }
+                    ep = found.get(0).node;
+                }
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = node;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /** Adds {@code node} to {@code target}'s list, keeping only the closest neighbours when it overflows. */
+        private void connect(int target, int node, int level) {
+            int[] list = links[target][level];
+            int limit = list.length - 1;
+            if (list[0] < limit) {
+                list[++list[0]] = node;
+                return;
+            }
+            int worst = -1;
+            double worstSim = similarity(target, node);
+            for (int i = 1; i <= list[0]; i++) {
+                double sim = similarity(target, list[i]);
+                if (sim < worstSim) {
+                    worstSim = sim;
+                    worst = i;
+                }
+            }
+            if (worst > 0) {
+                list[worst] = node;
+            }
+        }
+
+        List<Hit> search(float[] raw, int k) {
+            float[] query = normalise(raw);
+            lock.readLock().lock();
+            try {
+                if (size == 0) {
+                    return List.of();
+                }
+                List<Candidate> found;
+                if (size <= EXACT_SCAN_LIMIT) {
+                    found = exact(query, k);
+                } else {
+                    int ep = entryPoint;
+                    for (int l = maxLevel; l > 0; l--) {
+                        ep = greedy(query, ep, l);
+                    }
+                    found = searchLayer(query, ep, Math.max(MIN_EF_SEARCH, k * 4), 0);
+                }
+                List<Hit> hits = new ArrayList<>(Math.min(k, found.size()));
+                for (int i = 0; i < found.size() && i < k; i++) {
+                    Candidate c = found.get(i);
+                    hits.add(new Hit(rowIds[c.node], c.similarity));
+                }
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private List<Candidate> exact(float[] query, int k) {
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(c -> c.similarity));
+            for (int node = 0; node < size; node++) {
+                double sim = similarity(query, node);
+                if (best.size() < k) {
+                    best.add(new Candidate(node, sim));
+                } else if (sim > best.peek().similarity) {
+                    best.poll();
+                    best.add(new Candidate(node, sim));
+                }
+            }
+            List<Candidate> result = new ArrayList<>(best);
+            result.sort(Comparator.comparingDouble((Candidate c) -> c.similarity).reversed());
+            return result;
+        }
+
+        private int greedy(float[] query, int ep, int level) {
+            double bestSim = similarity(query, ep);
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                int[] list = links[ep][level];
+                for (int i = 1; i <= list[0]; i++) {
+                    double sim = similarity(query, list[i]);
+                    if (sim > bestSim) {
+                        bestSim = sim;
+                        ep = list[i];
+                        improved = true;
+                    }
+                }
+            }
+            return ep;
+        }
+
+        /** Beam search on one layer; returns up to {@code ef} nodes, most similar first. */
+        private List<Candidate> searchLayer(float[] query, int ep, int ef, int level) {
+            BitSet visited = new BitSet(size);
+            visited.set(ep);
+            Candidate start = new Candidate(ep, similarity(query, ep));
+            PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.similarity).reversed());
+            PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble(c -> c.similarity));
+            frontier.add(start);
+            results.add(start);
+
+            while (!frontier.isEmpty()) {
+                Candidate current = frontier.poll();
+                if (results.size() >= ef && current.similarity < results.peek().similarity) {
+                    break;
+                }
+                int[][] nodeLinks = links[current.node];
+                if (level >= nodeLinks.length) {
+                    continue;
+                }
+                int[] list = nodeLinks[level];
+                for (int i = 1; i <= list[0]; i++) {
+                    int neighbour = list[i];
+                    if (visited.get(neighbour)) {
+                        continue;
+                    }
+                    visited.set(neighbour);
+                    double sim = similarity(query, neighbour);
+                    if (results.size() < ef || sim > results.peek().similarity) {
+                        Candidate candidate = new Candidate(neighbour, sim);
+                        frontier.add(candidate);
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+            List<Candidate> ordered = new ArrayList<>(results);
+            ordered.sort(Comparator.comparingDouble((Candidate c) -> c.similarity).reversed());
+            return ordered;
+        }
+
+        private double similarity(float[] query, int node) {
+            int base = node * dims;
+            float dot = 0.0f;
+            for (int i = 0; i < dims; i++) {
+                dot += query[i] * vectors.get(base + i);
+            }
+            return dot;
+        }
+
+        private double similarity(int a, int b) {
+            int baseA = a * dims;
+            int baseB = b * dims;
+            float dot = 0.0f;
+            for (int i = 0; i < dims; i++) {
+                dot += vectors.get(baseA + i) * vectors.get(baseB + i);
+            }
+            return dot;
+        }
+
+        private float[] normalise(float[] raw) {
+            double norm = 0.0;
+            for (float v : raw) {
+                norm += v * v;
+            }
+            float[] unit = new float[raw.length];
+            if (norm == 0.0) {
+                return unit;
+            }
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < raw.length; i++) {
+                unit[i] = raw[i] * scale;
+            }
+            return unit;
+        }
+    }
+
+    private record Candidate(int node, double similarity) {
+    }
+}
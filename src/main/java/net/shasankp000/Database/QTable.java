@@ -4,27 +4,95 @@ import net.shasankp000.GameAI.State;
 import net.shasankp000.GameAI.StateActions;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleUnaryOperator;
 
+/**
+ * State-action values shared by every bot. Safe for concurrent use: writes to one state-action pair are serialised
+ * by the backing {@link ConcurrentHashMap}, and the {@link QTableIndex} locks per bucket and per action.
+ */
 public class QTable implements Serializable {
+    // Pinned to the value the JVM derived for the original class so existing qtable.bin files keep loading.
+    private static final long serialVersionUID = 7545938923002900973L;
+
+    // Declared as Map so legacy tables (which serialised a HashMap) still deserialise; readResolve copies them.
     private final Map<StateActionPair, QEntry> qTable;
+    // Derived lookup structure; never serialised.
+    private final transient QTableIndex index;
 
     public QTable() {
-        this.qTable = new HashMap<>();
+        this.qTable = new ConcurrentHashMap<>();
+        this.index = new QTableIndex();
+    }
+
+    private QTable(Map<StateActionPair, QEntry> entries) {
+        this.qTable = new ConcurrentHashMap<>(entries);
+        this.index = QTableIndex.build(this.qTable);
+    }
+
+    private Object readResolve() {
+        return new QTable(qTable);
     }
 
     public void addEntry(State state, StateActions.Action action, double qValue, State nextState) {
-        StateActionPair pair = new StateActionPair(state, action);
-        qTable.put(pair, new QEntry(qValue, nextState));
+        QEntry entry = new QEntry(qValue, nextState);
+        qTable.compute(new StateActionPair(state, action), (pair, previous) -> {
+            index.onPut(pair, previous, entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Atomically replaces the value for ({@code state}, {@code action}) with {@code update} applied to the current
+     * value (0 when absent), so concurrent learners never lose each other's updates. Returns the new value.
+     */
+    public double update(State state, StateActions.Action action, State nextState, DoubleUnaryOperator update) {
+        QEntry updated = qTable.compute(new StateActionPair(state, action), (pair, previous) -> {
+            double oldValue = previous != null ? previous.getQValue() : 0.0;
+            QEntry entry = new QEntry(update.applyAsDouble(oldValue), nextState);
+            index.onPut(pair, previous, entry);
+            return entry;
+        });
+        return updated.getQValue();
     }
 
     public QEntry getEntry(StateActionPair pair) {
         return qTable.get(pair);
     }
 
+    /**
+     * Read-only live view of every entry. Writes must go through {@link #addEntry} or {@link #update} so the
+     * index stays in sync.
+     */
     public Map<StateActionPair, QEntry> getTable() {
-        return qTable;
+        return Collections.unmodifiableMap(qTable);
+    }
+
+    /**
+     * Entries whose state shares a discretised bucket with {@code state}; callers still apply
+     * {@link State#isStateConsistent(State, State)}. The hostile and danger distances are bucketed with that
+     * check's tolerance, so no entry it would accept on those is dropped. Position cell (32 blocks) and health
+     * band (5 HP) are extra constraints the consistency check does not impose: entries recorded in another cell
+     * or health band are deliberately not considered.
+     */
+    public List<Map.Entry<StateActionPair, QEntry>> getCandidates(State state) {
+        return index.candidates(state);
     }
-}
 
+    /**
+     * Probability of death for {@code action}: negative-Q entries for that action over the table size.
+     */
+    public double getPodForAction(StateActions.Action action) {
+        return index.podFor(action);
+    }
+
+    /**
+     * Highest Q-value recorded for {@code action}, or {@link Double#NEGATIVE_INFINITY} if it was never taken.
+     */
+    public double getMaxQForAction(StateActions.Action action) {
+        return index.maxQFor(action);
+    }
+}
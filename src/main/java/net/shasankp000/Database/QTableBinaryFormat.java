@@ -0,0 +1,584 @@
+package net.shasankp000.Database;
+
+import net.shasankp000.Entity.EntityDetails;
+import net.shasankp000.GameAI.State;
+import net.shasankp000.GameAI.StateActions;
+import net.shasankp000.PlayerUtils.SelectedItemDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar binary encoding for Q-tables and transition chunks.
+ *
+ * <p>A document is laid out as:
+ * <pre>
+ *   header     magic "AIQT", version, kind, row/state/dictionary counts, section sizes, total length
+ *   dictionary every item, block, entity, dimension, time-of-day and action name, stored once (UTF-8)
+ *   states     one fixed-width record per distinct {@link State}: numeric features plus dictionary ids
+ *   variable   per-state lists and maps (hotbar, armor, nearby blocks/entities, risk/PoD maps) as id runs
+ *   columns    stateId[rows] | actionId[rows] | value[rows] | nextStateId[rows]
+ * </pre>
+ * States are de-duplicated by identity, so a state shared between a key and several next-states is written
+ * once and comes back as a single object, the same sharing Java serialisation preserved.
+ *
+ * <p>{@link Reader} decodes states on demand. Backed by {@link #openMapped(Path)} it only touches the
+ * pages that are actually read, which keeps inspection of large tables cheap.
+ */
+public final class QTableBinaryFormat {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("QTableStorage");
+
+    static final int MAGIC = 0x41495154; // "AIQT"
+    static final short VERSION = 1;
+    static final byte KIND_QTABLE = 1;
+    static final byte KIND_TRANSITIONS = 2;
+
+    private static final int HEADER_BYTES = 36;
+    // 4 ints pos/frost, 2 doubles distances, 3 ints vitals, selected item id+flags, time, dimension,
+    // offhand, flags byte, solid neighbours, action, risk appetite, variable-section offset.
+    static final int STATE_STRIDE = 12 + 4 + 8 + 8 + 12 + 4 + 1 + 4 + 4 + 4 + 1 + 4 + 4 + 8 + 4;
+    private static final int ROW_BYTES = 4 + 4 + 8 + 4;
+
+    private static final int NULL_ID = -1;
+    private static final short JAVA_SERIALIZATION_MAGIC = (short) 0xACED;
+
+    private QTableBinaryFormat() {
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Writing
+
+    public static void write(QTable table, OutputStream out) throws IOException {
+        // Point-in-time copy: bots keep updating the shared table while a checkpoint is being written.
+        Map<StateActionPair, QEntry> entries = Map.copyOf(table.getTable());
+        Encoder encoder = new Encoder(entries.size());
+        for (Map.Entry<StateActionPair, QEntry> entry : entries.entrySet()) {
+            QEntry value = entry.getValue();
+            encoder.row(entry.getKey().getState(), entry.getKey().getAction(), value.getQValue(), value.getNextState());
+        }
+        encoder.writeTo(KIND_QTABLE, out);
+    }
+
+    public static void write(StateActionTransition transitions, OutputStream out) throws IOException {
+        Map<State, Map<StateActions.Action, Map<State, Double>>> map = transitions.getTransitionMap();
+        int rows = 0;
+        for (Map<StateActions.Action, Map<State, Double>> byAction : map.values()) {
+            for (Map<State, Double> byNext : byAction.values()) {
+                rows += byNext.size();
+            }
+        }
+        Encoder encoder = new Encoder(rows);
+        for (Map.Entry<State, Map<StateActions.Action, Map<State, Double>>> stateEntry : map.entrySet()) {
+            for (Map.Entry<StateActions.Action, Map<State, Double>> actionEntry : stateEntry.getValue().entrySet()) {
+                for (Map.Entry<State, Double> nextEntry : actionEntry.getValue().entrySet()) {
+                    Double reward = nextEntry.getValue();
+                    encoder.row(stateEntry.getKey(), actionEntry.getKey(), reward == null ? 0.0 : reward, nextEntry.getKey());
+                }
+            }
+        }
+        encoder.writeTo(KIND_TRANSITIONS, out);
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Reading
+
+    /**
+     * True if the file starts with the columnar magic; legacy Java-serialised tables start with {@code 0xACED}.
+     */
+    public static boolean isColumnar(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(4);
+            return head.length == 4 && ByteBuffer.wrap(head).getInt() == MAGIC;
+        }
+    }
+
+    static boolean isJavaSerialized(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(2);
+            return head.length == 2 && ByteBuffer.wrap(head).getShort() == JAVA_SERIALIZATION_MAGIC;
+        }
+    }
+
+    /**
+     * Maps {@code path} read-only and returns a lazy reader over its first document. The mapping stays valid
+     * after the channel is closed and is released when the reader is garbage collected.
+     */
+    public static Reader openMapped(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Q-table file too large to map: " + size + " bytes");
+            }
+            return new Reader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), 0);
+        }
+    }
+
+    /**
+     * Reads every document in {@code buffer} (transition logs are a concatenation of documents).
+     */
+    static List<Reader> readAll(ByteBuffer buffer) throws IOException {
+        List<Reader> readers = new ArrayList<>();
+        int offset = 0;
+        while (offset < buffer.limit()) {
+            Reader reader = new Reader(buffer, offset);
+            readers.add(reader);
+            offset += (int) reader.totalBytes;
+        }
+        return readers;
+    }
+
+    /**
+     * Lazy view over one document. Not thread-safe; decoded states are cached per reader.
+     */
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final byte kind;
+        private final int rows;
+        private final int stateCount;
+        private final long totalBytes;
+        private final String[] dictionary;
+        private final int statesOffset;
+        private final int varOffset;
+        private final int columnsOffset;
+        private final State[] states;
+        private final StateActions.Action[] actions;
+        private final boolean[] actionResolved;
+
+        Reader(ByteBuffer source, int offset) throws IOException {
+            this.buffer = source.duplicate();
+            if (source.limit() - offset < HEADER_BYTES) {
+                throw new IOException("Truncated Q-table header");
+            }
+            ByteBuffer header = buffer.duplicate().position(offset);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a columnar Q-table document");
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported Q-table format version " + version);
+            }
+            this.kind = header.get();
+            header.get(); // reserved
+            this.rows = header.getInt();
+            this.stateCount = header.getInt();
+            int dictCount = header.getInt();
+            int dictBytes = header.getInt();
+            int varBytes = header.getInt();
+            this.totalBytes = header.getLong();
+            if (offset + totalBytes > source.limit()) {
+                throw new IOException("Truncated Q-table document");
+            }
+
+            int dictOffset = offset + HEADER_BYTES;
+            this.statesOffset = dictOffset + dictBytes;
+            this.varOffset = statesOffset + stateCount * STATE_STRIDE;
+            this.columnsOffset = varOffset + varBytes;
+
+            this.dictionary = new String[dictCount];
+            ByteBuffer dict = buffer.duplicate().position(dictOffset);
+            for (int i = 0; i < dictCount; i++) {
+                byte[] bytes = new byte[dict.getInt()];
+                dict.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            this.states = new State[stateCount];
+            this.actions = new StateActions.Action[dictCount];
+            this.actionResolved = new boolean[dictCount];
+        }
+
+        public boolean isQTable() {
+            return kind == KIND_QTABLE;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        public int stateCount() {
+            return stateCount;
+        }
+
+        /**
+         * Action of {@code row}, or {@code null} if the name no longer exists in {@link StateActions.Action}.
+         */
+        public StateActions.Action action(int row) {
+            return actionFor(buffer.getInt(columnsOffset + rows * 4 + row * 4));
+        }
+
+        public double value(int row) {
+            return buffer.getDouble(columnsOffset + rows * 8 + row * 8);
+        }
+
+        public State state(int row) {
+            return stateAt(buffer.getInt(columnsOffset + row * 4));
+        }
+
+        public State nextState(int row) {
+            return stateAt(buffer.getInt(columnsOffset + rows * 16 + row * 4));
+        }
+
+        public QTable toQTable() {
+            QTable table = new QTable();
+            int skipped = 0;
+            for (int row = 0; row < rows; row++) {
+                StateActions.Action action = action(row);
+                if (action == null) {
+                    skipped++;
+                    continue;
+                }
+                table.addEntry(state(row), action, value(row), nextState(row));
+            }
+            if (skipped > 0) {
+                LOGGER.warn("Skipped {} Q-table rows with actions that no longer exist", skipped);
+            }
+            return table;
+        }
+
+        public StateActionTransition toTransitions() {
+            StateActionTransition transitions = new StateActionTransition();
+            for (int row = 0; row < rows; row++) {
+                StateActions.Action action = action(row);
+                if (action != null) {
+                    transitions.addTransition(state(row), action, nextState(row), value(row));
+                }
+            }
+            return transitions;
+        }
+
+        private String string(int id) {
+            return id == NULL_ID ? null : dictionary[id];
+        }
+
+        private StateActions.Action actionFor(int id) {
+            if (id == NULL_ID) {
+                return null;
+            }
+            if (!actionResolved[id]) {
+                try {
+                    actions[id] = StateActions.Action.valueOf(dictionary[id]);
+                } catch (IllegalArgumentException e) {
+                    actions[id] = null;
+                }
+                actionResolved[id] = true;
+            }
+            return actions[id];
+        }
+
+        private State stateAt(int id) {
+            if (id == NULL_ID) {
+                return null;
+            }
+            State state = states[id];
+            if (state == null) {
+                state = decodeState(id);
+                states[id] = state;
+            }
+            return state;
+        }
+
+        private State decodeState(int id) {
+            ByteBuffer in = buffer.duplicate().position(statesOffset + id * STATE_STRIDE);
+            int botX = in.getInt();
+            int botY = in.getInt();
+            int botZ = in.getInt();
+            int frostLevel = in.getInt();
+            double distanceToHostile = in.getDouble();
+            double distanceToDanger = in.getDouble();
+            int health = in.getInt();
+            int hunger = in.getInt();
+            int oxygen = in.getInt();
+            String selectedName = string(in.getInt());
+            byte selectedFlags = in.get();
+            String timeOfDay = string(in.getInt());
+            String dimension = string(in.getInt());
+            String offhand = string(in.getInt());
+            byte flags = in.get();
+            int solidNeighbors = in.getInt();
+            StateActions.Action actionTaken = actionFor(in.getInt());
+            double riskAppetite = in.getDouble();
+            int variable = in.getInt();
+
+            SelectedItemDetails selected = (selectedFlags & 1) == 0 ? null
+                    : new SelectedItemDetails(selectedName, (selectedFlags & 2) != 0, (selectedFlags & 4) != 0);
+
+            ByteBuffer var = buffer.duplicate().position(varOffset + variable);
+            List<String> hotBar = readStrings(var);
+            Map<String, String> armor = readStringMap(var);
+            List<String> nearbyBlocks = readStrings(var);
+            List<EntityDetails> entities = readEntities(var);
+            Map<StateActions.Action, Double> riskMap = readActionMap(var);
+            Map<StateActions.Action, Double> podMap = readActionMap(var);
+
+            return State.restore(botX, botY, botZ, entities, nearbyBlocks, distanceToHostile, health, distanceToDanger,
+                    hotBar, selected, timeOfDay, dimension, hunger, oxygen, frostLevel, offhand, armor,
+                    (flags & 1) != 0, solidNeighbors, (flags & 2) != 0, (flags & 4) != 0,
+                    actionTaken, riskMap, riskAppetite, podMap);
+        }
+
+        private List<String> readStrings(ByteBuffer in) {
+            int count = in.getInt();
+            if (count < 0) {
+                return null;
+            }
+            List<String> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(string(in.getInt()));
+            }
+            return list;
+        }
+
+        private Map<String, String> readStringMap(ByteBuffer in) {
+            int count = in.getInt();
+            if (count < 0) {
+                return null;
+            }
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                map.put(string(in.getInt()), string(in.getInt()));
+            }
+            return map;
+        }
+
+        private List<EntityDetails> readEntities(ByteBuffer in) {
+            int count = in.getInt();
+            if (count < 0) {
+                return null;
+            }
+            List<EntityDetails> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = string(in.getInt());
+                double x = in.getDouble();
+                double y = in.getDouble();
+                double z = in.getDouble();
+                boolean hostile = in.get() != 0;
+                String direction = string(in.getInt());
+                list.add(new EntityDetails(name, x, y, z, hostile, direction));
+            }
+            return list;
+        }
+
+        private Map<StateActions.Action, Double> readActionMap(ByteBuffer in) {
+            int count = in.getInt();
+            if (count < 0) {
+                return null;
+            }
+            Map<StateActions.Action, Double> map = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                StateActions.Action action = actionFor(in.getInt());
+                double value = in.getDouble();
+                if (action != null) {
+                    map.put(action, value);
+                }
+            }
+            return map;
+        }
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Encoder
+
+    private static final class Encoder {
+        private final Map<String, Integer> dictionaryIds = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final IdentityHashMap<State, Integer> stateIds = new IdentityHashMap<>();
+        private final ByteArrayOutputStream fixedBytes = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream varBytes = new ByteArrayOutputStream();
+        private final DataOutputStream fixed = new DataOutputStream(fixedBytes);
+        private final DataOutputStream var = new DataOutputStream(varBytes);
+
+        private final int[] stateColumn;
+        private final int[] actionColumn;
+        private final double[] valueColumn;
+        private final int[] nextColumn;
+        private int rows;
+
+        Encoder(int capacity) {
+            stateColumn = new int[capacity];
+            actionColumn = new int[capacity];
+            valueColumn = new double[capacity];
+            nextColumn = new int[capacity];
+        }
+
+        void row(State state, StateActions.Action action, double value, State next) throws IOException {
+            stateColumn[rows] = stateId(state);
+            actionColumn[rows] = intern(action == null ? null : action.name());
+            valueColumn[rows] = value;
+            nextColumn[rows] = stateId(next);
+            rows++;
+        }
+
+        private int intern(String value) {
+            if (value == null) {
+                return NULL_ID;
+            }
+            Integer id = dictionaryIds.get(value);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.add(value);
+                dictionaryIds.put(value, id);
+            }
+            return id;
+        }
+
+        private int stateId(State state) throws IOException {
+            if (state == null) {
+                return NULL_ID;
+            }
+            Integer existing = stateIds.get(state);
+            if (existing != null) {
+                return existing;
+            }
+            int id = stateIds.size();
+            stateIds.put(state, id);
+            encodeState(state);
+            return id;
+        }
+
+        private void encodeState(State state) throws IOException {
+            SelectedItemDetails selected = state.getSelectedItemStack();
+            fixed.writeInt(state.getBotX());
+            fixed.writeInt(state.getBotY());
+            fixed.writeInt(state.getBotZ());
+            fixed.writeInt(state.getFrostLevel());
+            fixed.writeDouble(state.getDistanceToHostileEntity());
+            fixed.writeDouble(state.getDistanceToDangerZone());
+            fixed.writeInt(state.getBotHealth());
+            fixed.writeInt(state.getBotHungerLevel());
+            fixed.writeInt(state.getBotOxygenLevel());
+            fixed.writeInt(selected == null ? NULL_ID : intern(selected.getName()));
+            fixed.writeByte(selected == null ? 0 : 1 | (selected.isFood() ? 2 : 0) | (selected.isBlock() ? 4 : 0));
+            fixed.writeInt(intern(state.getTimeOfDay()));
+            fixed.writeInt(intern(state.getDimensionType()));
+            fixed.writeInt(intern(state.getOffhandItem()));
+            fixed.writeByte((state.isEnclosed() ? 1 : 0) | (state.hasHeadroom() ? 2 : 0) | (state.hasEscapeRoute() ? 4 : 0));
+            fixed.writeInt(state.getSolidNeighborCount());
+            fixed.writeInt(intern(state.getActionTaken() == null ? null : state.getActionTaken().name()));
+            fixed.writeDouble(state.getRiskAppetite());
+            fixed.writeInt(var.size());
+
+            writeStrings(state.getHotBarItems());
+            writeStringMap(state.getArmorItems());
+            writeStrings(state.getNearbyBlocks());
+            writeEntities(state.getNearbyEntities());
+            writeActionMap(state.getRiskMap());
+            writeActionMap(state.getPodMap());
+        }
+
+        private void writeStrings(List<String> values) throws IOException {
+            if (values == null) {
+                var.writeInt(-1);
+                return;
+            }
+            var.writeInt(values.size());
+            for (String value : values) {
+                var.writeInt(intern(value));
+            }
+        }
+
+        private void writeStringMap(Map<String, String> values) throws IOException {
+            if (values == null) {
+                var.writeInt(-1);
+                return;
+            }
+            var.writeInt(values.size());
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                var.writeInt(intern(entry.getKey()));
+                var.writeInt(intern(entry.getValue()));
+            }
+        }
+
+        private void writeEntities(List<EntityDetails> entities) throws IOException {
+            if (entities == null) {
+                var.writeInt(-1);
+                return;
+            }
+            var.writeInt(entities.size());
+            for (EntityDetails entity : entities) {
+                var.writeInt(intern(entity.getName()));
+                var.writeDouble(entity.getX());
+                var.writeDouble(entity.getY());
+                var.writeDouble(entity.getZ());
+                var.writeByte(entity.isHostile() ? 1 : 0);
+                var.writeInt(intern(entity.getDirectionToBot()));
+            }
+        }
+
+        private void writeActionMap(Map<StateActions.Action, Double> values) throws IOException {
+            if (values == null) {
+                var.writeInt(-1);
+                return;
+            }
+            var.writeInt(values.size());
+            for (Map.Entry<StateActions.Action, Double> entry : values.entrySet()) {
+                var.writeInt(intern(entry.getKey() == null ? null : entry.getKey().name()));
+                var.writeDouble(entry.getValue() == null ? 0.0 : entry.getValue());
+            }
+        }
+
+        void writeTo(byte kind, OutputStream target) throws IOException {
+            ByteArrayOutputStream dictBytes = new ByteArrayOutputStream();
+            DataOutputStream dict = new DataOutputStream(dictBytes);
+            for (String value : dictionary) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                dict.writeInt(bytes.length);
+                dict.write(bytes);
+            }
+
+            long total = (long) HEADER_BYTES + dictBytes.size() + fixedBytes.size() + varBytes.size() + (long) rows * ROW_BYTES;
+            if (total > Integer.MAX_VALUE) {
+                throw new IOException("Q-table too large for the columnar format: " + total + " bytes");
+            }
+
+            DataOutputStream out = new DataOutputStream(target);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(kind);
+            out.writeByte(0);
+            out.writeInt(rows);
+            out.writeInt(stateIds.size());
+            out.writeInt(dictionary.size());
+            out.writeInt(dictBytes.size());
+            out.writeInt(varBytes.size());
+            out.writeLong(total);
+
+            dictBytes.writeTo(out);
+            fixedBytes.writeTo(out);
+            varBytes.writeTo(out);
+
+            // Columns are written whole so each one is contiguous on disk.
+            ByteBuffer columns = ByteBuffer.allocate(rows * ROW_BYTES);
+            for (int i = 0; i < rows; i++) {
+                columns.putInt(stateColumn[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                columns.putInt(actionColumn[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                columns.putDouble(valueColumn[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                columns.putInt(nextColumn[i]);
+            }
+            out.write(columns.array());
+            out.flush();
+        }
+    }
+}
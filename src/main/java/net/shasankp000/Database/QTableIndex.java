@@ -0,0 +1,227 @@
+package net.shasankp000.Database;
+
+import net.shasankp000.GameAI.State;
+import net.shasankp000.GameAI.StateActions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Secondary index over a {@link QTable}.
+ *
+ * <p>Entries are grouped into buckets keyed by a discretised view of their state (dimension, time of day,
+ * position cell, health band, hostile-distance band and danger-distance band), so a lookup for "states like
+ * this one" only has to walk a handful of entries instead of the whole table. Alongside the buckets the index
+ * keeps per-action running aggregates (entry count, negative-Q count, max Q) that are updated on every
+ * insert, which makes the probability-of-death lookup O(1).
+ *
+ * <p>The index is derived data: it is never serialised and is rebuilt from the backing map after a load.
+ *
+ * <p>It is safe for concurrent use. Each bucket is locked on its own (so bots in different situations never
+ * contend) and each action's aggregates are locked separately. No thread ever holds a bucket lock while taking
+ * an action lock, which keeps {@link #maxQFor}'s rescan (action lock, then bucket locks) deadlock-free.
+ * {@code QTable} serialises updates to the same state-action pair, so per-pair ordering is preserved.
+ */
+public final class QTableIndex {
+
+    /** Position cells are 32 blocks on each axis. */
+    private static final int POSITION_SHIFT = 5;
+    /** Health is split into bands of 5 HP (0-4, 5-9, ...). */
+    private static final int HEALTH_BAND = 5;
+    /** Width of a hostile- or danger-distance band; matches {@code State}'s consistency tolerance. */
+    private static final double DISTANCE_BAND = 8.0;
+    /** Everything further than {@code DISTANCE_BAND * MAX_DISTANCE_BAND} shares the last band. */
+    private static final int MAX_DISTANCE_BAND = 16;
+
+    private final Map<BucketKey, Map<StateActionPair, QEntry>> buckets = new ConcurrentHashMap<>();
+    // Fully populated up front and never structurally modified afterwards, so reads need no lock.
+    private final EnumMap<StateActions.Action, ActionStats> stats = new EnumMap<>(StateActions.Action.class);
+    private final AtomicInteger size = new AtomicInteger();
+
+    QTableIndex() {
+        for (StateActions.Action action : StateActions.Action.values()) {
+            stats.put(action, new ActionStats());
+        }
+    }
+
+    static QTableIndex build(Map<StateActionPair, QEntry> table) {
+        QTableIndex index = new QTableIndex();
+        for (Map.Entry<StateActionPair, QEntry> entry : table.entrySet()) {
+            index.onPut(entry.getKey(), null, entry.getValue());
+        }
+        return index;
+    }
+
+    /**
+     * Records that {@code pair} now maps to {@code entry}; {@code previous} is the value it replaced, if any.
+     */
+    void onPut(StateActionPair pair, QEntry previous, QEntry entry) {
+        Map<StateActionPair, QEntry> bucket = buckets.computeIfAbsent(BucketKey.of(pair.getState()), k -> new LinkedHashMap<>());
+        synchronized (bucket) {
+            bucket.put(pair, entry);
+        }
+
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        ActionStats actionStats = pair.getAction() != null ? stats.get(pair.getAction()) : null;
+        if (actionStats == null) {
+            return;
+        }
+        synchronized (actionStats) {
+            if (previous != null) {
+                actionStats.remove(previous.getQValue());
+            }
+            actionStats.add(entry.getQValue());
+        }
+    }
+
+    /**
+     * Returns the entries whose state falls in the same bucket as {@code state}. For both distances the band
+     * on either side is included as well, so the {@code State.isStateConsistent} tolerance is not cut off at
+     * a band edge. Callers still apply the full consistency check.
+     */
+    List<Map.Entry<StateActionPair, QEntry>> candidates(State state) {
+        if (state == null) {
+            return Collections.emptyList();
+        }
+        BucketKey key = BucketKey.of(state);
+        List<Map.Entry<StateActionPair, QEntry>> result = new ArrayList<>();
+        for (int hostile = Math.max(0, key.hostileBand() - 1); hostile <= Math.min(MAX_DISTANCE_BAND, key.hostileBand() + 1); hostile++) {
+            for (int danger = Math.max(0, key.dangerBand() - 1); danger <= Math.min(MAX_DISTANCE_BAND, key.dangerBand() + 1); danger++) {
+                Map<StateActionPair, QEntry> bucket = buckets.get(key.withBands(hostile, danger));
+                if (bucket != null) {
+                    synchronized (bucket) {
+                        // Copies, so callers never see an entry change (or the bucket grow) under them.
+                        for (Map.Entry<StateActionPair, QEntry> entry : bucket.entrySet()) {
+                            result.add(Map.entry(entry.getKey(), entry.getValue()));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Share of the whole table made up of negative-Q entries for {@code action}; same definition as the
+     * old full-table scan in {@code RLAgent}.
+     */
+    double podFor(StateActions.Action action) {
+        ActionStats actionStats = action == null ? null : stats.get(action);
+        int negatives;
+        if (actionStats == null) {
+            negatives = 0;
+        } else {
+            synchronized (actionStats) {
+                negatives = actionStats.negativeCount;
+            }
+        }
+        return (double) negatives / Math.max(1, size.get());
+    }
+
+    /**
+     * Highest Q recorded for {@code action}, or {@link Double#NEGATIVE_INFINITY} when the action has no entries.
+     */
+    double maxQFor(StateActions.Action action) {
+        ActionStats actionStats = action == null ? null : stats.get(action);
+        if (actionStats == null) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        synchronized (actionStats) {
+            if (actionStats.count == 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            if (actionStats.maxDirty) {
+                recomputeMax(action, actionStats);
+            }
+            return actionStats.maxQ;
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    /** Caller holds {@code actionStats}' lock. */
+    private void recomputeMax(StateActions.Action action, ActionStats actionStats) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (Map<StateActionPair, QEntry> bucket : buckets.values()) {
+            synchronized (bucket) {
+                for (Map.Entry<StateActionPair, QEntry> entry : bucket.entrySet()) {
+                    if (entry.getKey().getAction() == action) {
+                        max = Math.max(max, entry.getValue().getQValue());
+                    }
+                }
+            }
+        }
+        actionStats.maxQ = max;
+        actionStats.maxDirty = false;
+    }
+
+    private static final class ActionStats {
+        int count;
+        int negativeCount;
+        double maxQ = Double.NEGATIVE_INFINITY;
+        // Set when the current max was overwritten by a lower value; resolved lazily on the next read.
+        boolean maxDirty;
+
+        void add(double qValue) {
+            count++;
+            if (qValue < 0) {
+                negativeCount++;
+            }
+            if (qValue >= maxQ) {
+                // A new high-water mark is exact even if the previous max had gone stale.
+                maxQ = qValue;
+                maxDirty = false;
+            }
+        }
+
+        void remove(double qValue) {
+            count--;
+            if (qValue < 0) {
+                negativeCount--;
+            }
+            if (qValue >= maxQ) {
+                maxDirty = true;
+            }
+        }
+    }
+
+    private record BucketKey(String dimension, String timeOfDay, int cellX, int cellY, int cellZ,
+                             int healthBand, int hostileBand, int dangerBand) {
+
+        static BucketKey of(State state) {
+            return new BucketKey(
+                    state.getDimensionType(),
+                    state.getTimeOfDay(),
+                    state.getBotX() >> POSITION_SHIFT,
+                    state.getBotY() >> POSITION_SHIFT,
+                    state.getBotZ() >> POSITION_SHIFT,
+                    Math.max(0, state.getBotHealth()) / HEALTH_BAND,
+                    distanceBand(state.getDistanceToHostileEntity()),
+                    distanceBand(state.getDistanceToDangerZone()));
+        }
+
+        private static int distanceBand(double distance) {
+            if (!(distance > 0)) {
+                return 0;
+            }
+            return (int) Math.min(MAX_DISTANCE_BAND, distance / DISTANCE_BAND);
+        }
+
+        BucketKey withBands(int hostile, int danger) {
+            if (hostile == hostileBand && danger == dangerBand) {
+                return this;
+            }
+            return new BucketKey(dimension, timeOfDay, cellX, cellY, cellZ, healthBand, hostile, danger);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -75,6 +77,11 @@ public class QTableStorage {
         }
     }
 
+    /** Columnar Q-table written by {@link QTableBinaryFormat}. */
+    public static final String QTABLE_FILE = "qtable.qtc";
+    /** Java-serialised Q-table from earlier versions; read once and converted. */
+    public static final String LEGACY_QTABLE_FILE = "qtable.bin";
+
     /**
      * Enhanced Q-table loading with multiple location support
      */
@@ -83,10 +90,9 @@ public class QTableStorage {
 
         for (String dir : possiblePaths) {
             Path baseDir = Paths.get(dir);
-            Path qTablePath = baseDir.resolve("qtable.bin");
-            File file = qTablePath.toFile();
+            Path qTablePath = baseDir.resolve(QTABLE_FILE);
 
-            if (file.exists()) {
+            if (Files.exists(qTablePath)) {
                 try {
                     QTable loadedTable = load(qTablePath.toString());
                     LOGGER.info("✅ Q-table loaded from: {}", qTablePath);
@@ -94,26 +100,19 @@ public class QTableStorage {
                 } catch (Exception e) {
                     LOGGER.warn("❌ Failed to load Q-table from {}: {}", qTablePath, e.getMessage());
                 }
-            } else {
-                Path legacyPath = locateLegacyQTable(baseDir, qTablePath);
-                if (legacyPath != null) {
-                    if (migrateLegacyQTable(legacyPath, qTablePath)) {
-                        try {
-                            QTable migratedTable = load(qTablePath.toString());
-                            LOGGER.info("✅ Loaded migrated Q-table from: {}", qTablePath);
-                            return migratedTable;
-                        } catch (Exception e) {
-                            LOGGER.warn("❌ Failed to load migrated Q-table from {}: {}", qTablePath, e.getMessage());
-                        }
-                    } else {
-                        try {
-                            QTable legacyTable = load(legacyPath.toString());
-                            LOGGER.info("✅ Loaded legacy Q-table directly from: {}", legacyPath);
-                            return legacyTable;
-                        } catch (Exception e) {
-                            LOGGER.warn("❌ Failed to load legacy Q-table from {}: {}", legacyPath, e.getMessage());
-                        }
-                    }
+            }
+
+            Path legacyPath = baseDir.resolve(LEGACY_QTABLE_FILE);
+            if (!Files.exists(legacyPath)) {
+                legacyPath = locateLegacyQTable(baseDir, legacyPath);
+            }
+            if (legacyPath != null) {
+                try {
+                    QTable legacyTable = convertLegacyQTable(legacyPath, qTablePath);
+                    LOGGER.info("✅ Loaded legacy Q-table from: {}", legacyPath);
+                    return legacyTable;
+                } catch (Exception e) {
+                    LOGGER.warn("❌ Failed to load legacy Q-table from {}: {}", legacyPath, e.getMessage());
                 }
             }
         }
@@ -123,11 +122,11 @@ public class QTableStorage {
     }
 
     /**
-     * Enhanced Q-table saving with fallback support
+     * Enhanced Q-table saving with fallback support. Returns whether the table was written somewhere.
      */
-    public static void saveQTable(QTable qTable, String fileName) {
+    public static boolean saveQTable(QTable qTable, String fileName) {
         if (fileName == null) {
-            fileName = "qtable.bin";
+            fileName = QTABLE_FILE;
         }
 
         String workingDir = getQTableDirectory();
@@ -147,13 +146,9 @@ public class QTableStorage {
                 }
             }
 
-            try (FileOutputStream fos = new FileOutputStream(filePath);
-                 ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-
-                oos.writeObject(qTable);
-                LOGGER.info("✅ Q-table saved to: {}", filePath);
-
-            }
+            writeColumnar(qTable, path);
+            LOGGER.info("✅ Q-table saved to: {}", filePath);
+            return true;
         } catch (IOException e) {
             LOGGER.error("❌ Failed to save Q-table to {}: {}", filePath, e.getMessage());
 
@@ -163,16 +158,60 @@ public class QTableStorage {
                 String fallbackPath = fallbackDirs[i] + File.separator + fileName;
                 try {
                     Files.createDirectories(Paths.get(fallbackDirs[i]));
-                    try (FileOutputStream fos = new FileOutputStream(fallbackPath);
-                         ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-                        oos.writeObject(qTable);
-                        LOGGER.info("✅ Q-table saved to fallback location: {}", fallbackPath);
-                        return;
-                    }
+                    writeColumnar(qTable, Paths.get(fallbackPath));
+                    LOGGER.info("✅ Q-table saved to fallback location: {}", fallbackPath);
+                    return true;
                 } catch (Exception e2) {
                     LOGGER.warn("❌ Fallback save failed for {}: {}", fallbackPath, e2.getMessage());
                 }
             }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the Q-table file to read in {@code directory}: the columnar file if present, else the legacy one.
+     */
+    public static String resolveQTableFile(String directory) {
+        Path columnar = Paths.get(directory, QTABLE_FILE);
+        return Files.exists(columnar) ? columnar.toString() : Paths.get(directory, LEGACY_QTABLE_FILE).toString();
+    }
+
+    /**
+     * Reads a legacy Java-serialised Q-table and writes it next to {@code targetPath} in the columnar format.
+     * The legacy file is left in place as a backup.
+     */
+    public static QTable convertLegacyQTable(Path legacyPath, Path targetPath) throws IOException, ClassNotFoundException {
+        QTable table = load(legacyPath.toString());
+        try {
+            Files.createDirectories(targetPath.getParent());
+            writeColumnar(table, targetPath);
+            LOGGER.info("✅ Converted legacy Q-table {} to {}", legacyPath, targetPath);
+        } catch (IOException e) {
+            LOGGER.warn("❌ Failed to convert legacy Q-table {} to {}: {}", legacyPath, targetPath, e.getMessage());
+        }
+        return table;
+    }
+
+    /**
+     * Opens a columnar Q-table file memory-mapped; states are decoded only when a row is read.
+     */
+    public static QTableBinaryFormat.Reader openMapped(String filePath) throws IOException {
+        return QTableBinaryFormat.openMapped(Paths.get(filePath));
+    }
+
+    /**
+     * Writes to a sibling temp file and moves it into place so a crash mid-save never leaves a torn table.
+     */
+    private static void writeColumnar(QTable qTable, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+            QTableBinaryFormat.write(qTable, out);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -184,7 +223,7 @@ public class QTableStorage {
         try (Stream<Path> stream = Files.walk(baseDir, 6)) {
             return stream
                     .filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().equals("qtable.bin"))
+                    .filter(path -> path.getFileName().toString().equals(LEGACY_QTABLE_FILE))
                     .filter(path -> !path.equals(expectedPath))
                     .findFirst()
                     .orElse(null);
@@ -194,18 +233,6 @@ public class QTableStorage {
         }
     }
 
-    private static boolean migrateLegacyQTable(Path legacyPath, Path targetPath) {
-        try {
-            Files.createDirectories(targetPath.getParent());
-            Files.copy(legacyPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
-            LOGGER.info("✅ Migrated legacy Q-table from {} to {}", legacyPath, targetPath);
-            return true;
-        } catch (IOException e) {
-            LOGGER.warn("❌ Failed to migrate legacy Q-table from {} to {}: {}", legacyPath, targetPath, e.getMessage());
-            return false;
-        }
-    }
-
 
 
     /**
@@ -276,7 +303,7 @@ public class QTableStorage {
 
 
     /**
-     * Load the QTable from a binary file.
+     * Load the QTable from a binary file. Both the columnar format and legacy Java-serialised tables are accepted.
      *
      * @param filePath The path to the file where the QTable is stored.
      * @return The loaded QTable object.
@@ -284,7 +311,20 @@ public class QTableStorage {
      * @throws ClassNotFoundException If the class for the serialized object cannot be found.
      */
     public static QTable load(String filePath) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
+        Path path = Paths.get(filePath);
+        if (QTableBinaryFormat.isColumnar(path)) {
+            // Read onto the heap rather than mapping: a live mapping would block the atomic replace on Windows.
+            try {
+                QTable loadedQTable = new QTableBinaryFormat.Reader(ByteBuffer.wrap(Files.readAllBytes(path)), 0).toQTable();
+                LOGGER.info("✅ Q-table loaded successfully from: {}", filePath);
+                return loadedQTable;
+            } catch (IOException e) {
+                LOGGER.error("❌ Error loading Q-table from {}: {}", filePath, e.getMessage());
+                throw e;
+            }
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
             QTable loadedQTable = (QTable) ois.readObject();
             LOGGER.info("✅ Q-table loaded successfully from: {}", filePath);
             return loadedQTable;
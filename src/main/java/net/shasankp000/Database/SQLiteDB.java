@@ -82,9 +82,11 @@ public class SQLiteDB {
                     );
                 """;
                 stmt.executeUpdate(createTable);
+                ensureEmbeddingBlobColumn(stmt);
                 logger.info("✅ Memory table created.");
-                MEMORY_AVAILABLE = true; // Set flag on full success
             }
+            MemoryConnectionPool.start(DB_URL, vecPath);
+            MEMORY_AVAILABLE = true; // Set flag on full success
         } catch (SQLException e) {
             logger.error("❌ DB creation failed: SQLState={}, ErrorCode={}, Message={}",
                     e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
@@ -95,160 +97,148 @@ public class SQLiteDB {
         }
     }
 
+    /**
+     * Queues a memory for the background writer and returns immediately.
+     */
     public static void storeMemory(String type, String prompt, String response, List<Double> embedding) {
-        if (!MEMORY_AVAILABLE) {
+        MemoryConnectionPool pool = MemoryConnectionPool.get();
+        if (!MEMORY_AVAILABLE || pool == null) {
             logger.warn("DB not available, skipping memory storage.");
             return;
         }
-        String sql = """
-            INSERT INTO memories (type, prompt, response, embedding)
-            VALUES (?, ?, ?, ?);
-        """;
-
-        SQLiteConfig config = new SQLiteConfig();
-        config.enableLoadExtension(true);
-
-        try (Connection conn = DriverManager.getConnection(DB_URL, config.toProperties());
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            // We store the embedding as a TEXT vector literal: "[v1,v2,...]"
-            pstmt.setString(1, type);
-            pstmt.setString(2, prompt);
-            pstmt.setString(3, response);
-            pstmt.setString(4, vectorToLiteral(embedding));
-
-            pstmt.executeUpdate();
-            logger.info("📝 Memory stored with vector embedding.");
-        } catch (SQLException e) {
-            logger.error("❌ Failed to store memory: SQLState={}, ErrorCode={}, Message={}",
-                    e.getSQLState(), e.getErrorCode(), e.getMessage());
+        if (!pool.enqueue(new MemoryConnectionPool.PendingMemory(type, prompt, response, List.copyOf(embedding)))) {
+            logger.warn("❌ Memory write queue full; dropping memory of type {}.", type);
         }
     }
 
+    /**
+     * Blocks until queued memories are committed or {@code timeoutMs} passes.
+     */
+    public static boolean flushPendingWrites(long timeoutMs) {
+        MemoryConnectionPool pool = MemoryConnectionPool.get();
+        return pool == null || pool.flush(timeoutMs);
+    }
+
+    /**
+     * Nearest memories of {@code typeFilter} by cosine similarity. Served by the in-process ANN index once it
+     * is built; until then (or if the build failed) the SQL scan over {@code cosine_distance} is used.
+     */
     public static List<Memory> findRelevantMemories(List<Double> queryEmbedding, String typeFilter, int topK) {
-        if (!MEMORY_AVAILABLE) {
+        MemoryConnectionPool pool = MemoryConnectionPool.get();
+        if (!MEMORY_AVAILABLE || pool == null) {
             logger.warn("DB not available, skipping memory search.");
             return new ArrayList<>();
         }
         logger.info("Query embedding size: {}", queryEmbedding.size());
 
-        List<Memory> results = new ArrayList<>();
-        String sql = """
-            SELECT id, type, timestamp, prompt, response,
-                   1 - cosine_distance(embedding, ?) AS similarity
-            FROM memories
-            WHERE type = ?
-            ORDER BY similarity DESC
-            LIMIT ?;
-        """;
-
-        SQLiteConfig config = new SQLiteConfig();
-        config.enableLoadExtension(true);
-
-        try (Connection conn = DriverManager.getConnection(DB_URL, config.toProperties())) {
-
-            // Ensure the distance function exists on THIS connection.
-            // - On macOS/Windows we register our fallback UDF.
-            // - On Linux we try to rely on sqlite-vss (loaded during createDB),
-            //   but if it isn't available for any reason, we still register the UDF.
-            boolean needUdf = isMac() || isWindows();
-            if (!needUdf) {
-                // Linux: you may still end up without vss on a new connection; register UDF as a safety net.
-                needUdf = true;
-            }
-            if (needUdf) {
-                registerCosineDistanceUdf(conn);
+        float[] query = MemoryVectorIndex.toFloats(queryEmbedding);
+        MemoryVectorIndex index = pool.index();
+        try {
+            if (index.isReady()) {
+                List<MemoryVectorIndex.Hit> hits = index.search(typeFilter, query, topK);
+                if (hits.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                return pool.withReader(reader -> fetchHits(reader.fetchById, hits), new ArrayList<>());
             }
-
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, vectorToLiteral(queryEmbedding));
+            return pool.withReader(reader -> {
+                PreparedStatement pstmt = reader.search;
+                pstmt.setBytes(1, MemoryVectorIndex.toBlob(query));
                 pstmt.setString(2, typeFilter);
                 pstmt.setInt(3, topK);
+                return readMemories(pstmt);
+            }, new ArrayList<>());
+        } catch (SQLException e) {
+            logger.error("❌ Vector search failed: SQLState={}, ErrorCode={}, Message={}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-                ResultSet rs = pstmt.executeQuery();
-                while (rs.next()) {
+    private static List<Memory> fetchHits(PreparedStatement byId, List<MemoryVectorIndex.Hit> hits) throws SQLException {
+        List<Memory> results = new ArrayList<>(hits.size());
+        for (MemoryVectorIndex.Hit hit : hits) {
+            byId.setLong(1, hit.rowId());
+            try (ResultSet rs = byId.executeQuery()) {
+                if (rs.next()) {
                     results.add(new Memory(
                             rs.getInt("id"),
                             rs.getString("type"),
                             rs.getString("timestamp"),
                             rs.getString("prompt"),
                             rs.getString("response"),
-                            rs.getDouble("similarity")
+                            hit.similarity()
                     ));
                 }
             }
-
-        } catch (SQLException e) {
-            logger.error("❌ Vector search failed: SQLState={}, ErrorCode={}, Message={}",
-                    e.getSQLState(), e.getErrorCode(), e.getMessage());
         }
-
         return results;
     }
 
     public static List<SQLiteDB.Memory> fetchInitialResponse() {
-        if (!MEMORY_AVAILABLE) {
+        MemoryConnectionPool pool = MemoryConnectionPool.get();
+        if (!MEMORY_AVAILABLE || pool == null) {
             logger.warn("DB not available, skipping initial response fetch.");
             return new ArrayList<>();
         }
-        List<SQLiteDB.Memory> results = new ArrayList<>();
-        String sql = """
-            SELECT id, type, timestamp, prompt, response, 0.0 AS similarity
-            FROM memories
-            WHERE type = 'conversation'
-            ORDER BY id ASC
-            LIMIT 1;
-        """;
 
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try {
+            return pool.withReader(reader -> readMemories(reader.initialResponse), new ArrayList<>());
+        } catch (SQLException e) {
+            logger.error("Caught exception while fetching initial response: {}", e.getMessage());
+            // Do not rethrow, just return empty list.
+            return new ArrayList<>();
+        }
+    }
 
+    private static List<Memory> readMemories(PreparedStatement pstmt) throws SQLException {
+        List<Memory> results = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                results.add(new SQLiteDB.Memory(
+                results.add(new Memory(
                         rs.getInt("id"),
                         rs.getString("type"),
                         rs.getString("timestamp"),
                         rs.getString("prompt"),
                         rs.getString("response"),
-                        0.0
+                        rs.getDouble("similarity")
                 ));
             }
-        } catch (SQLException e) {
-            logger.error("Caught exception while fetching initial response: {}", e.getMessage());
-            // Do not rethrow, just return empty list.
         }
-
         return results;
     }
 
-    private static String vectorToLiteral(List<Double> vec) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vec.size(); i++) {
-            sb.append(vec.get(i));
-            if (i < vec.size() - 1) sb.append(",");
+    /**
+     * Adds {@code embedding_blob} to databases created before embeddings were stored as float BLOBs.
+     */
+    private static void ensureEmbeddingBlobColumn(Statement stmt) throws SQLException {
+        try (ResultSet columns = stmt.executeQuery("PRAGMA table_info(memories);")) {
+            while (columns.next()) {
+                if ("embedding_blob".equals(columns.getString("name"))) {
+                    return;
+                }
+            }
         }
-        sb.append("]");
-        return sb.toString();
+        stmt.executeUpdate("ALTER TABLE memories ADD COLUMN embedding_blob BLOB;");
+        logger.info("✅ Added embedding_blob column to memories.");
     }
 
     /**
-     * Registers a simple TEXT-based cosine_distance(vector_text, vector_text) on the given connection.
-     * Expects both arguments to be "[v1,v2,...]" text literals. Works fine with our storage approach.
+     * Registers cosine_distance(a, b) on the given connection. Each argument may be a "[v1,v2,...]" text literal
+     * (legacy rows) or a little-endian float32 BLOB ({@code embedding_blob}).
      */
-    private static void registerCosineDistanceUdf(Connection conn) {
+    static void registerCosineDistanceUdf(Connection conn) {
         try {
             Function.create(conn, "cosine_distance", new Function() {
+                private static final int SQLITE_BLOB = 4;
+
                 @Override
                 protected void xFunc() throws SQLException {
                     if (args() != 2) {
                         throw new SQLException("cosine_distance() requires exactly 2 arguments");
                     }
-                    String v1Str = value_text(0);
-                    String v2Str = value_text(1);
-
-                    double[] v1 = parseVectorLiteral(v1Str);
-                    double[] v2 = parseVectorLiteral(v2Str);
+                    float[] v1 = vectorArg(0);
+                    float[] v2 = vectorArg(1);
 
                     if (v1.length != v2.length) {
                         throw new SQLException("Vector dimensions do not match");
@@ -266,16 +256,11 @@ public class SQLiteDB {
                     result(1.0 - sim);
                 }
 
-                private double[] parseVectorLiteral(String literal) {
-                    if (literal == null) return new double[0];
-                    String cleaned = literal.replaceAll("[\\[\\]]", "");
-                    if (cleaned.isBlank()) return new double[0];
-                    String[] parts = cleaned.split(",");
-                    double[] vec = new double[parts.length];
-                    for (int i = 0; i < parts.length; i++) {
-                        vec[i] = Double.parseDouble(parts[i].trim());
+                private float[] vectorArg(int arg) throws SQLException {
+                    if (value_type(arg) == SQLITE_BLOB) {
+                        return MemoryVectorIndex.fromBlob(value_blob(arg));
                     }
-                    return vec;
+                    return MemoryVectorIndex.parseLiteral(value_text(arg));
                 }
             });
             logger.info("✅ Registered fallback cosine_distance UDF on current connection.");
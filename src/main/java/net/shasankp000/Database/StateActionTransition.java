@@ -4,6 +4,10 @@ import net.shasankp000.GameAI.State;
 import net.shasankp000.GameAI.StateActions;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -88,11 +92,23 @@ public class StateActionTransition implements Serializable {
     }
 
     /**
-     * Append a single transition to the Q-table file.
+     * Append this chunk to a transition log. New logs are a sequence of columnar documents
+     * ({@link QTableBinaryFormat}); a log that was started with Java serialisation keeps that format.
      *
      * @param filePath the file to save to
      */
     public void appendTransition(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        if (Files.exists(path) && Files.size(path) > 0 && QTableBinaryFormat.isJavaSerialized(path)) {
+            appendLegacy(filePath);
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath, true))) {
+            QTableBinaryFormat.write(this, out);
+        }
+    }
+
+    private void appendLegacy(String filePath) throws IOException {
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath, true)) {
             @Override
             protected void writeStreamHeader() throws IOException {
@@ -104,21 +120,28 @@ public class StateActionTransition implements Serializable {
     }
 
     /**
-     * Load the Q-table file in chunks.
+     * Load the Q-table file in chunks. Columnar and legacy Java-serialised logs are both accepted.
      *
      * @param filePath the file to read from
      * @return a list of StateActionTransition objects
      */
     public static List<StateActionTransition> loadQTableInChunks(String filePath) throws IOException, ClassNotFoundException {
         List<StateActionTransition> transitions = new ArrayList<>();
+        Path path = Paths.get(filePath);
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
-            while (true) {
-                try {
-                    StateActionTransition transition = (StateActionTransition) ois.readObject();
-                    transitions.add(transition);
-                } catch (EOFException e) {
-                    break;
+        if (QTableBinaryFormat.isColumnar(path)) {
+            for (QTableBinaryFormat.Reader reader : QTableBinaryFormat.readAll(ByteBuffer.wrap(Files.readAllBytes(path)))) {
+                transitions.add(reader.toTransitions());
+            }
+        } else {
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+                while (true) {
+                    try {
+                        StateActionTransition transition = (StateActionTransition) ois.readObject();
+                        transitions.add(transition);
+                    } catch (EOFException e) {
+                        break;
+                    }
                 }
             }
         }
@@ -159,8 +182,8 @@ public class StateActionTransition implements Serializable {
      * @param filePath the file to save to
      */
     public void saveTransitionMap(String filePath) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
-            oos.writeObject(this);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath))) {
+            QTableBinaryFormat.write(this, out);
         }
     }
 }
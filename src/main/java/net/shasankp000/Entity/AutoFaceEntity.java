@@ -1,7 +1,6 @@
 package net.shasankp000.Entity;
 
 import net.shasankp000.Entity.RayCasting;
-import net.shasankp000.EntityUtil;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -18,7 +17,11 @@ import net.shasankp000.ChatUtils.ChatUtils;
 import net.shasankp000.Database.QTable;
 import net.shasankp000.GameAI.BotActions;
 import net.shasankp000.GameAI.BotEventHandler;
+import net.shasankp000.GameAI.services.BotPerfService;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.GameAI.services.HealingService;
+import net.shasankp000.GameAI.services.PerceptionService;
+import net.shasankp000.GameAI.services.QTableService;
 import net.shasankp000.GameAI.services.SneakLockService;
 import net.shasankp000.GameAI.services.TaskService;
 import net.shasankp000.GameAI.services.SkillResumeService;
@@ -26,12 +29,10 @@ import net.shasankp000.GameAI.RLAgent;
 import net.shasankp000.GameAI.skills.SkillManager;
 import net.shasankp000.Commands.modCommandRegistry;
 import net.shasankp000.Database.QTableStorage;
-import net.shasankp000.PlayerUtils.BlockDistanceLimitedSearch;
 import net.shasankp000.PlayerUtils.CombatInventoryManager;
 import net.shasankp000.PlayerUtils.blockDetectionUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import net.shasankp000.DangerZoneDetector.DangerZoneDetector;
 import net.shasankp000.PathFinding.PathTracer;
 
 import net.minecraft.registry.tag.FluidTags;
@@ -44,11 +45,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -57,18 +56,12 @@ public class AutoFaceEntity {
     public static final Logger LOGGER = LoggerFactory.getLogger("ai-player");
     private static final double BOUNDING_BOX_SIZE = 10.0; // Detection range in blocks
     private static final long LOOP_INTERVAL_MS = 200; // Interval for behaviour loop
-    private static final ExecutorService executor3 = Executors.newSingleThreadExecutor();
     private static final long EMOTE_COOLDOWN_TICKS = 20L * 45; // ~45 seconds
     private static final long HOSTILE_COOLDOWN_TICKS = 20L * 15; // wait 15 seconds after combat
     private static final double EMOTE_MAX_DISTANCE = 6.0D;
     private static final double EMOTE_LOOK_THRESHOLD = 0.65D;
     private static final Random EMOTE_RANDOM = new Random();
     private static final long EMOTE_CROUCH_MS = 900L;
-    private static final ScheduledExecutorService EMOTE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
-        Thread t = new Thread(runnable, "ambient-emote");
-        t.setDaemon(true);
-        return t;
-    });
     private static final long DANGER_MESSAGE_COOLDOWN_MS = 4000L;
     public static boolean botBusy;
     private static boolean botExecutingTask;
@@ -82,7 +75,8 @@ public class AutoFaceEntity {
     public static RLAgent rlAgent;
     public static List<Entity> hostileEntities;
 
-    private static final Map<UUID, ScheduledExecutorService> botExecutors = new ConcurrentHashMap<>();
+    private static final String AUTOFACE_LOOP = "autoface";
+    private static final Set<UUID> autoFaceBots = ConcurrentHashMap.newKeySet();
     private static final Map<UUID, AtomicBoolean> autoFaceInFlight = new ConcurrentHashMap<>();
     public static boolean isBotMoving = false;
     private static volatile long lastDangerMessageMs = 0L;
@@ -97,24 +91,13 @@ public class AutoFaceEntity {
 
     public static void startAutoFace(ServerPlayerEntity bot) {
         UUID botId = bot.getUuid();
-        shutdownExecutorsWithUuid(botId);
         stopAutoFace(bot);
-
-        ScheduledExecutorService botExecutor = Executors.newSingleThreadScheduledExecutor();
-
-        botExecutors.put(botId, botExecutor);
+        autoFaceBots.add(botId);
 
         MinecraftServer server = bot.getCommandSource().getServer();
 
-        // Load Q-table from storage
-        try {
-            qTable = QTableStorage.loadQTable();
-            LOGGER.debug("Loaded Q-table from storage.");
-
-        } catch (Exception e) {
-            LOGGER.warn("No existing Q-table found. Starting fresh.", e);
-            qTable = new QTable();
-        }
+        // Shared Q-table, loaded once when the server started
+        qTable = QTableService.shared();
 
 
         // RL agent hook
@@ -147,7 +130,7 @@ public class AutoFaceEntity {
         RLAgent finalRlAgent = rlAgent;
         autoFaceInFlight.computeIfAbsent(bot.getUuid(), uuid -> new AtomicBoolean(false));
 
-        botExecutor.scheduleAtFixedRate(() -> {
+        BotScheduler.scheduleLoop(botId, AUTOFACE_LOOP, () -> {
             if (server == null) {
                 return;
             }
@@ -157,13 +140,15 @@ public class AutoFaceEntity {
             }
             final MinecraftServer dispatchServer = server;
             dispatchServer.execute(() -> {
+                long perfStart = BotPerfService.start();
                 try {
                     runAutoFaceTick(bot, dispatchServer, finalRlAgent);
                 } finally {
+                    BotPerfService.record(bot, BotPerfService.Probe.AUTO_FACE, perfStart);
                     guard.set(false);
                 }
             });
-        }, 0, LOOP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }, 0, LOOP_INTERVAL_MS);
 
     }
 
@@ -215,10 +200,9 @@ public class AutoFaceEntity {
             return;
         }
 
-        List<Entity> nearbyEntities = detectNearbyEntities(bot, BOUNDING_BOX_SIZE);
-        hostileEntities = nearbyEntities.stream()
-                .filter(EntityUtil::isHostile)
-                .toList();
+        PerceptionService.Snapshot perception = PerceptionService.snapshot(bot);
+        List<Entity> nearbyEntities = perception.nearbyEntities();
+        hostileEntities = perception.hostileEntities();
 
         if (!hostileEntities.isEmpty()) {
             lastHostileTick = server.getTicks();
@@ -233,10 +217,8 @@ public class AutoFaceEntity {
             return;
         }
 
-        BlockDistanceLimitedSearch blockDistanceLimitedSearch = new BlockDistanceLimitedSearch(bot, 3, 5);
-        List<String> nearbyBlocks = blockDistanceLimitedSearch.detectNearbyBlocks();
-        boolean hasSculkNearby = nearbyBlocks.stream()
-                .anyMatch(block -> block.contains("Sculk Sensor") || block.contains("Sculk Shrieker"));
+        boolean hasSculkNearby = perception.sculkNearby();
+        double dangerDistance = perception.dangerDistance();
 
         if (!hostileEntities.isEmpty()) {
             botBusy = true;
@@ -308,8 +290,7 @@ public class AutoFaceEntity {
                 }
             }
 
-        } else if ((DangerZoneDetector.detectDangerZone(bot, 10, 10, 10) <= 5
-                && DangerZoneDetector.detectDangerZone(bot, 10, 10, 10) != 0) || hasSculkNearby) {
+        } else if ((dangerDistance <= 5 && dangerDistance != 0) || hasSculkNearby) {
 
             LOGGER.debug("Triggering handler for danger zone case");
             isBotMoving = false;
@@ -392,11 +373,9 @@ public class AutoFaceEntity {
     }
 
     public static void onServerStopped(MinecraftServer minecraftServer) {
-        executor3.submit(() -> {
-            for (UUID uuid : new ArrayList<>(botExecutors.keySet())) {
-                shutdownExecutorsWithUuid(uuid);
-            }
-        });
+        for (UUID uuid : new ArrayList<>(autoFaceBots)) {
+            shutdownAutoFace(uuid);
+        }
     }
 
 
@@ -405,49 +384,25 @@ public class AutoFaceEntity {
             return;
         }
         UUID key = bot.getUuid();
-        ScheduledExecutorService executor = botExecutors.remove(key);
-        if (executor != null && !executor.isShutdown()) {
-            executor.shutdownNow();
-            try {
-                executor.awaitTermination(1, TimeUnit.SECONDS);
-
-                LOGGER.debug("Autoface stopped.");
-
-            } catch (InterruptedException e) {
-                LOGGER.debug("Error shutting down executor for bot: {}", bot.getName().getString(), e);
-                Thread.currentThread().interrupt();
-            }
+        if (autoFaceBots.remove(key)) {
+            BotScheduler.cancelLoop(key, AUTOFACE_LOOP);
+            LOGGER.debug("Autoface stopped.");
         }
         BotActions.resetRangedState(bot);
         autoFaceInFlight.remove(key);
     }
 
-    private static void shutdownExecutorsWithUuid(UUID uuid) {
+    private static void shutdownAutoFace(UUID uuid) {
         if (uuid == null) {
             return;
         }
-        ScheduledExecutorService executor = botExecutors.remove(uuid);
-        if (executor != null) {
-            shutdownExecutor(executor);
+        if (autoFaceBots.remove(uuid)) {
+            BotScheduler.cancelLoop(uuid, AUTOFACE_LOOP);
             BotActions.resetRangedState(uuid);
         }
         autoFaceInFlight.remove(uuid);
     }
 
-    private static void shutdownExecutor(ScheduledExecutorService executor) {
-        if (executor == null) {
-            return;
-        }
-        if (!executor.isShutdown()) {
-            executor.shutdownNow();
-            try {
-                executor.awaitTermination(1, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
 
     public static void handleBotRespawn(ServerPlayerEntity bot) {
         // Ensure complete cleanup before restart
@@ -605,7 +560,7 @@ public class AutoFaceEntity {
             }
             BotActions.sneak(bot, true);
         });
-        EMOTE_EXECUTOR.schedule(() -> server.execute(() -> {
+        BotScheduler.schedule(id, () -> server.execute(() -> {
             if (bot.isRemoved()) {
                 return;
             }
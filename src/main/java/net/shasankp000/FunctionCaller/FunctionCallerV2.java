@@ -18,7 +18,6 @@ import io.github.amithkoujalgi.ollama4j.core.models.chat.OllamaChatRequestModel;
 
 import io.github.amithkoujalgi.ollama4j.core.models.chat.OllamaChatResult;
 
-import io.github.amithkoujalgi.ollama4j.core.types.OllamaModelType;
 
 import java.io.IOException;
 
@@ -74,6 +73,7 @@ import net.shasankp000.GameAI.llm.LLMActionQueue;
 import net.shasankp000.GameAI.skills.SkillContext;
 import net.shasankp000.GameAI.skills.SkillExecutionResult;
 import net.shasankp000.GameAI.skills.SkillManager;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.GameAI.services.SkillResumeService;
 import net.shasankp000.Database.OldSQLiteDB;
 import net.shasankp000.Entity.AutoFaceEntity;
@@ -105,11 +105,15 @@ public class FunctionCallerV2 {
 
     private static final OllamaAPI ollamaAPI = new OllamaAPI(host);
 
-    private static volatile String functionOutput = null;
+    /** What the tool running on this thread reported through {@link #getFunctionOutput}. */
+    private static final ThreadLocal<String> STEP_OUTPUT = new ThreadLocal<>();
 
-    private static final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // At most four function-call pipelines run at once, as with the old fixed pool.
+    private static final Semaphore PIPELINE_PERMITS = new Semaphore(4);
 
-    private static final Map<String, Object> sharedState = new ConcurrentHashMap<>();  // Updated to Map<String, Object>
+    /** Pipeline state (detected blocks, last positions, skill results) per bot, so concurrent bots don't mix values. */
+    private static final Map<UUID, Map<String, Object>> BOT_STATE = new ConcurrentHashMap<>();
+    private static final Map<String, Object> UNBOUND_STATE = new ConcurrentHashMap<>();
 
     private static ServerCommandSource currentBotSource() {
         return ACTIVE_BOT_SOURCE.get();
@@ -187,8 +191,13 @@ public class FunctionCallerV2 {
         ollamaAPI.setRequestTimeoutSeconds(90);
     }
 
-    public static Map<String, Object> getSharedState() {
-        return sharedState;
+    public static Map<String, Object> getSharedState(UUID botId) {
+        return botId == null ? UNBOUND_STATE : BOT_STATE.computeIfAbsent(botId, id -> new ConcurrentHashMap<>());
+    }
+
+    private static Map<String, Object> currentState() {
+        ServerCommandSource source = currentBotSource();
+        return getSharedState(source != null && source.getEntity() != null ? source.getEntity().getUuid() : null);
     }
 
     private static class ExecutionRecord {
@@ -260,13 +269,20 @@ public class FunctionCallerV2 {
     }
 
     private static void getFunctionOutput(String method) {
-        functionOutput = String.valueOf(method);
+        STEP_OUTPUT.set(String.valueOf(method));
     }
 
     private static void submitWithContext(Runnable runnable) {
         ServerCommandSource source = currentBotSource();
         UUID commander = currentPlayerUUID();
-        executor.submit(() -> {
+        UUID owner = source != null && source.getEntity() != null ? source.getEntity().getUuid() : null;
+        BotScheduler.runAsync(owner, "function-call", () -> {
+            try {
+                PIPELINE_PERMITS.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
             ACTIVE_BOT_SOURCE.set(source);
             ACTIVE_PLAYER_UUID.set(commander);
             try {
@@ -274,6 +290,7 @@ public class FunctionCallerV2 {
             } finally {
                 ACTIVE_BOT_SOURCE.remove();
                 ACTIVE_PLAYER_UUID.remove();
+                PIPELINE_PERMITS.release();
             }
         });
     }
@@ -378,10 +395,10 @@ public class FunctionCallerV2 {
                 if (outputPos == null) {
                     output = "Block not found!";
                 } else {
-                    SharedStateUtils.setValue(sharedState, "lastDetectedBlock.pos", outputPos);
-                    SharedStateUtils.setValue(sharedState, "lastDetectedBlock.x", outputPos.getX());
-                    SharedStateUtils.setValue(sharedState, "lastDetectedBlock.y", outputPos.getY());
-                    SharedStateUtils.setValue(sharedState, "lastDetectedBlock.z", outputPos.getZ());
+                    SharedStateUtils.setValue(currentState(), "lastDetectedBlock.pos", outputPos);
+                    SharedStateUtils.setValue(currentState(), "lastDetectedBlock.x", outputPos.getX());
+                    SharedStateUtils.setValue(currentState(), "lastDetectedBlock.y", outputPos.getY());
+                    SharedStateUtils.setValue(currentState(), "lastDetectedBlock.z", outputPos.getZ());
                     output = "Block found at " + outputPos.getX() + " " + outputPos.getY() + " " + outputPos.getZ();
                 }
                 getFunctionOutput(output);
@@ -420,25 +437,15 @@ public class FunctionCallerV2 {
         /** mineBlock: break block **/
         private static void mineBlock(int targetX, int targetY, int targetZ) {
             System.out.println("Mining block at: " + targetX + ", " + targetY + ", " + targetZ);
-            if (currentBotSource() == null || currentBotSource().getPlayer() == null) {
+            // Resolve the bot here: the bot source is a thread-local of the step thread.
+            ServerPlayerEntity bot = currentBotSource() != null ? currentBotSource().getPlayer() : null;
+            if (bot == null) {
                 getFunctionOutput("Bot not found.");
                 return;
             }
             try {
-                // ✅ Use CompletableFuture.get() to wait for completion
-                CompletableFuture<String> miningFuture = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return MiningTool.mineBlock(
-                                Objects.requireNonNull(currentBotSource().getPlayer()),
-                                new BlockPos(targetX, targetY, targetZ)
-                        ).get();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        return "⚠️ Failed to mine block: " + e.getMessage();
-                    }
-                });
                 // Wait for result with timeout
-                String result = miningFuture.get(10, TimeUnit.SECONDS);
+                String result = MiningTool.mineBlock(bot, new BlockPos(targetX, targetY, targetZ)).get(10, TimeUnit.SECONDS);
                 getFunctionOutput(result);
             } catch (Exception e) {
                 logger.error("Error in mineBlock: ", e);
@@ -542,14 +549,16 @@ public class FunctionCallerV2 {
         /** chopWood: chop a wood block **/
         private static void chopWood(String treeType) {
             System.out.println("Chopping wood of type: " + treeType);
-            if (currentBotSource() == null || currentBotSource().getPlayer() == null) {
+            // Resolve the bot here: the bot source is a thread-local of the step thread.
+            ServerPlayerEntity bot = currentBotSource() != null ? currentBotSource().getPlayer() : null;
+            if (bot == null) {
                 getFunctionOutput("Bot not found.");
                 return;
             }
             try {
                 // 1. Detect the block
-                blockDetectionUnit.detectBlocks(Objects.requireNonNull(currentBotSource().getPlayer()), treeType);
-                BlockPos detectedPos = (BlockPos) SharedStateUtils.getValue(sharedState, "lastDetectedBlock.pos");
+                blockDetectionUnit.detectBlocks(bot, treeType);
+                BlockPos detectedPos = (BlockPos) SharedStateUtils.getValue(currentState(), "lastDetectedBlock.pos");
                 if (detectedPos == null) {
                     getFunctionOutput("No " + treeType + " found.");
                     return;
@@ -561,18 +570,7 @@ public class FunctionCallerV2 {
                     return;
                 }
                 // 3. Mine the block
-                CompletableFuture<String> miningFuture = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return MiningTool.mineBlock(
-                                Objects.requireNonNull(currentBotSource().getPlayer()),
-                                detectedPos
-                        ).get();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        return "⚠️ Failed to mine block: " + e.getMessage();
-                    }
-                });
-                String mineResult = miningFuture.get(10, TimeUnit.SECONDS);
+                String mineResult = MiningTool.mineBlock(bot, detectedPos).get(10, TimeUnit.SECONDS);
                 getFunctionOutput(mineResult);
             } catch (Exception e) {
                 logger.error("Error in chopWood: ", e);
@@ -590,7 +588,7 @@ public class FunctionCallerV2 {
             try {
                 SkillExecutionResult result = SkillManager.runSkill(
                         "dirt_shovel",
-                        new SkillContext(currentBotSource(), sharedState)
+                        new SkillContext(currentBotSource(), currentState())
                 );
                 getFunctionOutput(result.message());
             } catch (Exception e) {
@@ -637,7 +635,7 @@ public class FunctionCallerV2 {
                         params.put("lockDirection", true);
                     }
                 }
-                SkillContext skillContext = new SkillContext(bot.getCommandSource(), sharedState, params);
+                SkillContext skillContext = new SkillContext(bot.getCommandSource(), currentState(), params);
                 SkillExecutionResult result = SkillManager.runSkill(skillName, skillContext);
                 getFunctionOutput(result.message());
             } catch (Exception e) {
@@ -656,27 +654,28 @@ public class FunctionCallerV2 {
         }
     }
 
-    private static String toolBuilder() {
-        var gson = new Gson();
-        List<Map<String, Object>> functions = ToolRegistry.TOOLS.stream().map(tool -> {
-            return Map.of(
-                    "name", tool.name(),
-                    "description", tool.description(),
-                    PARAMETERS_KEY, tool.parameters().stream().map(param -> Map.of(
-                            "name", param.name(),
-                            "description", param.description(),
-                            "required", true
-                    )).toList()
-            );
-        }).toList();
-        return gson.toJson(Map.of("functions", functions));
+    /** The instruction prompt for this bot's persona, rendered once per persona around the cached tool catalog. */
+    private static String systemPrompt() {
+        return PromptAssembler.systemPrompt(resolvePersona(), persona -> buildPrompt(PromptAssembler.toolCatalog(), persona));
     }
 
-    // This code right here is pure EUREKA moment.
-    private static String buildPrompt(String toolString) {
-        return buildPrompt(toolString, resolvePersona());
+    /** {@link #systemPrompt()} followed by the bot's current context. */
+    private static String fullSystemPrompt() {
+        ServerPlayerEntity bot = currentBotSource().getPlayer();
+        Map<String, Object> state = currentState();
+        String botContext = PromptAssembler.botContext(bot, state, () -> renderBotContext(bot, state));
+        return PromptAssembler.withBotContext(systemPrompt(), botContext);
+    }
+
+    private static String renderBotContext(ServerPlayerEntity bot, Map<String, Object> state) {
+        State initialState = BotEventHandler.createInitialState(bot);
+        InternalMap map = new InternalMap(bot, 1, 1); // 1-block radius in all directions
+        map.updateMap();
+        Map<String, Object> surroundings = new HashMap<>(map.summarizeSurroundings());
+        return buildLLMBotContext(initialState, state, surroundings);
     }
 
+    // This code right here is pure EUREKA moment.
     private static String buildPrompt(String toolString, String personaInstructions) {
         String persona = (personaInstructions == null || personaInstructions.isBlank()) ? DEFAULT_PERSONA : personaInstructions;
         return String.format("""
@@ -971,7 +970,7 @@ public class FunctionCallerV2 {
                 And the correct placeholders to use per tool: \n
                 
                 %s
-                 Do remember to add a placeholder symbol: $ in front of each parameter name when designing the pipeline json.""", persona, toolString, functionStateKeyMap);
+                 Do remember to add a placeholder symbol: $ in front of each parameter name when designing the pipeline json.""", persona, toolString, new TreeMap<>(functionStateKeyMap));
     }
 
     private static String resolvePersona() {
@@ -1371,20 +1370,8 @@ public class FunctionCallerV2 {
     public static void run(String userPrompt) {
         ollamaAPI.setRequestTimeoutSeconds(600);
         OllamaChatRequestBuilder builder = OllamaChatRequestBuilder.getInstance(selectedLM);
-        String systemPrompt = FunctionCallerV2.buildPrompt(toolBuilder());
         String response;
-        State initialState = BotEventHandler.createInitialState(currentBotSource().getPlayer());
-        InternalMap map = new InternalMap(currentBotSource().getPlayer(), 1, 1); // 1-block radius in all directions
-        map.updateMap();
-        // If method returns Map<String, String>
-        Map<String, String> surroundingsStr = map.summarizeSurroundings();
-        Map<String, Object> surroundings = new HashMap<>();
-        for (Map.Entry<String, String> entry : surroundingsStr.entrySet()) {
-            surroundings.put(entry.getKey(), entry.getValue());
-        }
-
-        String botContext = buildLLMBotContext(initialState, sharedState, surroundings);
-        String fullSystemPrompt = systemPrompt + "\n\nBot's context information:\n" + botContext;
+        String fullSystemPrompt = fullSystemPrompt();
         try {
             OllamaChatRequestModel requestModel = builder
                     .withMessage(OllamaChatMessageRole.SYSTEM, fullSystemPrompt)
@@ -1406,24 +1393,22 @@ public class FunctionCallerV2 {
     }
 
     public static void run(String userPrompt, LLMClient client, boolean expectAction) {
-        String systemPrompt = FunctionCallerV2.buildPrompt(toolBuilder());
         String response;
-        State initialState = BotEventHandler.createInitialState(currentBotSource().getPlayer());
-        InternalMap map = new InternalMap(currentBotSource().getPlayer(), 1, 1); // 1-block radius in all directions
-        map.updateMap();
-        // If method returns Map<String, String>
-        Map<String, String> surroundingsStr = map.summarizeSurroundings();
-        Map<String, Object> surroundings = new HashMap<>();
-        for (Map.Entry<String, String> entry : surroundingsStr.entrySet()) {
-            surroundings.put(entry.getKey(), entry.getValue());
-        }
-
-        String botContext = buildLLMBotContext(initialState, sharedState, surroundings);
-        String fullSystemPrompt = systemPrompt + "\n\nBot's context information:\n" + botContext;
+        String fullSystemPrompt = fullSystemPrompt();
         try {
-            response = client.sendPrompt(fullSystemPrompt, userPrompt);
+            // Stream the reply and stop generation as soon as the first complete tool call has arrived.
+            StringBuilder streamed = new StringBuilder();
+            String[] earlyCall = new String[1];
+            client.streamPrompt(fullSystemPrompt, userPrompt, chunk -> {
+                streamed.append(chunk);
+                if (chunk.indexOf('}') >= 0) {
+                    earlyCall[0] = completeToolCall(streamed);
+                }
+                return earlyCall[0] == null;
+            });
+            response = streamed.toString();
             logger.info("Raw LLM Response: {}", response);
-            String jsonPart = extractJson(response);
+            String jsonPart = earlyCall[0] != null ? earlyCall[0] : extractJson(response);
             logger.info("Extracted JSON: {}", jsonPart);
             executeFunction(userPrompt, jsonPart, client, expectAction);
         } catch (Exception e) {
@@ -1470,6 +1455,15 @@ public class FunctionCallerV2 {
         return "{}";
     }
 
+    /**
+     * The first {@code functionName} object in a partial response once it is closed and parses, else null.
+     * This is the same object {@link #extractJson} would pick from the finished response.
+     */
+    private static String completeToolCall(CharSequence partial) {
+        String candidate = extractObjectContaining(partial.toString().trim(), "\"functionName\"");
+        return candidate != null && isValidJson(candidate) ? candidate : null;
+    }
+
     private static String extractObjectContaining(String text, String marker) {
         int idx = text.indexOf(marker);
         if (idx == -1) {
@@ -1627,10 +1621,8 @@ public class FunctionCallerV2 {
                     AutoFaceEntity.setBotExecutingTask(true);
                     try {
                         logger.info("Executing: {} with {}", fnName, paramMap);
-                        callFunction(fnName, paramMap).join();
-                    } catch (CompletionException ce) {
-                        logger.error("Function {} execution failed: {}", fnName,
-                                ce.getCause() != null ? ce.getCause().getMessage() : ce.getMessage(), ce);
+                        String output = invokeTool(fnName, paramMap);
+                        mergeState(fnName, outputValues(fnName, output));
                     } catch (Exception e) {
                         logger.error("Function {} execution failed: {}", fnName, e.getMessage(), e);
                     } finally {
@@ -2024,11 +2016,13 @@ public class FunctionCallerV2 {
         return normalized;
     }
 
+    private static final Pattern FIRST_NUMBER = Pattern.compile("(\\d+)");
+
     private static int extractCountFromMessage(String message) {
         if (message == null) {
             return 0;
         }
-        Matcher matcher = Pattern.compile("(\\d+)").matcher(message);
+        Matcher matcher = FIRST_NUMBER.matcher(message);
         if (matcher.find()) {
             try {
                 return Integer.parseInt(matcher.group(1));
@@ -2039,203 +2033,179 @@ public class FunctionCallerV2 {
     }
 
     private static void runPipelineLoopInternal(JsonArray pipeline, LLMClient client) {
-        List<JsonObject> steps = new ArrayList<>();
+        List<PipelineExecutor.Step> steps = toSteps(pipeline);
         List<String> executedSteps = new ArrayList<>();
-        for (JsonElement step : pipeline) {
-            steps.add(step.getAsJsonObject());
-        }
-
-        Deque<JsonObject> pipelineStack = new ArrayDeque<>(steps); // Keep FIFO order
-        int totalSteps = pipelineStack.size();
-        logger.info("🚀 Starting pipeline with {} step(s)", totalSteps);
-        System.out.println("[FunctionCaller] Starting pipeline with " + totalSteps + " step(s)");
-        OllamaChatRequestBuilder builder = OllamaChatRequestBuilder.getInstance(selectedLM);
-        String systemPrompt = FunctionCallerV2.buildPrompt(toolBuilder());
+        logger.info("🚀 Starting pipeline with {} step(s)", steps.size());
+        System.out.println("[FunctionCaller] Starting pipeline with " + steps.size() + " step(s)");
         final int maxRetries = 3;
         int retryCount = 0;
 
-        while (!pipelineStack.isEmpty()) {
-            JsonObject step = pipelineStack.pop();
-            String functionName = step.get(FUNCTION_NAME_KEY).getAsString();
-            JsonArray parameters = step.getAsJsonArray(PARAMETERS_KEY);
-            Map<String, String> paramMap = new HashMap<>();
-            for (JsonElement param : parameters) {
-                JsonObject paramObj = param.getAsJsonObject();
-                String paramName = paramObj.get(PARAMETER_NAME_KEY).getAsString();
-                String paramValue = resolvePlaceholder(paramObj.get(PARAMETER_VALUE_KEY).getAsString());
-                paramMap.put(paramName, paramValue);
-            }
-
-            boolean hasUnresolved = paramMap.values().stream().anyMatch(v -> v.equals("__UNRESOLVED__"));
-            if (hasUnresolved) {
-                logger.warn("⚠️ One or more parameters in step '{}' are unresolved. Triggering LLM fallback.", functionName);
-                if (retryCount >= maxRetries) {
-                    logger.error("❌ Max LLM fallback retries reached due to unresolved parameters. Aborting.");
-                    break;
+        ServerCommandSource source = currentBotSource();
+        UUID commander = currentPlayerUUID();
+        UUID owner = source != null && source.getEntity() != null ? source.getEntity().getUuid() : null;
+        Map<String, Object> state = getSharedState(owner);
+        Executor stepExecutor = task -> BotScheduler.runAsync(owner, "pipeline-step", () -> runWithContext(source, commander, task));
+
+        while (!steps.isEmpty()) {
+            PipelineExecutor.Outcome outcome = PipelineExecutor.run(steps, state, FunctionCallerV2::producedKeys,
+                    ToolRegistry::isReadOnly, FunctionCallerV2::runPipelineStep, stepExecutor);
+            executedSteps.addAll(outcome.executed());
+            PipelineExecutor.Failure failure = outcome.failure();
+            if (failure == null) {
+                break;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warn("Pipeline interrupted at step {}", failure.step().functionName());
+                break;
+            }
+            String functionName = failure.step().functionName();
+            String newPrompt;
+            switch (failure.kind()) {
+                case UNRESOLVED -> {
+                    logger.warn("⚠️ One or more parameters in step '{}' are unresolved. Triggering LLM fallback.", functionName);
+                    newPrompt = "The following steps in the pipeline were successfully executed:\n"
+                            + String.join("\n", executedSteps)
+                            + "\n\nExecution failed at step: " + functionName
+                            + "\nCause: One or more placeholders could not be resolved from shared state.";
                 }
-                String newPrompt = "The following steps in the pipeline were successfully executed:\n"
+                case VERIFIER -> newPrompt = "The following steps were executed successfully:\n"
                         + String.join("\n", executedSteps)
                         + "\n\nExecution failed at step: " + functionName
-                        + "\nCause: One or more placeholders could not be resolved from shared state.";
-                try {
-                    State initialState = BotEventHandler.createInitialState(currentBotSource().getPlayer());
-                    InternalMap map = new InternalMap(currentBotSource().getPlayer(), 1, 1);
-                    map.updateMap();
-                    // If method returns Map<String, String>
-                    Map<String, String> surroundingsStr = map.summarizeSurroundings();
-                    Map<String, Object> surroundings = new HashMap<>();
-                    for (Map.Entry<String, String> entry : surroundingsStr.entrySet()) {
-                        surroundings.put(entry.getKey(), entry.getValue());
-                    }
-
-                    String botContext = buildLLMBotContext(initialState, sharedState, surroundings);
-                    String fullSystemPrompt = systemPrompt + "\n\nBot's context information:\n" + botContext;
-                    String llmResponse;
-                    if (client == null) {
-                        OllamaChatRequestModel requestModel = builder
-                                .withMessage(OllamaChatMessageRole.SYSTEM, fullSystemPrompt)
-                                .withMessage(OllamaChatMessageRole.USER, newPrompt)
-                                .build();
-                        OllamaChatResult result = ollamaAPI.chat(requestModel);
-                        llmResponse = result.getResponse();
-                    } else {
-                        llmResponse = client.sendPrompt(fullSystemPrompt, newPrompt);
-                    }
-                    logger.info("Raw LLM response: {}", llmResponse);
-                    String jsonPart = extractJson(llmResponse);
-                    logger.info("Extracted JSON: {}", jsonPart);
-                    JsonObject llmResponseObj = JsonParser.parseString(jsonPart).getAsJsonObject();
-
-                    if (llmResponseObj.has(PIPELINE_KEY)) {
-                        logger.info("LLM provided NEW pipeline. Rebuilding stack.");
-                        retryCount = 0;
-                        JsonArray newPipeline = llmResponseObj.getAsJsonArray(PIPELINE_KEY);
-                        pipelineStack.clear();
-                        List<JsonObject> newSteps = new ArrayList<>();
-                        for (JsonElement e : newPipeline) {
-                            newSteps.add(e.getAsJsonObject());
-                        }
-                        pipelineStack.addAll(newSteps);
-                        continue;
-                    } else if (llmResponseObj.has(CLARIFICATION_KEY)) {
-                        logger.info("LLM requested clarification. Relaying to player.");
-                        String clarification = llmResponseObj.get(CLARIFICATION_KEY).getAsString();
-                        ChatContextManager.setPendingClarification(currentPlayerUUID(), "A recent action failed.", clarification, currentBotSource().getName());
-                        // sendMessageToPlayer(clarification); // Removed as per refactoring
-                        break;
-                    } else {
-                        logger.warn("LLM did not return a pipeline or clarification. Exiting.");
-                        break;
-                    }
-                } catch (Exception e) {
-                    logger.error("❌ Error in LLM fallback after unresolved parameters: {}", e);
-                    retryCount++;
-                    continue;
+                        + "\nFunction output: " + failure.output()
+                        + "\nVerification details: " + failure.detail();
+                default -> {
+                    logger.error("❌ Step {} failed: {}. Aborting pipeline.", functionName, failure.detail());
+                    newPrompt = null;
                 }
             }
+            if (newPrompt == null) {
+                break;
+            }
+            if (retryCount >= maxRetries) {
+                logger.error("❌ Max LLM fallback retries reached after {} failure. Aborting.", failure.kind());
+                break;
+            }
+            try {
+                JsonArray replanned = replanPipeline(newPrompt, client);
+                if (replanned == null) {
+                    break;
+                }
+                logger.info("LLM provided NEW pipeline. Rebuilding stack.");
+                retryCount = 0;
+                steps = toSteps(replanned);
+            } catch (Exception e) {
+                logger.error("❌ Error in LLM fallback after {} failure: {}", failure.kind(), e);
+                retryCount++;
+                // As before, the failed step is dropped and the rest of the pipeline carries on.
+                steps = outcome.remaining().subList(1, outcome.remaining().size());
+            }
+        }
+        logger.info("🏁 Pipeline finished. Executed {} step(s).", executedSteps.size());
+        System.out.println("[FunctionCaller] Pipeline finished. Executed " + executedSteps.size() + " step(s).");
+    }
+
+    private static List<PipelineExecutor.Step> toSteps(JsonArray pipeline) {
+        List<PipelineExecutor.Step> steps = new ArrayList<>();
+        for (JsonElement element : pipeline) {
+            JsonObject step = element.getAsJsonObject();
+            Map<String, String> paramMap = new LinkedHashMap<>();
+            for (JsonElement param : step.getAsJsonArray(PARAMETERS_KEY)) {
+                JsonObject paramObj = param.getAsJsonObject();
+                paramMap.put(paramObj.get(PARAMETER_NAME_KEY).getAsString(), paramObj.get(PARAMETER_VALUE_KEY).getAsString());
+            }
+            steps.add(new PipelineExecutor.Step(steps.size(), step.get(FUNCTION_NAME_KEY).getAsString(), paramMap));
+        }
+        return steps;
+    }
+
+    /**
+     * Asks the LLM how to recover from a failed step. Returns the replacement pipeline, or null once the player has
+     * been asked for clarification or the reply was unusable.
+     */
+    private static JsonArray replanPipeline(String newPrompt, LLMClient client) throws Exception {
+        String fullSystemPrompt = fullSystemPrompt();
+        String llmResponse;
+        if (client == null) {
+            OllamaChatRequestModel requestModel = OllamaChatRequestBuilder.getInstance(selectedLM)
+                    .withMessage(OllamaChatMessageRole.SYSTEM, fullSystemPrompt)
+                    .withMessage(OllamaChatMessageRole.USER, newPrompt)
+                    .build();
+            OllamaChatResult result = ollamaAPI.chat(requestModel);
+            llmResponse = result.getResponse();
+        } else {
+            llmResponse = client.sendPrompt(fullSystemPrompt, newPrompt);
+        }
+        logger.info("Raw LLM response: {}", llmResponse);
+        String jsonPart = extractJson(llmResponse);
+        logger.info("Extracted JSON: {}", jsonPart);
+        JsonObject llmResponseObj = JsonParser.parseString(jsonPart).getAsJsonObject();
+
+        if (llmResponseObj.has(PIPELINE_KEY)) {
+            return llmResponseObj.getAsJsonArray(PIPELINE_KEY);
+        } else if (llmResponseObj.has(CLARIFICATION_KEY)) {
+            logger.info("LLM requested clarification. Relaying to player.");
+            String clarification = llmResponseObj.get(CLARIFICATION_KEY).getAsString();
+            ChatContextManager.setPendingClarification(currentPlayerUUID(), "A recent action failed.", clarification, currentBotSource().getName());
+        } else {
+            logger.warn("LLM did not return a pipeline or clarification. Exiting.");
+        }
+        return null;
+    }
 
-            int currentStep = executedSteps.size() + 1;
-            logger.info("▶️ Step {}/{} → {} with {}", currentStep, totalSteps, functionName, paramMap);
-            System.out.println("[FunctionCaller] Step " + currentStep + "/" + totalSteps + " executing " + functionName + " params=" + paramMap);
-            callFunction(functionName, paramMap).join(); // Sync call
-            logger.info("Function output: {}", functionOutput);
-            System.out.println("[FunctionCaller] Step " + currentStep + " output=" + functionOutput);
-            parseOutputValues(functionName, functionOutput);
+    /** Runs one pipeline step on a step-executor thread, with the bot's context installed. */
+    private static PipelineExecutor.StepResult runPipelineStep(PipelineExecutor.Step step, Map<String, String> paramMap) {
+        String functionName = step.functionName();
+        logger.info("▶️ Step {} → {} with {}", step.index() + 1, functionName, paramMap);
+        System.out.println("[FunctionCaller] Step " + (step.index() + 1) + " executing " + functionName + " params=" + paramMap);
+        String output = invokeTool(functionName, paramMap);
+        logger.info("Function output: {}", output);
+        System.out.println("[FunctionCaller] Step " + (step.index() + 1) + " output=" + output);
+        Map<String, Object> values = outputValues(functionName, output);
+        mergeState(functionName, values);
 
+        if (!ToolRegistry.isReadOnly(functionName)) {
             // Short wait for state to settle (e.g., for movement tools)
             try {
                 Thread.sleep(100);
             } catch (InterruptedException e) {
-                logger.warn("Interrupted during state settle wait");
-            }
-
-            // Get bot entity
-            ServerPlayerEntity bot = currentBotSource().getPlayer();
-            if (bot == null) {
-                logger.error("Bot entity not found for verification");
-                continue;
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted during state settle wait");
             }
+        }
 
-            // Use state-based verifier
-            ToolVerifiers.StateVerifier verifier = ToolVerifiers.VERIFIER_REGISTRY.get(functionName);
-            ToolVerifiers.VerificationResult result = (verifier == null)
-                    ? new ToolVerifiers.VerificationResult(true, null)
-                    : verifier.verify(paramMap, sharedState, bot);
+        ServerPlayerEntity bot = currentBotSource() != null ? currentBotSource().getPlayer() : null;
+        if (bot == null) {
+            logger.error("Bot entity not found for verification");
+            return new PipelineExecutor.StepResult(output, values);
+        }
 
-            if (result.success) {
-                logger.info("✅ Verifier passed for {} with data: {}", functionName, result.data);
-                System.out.println("[FunctionCaller] Verifier success for " + functionName + " data=" + result.data);
-                executedSteps.add(functionName + ", Output: " + functionOutput);
-            } else {
-                logger.warn("❌ Verifier failed for {} with data: {}", functionName, result.data);
-                System.out.println("[FunctionCaller] Verifier failed for " + functionName + " data=" + result.data);
-                if (retryCount >= maxRetries) {
-                    logger.error("❌ Max LLM fallback retries reached due to verifier failures. Aborting.");
-                    break;
-                }
-                String newPrompt = "The following steps were executed successfully:\n"
-                        + String.join("\n", executedSteps)
-                        + "\n\nExecution failed at step: " + functionName
-                        + "\nFunction output: " + functionOutput
-                        + "\nVerification details: " + result.data;
-                try {
-                    State initialState = BotEventHandler.createInitialState(currentBotSource().getPlayer());
-                    InternalMap map = new InternalMap(currentBotSource().getPlayer(), 1, 1);
-                    map.updateMap();
-                    // If method returns Map<String, String>
-                    Map<String, String> surroundingsStr = map.summarizeSurroundings();
-                    Map<String, Object> surroundings = new HashMap<>();
-                    for (Map.Entry<String, String> entry : surroundingsStr.entrySet()) {
-                        surroundings.put(entry.getKey(), entry.getValue());
-                    }
+        // Use state-based verifier
+        ToolVerifiers.StateVerifier verifier = ToolVerifiers.VERIFIER_REGISTRY.get(functionName);
+        ToolVerifiers.VerificationResult result = (verifier == null)
+                ? new ToolVerifiers.VerificationResult(true, null)
+                : verifier.verify(paramMap, currentState(), bot);
+        if (!result.success) {
+            logger.warn("❌ Verifier failed for {} with data: {}", functionName, result.data);
+            System.out.println("[FunctionCaller] Verifier failed for " + functionName + " data=" + result.data);
+            throw new PipelineExecutor.StepFailure(PipelineExecutor.FailureKind.VERIFIER, output, String.valueOf(result.data));
+        }
+        logger.info("✅ Verifier passed for {} with data: {}", functionName, result.data);
+        System.out.println("[FunctionCaller] Verifier success for " + functionName + " data=" + result.data);
+        return new PipelineExecutor.StepResult(output, values);
+    }
 
-                    String botContext = buildLLMBotContext(initialState, sharedState, surroundings);
-                    String fullSystemPrompt = systemPrompt + "\n\nBot's context information:\n" + botContext;
-                    String llmResponse;
-                    if (client == null) {
-                        OllamaChatRequestModel requestModel = builder
-                                .withMessage(OllamaChatMessageRole.SYSTEM, fullSystemPrompt)
-                                .withMessage(OllamaChatMessageRole.USER, newPrompt)
-                                .build();
-                        OllamaChatResult llmResult = ollamaAPI.chat(requestModel);
-                        llmResponse = llmResult.getResponse();
-                    } else {
-                        llmResponse = client.sendPrompt(fullSystemPrompt, newPrompt);
-                    }
-                    logger.info("Raw LLM response: {}", llmResponse);
-                    String jsonPart = extractJson(llmResponse);
-                    logger.info("Extracted JSON: {}", jsonPart);
-                    JsonObject llmResponseObj = JsonParser.parseString(jsonPart).getAsJsonObject();
-
-                    if (llmResponseObj.has(PIPELINE_KEY)) {
-                        logger.info("LLM provided NEW pipeline. Rebuilding stack.");
-                        retryCount = 0;
-                        JsonArray newPipeline = llmResponseObj.getAsJsonArray(PIPELINE_KEY);
-                        pipelineStack.clear();
-                        List<JsonObject> newSteps = new ArrayList<>();
-                        for (JsonElement e : newPipeline) {
-                            newSteps.add(e.getAsJsonObject());
-                        }
-                        pipelineStack.addAll(newSteps);
-                    } else if (llmResponseObj.has(CLARIFICATION_KEY)) {
-                        logger.info("LLM requested clarification. Relaying to player.");
-                        String clarification = llmResponseObj.get(CLARIFICATION_KEY).getAsString();
-                        ChatContextManager.setPendingClarification(currentPlayerUUID(), "A recent action failed.", clarification, currentBotSource().getName());
-                        // sendMessageToPlayer(clarification); // Removed as per refactoring
-                        break;
-                    } else {
-                        logger.warn("LLM did not return a pipeline or clarification. Exiting.");
-                        break;
-                    }
-                } catch (Exception e) {
-                    logger.error("❌ Error in LLM fallback after verifier failure: {}", e);
-                    retryCount++;
-                    continue;
-                }
+    /** State keys a step writes, so later steps' placeholders wait for it. */
+    private static Collection<String> producedKeys(PipelineExecutor.Step step) {
+        Set<String> keys = new LinkedHashSet<>(functionStateKeyMap.getOrDefault(step.functionName(), List.of()));
+        ToolRegistry.TOOLS.stream()
+                .filter(tool -> tool.name().equals(step.functionName()))
+                .forEach(tool -> keys.addAll(tool.stateKeys()));
+        if ("updateState".equals(step.functionName()) && step.parameters().get("keys") != null) {
+            for (String key : step.parameters().get("keys").split(",")) {
+                keys.add(key.trim());
             }
         }
-        logger.info("🏁 Pipeline finished. Executed {} step(s).", executedSteps.size());
-        System.out.println("[FunctionCaller] Pipeline finished. Executed " + executedSteps.size() + " step(s).");
+        return keys;
     }
 
     private static final Map<String, List<String>> functionStateKeyMap = Map.ofEntries(
@@ -2255,14 +2225,27 @@ public class FunctionCallerV2 {
             Map.entry("runSkill", List.of("lastSkillResult.message"))
     );
 
-    private static void parseOutputValues(String functionName, String output) {
+    // Output parsers for outputValues, compiled once rather than per tool call.
+    private static final Pattern GOTO_POSITION = Pattern.compile("x[:=]\\s*(-?\\d+)\\s*y[:=]\\s*(-?\\d+)\\s*z[:=]\\s*(-?\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DETECTED_BLOCK = Pattern.compile(".*found at (-?\\d+) (-?\\d+) (-?\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TURN_FACING = Pattern.compile("Now facing (\\w+) which is in (\\w+).*in (\\w+) axis", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOOK_FACING = Pattern.compile("Now facing cardinal direction (\\w+) which is in (\\w+).*in (\\w+) axis", Pattern.CASE_INSENSITIVE);
+    private static final Pattern OXYGEN_LEVEL = Pattern.compile("Oxygen Level[:=]\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HUNGER_LEVEL = Pattern.compile("Hunger Level[:=]\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEALTH_LEVEL = Pattern.compile("Remaining hearts[:=]\\s*([\\d.]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FACE_BLOCK_ANGLES = Pattern.compile("Yaw[:=]\\s*([\\d.-]+).*Pitch[:=]\\s*([\\d.-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FACED_ENTITY = Pattern.compile("Facing entity[:=]\\s*(.+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CHARTED_POSITION = Pattern.compile("Bot is at (-?\\d+) (-?\\d+) (-?\\d+)");
+
+    /** State values parsed from a tool's output, keyed as in {@link #functionStateKeyMap}. */
+    private static Map<String, Object> outputValues(String functionName, String output) {
         List<String> keys = functionStateKeyMap.get(functionName);
-        if (keys == null || keys.isEmpty()) return;
+        if (keys == null || keys.isEmpty() || output == null) return Map.of();
 
         List<Object> values = new ArrayList<>();
         switch (functionName) {
             case "goTo" -> {
-                Matcher matcher = Pattern.compile("x[:=]\\s*(-?\\d+)\\s*y[:=]\\s*(-?\\d+)\\s*z[:=]\\s*(-?\\d+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = GOTO_POSITION.matcher(output);
                 if (matcher.find()) {
                     values.add(Integer.parseInt(matcher.group(1)));
                     values.add(Integer.parseInt(matcher.group(2)));
@@ -2270,7 +2253,7 @@ public class FunctionCallerV2 {
                 }
             }
             case "detectBlocks" -> {
-                Matcher matcher = Pattern.compile(".*found at (-?\\d+) (-?\\d+) (-?\\d+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = DETECTED_BLOCK.matcher(output);
                 if (matcher.find()) {
                     values.add(Integer.parseInt(matcher.group(1)));
                     values.add(Integer.parseInt(matcher.group(2)));
@@ -2278,7 +2261,7 @@ public class FunctionCallerV2 {
                 }
             }
             case "turn" -> {
-                Matcher matcher = Pattern.compile("Now facing (\\w+) which is in (\\w+).*in (\\w+) axis", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = TURN_FACING.matcher(output);
                 if (matcher.find()) {
                     values.add(matcher.group(1));
                     values.add(matcher.group(2));
@@ -2286,7 +2269,7 @@ public class FunctionCallerV2 {
                 }
             }
             case "look" -> {
-                Matcher matcher = Pattern.compile("Now facing cardinal direction (\\w+) which is in (\\w+).*in (\\w+) axis", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = LOOK_FACING.matcher(output);
                 if (matcher.find()) {
                     values.add(matcher.group(1));
                     values.add(matcher.group(2));
@@ -2301,30 +2284,30 @@ public class FunctionCallerV2 {
                 }
             }
             case "getOxygenLevel" -> {
-                Matcher matcher = Pattern.compile("Oxygen Level[:=]\\s*(\\d+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = OXYGEN_LEVEL.matcher(output);
                 if (matcher.find()) values.add(Integer.parseInt(matcher.group(1)));
             }
             case "getHungerLevel" -> {
-                Matcher matcher = Pattern.compile("Hunger Level[:=]\\s*(\\d+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = HUNGER_LEVEL.matcher(output);
                 if (matcher.find()) values.add(Integer.parseInt(matcher.group(1)));
             }
             case "getHealthLevel" -> {
-                Matcher matcher = Pattern.compile("Remaining hearts[:=]\\s*([\\d.]+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = HEALTH_LEVEL.matcher(output);
                 if (matcher.find()) values.add(Double.parseDouble(matcher.group(1)));
             }
             case "faceBlock" -> {
-                Matcher matcher = Pattern.compile("Yaw[:=]\\s*([\\d.-]+).*Pitch[:=]\\s*([\\d.-]+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = FACE_BLOCK_ANGLES.matcher(output);
                 if (matcher.find()) {
                     values.add(Double.parseDouble(matcher.group(1)));
                     values.add(Double.parseDouble(matcher.group(2)));
                 }
             }
             case "faceEntity" -> {
-                Matcher matcher = Pattern.compile("Facing entity[:=]\\s*(.+)", Pattern.CASE_INSENSITIVE).matcher(output);
+                Matcher matcher = FACED_ENTITY.matcher(output);
                 if (matcher.find()) values.add(matcher.group(1));
             }
             case "chartPathToBlock" -> {
-                Matcher matcher = Pattern.compile("Bot is at (-?\\d+) (-?\\d+) (-?\\d+)").matcher(output);
+                Matcher matcher = CHARTED_POSITION.matcher(output);
                 if (matcher.find()) {
                     values.add(Integer.parseInt(matcher.group(1)));
                     values.add(Integer.parseInt(matcher.group(2)));
@@ -2350,50 +2333,27 @@ public class FunctionCallerV2 {
             }
         }
 
-        if (values.size() == keys.size()) {
-            updateState(keys, values);
-        } else {
+        if (values.size() != keys.size()) {
             logger.warn("❌ Mismatch in keys/values for {} → keys: {}, values: {}", functionName, keys, values);
+            return Map.of();
         }
+        Map<String, Object> parsed = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            parsed.put(keys.get(i), values.get(i));
+        }
+        return parsed;
     }
 
-    private static void getFunctionResultAndSave(String userInput, String executionDateTime) {
-        try {
-            // Generate context synchronously
-            String eventContext = generatePromptContext(userInput);
-            // Generate event embedding synchronously
-            List<Double> eventEmbedding = ollamaAPI.generateEmbeddings(OllamaModelType.NOMIC_EMBED_TEXT, userInput);
-            // Generate event context embedding synchronously
-            List<Double> eventContextEmbedding = ollamaAPI.generateEmbeddings(OllamaModelType.NOMIC_EMBED_TEXT, eventContext);
-            // Wait until functionOutput is a valid string
-            while (functionOutput == null || !(functionOutput instanceof String)) {
-                try {
-                    Thread.sleep(500L); // Check every 500ms
-                } catch (InterruptedException e) {
-                    logger.error("Couldn't get function call output");
-                    throw new RuntimeException(e);
-                }
-            }
-            System.out.println("Received output: " + functionOutput);
-            // Generate result embedding based on the function output
-            List<Double> resultEmbedding = ollamaAPI.generateEmbeddings(OllamaModelType.NOMIC_EMBED_TEXT, functionOutput);
-            // Create execution record and save it
-            ExecutionRecord executionRecord = new ExecutionRecord(executionDateTime, userInput, eventContext, functionOutput, eventEmbedding, eventContextEmbedding, resultEmbedding);
-            executionRecord.updateRecords();
-            // Clear the functionOutput to reset state
-            functionOutput = null;
-            System.out.println("Event data saved successfully.");
-        } catch (IOException | OllamaBaseException | InterruptedException e) {
-            // Log or handle the exception
-            logger.error("Error occurred while processing the function result: ", e);
-            throw new RuntimeException(e);
+    private static void mergeState(String functionName, Map<String, Object> values) {
+        if (!values.isEmpty()) {
+            updateState(new ArrayList<>(values.keySet()), new ArrayList<>(values.values()));
         }
     }
 
     private static String resolvePlaceholder(String value) {
         if (value.startsWith("$")) {
             String key = value.substring(1);
-            Object resolvedObj = SharedStateUtils.getValue(sharedState, key);
+            Object resolvedObj = SharedStateUtils.getValue(currentState(), key);
             if (resolvedObj == null) {
                 logger.warn("⚠️ Placeholder '{}' not found in sharedState. Using fallback value '0'", key);
                 return "0";
@@ -2407,13 +2367,18 @@ public class FunctionCallerV2 {
 
     private static void updateState(List<String> keys, List<Object> values) {
         for (int i = 0; i < keys.size(); i++) {
-            SharedStateUtils.setValue(sharedState, keys.get(i), values.get(i));
+            SharedStateUtils.setValue(currentState(), keys.get(i), values.get(i));
             logger.info("📌 Updated sharedState: {} → {}", keys.get(i), values.get(i));
         }
     }
 
-    private static CompletableFuture<Void> callFunction(String functionName, Map<String, String> paramMap) {
-        return CompletableFuture.runAsync(() -> {
+    /**
+     * Runs a tool on the calling thread, which must carry the bot's context, and returns what it reported (null if
+     * it reported nothing).
+     */
+    private static String invokeTool(String functionName, Map<String, String> paramMap) {
+        STEP_OUTPUT.remove();
+        try {
             switch (functionName) {
                 case "goTo" -> {
                     int x = Integer.parseInt(resolvePlaceholder(paramMap.get("x")));
@@ -2537,7 +2502,7 @@ public class FunctionCallerV2 {
                     updateState(keys, values);
                     logger.info("Called updateState with keys={} and values={}", keys, values);
                 }
-                // Add this new case to your existing switch statement inside the callFunction method.
+                // Add this new case to your existing switch statement inside the invokeTool method.
                 case "webSearch" -> {
                     String query = paramMap.get("query");
                     logger.info("Calling method: webSearch with query='{}'", query);
@@ -2562,6 +2527,9 @@ public class FunctionCallerV2 {
                 }
                 default -> logger.warn("Unknown function: {}", functionName);
             }
-        });
+            return STEP_OUTPUT.get();
+        } finally {
+            STEP_OUTPUT.remove();
+        }
     }
 }
@@ -0,0 +1,250 @@
+package net.shasankp000.FunctionCaller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs an LLM-emitted pipeline as a dependency graph instead of a strict sequence.
+ *
+ * <p>A step depends on the step that last produced each {@code $placeholder} it references, and steps are
+ * ordered like readers and writers: a step that changes the bot or world waits for everything before it, while
+ * a run of read-only tools between two such steps starts together. Each step's future carries the values it
+ * produced, so a dependent's placeholders resolve from its producer directly rather than from whatever a
+ * parallel step last wrote into the bot's state. Once a step fails, steps that have not started are skipped.
+ */
+final class PipelineExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("function-caller");
+
+    static final String UNRESOLVED = "__UNRESOLVED__";
+
+    record Step(int index, String functionName, Map<String, String> parameters) {
+    }
+
+    /** What a step returned: its raw output and the state values parsed from it. */
+    record StepResult(String output, Map<String, Object> values) {
+    }
+
+    enum FailureKind {
+        /** A placeholder had no value once the step's dependencies finished. */
+        UNRESOLVED,
+        /** The tool ran but its verifier rejected the result. */
+        VERIFIER,
+        /** The tool threw, or the pipeline was interrupted. */
+        ERROR
+    }
+
+    /** Thrown by a {@link StepRunner} to fail its step with a specific cause. */
+    static final class StepFailure extends RuntimeException {
+        private final FailureKind kind;
+        private final String output;
+        private final String detail;
+
+        StepFailure(FailureKind kind, String output, String detail) {
+            super(kind + (detail == null ? "" : ": " + detail), null, false, false);
+            this.kind = kind;
+            this.output = output;
+            this.detail = detail;
+        }
+    }
+
+    record Failure(Step step, FailureKind kind, String output, String detail) {
+    }
+
+    /**
+     * @param executed  {@code "<function>, Output: <output>"} for each step that succeeded, in pipeline order
+     * @param remaining steps that did not succeed (the failed one included), in pipeline order
+     * @param failure   the earliest failed step, or null if the pipeline completed
+     */
+    record Outcome(List<String> executed, List<Step> remaining, Failure failure) {
+    }
+
+    @FunctionalInterface
+    interface StepRunner {
+        /**
+         * Runs one step with its placeholders already resolved. Called on a thread from the step executor.
+         */
+        StepResult run(Step step, Map<String, String> resolvedParameters);
+    }
+
+    private PipelineExecutor() {
+    }
+
+    /**
+     * Runs {@code steps} and waits for them to finish.
+     *
+     * @param state        the bot's state, for placeholders no step in this pipeline produces
+     * @param producedKeys state keys a step writes, by step
+     * @param readOnly     tools that neither move the bot nor change the world
+     * @param executor     runs each step (with the bot's context installed)
+     */
+    static Outcome run(List<Step> steps,
+                       Map<String, Object> state,
+                       Function<Step, Collection<String>> producedKeys,
+                       Predicate<String> readOnly,
+                       StepRunner runner,
+                       Executor executor) {
+        int count = steps.size();
+        Map<String, Integer>[] producers = producersByStep(steps, producedKeys);
+        List<TreeSet<Integer>> dependencies = dependencies(steps, producers, readOnly);
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<StepResult>[] futures = new CompletableFuture[count];
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        for (int i = 0; i < count; i++) {
+            Step step = steps.get(i);
+            CompletableFuture<?>[] upstream = dependencies.get(i).stream().map(d -> futures[d]).toArray(CompletableFuture[]::new);
+            Map<String, Integer> stepProducers = producers[i];
+            futures[i] = CompletableFuture.allOf(upstream).thenApplyAsync(ignored -> {
+                if (aborted.get()) {
+                    throw new CancellationException("pipeline aborted");
+                }
+                Map<String, String> resolved = resolve(step, stepProducers, futures, state);
+                if (resolved.containsValue(UNRESOLVED)) {
+                    throw new StepFailure(FailureKind.UNRESOLVED, null, "unresolved placeholder in " + step.parameters());
+                }
+                return runner.run(step, resolved);
+            }, executor);
+            futures[i].whenComplete((result, error) -> {
+                if (error != null) {
+                    aborted.set(true);
+                }
+            });
+        }
+
+        try {
+            CompletableFuture.allOf(futures).get();
+        } catch (InterruptedException e) {
+            aborted.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Reported per step below.
+        }
+
+        List<String> executed = new ArrayList<>();
+        List<Step> remaining = new ArrayList<>();
+        Failure failure = null;
+        for (int i = 0; i < count; i++) {
+            Step step = steps.get(i);
+            CompletableFuture<StepResult> future = futures[i];
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                executed.add(step.functionName() + ", Output: " + future.join().output());
+                continue;
+            }
+            remaining.add(step);
+            if (failure == null) {
+                // A step skipped because a parallel sibling failed first is not the cause.
+                failure = failureOf(step, future);
+            }
+        }
+        if (failure == null && !remaining.isEmpty()) {
+            failure = new Failure(remaining.get(0), FailureKind.ERROR, null, "interrupted");
+        }
+        return new Outcome(executed, remaining, failure);
+    }
+
+    /**
+     * Dependency edges: the producer of each referenced placeholder, plus reader/writer ordering.
+     */
+    private static List<TreeSet<Integer>> dependencies(List<Step> steps, Map<String, Integer>[] producers,
+                                                       Predicate<String> readOnly) {
+        List<TreeSet<Integer>> dependencies = new ArrayList<>(steps.size());
+        List<Integer> readsSinceWrite = new ArrayList<>();
+        int lastWriter = -1;
+        for (int i = 0; i < steps.size(); i++) {
+            TreeSet<Integer> deps = new TreeSet<>(producers[i].values());
+            if (lastWriter >= 0) {
+                deps.add(lastWriter);
+            }
+            if (readOnly.test(steps.get(i).functionName())) {
+                readsSinceWrite.add(i);
+            } else {
+                deps.addAll(readsSinceWrite);
+                readsSinceWrite.clear();
+                lastWriter = i;
+            }
+            dependencies.add(deps);
+        }
+        return dependencies;
+    }
+
+    /** For each step, which earlier step produces each of its placeholders. */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer>[] producersByStep(List<Step> steps, Function<Step, Collection<String>> producedKeys) {
+        Map<String, Integer>[] producers = new Map[steps.size()];
+        Map<String, Integer> lastProducer = new HashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            Map<String, Integer> mine = new HashMap<>();
+            for (String value : steps.get(i).parameters().values()) {
+                String key = placeholderKey(value);
+                if (key != null && lastProducer.containsKey(key)) {
+                    mine.put(key, lastProducer.get(key));
+                }
+            }
+            producers[i] = mine;
+            for (String key : producedKeys.apply(steps.get(i))) {
+                lastProducer.put(key, i);
+            }
+        }
+        return producers;
+    }
+
+    private static Map<String, String> resolve(Step step, Map<String, Integer> producers,
+                                               CompletableFuture<StepResult>[] futures, Map<String, Object> state) {
+        Map<String, String> resolved = new LinkedHashMap<>();
+        step.parameters().forEach((name, value) -> {
+            String key = placeholderKey(value);
+            if (key == null) {
+                resolved.put(name, value);
+                return;
+            }
+            Integer producer = producers.get(key);
+            Object produced = producer != null ? futures[producer].join().values().get(key) : null;
+            resolved.put(name, produced != null ? produced.toString() : SharedStateUtils.resolveAsString(state, key));
+        });
+        return resolved;
+    }
+
+    private static String placeholderKey(String value) {
+        return value != null && value.length() > 1 && value.startsWith("$") ? value.substring(1) : null;
+    }
+
+    private static Failure failureOf(Step step, CompletableFuture<StepResult> future) {
+        if (!future.isDone()) {
+            return null;
+        }
+        Throwable error;
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            error = e.getCause() != null ? e.getCause() : e;
+        } catch (CancellationException e) {
+            error = e;
+        }
+        if (error instanceof StepFailure failure) {
+            return new Failure(step, failure.kind, failure.output, failure.detail);
+        }
+        if (error instanceof CancellationException) {
+            return null;
+        }
+        LOGGER.error("Pipeline step {} ({}) failed: {}", step.index() + 1, step.functionName(), error.getMessage(), error);
+        return new Failure(step, FailureKind.ERROR, null, String.valueOf(error.getMessage()));
+    }
+}
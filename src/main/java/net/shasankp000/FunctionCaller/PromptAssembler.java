@@ -0,0 +1,115 @@
+package net.shasankp000.FunctionCaller;
+
+import com.google.gson.Gson;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.shasankp000.ServiceLLMClients.LLMClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds function-caller system prompts so that everything except the bot's live context is byte-identical from
+ * one command to the next.
+ *
+ * <p>The tool catalog is rendered once, and the instructions are rendered once per persona. The bot context is
+ * always appended last, after {@link LLMClient#CONTEXT_BOUNDARY}. Providers that cache prompt prefixes (Ollama
+ * with the model kept loaded, Anthropic prompt caching, OpenAI cached input) therefore only process the short
+ * context section again. The context is re-rendered only when a cheap fingerprint of the bot changes or the
+ * previous rendering is more than {@link #CONTEXT_TTL_MS} old, because nearby mobs move without the bot moving.
+ */
+final class PromptAssembler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("function-caller");
+
+    static final long CONTEXT_TTL_MS = 2_000L;
+
+    private static volatile String toolCatalog;
+    private static final Map<String, String> SYSTEM_PROMPTS = new ConcurrentHashMap<>();
+    private static final Map<UUID, ContextSnapshot> CONTEXTS = new ConcurrentHashMap<>();
+
+    private record ContextSnapshot(int fingerprint, long renderedAt, String context) {
+    }
+
+    private PromptAssembler() {
+    }
+
+    /**
+     * JSON catalog of {@link ToolRegistry#TOOLS}, rendered once with a stable key order.
+     */
+    static String toolCatalog() {
+        String catalog = toolCatalog;
+        if (catalog == null) {
+            List<Map<String, Object>> functions = ToolRegistry.TOOLS.stream().map(tool -> {
+                Map<String, Object> function = new LinkedHashMap<>();
+                function.put("name", tool.name());
+                function.put("description", tool.description());
+                function.put("parameters", tool.parameters().stream().map(param -> {
+                    Map<String, Object> parameter = new LinkedHashMap<>();
+                    parameter.put("name", param.name());
+                    parameter.put("description", param.description());
+                    parameter.put("required", true);
+                    return parameter;
+                }).toList());
+                return function;
+            }).toList();
+            catalog = new Gson().toJson(Map.of("functions", functions));
+            toolCatalog = catalog;
+        }
+        return catalog;
+    }
+
+    /**
+     * The instruction prompt for {@code persona}, rendered by {@code render} the first time it is asked for.
+     */
+    static String systemPrompt(String persona, Function<String, String> render) {
+        return SYSTEM_PROMPTS.computeIfAbsent(persona == null ? "" : persona, render);
+    }
+
+    /**
+     * The bot's context section. Reuses the last rendering while the bot's position, vitals, held item and facing
+     * are unchanged and it is younger than {@link #CONTEXT_TTL_MS}.
+     */
+    static String botContext(ServerPlayerEntity bot, Map<String, Object> state, Supplier<String> render) {
+        if (bot == null) {
+            return render.get();
+        }
+        int fingerprint = fingerprint(bot, state);
+        long now = System.currentTimeMillis();
+        ContextSnapshot previous = CONTEXTS.get(bot.getUuid());
+        if (previous != null && previous.fingerprint() == fingerprint && now - previous.renderedAt() < CONTEXT_TTL_MS) {
+            return previous.context();
+        }
+        String context = render.get();
+        CONTEXTS.put(bot.getUuid(), new ContextSnapshot(fingerprint, now, context));
+        LOGGER.debug("Re-rendered prompt context for {}", bot.getName().getString());
+        return context;
+    }
+
+    /**
+     * {@code systemPrompt} followed by the context section, so the stable part is always the prefix.
+     */
+    static String withBotContext(String systemPrompt, String botContext) {
+        return systemPrompt + LLMClient.CONTEXT_BOUNDARY + botContext;
+    }
+
+    private static int fingerprint(ServerPlayerEntity bot, Map<String, Object> state) {
+        return Objects.hash(
+                bot.getBlockPos().asLong(),
+                bot.getHealth(),
+                bot.getHungerManager().getFoodLevel(),
+                bot.getAir(),
+                bot.getMainHandStack().getItem(),
+                bot.getHorizontalFacing(),
+                SharedStateUtils.getValue(state, "facing.direction"),
+                SharedStateUtils.getValue(state, "facing.facing"),
+                SharedStateUtils.getValue(state, "facing.axis"));
+    }
+}
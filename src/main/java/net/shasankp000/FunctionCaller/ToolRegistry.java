@@ -305,4 +305,12 @@ public class ToolRegistry {
         return name != null && TOOL_NAME_SET.contains(name);
     }
 
+    /** Tools that only observe: they neither move the bot nor change the world, so pipelines may run them together. */
+    private static final Set<String> READ_ONLY_TOOLS = Set.of(
+            "detectBlocks", "getOxygenLevel", "getHungerLevel", "getHealthLevel", "webSearch");
+
+    public static boolean isReadOnly(String name) {
+        return name != null && READ_ONLY_TOOLS.contains(name);
+    }
+
 }
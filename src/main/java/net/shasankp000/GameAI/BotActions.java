@@ -28,6 +28,7 @@ import net.minecraft.world.RaycastContext;
 
 import net.shasankp000.GameAI.services.MovementService;
 import net.shasankp000.GameAI.services.SneakLockService;
+import net.shasankp000.GameAI.services.WorldAccessService;
 
 
 
@@ -80,15 +81,7 @@ public final class BotActions {
             action.run();
             return true;
         }
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                action.run();
-                future.complete(null);
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
+        CompletableFuture<Void> future = WorldAccessService.run(server, action);
         try {
             future.get(Math.max(250L, timeoutMs), TimeUnit.MILLISECONDS);
             return true;
@@ -108,14 +101,7 @@ public final class BotActions {
         if (server == null || server.isOnThread()) {
             return action.get();
         }
-        CompletableFuture<T> future = new CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                future.complete(action.get());
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
+        CompletableFuture<T> future = WorldAccessService.read(server, action);
         try {
             return future.get(Math.max(250L, timeoutMs), TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
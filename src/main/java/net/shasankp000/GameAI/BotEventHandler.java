@@ -1,6 +1,5 @@
 package net.shasankp000.GameAI;
 
-import net.shasankp000.EntityUtil;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.DoorBlock;
@@ -33,21 +32,24 @@ import net.minecraft.world.World;
 import net.minecraft.world.GameMode;
 import net.minecraft.entity.EntityType;
 import net.shasankp000.ChatUtils.ChatUtils;
-import net.shasankp000.DangerZoneDetector.DangerZoneDetector;
 import net.shasankp000.Database.QTable;
 import net.shasankp000.Database.QTableStorage;
 import net.shasankp000.GameAI.services.BotPersistenceService;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.GameAI.services.BotLifecycleService;
 import net.shasankp000.GameAI.services.BotRegistry;
 import net.shasankp000.GameAI.services.BotCommandStateService;
 import net.shasankp000.GameAI.services.DropSweepService;
 import net.shasankp000.GameAI.services.GuardPatrolService;
 import net.shasankp000.GameAI.services.HealingService;
+import net.shasankp000.GameAI.services.PerceptionService;
 import net.shasankp000.GameAI.services.BotRescueService;
 import net.shasankp000.GameAI.services.BotThreatService;
 import net.shasankp000.GameAI.services.BotStuckService;
 import net.shasankp000.GameAI.services.BotRLActionService;
+import net.shasankp000.GameAI.services.BotPerfService;
 import net.shasankp000.GameAI.services.BotRLPersistenceThrottleService;
+import net.shasankp000.GameAI.services.QTableService;
 import net.shasankp000.GameAI.services.BotHomeService;
 import net.shasankp000.Database.StateActionPair;
 import net.shasankp000.Entity.AutoFaceEntity;
@@ -563,6 +565,8 @@ public class BotEventHandler {
         BotPersistenceService.removeBot(bot);
         clearState(bot);
         LAST_RL_SAMPLE_TICK.remove(uuid);
+        PerceptionService.forget(uuid);
+        BotScheduler.cancelScope(uuid);
         UUID primaryUuid = BotLifecycleService.getPrimaryBotUuid();
         if (primaryUuid != null && primaryUuid.equals(uuid)) {
             BotLifecycleService.setPrimaryBotUuid(null);
@@ -646,23 +650,18 @@ public class BotEventHandler {
         }
 
         try {
-            double dangerDistance = DangerZoneDetector.detectDangerZone(bot, 10, 10, 10);
+            PerceptionService.Snapshot perception = PerceptionService.snapshot(bot);
+            double dangerDistance = perception.dangerDistance();
             debugRL("Distance from danger zone: " + dangerDistance + " blocks");
 
-            List<Entity> nearbyEntities = AutoFaceEntity.detectNearbyEntities(bot, 10); // Example bounding box size
-            List<Entity> hostileEntities = nearbyEntities.stream()
-                    .filter(EntityUtil::isHostile)
-                    .toList();
+            List<Entity> nearbyEntities = perception.nearbyEntities();
+            List<Entity> hostileEntities = perception.hostileEntities();
 
             LOGGER.debug("detectAndReact triggered: hostiles={}, trainingMode={}, alreadyExecuting={}",
                     hostileEntities.size(), net.shasankp000.Commands.modCommandRegistry.isTrainingMode, isExecuting);
 
-            BlockDistanceLimitedSearch blockDistanceLimitedSearch = new BlockDistanceLimitedSearch(bot, 3, 5);
-
-            List<String> nearbyBlocks = blockDistanceLimitedSearch.detectNearbyBlocks();
-
-            boolean hasSculkNearby = nearbyBlocks.stream()
-                    .anyMatch(block -> block.contains("Sculk Sensor") || block.contains("Sculk Shrieker"));
+            List<String> nearbyBlocks = perception.nearbyBlocks();
+            boolean hasSculkNearby = perception.sculkNearby();
 
             BotStuckService.EnvironmentSnapshot environmentSnapshot = BotStuckService.analyzeEnvironment(bot);
             boolean threatDetected = shouldEnterCombat(!hostileEntities.isEmpty(), dangerDistance, hasSculkNearby);
@@ -778,7 +777,9 @@ public class BotEventHandler {
     public static void tickHunger(MinecraftServer server) {
         if (server == null) return;
         for (ServerPlayerEntity player : getRegisteredBots(server)) {
+            long perfStart = BotPerfService.start();
             HealingService.autoEat(player);
+            BotPerfService.record(player, BotPerfService.Probe.HUNGER, perfStart);
         }
     }
 
@@ -822,10 +823,9 @@ public class BotEventHandler {
 
             else {
                 // Detect nearby hostile entities
-                List<Entity> nearbyEntities = AutoFaceEntity.detectNearbyEntities(bot, 10); // Example bounding box size
-                List<Entity> hostileEntities = nearbyEntities.stream()
-                        .filter(EntityUtil::isHostile)
-                        .toList();
+                PerceptionService.Snapshot perception = PerceptionService.snapshot(bot);
+                List<Entity> hostileEntities = perception.hostileEntities();
+                double dangerDistance = perception.dangerDistance();
 
                 if (!hostileEntities.isEmpty()) {
                     // Gather state information
@@ -847,7 +847,7 @@ public class BotEventHandler {
                     // Execute action
                     executeAction(chosenAction);
                 }
-                else if (DangerZoneDetector.detectDangerZone(bot, 10, 10, 10) <= 5.0 && DangerZoneDetector.detectDangerZone(bot, 10, 10, 10) > 0.0) {
+                else if (dangerDistance <= 5.0 && dangerDistance > 0.0) {
 
                     // Gather state information
                     State currentState = createInitialState(bot);
@@ -934,20 +934,8 @@ public class BotEventHandler {
         if (bot == null) {
             return false;
         }
-        double dangerDistance = DangerZoneDetector.detectDangerZone(bot, 10, 10, 10);
-        List<Entity> nearbyEntities = AutoFaceEntity.detectNearbyEntities(bot, 10);
-        boolean hostilesNearby = nearbyEntities.stream().anyMatch(EntityUtil::isHostile);
-        boolean hasSculkNearby = false;
-        if (!hostilesNearby) {
-            try {
-                BlockDistanceLimitedSearch search = new BlockDistanceLimitedSearch(bot, 3, 5);
-                hasSculkNearby = search.detectNearbyBlocks().stream()
-                        .anyMatch(block -> block.contains("Sculk Sensor") || block.contains("Sculk Shrieker"));
-            } catch (Exception e) {
-                LOGGER.warn("Unable to evaluate sculk proximity while assessing threats: {}", e.getMessage());
-            }
-        }
-        return shouldEnterCombat(hostilesNearby, dangerDistance, hasSculkNearby);
+        PerceptionService.Snapshot perception = PerceptionService.snapshot(bot);
+        return shouldEnterCombat(perception.hasHostiles(), perception.dangerDistance(), perception.sculkNearby());
     }
 
 
@@ -1047,7 +1035,12 @@ public class BotEventHandler {
 
         switch (mode) {
             case FOLLOW -> {
-                return handleFollow(bot, state, server, augmentedHostiles);
+                long perfStart = BotPerfService.start();
+                try {
+                    return handleFollow(bot, state, server, augmentedHostiles);
+                } finally {
+                    BotPerfService.record(bot, BotPerfService.Probe.FOLLOW, perfStart);
+                }
             }
             case GUARD -> {
                 return handleGuard(bot, state, nearbyEntities, augmentedHostiles);
@@ -1469,10 +1462,7 @@ public class BotEventHandler {
         if (srv == null) {
             return false;
         }
-        List<Entity> hostiles = AutoFaceEntity.detectNearbyEntities(bot, 10.0D)
-                .stream()
-                .filter(EntityUtil::isHostile)
-                .toList();
+        List<Entity> hostiles = PerceptionService.snapshot(bot).hostileEntities();
         if (hostiles.isEmpty()) {
             return false;
         }
@@ -2012,7 +2002,7 @@ public class BotEventHandler {
             return;
         }
         
-        Thread flareThread = new Thread(() -> {
+        BotScheduler.runAsync(botId, "flare-stuck-" + bot.getName().getString(), () -> {
             try {
                 ServerCommandSource source = bot.getCommandSource().withSilent();
                 SkillContext context = new SkillContext(source, null, null);
@@ -2024,9 +2014,7 @@ public class BotEventHandler {
             } catch (Exception e) {
                 LOGGER.warn("Error running flare skill for {}: {}", bot.getName().getString(), e.getMessage());
             }
-        }, "flare-stuck-" + bot.getName().getString());
-        flareThread.setDaemon(true);
-        flareThread.start();
+        });
     }
 
     private static boolean engageHostiles(ServerPlayerEntity bot, MinecraftServer server, List<Entity> hostileEntities) {
@@ -3123,7 +3111,7 @@ public class BotEventHandler {
         TaskService.forceAbort(bot.getUuid(), "§cInterrupted by /bot come recovery.");
         CompletableFuture.runAsync(() -> {
             try {
-                SkillContext ctx = new SkillContext(bot.getCommandSource(), FunctionCallerV2.getSharedState(), finalParams);
+                SkillContext ctx = new SkillContext(bot.getCommandSource(), FunctionCallerV2.getSharedState(bot.getUuid()), finalParams);
                 SkillExecutionResult result = SkillManager.runSkill(finalSkillName, ctx);
                 server.execute(() -> {
                     if (commander != null) {
@@ -3647,10 +3635,11 @@ public class BotEventHandler {
 
         executeAction(chosenAction);
 
-        BlockDistanceLimitedSearch blockDistanceLimitedSearch = new BlockDistanceLimitedSearch(bot, 3, 5);
-        List<String> updatedBlocks = blockDistanceLimitedSearch.detectNearbyBlocks();
+        // The action may have moved the bot or changed blocks within this tick, so don't reuse the tick's snapshot.
+        PerceptionService.Snapshot perception = PerceptionService.refresh(bot);
+        List<String> updatedBlocks = perception.nearbyBlocks();
 
-        List<EntityDetails> updatedEntities = AutoFaceEntity.detectNearbyEntities(bot, 10).stream()
+        List<EntityDetails> updatedEntities = perception.nearbyEntities().stream()
                 .map(entity -> EntityDetails.from(bot, entity))
                 .toList();
 
@@ -3660,7 +3649,7 @@ public class BotEventHandler {
                 .min()
                 .orElse(distanceToHostileEntity);
 
-        double dangerDistance = DangerZoneDetector.detectDangerZone(bot, 10, 5, 5);
+        double dangerDistance = perception.shortRangeDangerDistance();
         int botHungerLevel = getPlayerHunger.getBotHungerLevel(bot);
         int botOxygenLevel = getPlayerOxygen.getBotOxygenLevel(bot);
         int botFrostLevel = getFrostLevel.calculateFrostLevel(bot);
@@ -3761,16 +3750,9 @@ public class BotEventHandler {
 
         LOGGER.info("Reward for action {}: {}", chosenAction, reward);
 
-        double qValue = rlAgentHook.calculateQValue(currentState, chosenAction, reward, nextState, qTable);
-        qTable.addEntry(currentState, chosenAction, qValue, nextState);
-
-        if (BotRLPersistenceThrottleService.shouldPersistNow(bot)) {
-            QTableStorage.saveQTable(qTable, null);
-            QTableStorage.saveEpsilon(rlAgentHook.getEpsilon(), qTableDir + "/epsilon.bin");
-            LOGGER.info("Persisted Q-table and epsilon (throttled) after action {}", chosenAction);
-        } else {
-            LOGGER.debug("Skipping Q-table persist due to throttle (action={})", chosenAction);
-        }
+        rlAgentHook.applyQUpdate(currentState, chosenAction, reward, nextState, qTable);
+        // Persisted by QTableService's background checkpoint.
+        QTableService.recordUpdate(rlAgentHook.getEpsilon());
 
         BotEventHandler.currentState = nextState;
     }
@@ -3780,9 +3762,8 @@ public class BotEventHandler {
         List<ItemStack> hotBarItems = hotBarUtils.getHotbarItems(bot);
         ItemStack selectedItemStack = hotBarUtils.getSelectedHotbarItemStack(bot);
 
-        BlockDistanceLimitedSearch blockDistanceLimitedSearch = new BlockDistanceLimitedSearch(bot, 3, 5);
-
-        List<String> nearbyBlocks = blockDistanceLimitedSearch.detectNearbyBlocks();
+        PerceptionService.Snapshot perception = PerceptionService.snapshot(bot);
+        List<String> nearbyBlocks = perception.nearbyBlocks();
 
 	        BotStuckService.EnvironmentSnapshot environmentSnapshot = BotStuckService.analyzeEnvironment(bot);
 	        boolean confinedNoEscape = environmentSnapshot.enclosed() && !environmentSnapshot.hasEscapeRoute() && !environmentSnapshot.hasHeadroom();
@@ -3796,12 +3777,11 @@ public class BotEventHandler {
                 isBlockItem.checkBlockItem(selectedItemStack)
         );
 
-        List<Entity> nearbyEntities = AutoFaceEntity.detectNearbyEntities(bot, 10);
-        List<EntityDetails> nearbyEntitiesList = nearbyEntities.stream()
+        List<EntityDetails> nearbyEntitiesList = perception.nearbyEntities().stream()
                 .map(entity -> EntityDetails.from(bot, entity))
                 .toList();
 
-        double dangerDistance = DangerZoneDetector.detectDangerZone(bot, 10, 5, 5);
+        double dangerDistance = perception.shortRangeDangerDistance();
         int botHungerLevel = getPlayerHunger.getBotHungerLevel(bot);
         int botOxygenLevel = getPlayerOxygen.getBotOxygenLevel(bot);
         int botFrostLevel = getFrostLevel.calculateFrostLevel(bot);
@@ -2,8 +2,6 @@ package net.shasankp000.GameAI;
 
 import net.minecraft.entity.ItemEntity;
 import net.minecraft.entity.player.PlayerInventory;
-import net.minecraft.block.BlockState;
-import net.minecraft.block.Blocks;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.server.MinecraftServer;
@@ -15,6 +13,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.shasankp000.GameAI.BotActions;
+import net.shasankp000.GameAI.services.BlockLocatorIndex;
 import net.shasankp000.GameAI.services.DropSweepService;
 import net.shasankp000.GameAI.services.ChestStoreService;
 import net.shasankp000.GameAI.services.MovementService;
@@ -256,18 +255,7 @@ public final class DropSweeper {
         if (world == null || origin == null) {
             return java.util.List.of();
         }
-        java.util.List<BlockPos> found = new java.util.ArrayList<>();
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -vertical, -radius), origin.add(radius, vertical, radius))) {
-            if (!world.isChunkLoaded(pos)) {
-                continue;
-            }
-            BlockState state = world.getBlockState(pos);
-            if (state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST)) {
-                found.add(pos.toImmutable());
-            }
-        }
-        found.sort(java.util.Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        return found;
+        return BlockLocatorIndex.nearbyChests(world, origin, radius, vertical);
     }
 
     public static boolean attemptManualNudge(ServerPlayerEntity player, ItemEntity targetDrop, BlockPos dropPos) {
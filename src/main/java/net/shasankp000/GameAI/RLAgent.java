@@ -246,8 +246,8 @@ public class RLAgent {
         Action bestAction = null;
         double bestQValue = Double.NEGATIVE_INFINITY;
 
-        // Iterate over the entire QTable to find matching or similar states
-        for (Map.Entry<StateActionPair, QEntry> entry : qTable.getTable().entrySet()) {
+        // Only the current state's bucket can hold consistent states; the full check still runs below.
+        for (Map.Entry<StateActionPair, QEntry> entry : qTable.getCandidates(currentState)) {
             StateActionPair pair = entry.getKey();
             QEntry qEntry = entry.getValue();
 
@@ -324,22 +324,8 @@ public class RLAgent {
 
 
     private double getPodForAction(Action action, QTable qTable) {
-        double totalReward = 0.0;
-        double deathCount = 0.0;
-
-        for (Map.Entry<StateActionPair, QEntry> entry : qTable.getTable().entrySet()) {
-            StateActionPair pair = entry.getKey();
-            QEntry qEntry = entry.getValue();
-
-            if (pair.getAction() == action) {
-                double qValue = qEntry.getQValue();
-                if (qValue < 0) {
-                    deathCount++;
-                }
-            }
-        }
-
-        return deathCount / Math.max(1, qTable.getTable().size());
+        // Negative-Q share for the action, maintained incrementally by QTable.addEntry.
+        return qTable.getPodForAction(action);
     }
 
 
@@ -1522,11 +1508,7 @@ public class RLAgent {
         double oldQValue = (existingEntry != null) ? existingEntry.getQValue() : 0.0;
 
         // Get the maximum Q-value for the next state's possible actions
-        double maxNextQValue = qTable.getTable().entrySet().stream()
-                .filter(e -> State.isStateConsistent(e.getKey().getState(), nextState))
-                .mapToDouble(e -> e.getValue().getQValue())
-                .max()
-                .orElse(0.0);
+        double maxNextQValue = maxNextQValue(nextState, qTable);
 
         // Q-learning formula
         double newQValue = oldQValue + ALPHA * (reward + GAMMA * maxNextQValue - oldQValue);
@@ -1538,6 +1520,31 @@ public class RLAgent {
         return newQValue; // Return the computed Q-value
     }
 
+    /**
+     * Computes and stores the Q-learning update for this transition in one step. The read-modify-write runs
+     * atomically in {@link QTable#update}, so bots learning into the shared table at the same time never
+     * overwrite each other's updates. Returns the new Q-value.
+     */
+    public double applyQUpdate(State initialState, Action action, double reward, State nextState, QTable qTable) {
+        double maxNextQValue = maxNextQValue(nextState, qTable);
+        double newQValue = qTable.update(initialState, action, nextState,
+                oldQValue -> oldQValue + ALPHA * (reward + GAMMA * maxNextQValue - oldQValue));
+
+        debug("Applied Q-value update for state-action pair: " + new StateActionPair(initialState, action) +
+                " with reward: " + reward +
+                ", new Q-value: " + newQValue);
+
+        return newQValue;
+    }
+
+    private static double maxNextQValue(State nextState, QTable qTable) {
+        return qTable.getCandidates(nextState).stream()
+                .filter(e -> State.isStateConsistent(e.getKey().getState(), nextState))
+                .mapToDouble(e -> e.getValue().getQValue())
+                .max()
+                .orElse(0.0);
+    }
+
 
 
     private static boolean isPassiveEntity(EntityDetails details) {
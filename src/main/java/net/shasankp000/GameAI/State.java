@@ -89,6 +89,52 @@ public class State implements Serializable {
         this.podMap = podMap;
     }
 
+    // Persistence constructor: item fields arrive already serialised to names.
+    private State(int botX, int botY, int botZ, List<EntityDetails> nearbyEntities, List<String> nearbyBlocks, double distanceToHostileEntity, int botHealth, double distanceToDangerZone,
+                  List<String> hotBarItems, SelectedItemDetails selectedItem, String timeOfDay, String dimensionType,
+                  int botHungerLevel, int botOxygenLevel, int frostLevel, String offhandItem, Map<String, String> armorItems,
+                  boolean enclosed, int solidNeighborCount, boolean hasHeadroom, boolean hasEscapeRoute,
+                  StateActions.Action actionTaken, Map<StateActions.Action, Double> riskMap, double riskAppetite, Map<StateActions.Action, Double> podMap) {
+        this.botX = botX;
+        this.botY = botY;
+        this.botZ = botZ;
+        this.frostLevel = frostLevel;
+        this.distanceToHostileEntity = distanceToHostileEntity;
+        this.distanceToDangerZone = distanceToDangerZone;
+        this.botHealth = botHealth;
+        this.hotBarItems = hotBarItems;
+        this.selectedItem = selectedItem;
+        this.timeOfDay = timeOfDay;
+        this.dimensionType = dimensionType;
+        this.botHungerLevel = botHungerLevel;
+        this.botOxygenLevel = botOxygenLevel;
+        this.offhandItem = offhandItem;
+        this.armorItems = armorItems;
+        this.enclosed = enclosed;
+        this.solidNeighborCount = solidNeighborCount;
+        this.hasHeadroom = hasHeadroom;
+        this.hasEscapeRoute = hasEscapeRoute;
+        this.actionTaken = actionTaken;
+        this.nearbyEntities = nearbyEntities;
+        this.riskMap = riskMap;
+        this.riskAppetite = riskAppetite;
+        this.nearbyBlocks = nearbyBlocks;
+        this.podMap = podMap;
+    }
+
+    /**
+     * Rebuilds a state from its stored form (see {@code QTableBinaryFormat}); no {@link ItemStack}s are involved.
+     */
+    public static State restore(int botX, int botY, int botZ, List<EntityDetails> nearbyEntities, List<String> nearbyBlocks, double distanceToHostileEntity, int botHealth, double distanceToDangerZone,
+                                List<String> hotBarItems, SelectedItemDetails selectedItem, String timeOfDay, String dimensionType,
+                                int botHungerLevel, int botOxygenLevel, int frostLevel, String offhandItem, Map<String, String> armorItems,
+                                boolean enclosed, int solidNeighborCount, boolean hasHeadroom, boolean hasEscapeRoute,
+                                StateActions.Action actionTaken, Map<StateActions.Action, Double> riskMap, double riskAppetite, Map<StateActions.Action, Double> podMap) {
+        return new State(botX, botY, botZ, nearbyEntities, nearbyBlocks, distanceToHostileEntity, botHealth, distanceToDangerZone,
+                hotBarItems, selectedItem, timeOfDay, dimensionType, botHungerLevel, botOxygenLevel, frostLevel, offhandItem, armorItems,
+                enclosed, solidNeighborCount, hasHeadroom, hasEscapeRoute, actionTaken, riskMap, riskAppetite, podMap);
+    }
+
     // Getters for state variables
     public int getBotX() { return botX; }
     public int getBotY() { return botY; }
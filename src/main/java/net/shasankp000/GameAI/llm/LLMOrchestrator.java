@@ -3,11 +3,12 @@ package net.shasankp000.GameAI.llm;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.shasankp000.AIPlayer;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.ChatUtils.NLPProcessor;
 import net.shasankp000.ServiceLLMClients.LLMClient;
 import net.shasankp000.FilingSystem.LLMClientFactory;
 import net.shasankp000.ServiceLLMClients.LLMServiceHandler;
-import net.shasankp000.ChatUtils.ChatUtils;
+import net.shasankp000.ChatUtils.StreamingChatRelay;
 import net.shasankp000.FilingSystem.ManualConfig;
 import net.minecraft.server.command.ServerCommandSource;
 import org.slf4j.Logger;
@@ -17,8 +18,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Central hub for routing chat messages through the LLM pipeline.
@@ -28,7 +27,6 @@ import java.util.concurrent.Executors;
 public final class LLMOrchestrator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("LLMOrchestrator");
-    private static final ExecutorService CHAT_EXECUTOR = Executors.newCachedThreadPool();
     private static final MemoryStore MEMORY_STORE = new MemoryStore();
 
     private static final Map<String, Boolean> WORLD_TOGGLES = new ConcurrentHashMap<>();
@@ -77,7 +75,7 @@ public final class LLMOrchestrator {
         if (!isBotEnabled(bot.getUuid())) {
             return false;
         }
-        CHAT_EXECUTOR.submit(() -> processChat(server, bot, botSource, playerUuid, message));
+        BotScheduler.runAsync(null, "llm-chat", () -> processChat(server, bot, botSource, playerUuid, message));
         return true;
     }
 
@@ -110,9 +108,10 @@ public final class LLMOrchestrator {
                 LLMServiceHandler.routeFromOrchestrator(message, botSource, playerUuid, llmClient);
                 MEMORY_STORE.appendMemory(worldKey, bot.getUuid(), "Received command request: \"" + message + "\"");
             } else {
-                String reply = llmClient.sendPrompt(personaPrompt, message);
-                if (reply != null && !reply.isBlank()) {
-                    ChatUtils.sendChatMessages(botSource, reply);
+                StreamingChatRelay relay = new StreamingChatRelay(botSource, bot.getName().getString(), "");
+                llmClient.streamPrompt(personaPrompt, message, relay);
+                String reply = relay.finish();
+                if (!reply.isBlank()) {
                     MEMORY_STORE.appendMemory(worldKey, bot.getUuid(), "Replied to chat: \"" + reply + "\"");
                 }
             }
@@ -2,16 +2,15 @@ package net.shasankp000.GameAI.llm;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.shasankp000.GameAI.services.PersistenceJournal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -20,12 +19,14 @@ import java.util.*;
 /**
  * Simple per-world memory store used by the LLM orchestrator.
  * Phase 2 focuses on personas/quirks plus a rolling list of recent memories.
+ * Each world file is a {@link PersistenceJournal} keyed by bot UUID, so new memories are written in the background.
  */
 public final class MemoryStore {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("LLMMemoryStore");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Type WORLD_TYPE = new TypeToken<WorldMemory>() {}.getType();
+    /** Files written before the journal existed wrap the profiles in a single "bots" object. */
+    private static final String LEGACY_ROOT_KEY = "bots";
     private static final int MAX_MEMORIES = 50;
     private static final List<String> ARCHETYPES = List.of(
             "a pragmatic engineer who treats every expedition like a redstone project gone rogue",
@@ -44,6 +45,7 @@ public final class MemoryStore {
 
     private final Path rootDir;
     private final Map<String, WorldMemory> cache = new HashMap<>();
+    private final Map<String, PersistenceJournal> journals = new HashMap<>();
 
     public MemoryStore() {
         this.rootDir = FabricLoader.getInstance().getGameDir().resolve("llm_memory");
@@ -54,19 +56,19 @@ public final class MemoryStore {
         }
     }
 
-    public BotProfile getOrCreateProfile(String worldKey, ServerPlayerEntity bot) {
+    public synchronized BotProfile getOrCreateProfile(String worldKey, ServerPlayerEntity bot) {
         WorldMemory world = loadWorld(worldKey);
         String key = bot.getUuid().toString();
         BotProfile profile = world.bots().get(key);
         if (profile == null) {
             profile = generateProfile(bot, worldKey);
             world.bots().put(key, profile);
-            saveWorld(worldKey, world);
+            markDirty(worldKey, key);
         }
         return profile;
     }
 
-    public void appendMemory(String worldKey, UUID botId, String entry) {
+    public synchronized void appendMemory(String worldKey, UUID botId, String entry) {
         if (entry == null || entry.isBlank()) {
             return;
         }
@@ -78,7 +80,7 @@ public final class MemoryStore {
         while (memories.size() > MAX_MEMORIES) {
             memories.removeLast();
         }
-        saveWorld(worldKey, world);
+        markDirty(worldKey, botId.toString());
     }
 
     public String buildPersonaPrompt(String worldKey, ServerPlayerEntity bot) {
@@ -110,26 +112,42 @@ public final class MemoryStore {
 
     private synchronized WorldMemory loadWorld(String worldKey) {
         return cache.computeIfAbsent(worldKey, key -> {
-            Path file = resolveWorldPath(key);
-            if (Files.exists(file)) {
-                try (Reader reader = Files.newBufferedReader(file)) {
-                    WorldMemory memory = GSON.fromJson(reader, WORLD_TYPE);
-                    return memory != null ? memory : new WorldMemory(new HashMap<>());
-                } catch (IOException e) {
-                    LOGGER.warn("Failed to read memory file {}: {}", file, e.getMessage());
+            PersistenceJournal journal = journalFor(key);
+            Map<String, JsonElement> entries = journal.load();
+            JsonElement legacy = entries.remove(LEGACY_ROOT_KEY);
+            if (legacy instanceof JsonObject legacyBots) {
+                legacyBots.entrySet().forEach(entry -> entries.putIfAbsent(entry.getKey(), entry.getValue()));
+                journal.markDirty(LEGACY_ROOT_KEY);
+                entries.keySet().forEach(journal::markDirty);
+            }
+            Map<String, BotProfile> bots = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : entries.entrySet()) {
+                try {
+                    BotProfile profile = GSON.fromJson(entry.getValue(), BotProfile.class);
+                    if (profile != null) {
+                        bots.put(entry.getKey(), profile);
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Failed to read memory for {} in {}: {}", entry.getKey(), key, e.getMessage());
                 }
             }
-            return new WorldMemory(new HashMap<>());
+            return new WorldMemory(bots);
         });
     }
 
-    private synchronized void saveWorld(String worldKey, WorldMemory memory) {
-        Path file = resolveWorldPath(worldKey);
-        try (Writer writer = Files.newBufferedWriter(file)) {
-            GSON.toJson(memory, WORLD_TYPE, writer);
-        } catch (IOException e) {
-            LOGGER.error("Failed to save memory file {}: {}", file, e.getMessage());
-        }
+    private synchronized void markDirty(String worldKey, String botKey) {
+        journalFor(worldKey).markDirty(botKey);
+    }
+
+    private synchronized PersistenceJournal journalFor(String worldKey) {
+        return journals.computeIfAbsent(worldKey, key -> PersistenceJournal.open("LLM memory " + key,
+                resolveWorldPath(key), botKey -> {
+                    synchronized (this) {
+                        WorldMemory world = cache.get(key);
+                        BotProfile profile = world != null ? world.bots().get(botKey) : null;
+                        return profile != null ? GSON.toJsonTree(profile) : null;
+                    }
+                }));
     }
 
     private Path resolveWorldPath(String worldKey) {
@@ -0,0 +1,378 @@
+package net.shasankp000.GameAI.services;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.ChestBlock;
+import net.minecraft.block.DoorBlock;
+import net.minecraft.block.FenceGateBlock;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Sparse per-section index of the handful of block kinds the skills keep searching for ({@link Kind}).
+ *
+ * <p>A section is indexed the first time a query touches it. If its block palette cannot contain any indexed
+ * kind (the common case: stone, dirt, air), it is recorded as empty without reading a single block. Otherwise
+ * the 4096 states are read once and the local positions of each kind are kept as short arrays. The block-update
+ * mixin keeps indexed sections current (copy-on-write, like {@code WalkabilityCache}) and sections are dropped
+ * when their chunk unloads.
+ *
+ * <p>{@link #nearest} answers k-nearest queries in distance order, visiting sections closest-first and stopping
+ * as soon as no remaining section can beat the current k-th result. {@link #within} lists every match in a box
+ * in {@link BlockPos#iterate} order, for callers whose own selection logic depends on scan order.
+ *
+ * <p>Only loaded chunks are indexed. Like the cube scans it replaces, a query reads chunk sections on whatever
+ * thread it runs on.
+ */
+public final class BlockLocatorIndex {
+
+    public enum Kind {
+        /** {@link BlockTags#LOGS} plus mangrove roots. */
+        LOG,
+        /** Doors and fence gates. */
+        DOOR,
+        /** Chests and trapped chests. */
+        CHEST,
+        /** Furnaces, blast furnaces and smokers. */
+        FURNACE,
+        /** Ore blocks (registry path ending in {@code _ore}) and ancient debris. */
+        ORE,
+        LAVA;
+
+        private final int bit = 1 << ordinal();
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final short[] NONE = new short[0];
+    /** Sections older than this are re-read on the next query in case an update slipped past the mixin. */
+    private static final long MAX_SECTION_AGE_MS = 60_000L;
+
+    private static final Map<RegistryKey<World>, Map<Long, Section>> WORLDS = new ConcurrentHashMap<>();
+    private static final Map<BlockState, Byte> STATE_KINDS = new ConcurrentHashMap<>();
+
+    private BlockLocatorIndex() {
+    }
+
+    /** {@code byKind[k]} holds local indices ({@code y << 8 | z << 4 | x}) of blocks of kind {@code k}, ascending. */
+    private record Section(int kinds, short[][] byKind, long capturedAt) {
+        private static final short[][] NO_BLOCKS = emptyArrays();
+        /** Returned for sections that are not loaded; never stored. */
+        static final Section EMPTY = empty(0L);
+
+        /** A section with none of the indexed kinds; it ages out like any other capture. */
+        static Section empty(long capturedAt) {
+            return new Section(0, NO_BLOCKS, capturedAt);
+        }
+
+        short[] of(Kind kind) {
+            return (kinds & kind.bit) != 0 ? byKind[kind.ordinal()] : NONE;
+        }
+    }
+
+    private static short[][] emptyArrays() {
+        short[][] arrays = new short[KINDS.length][];
+        Arrays.fill(arrays, NONE);
+        return arrays;
+    }
+
+    public static boolean matches(BlockState state, Kind kind) {
+        return state != null && (kindsOf(state) & kind.bit) != 0;
+    }
+
+    /**
+     * Up to {@code limit} blocks of {@code kind} within {@code radius} horizontally and {@code ySpan} vertically of
+     * {@code origin}, nearest first (squared block distance; ties in {@link BlockPos#iterate} order). {@code filter}
+     * narrows the kind, e.g. to plain chests only; it may be null.
+     */
+    public static List<BlockPos> nearest(ServerWorld world, BlockPos origin, int radius, int ySpan, Kind kind,
+                                         int limit, Predicate<BlockState> filter) {
+        if (world == null || origin == null || kind == null || limit <= 0) {
+            return List.of();
+        }
+        int minX = origin.getX() - radius, maxX = origin.getX() + radius;
+        int minY = origin.getY() - ySpan, maxY = origin.getY() + ySpan;
+        int minZ = origin.getZ() - radius, maxZ = origin.getZ() + radius;
+
+        List<long[]> sections = new ArrayList<>();
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    long dx = axisGap(origin.getX(), sx), dy = axisGap(origin.getY(), sy), dz = axisGap(origin.getZ(), sz);
+                    sections.add(new long[]{dx * dx + dy * dy + dz * dz, sx, sy, sz});
+                }
+            }
+        }
+        sections.sort(Comparator.comparingLong(s -> s[0]));
+
+        Comparator<BlockPos> order = byDistanceFrom(origin);
+        PriorityQueue<BlockPos> best = new PriorityQueue<>(order.reversed());
+        for (long[] entry : sections) {
+            if (best.size() >= limit && entry[0] > origin.getSquaredDistance(best.peek())) {
+                break;
+            }
+            int sx = (int) entry[1], sy = (int) entry[2], sz = (int) entry[3];
+            short[] locals = section(world, sx, sy, sz).of(kind);
+            for (short local : locals) {
+                BlockPos pos = toPos(sx, sy, sz, local);
+                if (pos.getX() < minX || pos.getX() > maxX || pos.getY() < minY || pos.getY() > maxY
+                        || pos.getZ() < minZ || pos.getZ() > maxZ) {
+                    continue;
+                }
+                if (best.size() >= limit && order.compare(pos, best.peek()) >= 0) {
+                    continue;
+                }
+                if (filter != null && !filter.test(world.getBlockState(pos))) {
+                    continue;
+                }
+                best.add(pos);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<BlockPos> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    public static List<BlockPos> nearest(ServerWorld world, BlockPos origin, int radius, int ySpan, Kind kind, int limit) {
+        return nearest(world, origin, radius, ySpan, kind, limit, null);
+    }
+
+    /**
+     * Plain and trapped chests near {@code origin}, nearest first. Shared by the skills' chest lookups.
+     */
+    public static List<BlockPos> nearbyChests(ServerWorld world, BlockPos origin, int radius, int ySpan) {
+        return nearest(world, origin, radius, ySpan, Kind.CHEST, Integer.MAX_VALUE,
+                state -> state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST));
+    }
+
+    /**
+     * Every block of {@code kind} in the box {@code min..max} (inclusive), in {@link BlockPos#iterate} order.
+     */
+    public static List<BlockPos> within(ServerWorld world, BlockPos min, BlockPos max, Kind kind) {
+        if (world == null || min == null || max == null || kind == null) {
+            return List.of();
+        }
+        int minX = Math.min(min.getX(), max.getX()), maxX = Math.max(min.getX(), max.getX());
+        int minY = Math.min(min.getY(), max.getY()), maxY = Math.max(min.getY(), max.getY());
+        int minZ = Math.min(min.getZ(), max.getZ()), maxZ = Math.max(min.getZ(), max.getZ());
+        List<BlockPos> result = new ArrayList<>();
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    for (short local : section(world, sx, sy, sz).of(kind)) {
+                        BlockPos pos = toPos(sx, sy, sz, local);
+                        if (pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY
+                                && pos.getZ() >= minZ && pos.getZ() <= maxZ) {
+                            result.add(pos);
+                        }
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingInt(BlockPos::getZ).thenComparingInt(BlockPos::getY).thenComparingInt(BlockPos::getX));
+        return result;
+    }
+
+    /**
+     * Block-update hook (server thread). Only sections already indexed are touched, and only when the block's
+     * kind membership changes.
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState newState) {
+        if (world == null || pos == null || newState == null) {
+            return;
+        }
+        Map<Long, Section> sections = WORLDS.get(world.getRegistryKey());
+        if (sections == null) {
+            return;
+        }
+        long key = ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+        Section section = sections.get(key);
+        if (section == null) {
+            return;
+        }
+        short local = (short) localIndex(pos.getX(), pos.getY(), pos.getZ());
+        int newKinds = kindsOf(newState);
+        short[][] byKind = null;
+        int kinds = section.kinds();
+        for (Kind kind : KINDS) {
+            short[] current = section.of(kind);
+            boolean present = Arrays.binarySearch(current, local) >= 0;
+            boolean wanted = (newKinds & kind.bit) != 0;
+            if (present == wanted) {
+                continue;
+            }
+            if (byKind == null) {
+                byKind = section.byKind().clone();
+            }
+            short[] updated = wanted ? insert(current, local) : remove(current, local);
+            byKind[kind.ordinal()] = updated;
+            kinds = updated.length > 0 ? kinds | kind.bit : kinds & ~kind.bit;
+        }
+        if (byKind != null) {
+            sections.put(key, new Section(kinds, byKind, section.capturedAt()));
+        }
+    }
+
+    public static void onChunkUnload(ServerWorld world, WorldChunk chunk) {
+        if (world == null || chunk == null) {
+            return;
+        }
+        Map<Long, Section> sections = WORLDS.get(world.getRegistryKey());
+        if (sections == null) {
+            return;
+        }
+        ChunkPos cp = chunk.getPos();
+        sections.keySet().removeIf(key ->
+                ChunkSectionPos.unpackX(key) == cp.x && ChunkSectionPos.unpackZ(key) == cp.z);
+    }
+
+    public static void onServerStopped() {
+        WORLDS.clear();
+    }
+
+    private static Section section(ServerWorld world, int sx, int sy, int sz) {
+        Map<Long, Section> sections = WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new ConcurrentHashMap<>());
+        long key = ChunkSectionPos.asLong(sx, sy, sz);
+        Section cached = sections.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.capturedAt() <= MAX_SECTION_AGE_MS) {
+            return cached;
+        }
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(sx, sz);
+        if (chunk == null) {
+            // Not loaded: nothing to index, and nothing to remember either.
+            return Section.EMPTY;
+        }
+        Section captured = capture(chunk, sy);
+        sections.put(key, captured);
+        return captured;
+    }
+
+    private static Section capture(WorldChunk chunk, int sy) {
+        int index = chunk.getSectionIndex(ChunkSectionPos.getBlockCoord(sy));
+        if (index < 0 || index >= chunk.getSectionArray().length) {
+            return Section.empty(System.currentTimeMillis());
+        }
+        ChunkSection section = chunk.getSection(index);
+        if (section == null || section.isEmpty()
+                || !section.getBlockStateContainer().hasAny(state -> kindsOf(state) != 0)) {
+            // The palette rules out every indexed kind; skip the 4096 reads.
+            return Section.empty(System.currentTimeMillis());
+        }
+        short[][] buffers = new short[KINDS.length][];
+        int[] counts = new int[KINDS.length];
+        int kinds = 0;
+        for (int local = 0; local < 4096; local++) {
+            int mask = kindsOf(section.getBlockState(local & 15, local >> 8, (local >> 4) & 15));
+            if (mask == 0) {
+                continue;
+            }
+            kinds |= mask;
+            for (Kind kind : KINDS) {
+                if ((mask & kind.bit) == 0) {
+                    continue;
+                }
+                int k = kind.ordinal();
+                if (buffers[k] == null) {
+                    buffers[k] = new short[16];
+                } else if (counts[k] == buffers[k].length) {
+                    buffers[k] = Arrays.copyOf(buffers[k], counts[k] * 2);
+                }
+                buffers[k][counts[k]++] = (short) local;
+            }
+        }
+        short[][] byKind = emptyArrays();
+        for (int k = 0; k < KINDS.length; k++) {
+            if (counts[k] > 0) {
+                byKind[k] = Arrays.copyOf(buffers[k], counts[k]);
+            }
+        }
+        return new Section(kinds, byKind, System.currentTimeMillis());
+    }
+
+    private static int kindsOf(BlockState state) {
+        Byte cached = STATE_KINDS.get(state);
+        if (cached != null) {
+            return cached;
+        }
+        Block block = state.getBlock();
+        int mask = 0;
+        if (state.isIn(BlockTags.LOGS) || state.isOf(Blocks.MANGROVE_ROOTS)) {
+            mask |= Kind.LOG.bit;
+        }
+        if (block instanceof DoorBlock || block instanceof FenceGateBlock) {
+            mask |= Kind.DOOR.bit;
+        }
+        if (block instanceof ChestBlock) {
+            mask |= Kind.CHEST.bit;
+        }
+        if (state.isOf(Blocks.FURNACE) || state.isOf(Blocks.BLAST_FURNACE) || state.isOf(Blocks.SMOKER)) {
+            mask |= Kind.FURNACE.bit;
+        }
+        if (state.isOf(Blocks.ANCIENT_DEBRIS) || Registries.BLOCK.getId(block).getPath().endsWith("_ore")) {
+            mask |= Kind.ORE.bit;
+        }
+        if (state.isOf(Blocks.LAVA)) {
+            mask |= Kind.LAVA.bit;
+        }
+        STATE_KINDS.put(state, (byte) mask);
+        return mask;
+    }
+
+    private static Comparator<BlockPos> byDistanceFrom(BlockPos origin) {
+        return Comparator.<BlockPos>comparingDouble(origin::getSquaredDistance)
+                .thenComparingInt(BlockPos::getZ)
+                .thenComparingInt(BlockPos::getY)
+                .thenComparingInt(BlockPos::getX);
+    }
+
+    /** Distance from {@code coord} to the nearest block of section {@code s} along one axis (0 if inside). */
+    private static long axisGap(int coord, int s) {
+        int lo = s << 4, hi = lo + 15;
+        return coord < lo ? lo - coord : (coord > hi ? coord - hi : 0);
+    }
+
+    private static BlockPos toPos(int sx, int sy, int sz, short local) {
+        return new BlockPos((sx << 4) | (local & 15), (sy << 4) | ((local >> 8) & 15), (sz << 4) | ((local >> 4) & 15));
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private static short[] insert(short[] sorted, short value) {
+        int at = -Arrays.binarySearch(sorted, value) - 1;
+        short[] out = new short[sorted.length + 1];
+        System.arraycopy(sorted, 0, out, 0, at);
+        out[at] = value;
+        System.arraycopy(sorted, at, out, at + 1, sorted.length - at);
+        return out;
+    }
+
+    private static short[] remove(short[] sorted, short value) {
+        int at = Arrays.binarySearch(sorted, value);
+        short[] out = new short[sorted.length - 1];
+        System.arraycopy(sorted, 0, out, 0, at);
+        System.arraycopy(sorted, at + 1, out, at, sorted.length - at - 1);
+        return out;
+    }
+}
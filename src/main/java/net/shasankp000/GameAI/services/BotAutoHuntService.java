@@ -18,10 +18,6 @@ import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Auto-start hunt tasks when starving (opt-in per bot).
@@ -34,16 +30,6 @@ public final class BotAutoHuntService {
     private static final long COOLDOWN_TICKS = 160L;
     private static final Map<UUID, Long> NEXT_DECISION_TICK = new ConcurrentHashMap<>();
 
-    private static final AtomicInteger THREAD_ID = new AtomicInteger(0);
-    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r, "auto-hunt-" + THREAD_ID.incrementAndGet());
-            t.setDaemon(true);
-            return t;
-        }
-    });
-
     private BotAutoHuntService() {}
 
     public static void requestDecisionNow(ServerPlayerEntity bot) {
@@ -112,9 +98,9 @@ public final class BotAutoHuntService {
         params.put("open_ended", true);
         params.put("options", List.of("auto", "until_sunset"));
 
-        EXECUTOR.submit(() -> {
+        BotScheduler.runAsync(bot.getUuid(), "auto-hunt", () -> {
             try {
-                SkillContext ctx = new SkillContext(botSource, net.shasankp000.FunctionCaller.FunctionCallerV2.getSharedState(), params, botSource);
+                SkillContext ctx = new SkillContext(botSource, net.shasankp000.FunctionCaller.FunctionCallerV2.getSharedState(bot.getUuid()), params, botSource);
                 SkillExecutionResult result = SkillManager.runSkill("hunt", ctx);
                 LOGGER.info("Auto-hunt finished for {}: success={} msg='{}'",
                         bot.getName().getString(),
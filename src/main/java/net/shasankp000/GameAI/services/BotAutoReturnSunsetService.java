@@ -15,10 +15,6 @@ import org.slf4j.LoggerFactory;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Server-tick automation: when enabled for a bot, it will automatically run "return to home" at sunset.
@@ -37,16 +33,6 @@ public final class BotAutoReturnSunsetService {
 
     private static final Map<UUID, PendingSleep> PENDING_SLEEP = new ConcurrentHashMap<>();
 
-    private static final AtomicInteger AUTO_THREAD_ID = new AtomicInteger(0);
-    private static final ExecutorService AUTO_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r, "auto-sunset-" + AUTO_THREAD_ID.incrementAndGet());
-            t.setDaemon(true);
-            return t;
-        }
-    });
-
     private BotAutoReturnSunsetService() {}
 
     public static void onServerTick(MinecraftServer server) {
@@ -267,7 +253,7 @@ public final class BotAutoReturnSunsetService {
         ticket.setOrigin(TaskService.Origin.SYSTEM);
         ticket.setOpenEnded(false);
 
-        AUTO_EXECUTOR.submit(() -> {
+        BotScheduler.runAsync(botUuid, "auto-sunset", () -> {
             boolean success = false;
             try {
                 TaskService.attachExecutingThread(ticket, Thread.currentThread());
@@ -22,10 +22,6 @@ import java.util.Locale;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Lightweight "ambient hobbies" scheduler.
@@ -130,16 +126,6 @@ public final class BotIdleHobbiesService {
         NEXT_DECISION_TICK.put(bot.getUuid(), now);
     }
 
-    private static final AtomicInteger AMBIENT_THREAD_ID = new AtomicInteger(0);
-    private static final ExecutorService AMBIENT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r, "ambient-hobby-" + AMBIENT_THREAD_ID.incrementAndGet());
-            t.setDaemon(true);
-            return t;
-        }
-    });
-
     private BotIdleHobbiesService() {
     }
 
@@ -374,9 +360,9 @@ public final class BotIdleHobbiesService {
             params.put("until_sunset", true);
         }
 
-        AMBIENT_EXECUTOR.submit(() -> {
+        BotScheduler.runAsync(botUuid, "ambient-hobby", () -> {
             try {
-                SkillContext skillContext = new SkillContext(botSource, net.shasankp000.FunctionCaller.FunctionCallerV2.getSharedState(), params, botSource);
+                SkillContext skillContext = new SkillContext(botSource, net.shasankp000.FunctionCaller.FunctionCallerV2.getSharedState(botUuid), params, botSource);
                 SkillExecutionResult result = SkillManager.runSkill(skillName, skillContext);
                 // We intentionally do not echo result here; many skills already speak during execution.
                 LOGGER.info("Idle hobby '{}' finished for {}: success={} msg='{}'",
@@ -54,13 +54,6 @@ public final class BotInventoryStorageService {
             return false;
         }
 
-        try {
-            Files.createDirectories(path.getParent());
-        } catch (IOException e) {
-            LOGGER.warn("Unable to create inventory directory '{}': {}", path.getParent(), e.getMessage());
-            return false;
-        }
-
         DynamicRegistryManager registries = server.getRegistryManager();
         RegistryOps<NbtElement> ops = RegistryOps.of(NbtOps.INSTANCE, registries);
 
@@ -100,14 +93,13 @@ public final class BotInventoryStorageService {
         root.putFloat(KEY_XP_PROGRESS, bot.experienceProgress);
         root.putInt(KEY_TOTAL_XP, bot.totalExperience);
 
-        try {
-            net.minecraft.nbt.NbtIo.writeCompressed(root, path);
-            LOGGER.info("Saved inventory for fakeplayer '{}' to {}", bot.getName().getString(), path.getFileName());
-            return true;
-        } catch (IOException e) {
-            LOGGER.error("Failed to save inventory for fakeplayer '{}': {}", bot.getName().getString(), e.getMessage());
-            return false;
-        }
+        // Encoding has to happen here (it reads the live inventory); the compressed write happens on the
+        // persistence writer thread, and a newer save replaces one still queued.
+        PersistenceJournal.writeFileAsync(path, tmp -> {
+            net.minecraft.nbt.NbtIo.writeCompressed(root, tmp);
+            LOGGER.info("Saved inventory for fakeplayer '{}' to {}", botName, path.getFileName());
+        });
+        return true;
     }
 
     public static boolean load(ServerPlayerEntity bot) {
@@ -117,7 +109,11 @@ public final class BotInventoryStorageService {
         }
 
         Path path = resolveInventoryPath(server, bot);
-        if (path == null || !Files.exists(path)) {
+        if (path == null) {
+            return false;
+        }
+        PersistenceJournal.flushFile(path);
+        if (!Files.exists(path)) {
             return false;
         }
 
@@ -191,6 +187,7 @@ public final class BotInventoryStorageService {
         if (path == null) {
             return false;
         }
+        PersistenceJournal.cancelFile(path);
         try {
             return Files.deleteIfExists(path);
         } catch (IOException e) {
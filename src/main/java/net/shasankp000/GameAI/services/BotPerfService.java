@@ -0,0 +1,453 @@
+package net.shasankp000.GameAI.services;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-bot, per-service timing for the work bots do on the server thread and on skill workers.
+ *
+ * <p>Call sites bracket their work with {@link #start()} and {@link #record}. Each (bot, probe, thread side)
+ * feeds a log2 histogram of microseconds built from {@link LongAdder}s, so recording is a couple of
+ * {@code nanoTime} reads and uncontended adds. Server-thread time from top-level probes is also summed per
+ * tick; {@link #onServerTick} closes each tick against the per-bot budget ({@link #setBudgetMs}) and counts
+ * overruns, and {@link #isOverBudget} exposes the result to callers that want to shed work. Every sample is
+ * also committed as a {@code net.shasankp000.BotProbe} JFR event when a recording has that event enabled.
+ *
+ * <p>The numbers are available through {@code /bot perf} and are dumped periodically to
+ * {@code config/ai-player/perf/bot-perf.csv} and {@code bot-perf.json}.
+ */
+public final class BotPerfService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("bot-perf");
+
+    /**
+     * Instrumented services. Nested probes run inside another probe on the server thread, so their time is
+     * left out of the per-tick budget to avoid counting it twice.
+     */
+    public enum Probe {
+        AUTO_FACE("autoface", false),
+        FOLLOW("follow", true),
+        HUNGER("hunger", false),
+        BURIAL_RESCUE("burial-rescue", false),
+        STUCK_CHECK("stuck-check", true),
+        WORLD_ACCESS("world-access", false),
+        SKILL("skill", false);
+
+        private final String id;
+        private final boolean nested;
+
+        Probe(String id, boolean nested) {
+            this.id = id;
+            this.nested = nested;
+        }
+
+        public String id() {
+            return id;
+        }
+    }
+
+    /** Samples not attributable to one bot (e.g. world-access drains serving several skill threads). */
+    public static final UUID SHARED = new UUID(0L, 0L);
+
+    private static final String DUMP_LOOP = "bot-perf-dump";
+    private static final long DUMP_INTERVAL_MS = 60_000L;
+    private static final double DEFAULT_BUDGET_MS = 2.0D;
+    private static final int BUCKETS = 32;
+    private static final Probe[] PROBES = Probe.values();
+
+    private static final Map<UUID, BotStats> STATS = new ConcurrentHashMap<>();
+    private static final EventType JFR_TYPE = EventType.getEventType(ProbeEvent.class);
+    private static final AtomicBoolean DIRTY = new AtomicBoolean(false);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static volatile boolean enabled = true;
+    private static volatile long budgetNanos = toNanos(DEFAULT_BUDGET_MS);
+    private static volatile Thread serverThread;
+
+    private BotPerfService() {
+    }
+
+    @Name("net.shasankp000.BotProbe")
+    @Label("Bot Probe")
+    @Category({"AI Player", "Bots"})
+    @StackTrace(false)
+    static final class ProbeEvent extends Event {
+        @Label("Bot")
+        String bot;
+        @Label("Probe")
+        String probe;
+        @Label("Server Thread")
+        boolean serverThread;
+        @Label("Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long duration;
+    }
+
+    /**
+     * Log2 histogram: bucket {@code i} counts samples below {@code 2^i} microseconds (bucket 0 is under 1 µs).
+     */
+    static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void add(long nanos) {
+            long micros = nanos / 1_000L;
+            int bucket = micros <= 0L ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets[bucket].increment();
+            count.increment();
+            totalNanos.add(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double totalMs() {
+            return totalNanos.sum() / 1_000_000.0D;
+        }
+
+        double avgMicros() {
+            long n = count.sum();
+            return n == 0L ? 0.0D : totalNanos.sum() / 1_000.0D / n;
+        }
+
+        double maxMicros() {
+            return maxNanos.get() / 1_000.0D;
+        }
+
+        /** Upper bound of the bucket holding the {@code q} quantile, in microseconds. */
+        double quantileMicros(double q) {
+            long n = count.sum();
+            if (n == 0L) {
+                return 0.0D;
+            }
+            long rank = (long) Math.ceil(q * n);
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) {
+                    return Math.min(1L << i, (long) Math.ceil(maxMicros()));
+                }
+            }
+            return maxMicros();
+        }
+    }
+
+    private static final class BotStats {
+        private volatile String name;
+        private volatile boolean named;
+        private final Histogram[] server = newHistograms();
+        private final Histogram[] worker = newHistograms();
+        private final Histogram tick = new Histogram();
+        private final AtomicLong currentTickNanos = new AtomicLong();
+        private final LongAdder overruns = new LongAdder();
+        private volatile boolean overBudget;
+
+        private BotStats(UUID id) {
+            this.name = SHARED.equals(id) ? "(shared)" : id.toString().substring(0, 8);
+        }
+
+        private static Histogram[] newHistograms() {
+            Histogram[] histograms = new Histogram[PROBES.length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram();
+            }
+            return histograms;
+        }
+    }
+
+    /**
+     * Start timestamp for {@link #record}; {@code 0} when profiling is off.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void record(ServerPlayerEntity bot, Probe probe, long startNanos) {
+        if (bot == null || startNanos == 0L) {
+            return;
+        }
+        BotStats stats = statsFor(bot.getUuid());
+        if (!stats.named) {
+            stats.name = bot.getName().getString();
+            stats.named = true;
+        }
+        record(stats, probe, System.nanoTime() - startNanos);
+    }
+
+    public static void record(UUID botId, Probe probe, long startNanos) {
+        if (startNanos == 0L) {
+            return;
+        }
+        record(statsFor(botId != null ? botId : SHARED), probe, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * True when the bot's server-thread work in the last completed tick exceeded the budget.
+     */
+    public static boolean isOverBudget(UUID botId) {
+        BotStats stats = botId != null ? STATS.get(botId) : null;
+        return stats != null && stats.overBudget;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static double budgetMs() {
+        return budgetNanos / 1_000_000.0D;
+    }
+
+    public static void setBudgetMs(double ms) {
+        budgetNanos = toNanos(Math.max(0.05D, ms));
+    }
+
+    public static void reset() {
+        STATS.clear();
+        DIRTY.set(false);
+    }
+
+    /**
+     * Remembers the server thread and starts the periodic dump. Called on server start.
+     */
+    public static void onServerStarted(MinecraftServer server) {
+        serverThread = server.getThread();
+        BotScheduler.scheduleLoop(null, DUMP_LOOP, () -> {
+            if (DIRTY.compareAndSet(true, false)) {
+                BotScheduler.runAsync(null, DUMP_LOOP, BotPerfService::dumpQuietly);
+            }
+        }, DUMP_INTERVAL_MS, DUMP_INTERVAL_MS);
+    }
+
+    /**
+     * Writes a last dump and clears the session's numbers. Called on server stop.
+     */
+    public static void onServerStopped() {
+        if (DIRTY.getAndSet(false)) {
+            dumpQuietly();
+        }
+        serverThread = null;
+        reset();
+    }
+
+    /**
+     * Closes the tick: folds each bot's server-thread time into its per-tick histogram and budget counters.
+     */
+    public static void onServerTick(MinecraftServer server) {
+        long budget = budgetNanos;
+        for (BotStats stats : STATS.values()) {
+            long spent = stats.currentTickNanos.getAndSet(0L);
+            if (spent == 0L) {
+                stats.overBudget = false;
+                continue;
+            }
+            stats.tick.add(spent);
+            boolean over = spent > budget;
+            stats.overBudget = over;
+            if (over) {
+                stats.overruns.increment();
+            }
+        }
+    }
+
+    /**
+     * Chat-sized report: per bot, the tick cost and the most expensive services.
+     */
+    public static List<String> summaryLines(int maxProbesPerBot) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Bot perf (budget %.2f ms/tick, %s)",
+                budgetMs(), enabled ? "on" : "off"));
+        List<BotStats> bots = new ArrayList<>(STATS.values());
+        bots.sort(Comparator.comparingDouble((BotStats s) -> s.tick.totalMs() + totalMs(s.worker)).reversed());
+        for (BotStats stats : bots) {
+            StringBuilder line = new StringBuilder(stats.name);
+            if (stats.tick.count() > 0L) {
+                line.append(String.format(Locale.ROOT, ": tick avg %.2f p99 %.2f max %.2f ms, over budget %d/%d",
+                        stats.tick.avgMicros() / 1_000.0D,
+                        stats.tick.quantileMicros(0.99D) / 1_000.0D,
+                        stats.tick.maxMicros() / 1_000.0D,
+                        stats.overruns.sum(),
+                        stats.tick.count()));
+            }
+            lines.add(line.toString());
+            List<String[]> rows = new ArrayList<>();
+            collectRows(stats, rows);
+            rows.sort(Comparator.comparingDouble((String[] r) -> Double.parseDouble(r[4])).reversed());
+            for (int i = 0; i < Math.min(maxProbesPerBot, rows.size()); i++) {
+                String[] r = rows.get(i);
+                lines.add(String.format(Locale.ROOT, "  %s/%s: n=%s total %s ms, avg %s µs, p99 %s µs, max %s µs",
+                        r[1], r[2], r[3], r[4], r[5], r[7], r[8]));
+            }
+        }
+        if (bots.isEmpty()) {
+            lines.add("No samples yet.");
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the CSV and JSON dumps now and returns the directory they went to.
+     */
+    public static Path dump() throws IOException {
+        Path dir = FabricLoader.getInstance().getConfigDir().resolve("ai-player").resolve("perf");
+        Files.createDirectories(dir);
+        List<String[]> rows = new ArrayList<>();
+        for (BotStats stats : STATS.values()) {
+            collectRows(stats, rows);
+        }
+
+        StringBuilder csv = new StringBuilder("bot,probe,thread,count,total_ms,avg_us,p50_us,p99_us,max_us,overruns\n");
+        JsonObject json = new JsonObject();
+        json.addProperty("time", Instant.now().toString());
+        json.addProperty("budgetMs", budgetMs());
+        JsonArray samples = new JsonArray();
+        for (String[] r : rows) {
+            csv.append(String.join(",", csvEscape(r[0]), r[1], r[2], r[3], r[4], r[5], r[6], r[7], r[8], r[9])).append('\n');
+            JsonObject sample = new JsonObject();
+            sample.addProperty("bot", r[0]);
+            sample.addProperty("probe", r[1]);
+            sample.addProperty("thread", r[2]);
+            sample.addProperty("count", Long.parseLong(r[3]));
+            sample.addProperty("totalMs", Double.parseDouble(r[4]));
+            sample.addProperty("avgUs", Double.parseDouble(r[5]));
+            sample.addProperty("p50Us", Double.parseDouble(r[6]));
+            sample.addProperty("p99Us", Double.parseDouble(r[7]));
+            sample.addProperty("maxUs", Double.parseDouble(r[8]));
+            if (!r[9].isEmpty()) {
+                sample.addProperty("overruns", Long.parseLong(r[9]));
+            }
+            samples.add(sample);
+        }
+        json.add("samples", samples);
+        Files.writeString(dir.resolve("bot-perf.csv"), csv.toString(), StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("bot-perf.json"), GSON.toJson(json), StandardCharsets.UTF_8);
+        return dir;
+    }
+
+    private static void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write bot perf dump: {}", e.getMessage());
+        }
+    }
+
+    private static BotStats statsFor(UUID botId) {
+        return STATS.computeIfAbsent(botId, BotStats::new);
+    }
+
+    private static void record(BotStats stats, Probe probe, long nanos) {
+        boolean onServer = Thread.currentThread() == serverThread;
+        (onServer ? stats.server : stats.worker)[probe.ordinal()].add(nanos);
+        if (onServer && !probe.nested) {
+            stats.currentTickNanos.addAndGet(nanos);
+        }
+        DIRTY.set(true);
+        if (JFR_TYPE.isEnabled()) {
+            ProbeEvent event = new ProbeEvent();
+            event.bot = stats.name;
+            event.probe = probe.id;
+            event.serverThread = onServer;
+            event.duration = nanos;
+            event.commit();
+        }
+    }
+
+    // Row layout: bot, probe, thread, count, total_ms, avg_us, p50_us, p99_us, max_us, overruns.
+    private static void collectRows(BotStats stats, List<String[]> rows) {
+        if (stats.tick.count() > 0L) {
+            rows.add(row(stats.name, "tick", "server", stats.tick, Long.toString(stats.overruns.sum())));
+        }
+        for (Probe probe : PROBES) {
+            Histogram server = stats.server[probe.ordinal()];
+            if (server.count() > 0L) {
+                rows.add(row(stats.name, probe.id, "server", server, ""));
+            }
+            Histogram worker = stats.worker[probe.ordinal()];
+            if (worker.count() > 0L) {
+                rows.add(row(stats.name, probe.id, "worker", worker, ""));
+            }
+        }
+    }
+
+    private static String[] row(String bot, String probe, String thread, Histogram h, String overruns) {
+        return new String[]{
+                bot,
+                probe,
+                thread,
+                Long.toString(h.count()),
+                String.format(Locale.ROOT, "%.3f", h.totalMs()),
+                String.format(Locale.ROOT, "%.1f", h.avgMicros()),
+                String.format(Locale.ROOT, "%.0f", h.quantileMicros(0.50D)),
+                String.format(Locale.ROOT, "%.0f", h.quantileMicros(0.99D)),
+                String.format(Locale.ROOT, "%.0f", h.maxMicros()),
+                overruns
+        };
+    }
+
+    private static double totalMs(Histogram[] histograms) {
+        double total = 0.0D;
+        for (Histogram h : histograms) {
+            total += h.totalMs();
+        }
+        return total;
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static long toNanos(double ms) {
+        return (long) (ms * TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+}
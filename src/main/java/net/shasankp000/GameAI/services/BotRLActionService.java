@@ -4,7 +4,6 @@ import net.minecraft.entity.Entity;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.shasankp000.Entity.AutoFaceEntity;
 import net.shasankp000.Entity.FaceClosestEntity;
-import net.shasankp000.EntityUtil;
 import net.shasankp000.GameAI.BotActions;
 import net.shasankp000.GameAI.services.SneakLockService;
 
@@ -84,9 +83,7 @@ public final class BotRLActionService {
                 debugFn.accept("Performing action: attack");
                 List<Entity> hostiles = AutoFaceEntity.hostileEntities;
                 if (hostiles == null || hostiles.isEmpty()) {
-                    hostiles = AutoFaceEntity.detectNearbyEntities(bot, 10).stream()
-                            .filter(EntityUtil::isHostile)
-                            .toList();
+                    hostiles = PerceptionService.snapshot(bot).hostileEntities();
                 }
                 if (!hostiles.isEmpty()) {
                     FaceClosestEntity.faceClosestEntity(bot, hostiles);
@@ -1,39 +1,46 @@
 package net.shasankp000.GameAI.services;
 
-import net.minecraft.server.network.ServerPlayerEntity;
-
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Stage-2 refactor: extracted RL persistence throttling out of {@code BotEventHandler}.
  *
- * <p>This avoids frequent disk writes while still ensuring RL state is periodically saved.</p>
+ * <p>Decides how often {@link QTableService} checkpoints the shared Q-table, so frequent learning steps never
+ * turn into frequent disk writes while RL state is still saved periodically.</p>
  */
 public final class BotRLPersistenceThrottleService {
 
-    private static final Map<UUID, Long> LAST_RL_PERSIST_MS = new ConcurrentHashMap<>();
-    private static final long RL_PERSIST_MIN_INTERVAL_MS = 15_000L;
+    private static final long RL_PERSIST_MIN_INTERVAL_MS = 5_000L;
+
+    private static final AtomicLong LAST_RL_PERSIST_MS = new AtomicLong(-1L);
+    private static volatile long checkpointIntervalMs = RL_PERSIST_MIN_INTERVAL_MS;
 
     private BotRLPersistenceThrottleService() {}
 
     public static void resetAll() {
-        LAST_RL_PERSIST_MS.clear();
+        LAST_RL_PERSIST_MS.set(-1L);
     }
 
-    public static boolean shouldPersistNow(ServerPlayerEntity bot) {
-        if (bot == null) {
-            return false;
-        }
-        UUID id = bot.getUuid();
+    public static long checkpointIntervalMs() {
+        return checkpointIntervalMs;
+    }
+
+    /**
+     * Changes the checkpoint interval; values below the default minimum are raised to it.
+     */
+    public static void setCheckpointIntervalMs(long intervalMs) {
+        checkpointIntervalMs = Math.max(RL_PERSIST_MIN_INTERVAL_MS, intervalMs);
+    }
+
+    /**
+     * True (and starts a new interval) when the last checkpoint is at least one interval old.
+     */
+    public static boolean shouldCheckpointNow() {
         long now = System.currentTimeMillis();
-        long last = LAST_RL_PERSIST_MS.getOrDefault(id, -1L);
-        if (last >= 0 && (now - last) < RL_PERSIST_MIN_INTERVAL_MS) {
+        long last = LAST_RL_PERSIST_MS.get();
+        if (last >= 0 && (now - last) < checkpointIntervalMs) {
             return false;
         }
-        LAST_RL_PERSIST_MS.put(id, now);
-        return true;
+        return LAST_RL_PERSIST_MS.compareAndSet(last, now);
     }
 }
-
@@ -713,57 +713,62 @@ public final class BotRescueService {
         for (UUID uuid : BotRegistry.ids()) {
             ServerPlayerEntity candidate = server.getPlayerManager().getPlayer(uuid);
             if (candidate == null || !candidate.isAlive()) continue;
+            long perfStart = BotPerfService.start();
+            tickBurialRescueFor(candidate, uuid);
+            BotPerfService.record(candidate, BotPerfService.Probe.BURIAL_RESCUE, perfStart);
+        }
+    }
 
-            // Compute stuck state before rescue attempt
-            ServerWorld world = candidate.getEntityWorld() instanceof ServerWorld sw ? sw : null;
-            boolean beforeStuck = world != null && isBotCurrentlyStuck(candidate, world);
-
-            // Perform normal rescue handling (may start mining / nudges)
-            rescueFromBurial(candidate);
-
-            // Recompute after rescue attempt
-            boolean afterStuck = world != null && isBotCurrentlyStuck(candidate, world);
-
-            ServerCommandSource src = candidate.getCommandSource().withSilent().withPermissions(net.shasankp000.AIPlayer.OPERATOR_PERMISSIONS);
-
-            if (!beforeStuck && afterStuck) {
-                // Newly stuck - mark start
-                STUCK_START_MS.putIfAbsent(uuid, System.currentTimeMillis());
-            } else if (afterStuck) {
-                // Still stuck - maybe shout
-                long nowMs = System.currentTimeMillis();
-                long startMs = STUCK_START_MS.getOrDefault(uuid, nowMs);
-                long lastShout = LAST_LOST_SHOUT_MS.getOrDefault(uuid, -1L);
-
-                if (lastShout < 0) {
-                    if (nowMs - startMs >= FIRST_LOST_SHOUT_DELAY_MS) {
-                        // First shout
-                        String shout = LOST_SHOUTS[java.util.concurrent.ThreadLocalRandom.current().nextInt(LOST_SHOUTS.length)];
-                        ChatUtils.sendChatMessages(src, shout);
-                        try { BotDialoguePlayer.tryPlayDialogue(src, shout); } catch (Exception ignored) {}
-                        LAST_LOST_SHOUT_MS.put(uuid, nowMs);
-                    }
-                } else if (nowMs - lastShout >= LOST_SHOUT_REPEAT_MS) {
+    private static void tickBurialRescueFor(ServerPlayerEntity candidate, UUID uuid) {
+        // Compute stuck state before rescue attempt
+        ServerWorld world = candidate.getEntityWorld() instanceof ServerWorld sw ? sw : null;
+        boolean beforeStuck = world != null && isBotCurrentlyStuck(candidate, world);
+
+        // Perform normal rescue handling (may start mining / nudges)
+        rescueFromBurial(candidate);
+
+        // Recompute after rescue attempt
+        boolean afterStuck = world != null && isBotCurrentlyStuck(candidate, world);
+
+        ServerCommandSource src = candidate.getCommandSource().withSilent().withPermissions(net.shasankp000.AIPlayer.OPERATOR_PERMISSIONS);
+
+        if (!beforeStuck && afterStuck) {
+            // Newly stuck - mark start
+            STUCK_START_MS.putIfAbsent(uuid, System.currentTimeMillis());
+        } else if (afterStuck) {
+            // Still stuck - maybe shout
+            long nowMs = System.currentTimeMillis();
+            long startMs = STUCK_START_MS.getOrDefault(uuid, nowMs);
+            long lastShout = LAST_LOST_SHOUT_MS.getOrDefault(uuid, -1L);
+
+            if (lastShout < 0) {
+                if (nowMs - startMs >= FIRST_LOST_SHOUT_DELAY_MS) {
+                    // First shout
                     String shout = LOST_SHOUTS[java.util.concurrent.ThreadLocalRandom.current().nextInt(LOST_SHOUTS.length)];
                     ChatUtils.sendChatMessages(src, shout);
                     try { BotDialoguePlayer.tryPlayDialogue(src, shout); } catch (Exception ignored) {}
                     LAST_LOST_SHOUT_MS.put(uuid, nowMs);
                 }
-            } else {
-                // Not stuck now - if previously marked stuck, consider this a 'found' event
-                if (STUCK_START_MS.containsKey(uuid)) {
-                    STUCK_START_MS.remove(uuid);
-                    LAST_LOST_SHOUT_MS.remove(uuid);
-                    String found = FOUND_LINES[java.util.concurrent.ThreadLocalRandom.current().nextInt(FOUND_LINES.length)];
-                    ChatUtils.sendChatMessages(src, found);
-                    try { BotDialoguePlayer.tryPlayDialogue(src, found); } catch (Exception ignored) {}
-                }
+            } else if (nowMs - lastShout >= LOST_SHOUT_REPEAT_MS) {
+                String shout = LOST_SHOUTS[java.util.concurrent.ThreadLocalRandom.current().nextInt(LOST_SHOUTS.length)];
+                ChatUtils.sendChatMessages(src, shout);
+                try { BotDialoguePlayer.tryPlayDialogue(src, shout); } catch (Exception ignored) {}
+                LAST_LOST_SHOUT_MS.put(uuid, nowMs);
+            }
+        } else {
+            // Not stuck now - if previously marked stuck, consider this a 'found' event
+            if (STUCK_START_MS.containsKey(uuid)) {
+                STUCK_START_MS.remove(uuid);
+                LAST_LOST_SHOUT_MS.remove(uuid);
+                String found = FOUND_LINES[java.util.concurrent.ThreadLocalRandom.current().nextInt(FOUND_LINES.length)];
+                ChatUtils.sendChatMessages(src, found);
+                try { BotDialoguePlayer.tryPlayDialogue(src, found); } catch (Exception ignored) {}
+            }
 
-                // Also check if bot is crawling and can stand up
-                if (candidate.isCrawling() || candidate.isSwimming()) {
-                    // Ensure headspace is clear before standing
-                    ensureHeadspaceClearance(candidate);
-                }
+            // Also check if bot is crawling and can stand up
+            if (candidate.isCrawling() || candidate.isSwimming()) {
+                // Ensure headspace is clear before standing
+                ensureHeadspaceClearance(candidate);
             }
         }
     }
@@ -0,0 +1,374 @@
+package net.shasankp000.GameAI.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One place for all of the mod's background work, replacing the per-bot executors and ad-hoc threads.
+ *
+ * <ul>
+ *     <li><b>Timers</b> ({@link #scheduleLoop}, {@link #scheduleAtFixedRate}, {@link #schedule}) run on a
+ *     small shared pool of platform threads. Timer bodies must be short: they typically just hand work to
+ *     {@code server.execute} or complete a future.</li>
+ *     <li><b>Tasks</b> ({@link #runAsync}) get their own virtual thread, so skill bodies that block on
+ *     {@code Thread.sleep}, pathing futures or LLM calls no longer pin a platform thread each.</li>
+ * </ul>
+ *
+ * <p>Everything is registered in the owning bot's scope (or the global scope when the owner is null). A thread
+ * can also carry a tag ({@link #tagCurrentThread}), which every task it starts inherits; {@link TaskService} tags
+ * a skill's thread with its ticket and uses {@link #cancelTasks(UUID, Object)} to stop just that skill's work.
+ * {@link #cancelScope} drops a bot entirely (timers included), and named loops replace any previous loop of the
+ * same name so restarting a bot's loop can never leak the old one. Queue depth, in-flight tasks and timer lag are available through
+ * {@link #metrics()}.
+ */
+public final class BotScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("bot-scheduler");
+
+    private static final int TIMER_THREADS = 2;
+    private static final long LAG_WARN_MS = 250L;
+    private static final long LAG_WARN_INTERVAL_MS = 30_000L;
+    private static final UUID GLOBAL = new UUID(0L, 0L);
+
+    private static final AtomicInteger TIMER_THREAD_ID = new AtomicInteger(0);
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(TIMER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "AI-Player-Timer-" + TIMER_THREAD_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private static final Map<UUID, Scope> SCOPES = new ConcurrentHashMap<>();
+    /** Tag of the work on the current thread; tasks started from it inherit the tag. */
+    private static final ThreadLocal<Object> TAG = new ThreadLocal<>();
+
+    private static final LongAdder TIMER_RUNS = new LongAdder();
+    private static final LongAdder TASKS_STARTED = new LongAdder();
+    private static final LongAdder TASKS_CANCELLED = new LongAdder();
+    private static final AtomicInteger TASKS_IN_FLIGHT = new AtomicInteger();
+    private static final LongAdder LAG_TOTAL_MICROS = new LongAdder();
+    private static final LongAdder LAG_SAMPLES = new LongAdder();
+    private static final AtomicLong LAG_MAX_MICROS = new AtomicLong();
+    private static volatile long lastLagWarnMs;
+
+    private BotScheduler() {
+    }
+
+    /**
+     * Point-in-time scheduler health.
+     *
+     * @param timerQueueDepth Timers waiting to fire (one-shots plus the next run of every loop)
+     * @param loops           Named and anonymous periodic timers currently registered
+     * @param tasksInFlight   Virtual-thread tasks started and not yet finished
+     * @param avgLagMicros    Mean delay between a timer's due time and when it actually ran
+     * @param maxLagMicros    Worst such delay since the last {@link #resetMetrics()}
+     */
+    public record Metrics(int timerQueueDepth,
+                          int loops,
+                          int tasksInFlight,
+                          long timerRuns,
+                          long tasksStarted,
+                          long tasksCancelled,
+                          long avgLagMicros,
+                          long maxLagMicros) {
+    }
+
+    private static final class Scope {
+        final Map<String, ScheduledFuture<?>> loops = new ConcurrentHashMap<>();
+        final Set<ScheduledFuture<?>> timers = ConcurrentHashMap.newKeySet();
+        final Set<BotTask> tasks = ConcurrentHashMap.newKeySet();
+
+        void track(ScheduledFuture<?> timer) {
+            timers.removeIf(Future::isDone);
+            timers.add(timer);
+        }
+    }
+
+    /**
+     * A virtual-thread task that remembers its thread, so a task cancelling its own scope can skip itself, and the
+     * tag it was started under.
+     */
+    private static final class BotTask extends FutureTask<Void> {
+        private final Object tag;
+        private volatile Thread runner;
+
+        BotTask(Runnable body, Object tag) {
+            super(body, null);
+            this.tag = tag;
+        }
+
+        @Override
+        public void run() {
+            runner = Thread.currentThread();
+            if (tag != null) {
+                TAG.set(tag);
+            }
+            try {
+                super.run();
+            } finally {
+                TAG.remove();
+            }
+        }
+    }
+
+    private static Scope scope(UUID owner) {
+        return SCOPES.computeIfAbsent(owner != null ? owner : GLOBAL, ignored -> new Scope());
+    }
+
+    /**
+     * Starts (or restarts) the loop {@code name} for {@code owner}, cancelling any loop already registered
+     * under that name.
+     */
+    public static ScheduledFuture<?> scheduleLoop(UUID owner, String name, Runnable tick, long initialDelayMs, long periodMs) {
+        Scope scope = scope(owner);
+        ScheduledFuture<?> loop = TIMER.scheduleAtFixedRate(periodic(tick, initialDelayMs, periodMs),
+                initialDelayMs, periodMs, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = scope.loops.put(name, loop);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        return loop;
+    }
+
+    /**
+     * Anonymous fixed-rate timer in {@code owner}'s scope; cancel it through the returned future.
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(UUID owner, Runnable tick, long initialDelay, long period, TimeUnit unit) {
+        ScheduledFuture<?> timer = TIMER.scheduleAtFixedRate(
+                periodic(tick, unit.toMillis(initialDelay), unit.toMillis(period)), initialDelay, period, unit);
+        scope(owner).track(timer);
+        return timer;
+    }
+
+    /**
+     * One-shot timer in {@code owner}'s scope.
+     */
+    public static ScheduledFuture<?> schedule(UUID owner, Runnable action, long delay, TimeUnit unit) {
+        long due = System.nanoTime() + unit.toNanos(delay);
+        ScheduledFuture<?> timer = TIMER.schedule(() -> {
+            recordLag(System.nanoTime() - due);
+            runTimer(action);
+        }, delay, unit);
+        scope(owner).track(timer);
+        return timer;
+    }
+
+    /**
+     * Runs {@code body} on a new virtual thread named after {@code name}, registered in {@code owner}'s scope
+     * until it finishes.
+     */
+    public static Future<?> runAsync(UUID owner, String name, Runnable body) {
+        Scope scope = scope(owner);
+        Object tag = TAG.get();
+        BotTask[] self = new BotTask[1];
+        BotTask task = new BotTask(() -> {
+            TASKS_IN_FLIGHT.incrementAndGet();
+            try {
+                body.run();
+            } catch (Throwable t) {
+                LOGGER.error("Task '{}' failed", name, t);
+                throw t;
+            } finally {
+                TASKS_IN_FLIGHT.decrementAndGet();
+                scope.tasks.remove(self[0]);
+            }
+        }, tag);
+        self[0] = task;
+        scope.tasks.add(task);
+        TASKS_STARTED.increment();
+        Thread.ofVirtual().name("bot-task-" + name).start(task);
+        return task;
+    }
+
+    public static void cancelLoop(UUID owner, String name) {
+        Scope scope = SCOPES.get(owner != null ? owner : GLOBAL);
+        if (scope == null) {
+            return;
+        }
+        ScheduledFuture<?> loop = scope.loops.remove(name);
+        if (loop != null) {
+            loop.cancel(false);
+        }
+    }
+
+    public static boolean hasLoop(UUID owner, String name) {
+        Scope scope = SCOPES.get(owner != null ? owner : GLOBAL);
+        ScheduledFuture<?> loop = scope != null ? scope.loops.get(name) : null;
+        return loop != null && !loop.isDone();
+    }
+
+    /**
+     * Tags the calling thread; tasks it starts from now on carry {@code tag}. A null tag clears it.
+     */
+    public static void tagCurrentThread(Object tag) {
+        if (tag == null) {
+            TAG.remove();
+        } else {
+            TAG.set(tag);
+        }
+    }
+
+    /**
+     * Clears the calling thread's tag if it is still {@code tag}.
+     */
+    public static void untagCurrentThread(Object tag) {
+        if (tag != null && TAG.get() == tag) {
+            TAG.remove();
+        }
+    }
+
+    /**
+     * Interrupts every virtual-thread task owned by {@code owner}, except the calling task itself. Timers and
+     * loops keep running. Returns how many tasks were cancelled.
+     */
+    public static int cancelTasks(UUID owner) {
+        return cancelTasks(owner, null);
+    }
+
+    /**
+     * Like {@link #cancelTasks(UUID)}, limited to tasks started under {@code tag} (all of the owner's tasks when
+     * {@code tag} is null).
+     */
+    public static int cancelTasks(UUID owner, Object tag) {
+        Scope scope = SCOPES.get(owner != null ? owner : GLOBAL);
+        if (scope == null) {
+            return 0;
+        }
+        Thread current = Thread.currentThread();
+        int cancelled = 0;
+        for (BotTask task : scope.tasks) {
+            if (task.runner == current || (tag != null && task.tag != tag)) {
+                continue;
+            }
+            if (task.cancel(true)) {
+                cancelled++;
+            }
+            scope.tasks.remove(task);
+        }
+        TASKS_CANCELLED.add(cancelled);
+        return cancelled;
+    }
+
+    /**
+     * Cancels everything owned by {@code owner} (loops, timers and tasks) and forgets the scope.
+     */
+    public static void cancelScope(UUID owner) {
+        UUID key = owner != null ? owner : GLOBAL;
+        cancelTasks(key);
+        Scope scope = SCOPES.remove(key);
+        if (scope == null) {
+            return;
+        }
+        scope.loops.values().forEach(loop -> loop.cancel(false));
+        scope.timers.forEach(timer -> timer.cancel(false));
+    }
+
+    /**
+     * Cancels every bot's tasks (not their loops), e.g. when all tickets are force-aborted.
+     */
+    public static void cancelAllTasks() {
+        for (UUID owner : SCOPES.keySet()) {
+            if (!GLOBAL.equals(owner)) {
+                cancelTasks(owner);
+            }
+        }
+    }
+
+    /**
+     * Cancels every scope, including the global one. Called when the server stops; the threads themselves are
+     * kept for the next world.
+     */
+    public static void cancelAll() {
+        for (UUID owner : SCOPES.keySet()) {
+            cancelScope(owner);
+        }
+    }
+
+    public static Metrics metrics() {
+        int loops = 0;
+        for (Scope scope : SCOPES.values()) {
+            loops += scope.loops.size();
+            for (ScheduledFuture<?> timer : scope.timers) {
+                if (!timer.isDone() && isPeriodic(timer)) {
+                    loops++;
+                }
+            }
+        }
+        long samples = LAG_SAMPLES.sum();
+        return new Metrics(TIMER.getQueue().size(),
+                loops,
+                TASKS_IN_FLIGHT.get(),
+                TIMER_RUNS.sum(),
+                TASKS_STARTED.sum(),
+                TASKS_CANCELLED.sum(),
+                samples > 0 ? LAG_TOTAL_MICROS.sum() / samples : 0L,
+                LAG_MAX_MICROS.get());
+    }
+
+    public static String metricsSummary() {
+        Metrics m = metrics();
+        return String.format("timers queued=%d loops=%d tasks in flight=%d | timer runs=%d tasks started=%d cancelled=%d | lag avg=%.2fms max=%.2fms",
+                m.timerQueueDepth(), m.loops(), m.tasksInFlight(), m.timerRuns(), m.tasksStarted(), m.tasksCancelled(),
+                m.avgLagMicros() / 1000.0, m.maxLagMicros() / 1000.0);
+    }
+
+    public static void resetMetrics() {
+        LAG_TOTAL_MICROS.reset();
+        LAG_SAMPLES.reset();
+        LAG_MAX_MICROS.set(0L);
+    }
+
+    private static boolean isPeriodic(ScheduledFuture<?> timer) {
+        return timer instanceof java.util.concurrent.RunnableScheduledFuture<?> scheduled && scheduled.isPeriodic();
+    }
+
+    private static Runnable periodic(Runnable tick, long initialDelayMs, long periodMs) {
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, periodMs));
+        AtomicLong run = new AtomicLong();
+        return () -> {
+            recordLag(System.nanoTime() - (start + run.getAndIncrement() * periodNanos));
+            runTimer(tick);
+        };
+    }
+
+    private static void runTimer(Runnable body) {
+        TIMER_RUNS.increment();
+        try {
+            body.run();
+        } catch (Throwable t) {
+            // An escaping exception would silently cancel a periodic timer; log and keep it alive instead.
+            LOGGER.error("Scheduled task failed", t);
+        }
+    }
+
+    private static void recordLag(long lagNanos) {
+        long micros = Math.max(0L, lagNanos / 1_000L);
+        LAG_TOTAL_MICROS.add(micros);
+        LAG_SAMPLES.increment();
+        LAG_MAX_MICROS.accumulateAndGet(micros, Math::max);
+        if (micros >= LAG_WARN_MS * 1_000L) {
+            long now = System.currentTimeMillis();
+            if (now - lastLagWarnMs >= LAG_WARN_INTERVAL_MS) {
+                lastLagWarnMs = now;
+                LOGGER.warn("⚠️ Bot timers running {} ms late ({} queued)", micros / 1_000L, TIMER.getQueue().size());
+            }
+        }
+    }
+}
@@ -2,33 +2,38 @@ package net.shasankp000.GameAI.services;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.WorldSavePath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Persists per-alias, per-world location state so bots resume where they were
  * in each world (distinct from dimensions).
+ *
+ * <p>Updates only touch the in-memory map; {@link PersistenceJournal} writes changed aliases in the
+ * background, so the per-tick {@link #saveState} calls cost no disk I/O.
  */
 public final class BotWorldStateService {
     private static final Logger LOGGER = LoggerFactory.getLogger("bot-world-state");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String FILE_NAME = "bot_world_state.json";
 
-    private static final Map<String, Map<String, BotState>> STATE = new HashMap<>();
-    private static boolean loaded = false;
+    private static final Map<String, Map<String, BotState>> STATE = new ConcurrentHashMap<>();
+    private static final PersistenceJournal JOURNAL = PersistenceJournal.open("bot world state", stateFile(),
+            alias -> {
+                Map<String, BotState> worldMap = STATE.get(alias);
+                return worldMap == null ? null : GSON.toJsonTree(worldMap);
+            });
+    private static volatile boolean loaded = false;
 
     private BotWorldStateService() {}
 
@@ -41,46 +46,28 @@ public final class BotWorldStateService {
         return configDir.resolve("ai-player").resolve(FILE_NAME);
     }
 
-    private static void ensureLoaded() {
+    private static synchronized void ensureLoaded() {
         if (loaded) return;
-        Path file = stateFile();
-        if (Files.exists(file)) {
-            try (Reader reader = Files.newBufferedReader(file)) {
-                Map<?, ?> raw = GSON.fromJson(reader, Map.class);
-                if (raw != null) {
-                    for (Map.Entry<?, ?> entry : raw.entrySet()) {
-                        String alias = entry.getKey().toString();
-                        Map<String, BotState> worldMap = new HashMap<>();
-                        Object val = entry.getValue();
-                        if (val instanceof Map<?, ?> rawWorlds) {
-                            for (Map.Entry<?, ?> w : rawWorlds.entrySet()) {
-                                String wk = w.getKey().toString();
-                                BotState st = GSON.fromJson(GSON.toJson(w.getValue()), BotState.class);
-                                worldMap.put(wk, st);
-                            }
+        for (Map.Entry<String, JsonElement> entry : JOURNAL.load().entrySet()) {
+            String alias = entry.getKey();
+            Map<String, BotState> worldMap = new ConcurrentHashMap<>();
+            if (entry.getValue() instanceof JsonObject rawWorlds) {
+                for (Map.Entry<String, JsonElement> w : rawWorlds.entrySet()) {
+                    try {
+                        BotState st = GSON.fromJson(w.getValue(), BotState.class);
+                        if (st != null) {
+                            worldMap.put(w.getKey(), st);
                         }
-                        STATE.put(alias, worldMap);
+                    } catch (Exception e) {
+                        LOGGER.warn("Skipping unreadable world state for {} in {}: {}", alias, w.getKey(), e.getMessage());
                     }
                 }
-            } catch (Exception e) {
-                LOGGER.warn("Failed to load bot world state: {}", e.getMessage());
             }
+            STATE.put(alias, worldMap);
         }
         loaded = true;
     }
 
-    private static void flush() {
-        try {
-            Path file = stateFile();
-            Files.createDirectories(file.getParent());
-            try (Writer writer = Files.newBufferedWriter(file)) {
-                GSON.toJson(STATE, writer);
-            }
-        } catch (IOException e) {
-            LOGGER.warn("Failed to save bot world state: {}", e.getMessage());
-        }
-    }
-
     public static Optional<BotState> loadState(MinecraftServer server, String alias) {
         ensureLoaded();
         String key = worldKey(server);
@@ -94,15 +81,22 @@ public final class BotWorldStateService {
         ensureLoaded();
         String alias = bot.getName().getString().toLowerCase();
         String key = worldKey(bot.getCommandSource().getServer());
-        Map<String, BotState> worldMap = STATE.computeIfAbsent(alias, k -> new HashMap<>());
-        worldMap.put(key, BotState.from(bot));
-        flush();
+        Map<String, BotState> worldMap = STATE.computeIfAbsent(alias, k -> new ConcurrentHashMap<>());
+        BotState state = BotState.from(bot);
+        if (!state.equals(worldMap.put(key, state))) {
+            JOURNAL.markDirty(alias);
+        }
     }
 
+    /**
+     * Forces queued state to disk (along with every other journal); blocks for at most two seconds.
+     */
     public static void saveAll(MinecraftServer server) {
         if (server == null) return;
         ensureLoaded();
-        flush();
+        if (!PersistenceJournal.flushAll(2_000L)) {
+            LOGGER.warn("Timed out flushing bot world state.");
+        }
     }
 
     public static String currentWorldKey(MinecraftServer server) {
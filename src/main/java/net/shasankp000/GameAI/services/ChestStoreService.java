@@ -33,7 +33,6 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 public final class ChestStoreService {
@@ -322,24 +321,9 @@ public final class ChestStoreService {
             if (!(bot.getEntityWorld() instanceof ServerWorld world)) {
                 return null;
             }
-            BlockPos origin = bot.getBlockPos();
-            double best = Double.MAX_VALUE;
-            BlockPos bestPos = null;
-            for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -ySpan, -radius), origin.add(radius, ySpan, radius))) {
-                if (!world.isChunkLoaded(pos)) {
-                    continue;
-                }
-                BlockState state = world.getBlockState(pos);
-                if (!state.isOf(Blocks.CHEST) && !state.isOf(Blocks.TRAPPED_CHEST)) {
-                    continue;
-                }
-                double d = origin.getSquaredDistance(pos);
-                if (d < best) {
-                    best = d;
-                    bestPos = pos.toImmutable();
-                }
-            }
-            return bestPos;
+            List<BlockPos> nearest = BlockLocatorIndex.nearest(world, bot.getBlockPos(), radius, ySpan,
+                    BlockLocatorIndex.Kind.CHEST, 1, state -> state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST));
+            return nearest.isEmpty() ? null : nearest.get(0);
         }, 1200, null);
     }
 
@@ -521,24 +505,29 @@ public final class ChestStoreService {
                 + " serverThread=" + server.isOnThread()
                 + " sourceWorld=" + worldKeyName(source.getWorld())
                 + " botWorld=" + worldKeyName(bot.getEntityWorld()));
-        Boolean chestOk = callOnServer(server, () -> source.getWorld().getBlockEntity(chestPos) instanceof ChestBlockEntity, 800, Boolean.FALSE);
-        if (!Boolean.TRUE.equals(chestOk)) {
-            debugChest("Store transfer abort: chest missing at " + chestPos.toShortString());
-            return 0;
-        }
-
-        if (deposit) {
-            int have = callOnServer(server, () -> countMatching(bot.getInventory(), filter), 800, 0);
-            debugChest("Store transfer matching count=" + have);
-            if (have <= 0) {
-                return 0;
-            }
-        }
-
-        java.util.List<BlockPos> stands = callOnServer(server,
-                () -> findStandCandidatesNearChest(source.getWorld(), bot, chestPos),
-                1200,
-                java.util.List.of());
+        // Chest check, inventory count and stand candidates in a single server round-trip, awaited once.
+        WorldAccessService.Batch precheck = WorldAccessService.batch(server);
+        CompletableFuture<Boolean> chestFuture = precheck.read(() -> source.getWorld().getBlockEntity(chestPos) instanceof ChestBlockEntity);
+        CompletableFuture<Integer> haveFuture = deposit
+                ? precheck.read(() -> countMatching(bot.getInventory(), filter))
+                : CompletableFuture.completedFuture(1);
+        CompletableFuture<java.util.List<BlockPos>> standsFuture = precheck.read(
+                () -> findStandCandidatesNearChest(source.getWorld(), bot, chestPos));
+        precheck.submit();
+        CompletableFuture<java.util.List<BlockPos>> usableStands = chestFuture
+                .thenCombine(haveFuture, (chestOk, have) -> {
+                    if (!Boolean.TRUE.equals(chestOk)) {
+                        debugChest("Store transfer abort: chest missing at " + chestPos.toShortString());
+                        return false;
+                    }
+                    if (deposit) {
+                        debugChest("Store transfer matching count=" + have);
+                    }
+                    return have != null && have > 0;
+                })
+                .thenCombine(standsFuture, (ok, candidates) -> ok ? candidates : java.util.List.<BlockPos>of());
+
+        java.util.List<BlockPos> stands = WorldAccessService.awaitOrDrop(usableStands, 1200, java.util.List.of());
         debugChest("Store transfer stand candidates=" + stands.size() + " stands=" + formatPositions(stands, 4));
         if (stands.isEmpty()) {
             return 0;
@@ -549,7 +538,8 @@ public final class ChestStoreService {
         for (BlockPos stand : stands) {
             BlockPos door = BlockInteractionService.findDoorAlongLine(bot, Vec3d.ofCenter(stand), 6.0D);
             if (door != null) {
-                callOnServer(server, () -> MovementService.tryOpenDoorAt(bot, door), 800, Boolean.FALSE);
+                WorldAccessService.awaitOrDrop(WorldAccessService.act(server, "open-door:" + bot.getUuid() + ":" + door.asLong(),
+                        () -> MovementService.tryOpenDoorAt(bot, door)), 800, Boolean.FALSE);
                 maybeStepThroughDoor(bot, door, stand);
             }
 
@@ -598,7 +588,8 @@ public final class ChestStoreService {
             return 0;
         }
 
-        Integer moved = callOnServer(server, () -> {
+        // Not keyed: the filter is usually a fresh lambda, so there is no stable identity to fold repeats on.
+        CompletableFuture<Integer> transfer = WorldAccessService.act(server, null, () -> {
             var be2 = source.getWorld().getBlockEntity(chestPos);
             if (!(be2 instanceof ChestBlockEntity chest)) {
                 return 0;
@@ -607,8 +598,10 @@ public final class ChestStoreService {
                 return moveItems(bot.getInventory(), chest, filter, amount);
             }
             return moveItems(chest, bot.getInventory(), filter, amount);
-        }, 2500, 0);
-        int movedCount = moved != null ? moved : 0;
+        });
+        // A transfer still queued at the timeout is dropped; one the server thread already started is waited for,
+        // so the count returned always matches what actually moved.
+        int movedCount = WorldAccessService.awaitOrDrop(transfer, 2500, 0);
         debugChest("Store transfer done: moved=" + movedCount + " chest=" + chestPos.toShortString());
         return movedCount;
     }
@@ -660,18 +653,7 @@ public final class ChestStoreService {
         if (bot == null || bot.isRemoved()) {
             return 0;
         }
-        Boolean chestOk = callOnServer(server, () -> source.getWorld().getBlockEntity(chestPos) instanceof ChestBlockEntity, 800, Boolean.FALSE);
-        if (!Boolean.TRUE.equals(chestOk)) {
-            return 0;
-        }
-
-        if (deposit) {
-            int have = callOnServer(server, () -> countMatching(bot.getInventory(), filter), 800, 0);
-            if (have <= 0) {
-                return 0;
-            }
-        }
-
+        // performStoreTransferWithBot re-checks the chest and inventory in one batched read.
         return performStoreTransferWithBot(source, bot, chestPos, amount, filter, deposit, movement);
     }
 
@@ -705,26 +687,7 @@ public final class ChestStoreService {
         if (server == null || task == null) {
             return fallback;
         }
-        if (server.isOnThread()) {
-            try {
-                return task.get();
-            } catch (Throwable t) {
-                return fallback;
-            }
-        }
-        CompletableFuture<T> future = new CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                future.complete(task.get());
-            } catch (Throwable t) {
-                future.complete(fallback);
-            }
-        });
-        try {
-            return future.get(Math.max(250L, timeoutMs), TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-            return fallback;
-        }
+        return WorldAccessService.call(server, task, Math.max(250L, timeoutMs), fallback);
     }
 
     private static int countMatching(Inventory inv, Predicate<ItemStack> filter) {
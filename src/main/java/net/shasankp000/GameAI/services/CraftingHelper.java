@@ -1612,39 +1612,17 @@ public final class CraftingHelper {
     }
 
     private static List<BlockPos> findNearbyChests(ServerWorld world, BlockPos origin, int radius) {
-        List<BlockPos> chests = new ArrayList<>();
         if (world == null || origin == null) {
-            return chests;
+            return new ArrayList<>();
         }
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -2, -radius), origin.add(radius, 2, radius))) {
-            if (!world.isChunkLoaded(pos)) {
-                continue;
-            }
-            var state = world.getBlockState(pos);
-            if (state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST)) {
-                chests.add(pos.toImmutable());
-            }
-        }
-        chests.sort(java.util.Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        return chests;
+        return new ArrayList<>(BlockLocatorIndex.nearbyChests(world, origin, radius, 2));
     }
 
     private static List<BlockPos> findNearbyChests(ServerWorld world, BlockPos origin, int radius, int ySpan) {
-        List<BlockPos> chests = new ArrayList<>();
         if (world == null || origin == null) {
-            return chests;
-        }
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -ySpan, -radius), origin.add(radius, ySpan, radius))) {
-            if (!world.isChunkLoaded(pos)) {
-                continue;
-            }
-            var state = world.getBlockState(pos);
-            if (state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST)) {
-                chests.add(pos.toImmutable());
-            }
+            return new ArrayList<>();
         }
-        chests.sort(java.util.Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        return chests;
+        return new ArrayList<>(BlockLocatorIndex.nearbyChests(world, origin, radius, ySpan));
     }
 
     private static boolean moveNearBlock(ServerPlayerEntity bot, ServerCommandSource source, BlockPos target, double reachSq) {
@@ -2,6 +2,8 @@ package net.shasankp000.GameAI.services;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.item.Items;
 import net.minecraft.registry.Registries;
@@ -12,10 +14,6 @@ import net.minecraft.util.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,9 +35,17 @@ public final class CraftingHistoryService {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String FILE_NAME = "crafting_history.json";
     private static final Object LOCK = new Object();
+    private static final String LEGACY_ROOT_KEY = "worlds";
 
     private static RootData DATA = new RootData();
     private static boolean loaded = false;
+    /** Keyed by {@link #serverWorldKey}; each world is journaled on its own. */
+    private static final PersistenceJournal JOURNAL = PersistenceJournal.open("crafting history", stateFile(), key -> {
+        synchronized (LOCK) {
+            WorldData wd = DATA.worlds != null ? DATA.worlds.get(key) : null;
+            return wd == null ? null : GSON.toJsonTree(wd);
+        }
+    });
 
     private CraftingHistoryService() {}
 
@@ -68,36 +74,29 @@ public final class CraftingHistoryService {
             if (loaded) {
                 return;
             }
-            Path file = stateFile();
-            if (Files.exists(file)) {
-                try (Reader reader = Files.newBufferedReader(file)) {
-                    RootData parsed = GSON.fromJson(reader, RootData.class);
-                    if (parsed != null) {
-                        DATA = parsed;
+            DATA = new RootData();
+            Map<String, JsonElement> entries = JOURNAL.load();
+            // Files written before the journal existed wrap everything in a single "worlds" object.
+            JsonElement legacy = entries.remove(LEGACY_ROOT_KEY);
+            if (legacy instanceof JsonObject legacyWorlds) {
+                legacyWorlds.entrySet().forEach(entry -> entries.putIfAbsent(entry.getKey(), entry.getValue()));
+                JOURNAL.markDirty(LEGACY_ROOT_KEY);
+                entries.keySet().forEach(JOURNAL::markDirty);
+            }
+            for (Map.Entry<String, JsonElement> entry : entries.entrySet()) {
+                try {
+                    WorldData wd = GSON.fromJson(entry.getValue(), WorldData.class);
+                    if (wd != null) {
+                        DATA.worlds.put(entry.getKey(), wd);
                     }
                 } catch (Exception e) {
-                    LOGGER.warn("Failed to load crafting history: {}", e.getMessage());
-                    DATA = new RootData();
+                    LOGGER.warn("Failed to load crafting history for {}: {}", entry.getKey(), e.getMessage());
                 }
             }
             loaded = true;
         }
     }
 
-    private static void flush() {
-        synchronized (LOCK) {
-            try {
-                Path file = stateFile();
-                Files.createDirectories(file.getParent());
-                try (Writer writer = Files.newBufferedWriter(file)) {
-                    GSON.toJson(DATA, writer);
-                }
-            } catch (IOException e) {
-                LOGGER.warn("Failed to save crafting history: {}", e.getMessage());
-            }
-        }
-    }
-
     private static WorldData worldData(MinecraftServer server, ServerWorld world) {
         ensureLoaded();
         String key = serverWorldKey(server, world);
@@ -122,6 +121,7 @@ public final class CraftingHistoryService {
         String botId = botKey(bot);
         if (botId.isBlank()) return;
 
+        String worldKey = serverWorldKey(server, world);
         WorldData wd = worldData(server, world);
         synchronized (LOCK) {
             if (wd.recipesByBot == null) {
@@ -133,7 +133,7 @@ public final class CraftingHistoryService {
                 list.add(idStr);
             }
         }
-        flush();
+        JOURNAL.markDirty(worldKey);
     }
 
     public static Set<Identifier> getHistory(ServerPlayerEntity bot) {
@@ -171,7 +171,7 @@ public final class CraftingHistoryService {
             }
             if (removedAir) {
                 list.removeIf(entry -> "minecraft:air".equals(entry) || "air".equals(entry));
-                flush();
+                JOURNAL.markDirty(serverWorldKey(server, world));
             }
             return Collections.unmodifiableSet(out);
         }
@@ -1,36 +1,370 @@
 package net.shasankp000.GameAI.services;
 
 import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Simple file logger for debugging when stdout/log4j is unreliable.
+ * Structured debug event log ({@code config/ai-player/skill_debug.log}) that stays cheap enough to leave on
+ * while chasing timing bugs.
+ *
+ * <p>{@link #event} only captures the timestamp, thread name and field values and publishes them into a
+ * bounded lock-free ring buffer; formatting and I/O happen on a single background writer that appends through
+ * a buffered {@link FileChannel} and rotates the file once it grows past {@link #ROTATE_BYTES}. When the ring
+ * is full the event is dropped and counted rather than blocking the caller. Each category is rate limited to
+ * {@link #MAX_PER_SECOND} events per second so one runaway call site cannot crowd out the rest;
+ * {@link Throttle} covers the per-key "at most once every N ms" case.
+ *
+ * <p>The writer is a dedicated daemon thread rather than a {@link BotScheduler} task because it has to keep
+ * running across {@link BotScheduler#cancelAll()} so the end of a session still reaches the file.
  */
 public final class DebugFileLogger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("debug-file-log");
+
     private static final String FILE_NAME = "skill_debug.log";
-    private static final Object LOCK = new Object();
+    private static final String DEFAULT_CATEGORY = "debug";
+    private static final int RING_CAPACITY = 1 << 14;
+    private static final int RING_MASK = RING_CAPACITY - 1;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final long ROTATE_BYTES = 8L * 1024L * 1024L;
+    private static final int ROTATED_FILES_KEPT = 3;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+    private static final int MAX_PER_SECOND = 500;
+
+    private static final AtomicReferenceArray<Event> RING = new AtomicReferenceArray<>(RING_CAPACITY);
+    // Next slot producers claim; only advanced by a successful CAS, so every claimed slot gets published.
+    private static final AtomicLong TAIL = new AtomicLong();
+    // Next slot the writer reads; written by the writer thread only.
+    private static final AtomicLong HEAD = new AtomicLong();
+    // Slots below this have reached the file channel.
+    private static volatile long flushedUpTo;
+
+    private static final Map<String, Policy> POLICIES = new ConcurrentHashMap<>();
+
+    private static final LongAdder WRITTEN = new LongAdder();
+    private static final LongAdder DROPPED_FULL = new LongAdder();
+    private static final LongAdder RATE_LIMITED = new LongAdder();
+
+    private static final Object START_LOCK = new Object();
+    private static volatile Thread writer;
 
     private DebugFileLogger() {
     }
 
+    private record Event(long epochMs, String thread, String category, String name, Object[] fields) {
+    }
+
+    /**
+     * Per-category rate limit. Counters are lock-free; a category's window resets on the first event of each
+     * new second.
+     */
+    private static final class Policy {
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicLong windowCount = new AtomicLong();
+
+        private boolean admit(long nowMs) {
+            long second = nowMs / 1000L;
+            long current = window.get();
+            if (current != second && window.compareAndSet(current, second)) {
+                windowCount.set(0L);
+            }
+            if (windowCount.incrementAndGet() > MAX_PER_SECOND) {
+                RATE_LIMITED.increment();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Lets one event per key through every {@code intervalMs}; for "log this at most every few seconds per bot"
+     * call sites. Lock-free.
+     */
+    public static final class Throttle {
+        private final long intervalMs;
+        private final Map<Object, Long> last = new ConcurrentHashMap<>();
+
+        public Throttle(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        public boolean tryAcquire(Object key) {
+            if (key == null) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            while (true) {
+                Long previous = last.get(key);
+                if (previous == null) {
+                    if (last.putIfAbsent(key, now) == null) {
+                        return true;
+                    }
+                } else if (now - previous < intervalMs) {
+                    return false;
+                } else if (last.replace(key, previous, now)) {
+                    return true;
+                }
+            }
+        }
+
+        public void clear(Object key) {
+            if (key != null) {
+                last.remove(key);
+            }
+        }
+
+        public void reset() {
+            last.clear();
+        }
+    }
+
+    /**
+     * Free-form line under the {@code debug} category.
+     */
     public static void log(String message) {
         if (message == null || message.isBlank()) {
             return;
         }
-        synchronized (LOCK) {
+        event(DEFAULT_CATEGORY, message);
+    }
+
+    /**
+     * Records {@code category name k1=v1 k2=v2 ...}. {@code fields} are key/value pairs; values are formatted
+     * later on the writer thread, so pass strings or primitives rather than objects that may change. A value
+     * that is empty or contains whitespace, quotes or {@code =} is written double-quoted with {@code \"},
+     * {@code \\}, {@code \n} and {@code \r} escaped, so every line still splits cleanly into fields.
+     */
+    public static void event(String category, String name, Object... fields) {
+        if (category == null || name == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!POLICIES.computeIfAbsent(category, c -> new Policy()).admit(now)) {
+            return;
+        }
+        publish(new Event(now, Thread.currentThread().getName(), category, name, fields));
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for the writer to catch up with everything published so far.
+     */
+    public static void flush(long timeoutMs) {
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        long target = TAIL.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (flushedUpTo < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(current);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1L));
+        }
+    }
+
+    public static String metricsSummary() {
+        return String.format("debug log: written=%d queued=%d dropped(full)=%d rate limited=%d",
+                WRITTEN.sum(), TAIL.get() - HEAD.get(), DROPPED_FULL.sum(), RATE_LIMITED.sum());
+    }
+
+    private static void publish(Event event) {
+        while (true) {
+            long tail = TAIL.get();
+            if (tail - HEAD.get() >= RING_CAPACITY) {
+                DROPPED_FULL.increment();
+                return;
+            }
+            if (TAIL.compareAndSet(tail, tail + 1)) {
+                RING.lazySet((int) (tail & RING_MASK), event);
+                break;
+            }
+        }
+        if (writer == null) {
+            startWriter();
+        }
+    }
+
+    private static void startWriter() {
+        synchronized (START_LOCK) {
+            if (writer != null) {
+                return;
+            }
+            Thread thread = new Thread(new Writer(), "AI-Player-DebugLog");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+            writer = thread;
+        }
+    }
+
+    private static final class Writer implements Runnable {
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        private final StringBuilder line = new StringBuilder(256);
+        private Path file;
+        private FileChannel channel;
+        private long fileSize;
+        private boolean failed;
+
+        @Override
+        public void run() {
+            while (true) {
+                int drained = drain();
+                flushBuffer();
+                flushedUpTo = HEAD.get();
+                if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private int drain() {
+            int drained = 0;
+            long head = HEAD.get();
+            while (head < TAIL.get()) {
+                int slot = (int) (head & RING_MASK);
+                Event event = RING.get(slot);
+                if (event == null) {
+                    // Claimed but not yet published; pick it up on the next pass.
+                    break;
+                }
+                RING.set(slot, null);
+                HEAD.set(++head);
+                write(event);
+                drained++;
+            }
+            return drained;
+        }
+
+        private void write(Event event) {
+            line.setLength(0);
+            line.append(Instant.ofEpochMilli(event.epochMs()))
+                    .append(" [").append(event.category()).append("] ")
+                    .append(event.name())
+                    .append(" thread=").append(event.thread());
+            Object[] fields = event.fields();
+            if (fields != null) {
+                for (int i = 0; i + 1 < fields.length; i += 2) {
+                    line.append(' ').append(fields[i]).append('=');
+                    appendValue(String.valueOf(fields[i + 1]));
+                }
+            }
+            line.append(System.lineSeparator());
+            byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > buffer.remaining()) {
+                flushBuffer();
+            }
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+            WRITTEN.increment();
+        }
+
+        private void appendValue(String value) {
+            if (!needsQuoting(value)) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+            line.append('"');
+        }
+
+        private static boolean needsQuoting(String value) {
+            if (value.isEmpty()) {
+                return true;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isWhitespace(c) || c == '"' || c == '=') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void flushBuffer() {
+            if (buffer.position() == 0) {
+                return;
+            }
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer bytes) {
+            if (failed) {
+                return;
+            }
             try {
-                Path file = FabricLoader.getInstance().getConfigDir()
-                        .resolve("ai-player")
-                        .resolve(FILE_NAME);
+                if (channel == null) {
+                    open();
+                }
+                fileSize += bytes.remaining();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                if (fileSize >= ROTATE_BYTES) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                // Keep draining so producers never back up, but stop retrying a broken file.
+                failed = true;
+                LOGGER.warn("Debug log disabled: {}", e.getMessage());
+            }
+        }
+
+        private void open() throws IOException {
+            if (file == null) {
+                file = FabricLoader.getInstance().getConfigDir().resolve("ai-player").resolve(FILE_NAME);
                 Files.createDirectories(file.getParent());
-                String line = Instant.now() + " " + message + System.lineSeparator();
-                Files.writeString(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-            } catch (Exception ignored) {
             }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileSize = channel.size();
+        }
+
+        private void rotate() throws IOException {
+            channel.close();
+            channel = null;
+            for (int i = ROTATED_FILES_KEPT - 1; i >= 1; i--) {
+                Path older = rotated(i);
+                if (Files.exists(older)) {
+                    Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+            open();
+        }
+
+        private Path rotated(int index) {
+            return file.resolveSibling(FILE_NAME + "." + index);
         }
     }
 }
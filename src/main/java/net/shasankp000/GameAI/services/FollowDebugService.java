@@ -3,9 +3,7 @@ package net.shasankp000.GameAI.services;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.slf4j.Logger;
 
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Stage-2 refactor: follow-related debug logging and throttling extracted from BotEventHandler.
@@ -14,39 +12,36 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public final class FollowDebugService {
 
-    private static final Map<UUID, Long> LAST_PATH_SKIP_LOG_MS = new ConcurrentHashMap<>();
-    private static final Map<UUID, Long> LAST_DECISION_LOG_MS = new ConcurrentHashMap<>();
-    private static final Map<UUID, Long> LAST_STATUS_LOG_MS = new ConcurrentHashMap<>();
-
     private static final long STATUS_LOG_INTERVAL_MS = 1_800L;
 
+    private static final DebugFileLogger.Throttle PATH_SKIP_LOG = new DebugFileLogger.Throttle(5_000L);
+    private static final DebugFileLogger.Throttle DECISION_LOG = new DebugFileLogger.Throttle(2_500L);
+    private static final DebugFileLogger.Throttle STATUS_LOG = new DebugFileLogger.Throttle(STATUS_LOG_INTERVAL_MS);
+
     private FollowDebugService() {}
 
     public static void clear(UUID botId) {
         if (botId == null) {
             return;
         }
-        LAST_PATH_SKIP_LOG_MS.remove(botId);
-        LAST_DECISION_LOG_MS.remove(botId);
-        LAST_STATUS_LOG_MS.remove(botId);
+        PATH_SKIP_LOG.clear(botId);
+        DECISION_LOG.clear(botId);
+        STATUS_LOG.clear(botId);
     }
 
     public static void reset() {
-        LAST_PATH_SKIP_LOG_MS.clear();
-        LAST_DECISION_LOG_MS.clear();
-        LAST_STATUS_LOG_MS.clear();
+        PATH_SKIP_LOG.reset();
+        DECISION_LOG.reset();
+        STATUS_LOG.reset();
     }
 
     public static void maybeLogPlanSkip(Logger logger, UUID botId, String message) {
         if (logger == null || botId == null || message == null) {
             return;
         }
-        long now = System.currentTimeMillis();
-        long last = LAST_PATH_SKIP_LOG_MS.getOrDefault(botId, -1L);
-        if (last >= 0 && (now - last) < 5_000L) {
+        if (!PATH_SKIP_LOG.tryAcquire(botId)) {
             return;
         }
-        LAST_PATH_SKIP_LOG_MS.put(botId, now);
         logger.info("Follow path planning {}", message);
     }
 
@@ -54,13 +49,9 @@ public final class FollowDebugService {
         if (logger == null || bot == null || message == null) {
             return;
         }
-        UUID botId = bot.getUuid();
-        long now = System.currentTimeMillis();
-        long last = LAST_DECISION_LOG_MS.getOrDefault(botId, -1L);
-        if (last >= 0 && (now - last) < 2_500L) {
+        if (!DECISION_LOG.tryAcquire(bot.getUuid())) {
             return;
         }
-        LAST_DECISION_LOG_MS.put(botId, now);
         logger.info("Follow decision: bot={} botPos={} msg={}",
                 bot.getName().getString(),
                 bot.getBlockPos().toShortString(),
@@ -85,18 +76,10 @@ public final class FollowDebugService {
         if (logger == null || bot == null || target == null) {
             return;
         }
-        UUID botId = bot.getUuid();
-        long now = System.currentTimeMillis();
-        long last = LAST_STATUS_LOG_MS.getOrDefault(botId, -1L);
-        if (last >= 0 && (now - last) < STATUS_LOG_INTERVAL_MS) {
-            return;
-        }
-
         boolean shouldLog = targetDistSq >= 900.0D || directBlocked || usingWaypoints || (doorPlanStr != null && !doorPlanStr.isBlank());
-        if (!shouldLog) {
+        if (!shouldLog || !STATUS_LOG.tryAcquire(bot.getUuid())) {
             return;
         }
-        LAST_STATUS_LOG_MS.put(botId, now);
 
         logger.info("Follow status: bot={} botPos={} target={} targetPos={} dist={} horiz={} canSee={} directBlocked={} usingWaypoints={} wp={} navGoal={} sealed={}/{}{}{}{}",
                 bot.getName().getString(),
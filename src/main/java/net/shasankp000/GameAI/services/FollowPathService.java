@@ -1,13 +1,12 @@
 package net.shasankp000.GameAI.services;
 
-import net.minecraft.block.BlockState;
-import net.minecraft.block.Blocks;
-import net.minecraft.block.DoorBlock;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
-import static net.shasankp000.GameAI.services.BotCampfireAvoidanceService.isNearExposedCampfire;
+import net.shasankp000.PathFinding.LongPathSearch;
+import net.shasankp000.PathFinding.PathPlannerService;
+import net.shasankp000.PathFinding.WalkabilityCache;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -17,12 +16,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Lightweight, bounded follow path planning designed for short-range "around the corner" cases.
  *
  * Key properties:
- * - Snapshot capture runs on the server thread but is bounded to a small region.
+ * - Snapshot capture runs on the server thread but is bounded to a small region, and reads block flags from
+ *   {@link WalkabilityCache} rather than the world.
  * - Planning runs off-thread on the immutable snapshot.
  * - Doors are treated as passable for planning (wood can be opened on approach; iron remains blocked).
  */
@@ -35,6 +36,8 @@ public final class FollowPathService {
     public static final int MIN_REGION_MARGIN = 8;
     public static final int MAX_Y_SPAN = 6; // +/- 3
     public static final double WAYPOINT_REACH_SQ = 2.25D;
+    /** Expansion budget for the short join/repair searches run against a cached follow path. */
+    private static final int MAX_SEGMENT_EXPANSIONS = 4_096;
 
     public record FollowSnapshot(int minX, int minY, int minZ,
                                  int sizeX, int sizeY, int sizeZ,
@@ -96,6 +99,18 @@ public final class FollowPathService {
         if (world == null || startPos == null || goalPos == null) {
             return null;
         }
+        return capture(WalkabilityCache.view(world), startPos, goalPos, centerOnStart);
+    }
+
+    /**
+     * As {@link #capture(ServerWorld, BlockPos, BlockPos, boolean)}, reading block flags from {@code view}. On the
+     * server thread a live view captures missing sections on demand; a detached view (benchmarks, recorded
+     * worlds) needs no Minecraft world at all. Cells the view has not loaded are never standable.
+     */
+    public static FollowSnapshot capture(WalkabilityCache.View view, BlockPos startPos, BlockPos goalPos, boolean centerOnStart) {
+        if (view == null || startPos == null || goalPos == null) {
+            return null;
+        }
 
         // If the goal is too far, skip bounded planning (follow will rely on direct steering / teleport rules).
         int dx = goalPos.getX() - startPos.getX();
@@ -160,29 +175,16 @@ public final class FollowPathService {
         for (int y = minY; y < minY + sizeY; y++) {
             for (int x = minX; x < minX + sizeX; x++) {
                 for (int z = minZ; z < minZ + sizeZ; z++) {
-                    BlockPos foot = new BlockPos(x, y, z);
-                    BlockPos head = foot.up();
-                    BlockPos below = foot.down();
-
-                    if (!world.isChunkLoaded(foot) || !world.isChunkLoaded(head) || !world.isChunkLoaded(below)) {
-                        continue;
-                    }
-
-                    BlockState footState = world.getBlockState(foot);
-                    BlockState headState = world.getBlockState(head);
-                    BlockState belowState = world.getBlockState(below);
-
-                    boolean solidBelow = !belowState.getCollisionShape(world, below).isEmpty();
-                    boolean footPassable = isPassableForPlan(world, foot, footState);
-                    boolean headPassable = isPassableForPlan(world, head, headState);
-                    
-                    // Campfire avoidance: mark cells near exposed campfires as non-standable
-                    boolean nearCampfire = isNearExposedCampfire(world, foot, 2);
-
                     int idx = ((y - minY) * sizeX + (x - minX)) * sizeZ + (z - minZ);
-                    standable[idx] = solidBelow && footPassable && headPassable && !nearCampfire;
-                    if (footState.getBlock() instanceof DoorBlock) {
-                        doorType[idx] = footState.isOf(Blocks.IRON_DOOR) ? (byte) 2 : (byte) 1;
+                    // Wooden doors are passable for planning (opened on approach); iron doors only when open.
+                    // Exposed campfires make the cells around them non-standable.
+                    standable[idx] = view.hasCollision(x, y - 1, z)
+                            && view.isPassable(x, y, z)
+                            && view.isPassable(x, y + 1, z)
+                            && !view.isNearExposedCampfire(x, y, z, 2);
+                    byte flags = view.get(x, y, z);
+                    if ((flags & WalkabilityCache.DOOR) != 0) {
+                        doorType[idx] = (flags & WalkabilityCache.PASSABLE) != 0 ? (byte) 1 : (byte) 2;
                     }
                 }
             }
@@ -191,24 +193,16 @@ public final class FollowPathService {
         return new FollowSnapshot(minX, minY, minZ, sizeX, sizeY, sizeZ, standable, doorType, startPos.toImmutable(), goalPos.toImmutable());
     }
 
-    private static boolean isPassableForPlan(ServerWorld world, BlockPos pos, BlockState state) {
-        if (state == null) {
-            return true;
-        }
-        if (state.getBlock() instanceof DoorBlock) {
-            // Plan through wooden doors (we can open them on approach). Treat iron doors as blocked unless open.
-            if (state.isOf(Blocks.IRON_DOOR)) {
-                return state.getCollisionShape(world, pos).isEmpty();
-            }
-            return true;
-        }
-        if (state.isOf(Blocks.WATER)) {
-            return true;
-        }
-        return state.getCollisionShape(world, pos).isEmpty();
+    public static List<BlockPos> planWaypoints(FollowSnapshot snapshot, BlockPos avoidDoorBase) {
+        return planWaypoints(null, snapshot, avoidDoorBase);
     }
 
-    public static List<BlockPos> planWaypoints(FollowSnapshot snapshot, BlockPos avoidDoorBase) {
+    /**
+     * As {@link #planWaypoints(FollowSnapshot, BlockPos)}, and also hands the raw path to
+     * {@link PathPlannerService} so other bots heading for the same goal cell can reuse it
+     * (see {@link #cachedWaypoints}).
+     */
+    public static List<BlockPos> planWaypoints(ServerWorld world, FollowSnapshot snapshot, BlockPos avoidDoorBase) {
         if (snapshot == null) {
             return List.of();
         }
@@ -244,7 +238,10 @@ public final class FollowPathService {
         // If we're already at (or immediately adjacent to) the goal, A* may return a single node.
         // Treat that as "no navigation plan needed" and allow callers to fall back to door-escape plans.
         if (raw.size() > 1) {
-            return compressWaypoints(snapshot, raw, 7);
+            if (world != null) {
+                PathPlannerService.remember(world, PathPlannerService.Profile.FOLLOW, goal, raw);
+            }
+            return compressWaypoints(snapshot::isDoorCell, raw, 7);
         }
 
         // Fallback: if the commander is "around the corner" such that reaching them requires initially moving away,
@@ -428,9 +425,9 @@ public final class FollowPathService {
             }
         }
         if (step == null) {
-            return compressWaypoints(snapshot, raw, 6);
+            return compressWaypoints(snapshot::isDoorCell, raw, 6);
         }
-        List<BlockPos> compressed = new ArrayList<>(compressWaypoints(snapshot, raw, 6));
+        List<BlockPos> compressed = new ArrayList<>(compressWaypoints(snapshot::isDoorCell, raw, 6));
         if (compressed.isEmpty() || !compressed.get(compressed.size() - 1).equals(finalApproach)) {
             compressed.add(finalApproach.toImmutable());
         }
@@ -565,7 +562,7 @@ public final class FollowPathService {
         return new ArrayList<>(stack);
     }
 
-    private static List<BlockPos> compressWaypoints(FollowSnapshot snapshot, List<BlockPos> raw, int maxWaypoints) {
+    private static List<BlockPos> compressWaypoints(Predicate<BlockPos> isDoor, List<BlockPos> raw, int maxWaypoints) {
         if (raw == null || raw.size() <= 1) {
             return List.of();
         }
@@ -578,7 +575,7 @@ public final class FollowPathService {
             Direction dir = Direction.getFacing(p.getX() - lastKept.getX(), 0, p.getZ() - lastKept.getZ());
             boolean dirChanged = lastDir != null && dir != lastDir;
             boolean farEnough = lastKept.getSquaredDistance(p) >= 9.0D; // ~3 blocks
-            boolean door = snapshot.isDoorCell(p);
+            boolean door = isDoor.test(p);
             if (door || dirChanged || farEnough) {
                 points.add(p.toImmutable());
                 lastDir = dir;
@@ -604,6 +601,104 @@ public final class FollowPathService {
         return points;
     }
 
+    /**
+     * Waypoints along a path already planned towards the same goal cell (by this bot earlier or by another bot
+     * following the same target), or an empty list when none can be reused. Needs no {@link FollowSnapshot}, so
+     * callers try it before {@link #capture}; the walkability corridor is only prefetched if a join hop or a
+     * repair actually has to be searched.
+     */
+    public static List<BlockPos> cachedWaypoints(ServerWorld world, BlockPos start, BlockPos goal) {
+        if (world == null || start == null || goal == null) {
+            return List.of();
+        }
+        CorridorView corridor = new CorridorView(world, start, goal);
+        List<BlockPos> raw = PathPlannerService.reuse(world, PathPlannerService.Profile.FOLLOW, start, goal,
+                (from, to) -> {
+                    long[] packed = LongPathSearch.search(from.asLong(), to.asLong(),
+                            new FollowStepExpander(corridor.get()), MAX_SEGMENT_EXPANSIONS);
+                    if (packed == null) {
+                        return List.of();
+                    }
+                    List<BlockPos> path = new ArrayList<>(packed.length);
+                    for (long p : packed) {
+                        path.add(BlockPos.fromLong(p));
+                    }
+                    return path;
+                });
+        if (raw.size() <= 1) {
+            return List.of();
+        }
+        // Door flags come from whatever is cached; a pure cache hit must not trigger a prefetch just for them.
+        WalkabilityCache.View doors = corridor.peek();
+        return compressWaypoints(pos -> (doors.get(pos) & WalkabilityCache.DOOR) != 0, raw, 7);
+    }
+
+    /** Walkability view over the start-goal corridor, prefetched on first use. */
+    private static final class CorridorView {
+        private final ServerWorld world;
+        private final BlockPos from;
+        private final BlockPos to;
+        private WalkabilityCache.View view;
+
+        private CorridorView(ServerWorld world, BlockPos from, BlockPos to) {
+            this.world = world;
+            this.from = from;
+            this.to = to;
+        }
+
+        private WalkabilityCache.View get() {
+            if (view == null) {
+                WalkabilityCache.prefetch(world, from, to);
+                view = WalkabilityCache.view(world);
+            }
+            return view;
+        }
+
+        /**
+         * The prefetched view if a search already needed it, else the cache as it stands (no server-thread hop).
+         * Cells that are not cached read as {@link WalkabilityCache#UNLOADED}.
+         */
+        private WalkabilityCache.View peek() {
+            return view != null ? view : WalkabilityCache.view(world);
+        }
+    }
+
+    /** The step rules of {@link #aStar} (flat first, then step up, then down) over the walkability cache. */
+    private static final class FollowStepExpander implements LongPathSearch.NeighborExpander {
+        private static final int[] DY_ORDER = {0, 1, -1};
+
+        private final WalkabilityCache.View view;
+
+        private FollowStepExpander(WalkabilityCache.View view) {
+            this.view = view;
+        }
+
+        @Override
+        public int expand(long packedPos, long[] out) {
+            int x = BlockPos.unpackLongX(packedPos);
+            int y = BlockPos.unpackLongY(packedPos);
+            int z = BlockPos.unpackLongZ(packedPos);
+            int count = 0;
+            for (Direction dir : Direction.Type.HORIZONTAL) {
+                int nx = x + dir.getOffsetX();
+                int nz = z + dir.getOffsetZ();
+                for (int dy : DY_ORDER) {
+                    if (isStandable(nx, y + dy, nz)) {
+                        out[count++] = BlockPos.asLong(nx, y + dy, nz);
+                        break;
+                    }
+                }
+            }
+            return count;
+        }
+
+        // Same test as capture(): passable feet and head over a collidable floor, away from exposed campfires.
+        private boolean isStandable(int x, int y, int z) {
+            return view.isPassable(x, y, z) && view.isPassable(x, y + 1, z) && view.hasCollision(x, y - 1, z)
+                    && !view.isNearExposedCampfire(x, y, z, 2);
+        }
+    }
+
     public static boolean shouldPlan(ServerPlayerEntity bot, ServerPlayerEntity target, boolean canSee, int stagnantTicks) {
         if (bot == null || target == null) {
             return false;
@@ -77,6 +77,7 @@ public final class FollowPlannerService {
             return;
         }
         BlockPos targetPos = target.getBlockPos().toImmutable();
+        BlockPos botStart = bot.getBlockPos().toImmutable();
         BlockPos lastTarget = FOLLOW_LAST_PATH_TARGET.get(botId);
         if (!force && lastTarget != null && lastTarget.getSquaredDistance(targetPos) <= 4.0D
                 && last >= 0 && (now - last) < FollowPathService.PLAN_COOLDOWN_MS * 2) {
@@ -101,77 +102,83 @@ public final class FollowPlannerService {
                     reason == null ? "" : reason);
         }
 
-        CompletableFuture<Void> task = CompletableFuture.runAsync(() -> {
+        // Scoped to the bot so stopping or removing it cancels an in-flight plan; the future marks it in flight.
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        BotScheduler.runAsync(botId, "follow-plan", () -> {
             try {
-                CompletableFuture<FollowPathService.FollowSnapshot> snapFuture = new CompletableFuture<>();
-                server.execute(() -> {
-                    try {
-                        ServerPlayerEntity liveBot = server.getPlayerManager().getPlayer(botId);
-                        ServerPlayerEntity liveTarget = server.getPlayerManager().getPlayer(targetId);
-                        ServerWorld world = server.getWorld(worldKey);
-                        if (liveBot == null || liveTarget == null || world == null) {
-                            snapFuture.complete(null);
-                            return;
-                        }
-                        if (liveBot.getEntityWorld() != world || liveTarget.getEntityWorld() != world) {
-                            snapFuture.complete(null);
-                            return;
-                        }
-                        snapFuture.complete(FollowPathService.capture(world, liveBot.getBlockPos(), liveTarget.getBlockPos(), false));
-                    } catch (Throwable t) {
-                        snapFuture.complete(null);
-                    }
-                });
-
-                FollowPathService.FollowSnapshot snapshot;
-                try {
-                    snapshot = snapFuture.get(900, TimeUnit.MILLISECONDS);
-                } catch (Exception e) {
-                    snapshot = null;
-                }
-                if (snapshot == null) {
-                    FollowDebugService.maybeLogPlanSkip(logger, botId, "skip: snapshot null (reason=" + (reason == null ? "" : reason) + ")");
-                    return;
-                }
-
-                BlockPos avoidDoor = null;
-                long lastDoorMs = FOLLOW_LAST_DOOR_CROSS_MS.getOrDefault(botId, -1L);
-                if (lastDoorMs >= 0 && (System.currentTimeMillis() - lastDoorMs) < 5_000L) {
-                    avoidDoor = FOLLOW_LAST_DOOR_BASE.get(botId);
-                }
-
-                List<BlockPos> waypoints = FollowPathService.planWaypoints(snapshot, avoidDoor);
+                // Another bot (or an earlier plan) may already have a path towards this goal cell.
+                List<BlockPos> waypoints = FollowPathService.cachedWaypoints(botWorld, botStart, targetPos);
                 if (waypoints.isEmpty()) {
-                    CompletableFuture<FollowPathService.FollowSnapshot> escapeSnapFuture = new CompletableFuture<>();
+                    CompletableFuture<FollowPathService.FollowSnapshot> snapFuture = new CompletableFuture<>();
                     server.execute(() -> {
                         try {
                             ServerPlayerEntity liveBot = server.getPlayerManager().getPlayer(botId);
                             ServerPlayerEntity liveTarget = server.getPlayerManager().getPlayer(targetId);
                             ServerWorld world = server.getWorld(worldKey);
-                            if (liveBot == null || world == null || liveBot.getEntityWorld() != world) {
-                                escapeSnapFuture.complete(null);
+                            if (liveBot == null || liveTarget == null || world == null) {
+                                snapFuture.complete(null);
                                 return;
                             }
-                            BlockPos b = liveBot.getBlockPos();
-                            BlockPos g = liveTarget != null ? liveTarget.getBlockPos() : b;
-                            FollowPathService.FollowSnapshot attempt = FollowPathService.capture(world, b, g, true);
-                            if (attempt == null) {
-                                attempt = FollowPathService.capture(world, b, b, true);
+                            if (liveBot.getEntityWorld() != world || liveTarget.getEntityWorld() != world) {
+                                snapFuture.complete(null);
+                                return;
                             }
-                            escapeSnapFuture.complete(attempt);
+                            snapFuture.complete(FollowPathService.capture(world, liveBot.getBlockPos(), liveTarget.getBlockPos(), false));
                         } catch (Throwable t) {
-                            escapeSnapFuture.complete(null);
+                            snapFuture.complete(null);
                         }
                     });
 
-                    FollowPathService.FollowSnapshot escapeSnapshot;
+                    FollowPathService.FollowSnapshot snapshot;
                     try {
-                        escapeSnapshot = escapeSnapFuture.get(900, TimeUnit.MILLISECONDS);
+                        snapshot = snapFuture.get(900, TimeUnit.MILLISECONDS);
                     } catch (Exception e) {
-                        escapeSnapshot = null;
+                        snapshot = null;
                     }
-                    if (escapeSnapshot != null) {
-                        waypoints = FollowPathService.planEscapeWaypoints(escapeSnapshot, avoidDoor);
+                    if (snapshot == null) {
+                        FollowDebugService.maybeLogPlanSkip(logger, botId, "skip: snapshot null (reason=" + (reason == null ? "" : reason) + ")");
+                        return;
+                    }
+
+                    BlockPos avoidDoor = null;
+                    long lastDoorMs = FOLLOW_LAST_DOOR_CROSS_MS.getOrDefault(botId, -1L);
+                    if (lastDoorMs >= 0 && (System.currentTimeMillis() - lastDoorMs) < 5_000L) {
+                        avoidDoor = FOLLOW_LAST_DOOR_BASE.get(botId);
+                    }
+
+                    waypoints = FollowPathService.planWaypoints(botWorld, snapshot, avoidDoor);
+                    if (waypoints.isEmpty()) {
+                        CompletableFuture<FollowPathService.FollowSnapshot> escapeSnapFuture = new CompletableFuture<>();
+                        server.execute(() -> {
+                            try {
+                                ServerPlayerEntity liveBot = server.getPlayerManager().getPlayer(botId);
+                                ServerPlayerEntity liveTarget = server.getPlayerManager().getPlayer(targetId);
+                                ServerWorld world = server.getWorld(worldKey);
+                                if (liveBot == null || world == null || liveBot.getEntityWorld() != world) {
+                                    escapeSnapFuture.complete(null);
+                                    return;
+                                }
+                                BlockPos b = liveBot.getBlockPos();
+                                BlockPos g = liveTarget != null ? liveTarget.getBlockPos() : b;
+                                FollowPathService.FollowSnapshot attempt = FollowPathService.capture(world, b, g, true);
+                                if (attempt == null) {
+                                    attempt = FollowPathService.capture(world, b, b, true);
+                                }
+                                escapeSnapFuture.complete(attempt);
+                            } catch (Throwable t) {
+                                escapeSnapFuture.complete(null);
+                            }
+                        });
+
+                        FollowPathService.FollowSnapshot escapeSnapshot;
+                        try {
+                            escapeSnapshot = escapeSnapFuture.get(900, TimeUnit.MILLISECONDS);
+                        } catch (Exception e) {
+                            escapeSnapshot = null;
+                        }
+                        if (escapeSnapshot != null) {
+                            waypoints = FollowPathService.planEscapeWaypoints(escapeSnapshot, avoidDoor);
+                        }
                     }
                 }
 
@@ -212,6 +219,8 @@ public final class FollowPlannerService {
                 if (logger != null) {
                     logger.debug("Follow path plan failed: {}", t.getMessage());
                 }
+            } finally {
+                task.complete(null);
             }
         });
 
@@ -262,6 +271,7 @@ public final class FollowPlannerService {
         }
 
         BlockPos goalPos = goal.toImmutable();
+        BlockPos botStart = bot.getBlockPos().toImmutable();
         BlockPos lastTarget = FOLLOW_LAST_PATH_TARGET.get(botId);
         if (!force && lastTarget != null && lastTarget.getSquaredDistance(goalPos) <= 4.0D
                 && last >= 0 && (now - last) < FollowPathService.PLAN_COOLDOWN_MS * 2) {
@@ -284,70 +294,75 @@ public final class FollowPlannerService {
                     reason == null ? "" : reason);
         }
 
-        CompletableFuture<Void> task = CompletableFuture.runAsync(() -> {
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        BotScheduler.runAsync(botId, "follow-plan-goal", () -> {
             try {
-                CompletableFuture<FollowPathService.FollowSnapshot> snapFuture = new CompletableFuture<>();
-                server.execute(() -> {
-                    try {
-                        ServerPlayerEntity liveBot = server.getPlayerManager().getPlayer(botId);
-                        ServerWorld world = server.getWorld(worldKey);
-                        if (liveBot == null || world == null || liveBot.getEntityWorld() != world) {
-                            snapFuture.complete(null);
-                            return;
-                        }
-                        snapFuture.complete(FollowPathService.capture(world, liveBot.getBlockPos(), goalPos, false));
-                    } catch (Throwable t) {
-                        snapFuture.complete(null);
-                    }
-                });
-
-                FollowPathService.FollowSnapshot snapshot;
-                try {
-                    snapshot = snapFuture.get(900, TimeUnit.MILLISECONDS);
-                } catch (Exception e) {
-                    snapshot = null;
-                }
-                if (snapshot == null) {
-                    FollowDebugService.maybeLogPlanSkip(logger, botId, "skip: snapshot null (reason=" + (reason == null ? "" : reason) + ")");
-                    return;
-                }
-
-                BlockPos avoidDoor = null;
-                long lastDoorMs = FOLLOW_LAST_DOOR_CROSS_MS.getOrDefault(botId, -1L);
-                if (lastDoorMs >= 0 && (System.currentTimeMillis() - lastDoorMs) < 5_000L) {
-                    avoidDoor = FOLLOW_LAST_DOOR_BASE.get(botId);
-                }
-
-                List<BlockPos> waypoints = FollowPathService.planWaypoints(snapshot, avoidDoor);
+                // Another bot (or an earlier plan) may already have a path towards this goal cell.
+                List<BlockPos> waypoints = FollowPathService.cachedWaypoints(botWorld, botStart, goalPos);
                 if (waypoints.isEmpty()) {
-                    CompletableFuture<FollowPathService.FollowSnapshot> escapeSnapFuture = new CompletableFuture<>();
+                    CompletableFuture<FollowPathService.FollowSnapshot> snapFuture = new CompletableFuture<>();
                     server.execute(() -> {
                         try {
                             ServerPlayerEntity liveBot = server.getPlayerManager().getPlayer(botId);
                             ServerWorld world = server.getWorld(worldKey);
                             if (liveBot == null || world == null || liveBot.getEntityWorld() != world) {
-                                escapeSnapFuture.complete(null);
+                                snapFuture.complete(null);
                                 return;
                             }
-                            BlockPos b = liveBot.getBlockPos();
-                            FollowPathService.FollowSnapshot attempt = FollowPathService.capture(world, b, goalPos, true);
-                            if (attempt == null) {
-                                attempt = FollowPathService.capture(world, b, b, true);
-                            }
-                            escapeSnapFuture.complete(attempt);
+                            snapFuture.complete(FollowPathService.capture(world, liveBot.getBlockPos(), goalPos, false));
                         } catch (Throwable t) {
-                            escapeSnapFuture.complete(null);
+                            snapFuture.complete(null);
                         }
                     });
 
-                    FollowPathService.FollowSnapshot escapeSnapshot;
+                    FollowPathService.FollowSnapshot snapshot;
                     try {
-                        escapeSnapshot = escapeSnapFuture.get(900, TimeUnit.MILLISECONDS);
+                        snapshot = snapFuture.get(900, TimeUnit.MILLISECONDS);
                     } catch (Exception e) {
-                        escapeSnapshot = null;
+                        snapshot = null;
+                    }
+                    if (snapshot == null) {
+                        FollowDebugService.maybeLogPlanSkip(logger, botId, "skip: snapshot null (reason=" + (reason == null ? "" : reason) + ")");
+                        return;
+                    }
+
+                    BlockPos avoidDoor = null;
+                    long lastDoorMs = FOLLOW_LAST_DOOR_CROSS_MS.getOrDefault(botId, -1L);
+                    if (lastDoorMs >= 0 && (System.currentTimeMillis() - lastDoorMs) < 5_000L) {
+                        avoidDoor = FOLLOW_LAST_DOOR_BASE.get(botId);
                     }
-                    if (escapeSnapshot != null) {
-                        waypoints = FollowPathService.planEscapeWaypoints(escapeSnapshot, avoidDoor);
+
+                    waypoints = FollowPathService.planWaypoints(botWorld, snapshot, avoidDoor);
+                    if (waypoints.isEmpty()) {
+                        CompletableFuture<FollowPathService.FollowSnapshot> escapeSnapFuture = new CompletableFuture<>();
+                        server.execute(() -> {
+                            try {
+                                ServerPlayerEntity liveBot = server.getPlayerManager().getPlayer(botId);
+                                ServerWorld world = server.getWorld(worldKey);
+                                if (liveBot == null || world == null || liveBot.getEntityWorld() != world) {
+                                    escapeSnapFuture.complete(null);
+                                    return;
+                                }
+                                BlockPos b = liveBot.getBlockPos();
+                                FollowPathService.FollowSnapshot attempt = FollowPathService.capture(world, b, goalPos, true);
+                                if (attempt == null) {
+                                    attempt = FollowPathService.capture(world, b, b, true);
+                                }
+                                escapeSnapFuture.complete(attempt);
+                            } catch (Throwable t) {
+                                escapeSnapFuture.complete(null);
+                            }
+                        });
+
+                        FollowPathService.FollowSnapshot escapeSnapshot;
+                        try {
+                            escapeSnapshot = escapeSnapFuture.get(900, TimeUnit.MILLISECONDS);
+                        } catch (Exception e) {
+                            escapeSnapshot = null;
+                        }
+                        if (escapeSnapshot != null) {
+                            waypoints = FollowPathService.planEscapeWaypoints(escapeSnapshot, avoidDoor);
+                        }
                     }
                 }
 
@@ -387,6 +402,8 @@ public final class FollowPlannerService {
                 if (logger != null) {
                     logger.debug("Follow path plan (goal) failed: {}", t.getMessage());
                 }
+            } finally {
+                task.complete(null);
             }
         });
 
@@ -2,6 +2,8 @@ package net.shasankp000.GameAI.services;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -10,10 +12,6 @@ import net.minecraft.util.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
@@ -31,9 +29,17 @@ public final class HuntHistoryService {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String FILE_NAME = "hunt_history.json";
     private static final Object LOCK = new Object();
+    private static final String LEGACY_ROOT_KEY = "worlds";
 
     private static RootData DATA = new RootData();
     private static boolean loaded = false;
+    /** Keyed by {@link #serverWorldKey}; each world is journaled on its own. */
+    private static final PersistenceJournal JOURNAL = PersistenceJournal.open("hunt history", stateFile(), key -> {
+        synchronized (LOCK) {
+            WorldData wd = DATA.worlds != null ? DATA.worlds.get(key) : null;
+            return wd == null ? null : GSON.toJsonTree(wd);
+        }
+    });
 
     private HuntHistoryService() {}
 
@@ -64,36 +70,29 @@ public final class HuntHistoryService {
             if (loaded) {
                 return;
             }
-            Path file = stateFile();
-            if (Files.exists(file)) {
-                try (Reader reader = Files.newBufferedReader(file)) {
-                    RootData parsed = GSON.fromJson(reader, RootData.class);
-                    if (parsed != null) {
-                        DATA = parsed;
+            DATA = new RootData();
+            Map<String, JsonElement> entries = JOURNAL.load();
+            // Files written before the journal existed wrap everything in a single "worlds" object.
+            JsonElement legacy = entries.remove(LEGACY_ROOT_KEY);
+            if (legacy instanceof JsonObject legacyWorlds) {
+                legacyWorlds.entrySet().forEach(entry -> entries.putIfAbsent(entry.getKey(), entry.getValue()));
+                JOURNAL.markDirty(LEGACY_ROOT_KEY);
+                entries.keySet().forEach(JOURNAL::markDirty);
+            }
+            for (Map.Entry<String, JsonElement> entry : entries.entrySet()) {
+                try {
+                    WorldData wd = GSON.fromJson(entry.getValue(), WorldData.class);
+                    if (wd != null) {
+                        DATA.worlds.put(entry.getKey(), wd);
                     }
                 } catch (Exception e) {
-                    LOGGER.warn("Failed to load hunt history: {}", e.getMessage());
-                    DATA = new RootData();
+                    LOGGER.warn("Failed to load hunt history for {}: {}", entry.getKey(), e.getMessage());
                 }
             }
             loaded = true;
         }
     }
 
-    private static void flush() {
-        synchronized (LOCK) {
-            try {
-                Path file = stateFile();
-                Files.createDirectories(file.getParent());
-                try (Writer writer = Files.newBufferedWriter(file)) {
-                    GSON.toJson(DATA, writer);
-                }
-            } catch (IOException e) {
-                LOGGER.warn("Failed to save hunt history: {}", e.getMessage());
-            }
-        }
-    }
-
     private static WorldData worldData(MinecraftServer server, ServerWorld world) {
         ensureLoaded();
         String key = serverWorldKey(server, world);
@@ -118,6 +117,7 @@ public final class HuntHistoryService {
             return;
         }
 
+        String worldKey = serverWorldKey(server, world);
         WorldData wd = worldData(server, world);
         synchronized (LOCK) {
             if (wd.huntedByPlayer == null) {
@@ -129,7 +129,7 @@ public final class HuntHistoryService {
                 list.add(idStr);
             }
         }
-        flush();
+        JOURNAL.markDirty(worldKey);
     }
 
     public static Set<Identifier> getHistory(ServerPlayerEntity player) {
@@ -33,6 +33,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -46,8 +48,6 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 
 public final class MovementService {
@@ -61,11 +61,6 @@ public final class MovementService {
     // Hard anti-stuck tuning: stop pushing into walls; try local "turn the corner" probes before giving up.
     private static final int STUCK_SAME_BLOCK_STEPS_TRIGGER = 10; // ~350ms at 35ms sleeps
     private static final int STUCK_STAGNANT_STEPS_TRIGGER = 4;
-    private static final ScheduledExecutorService DOOR_CLOSE_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "bot-door-close");
-        t.setDaemon(true);
-        return t;
-    });
     private static final Map<UUID, Map<BlockPos, Long>> DOOR_CLOSE_COOLDOWN = new ConcurrentHashMap<>();
     private static final Map<UUID, Map<BlockPos, Long>> DOOR_DEBUG_COOLDOWN = new ConcurrentHashMap<>();
     private static final Map<UUID, Map<BlockPos, Long>> DOOR_IRON_WARN_COOLDOWN = new ConcurrentHashMap<>();
@@ -188,75 +183,76 @@ public final class MovementService {
         double bestImprove = 0.0D;
 
         int radius = 4;
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -1; dy <= 2; dy++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    BlockPos scan = botPos.add(dx, dy, dz);
-                    BlockState raw = world.getBlockState(scan);
-                    if (!(raw.getBlock() instanceof DoorBlock) && !(raw.getBlock() instanceof FenceGateBlock)) {
-                        continue;
-                    }
-                    BlockPos doorBase = normalizeOpenableBase(world, scan);
-                    if (doorBase == null) {
-                        continue;
-                    }
-                    BlockState state = world.getBlockState(doorBase);
-                    if (!(state.getBlock() instanceof DoorBlock) && !(state.getBlock() instanceof FenceGateBlock)) {
-                        continue;
-                    }
-                    if (state.getBlock() instanceof DoorBlock && state.isOf(net.minecraft.block.Blocks.IRON_DOOR)) {
-                        continue;
-                    }
-                    if (botPos.getSquaredDistance(doorBase) > 25.0D) { // keep it local (enclosure escape)
-                        continue;
-                    }
+        // Visit in x, y, z order so equal improvements keep resolving to the same door.
+        List<BlockPos> openables = new ArrayList<>(BlockLocatorIndex.within(world,
+                botPos.add(-radius, -1, -radius), botPos.add(radius, 2, radius), BlockLocatorIndex.Kind.DOOR));
+        openables.sort(Comparator.comparingInt(BlockPos::getX)
+                .thenComparingInt(BlockPos::getY)
+                .thenComparingInt(BlockPos::getZ));
+        for (BlockPos scan : openables) {
+            BlockState raw = world.getBlockState(scan);
+            if (!(raw.getBlock() instanceof DoorBlock) && !(raw.getBlock() instanceof FenceGateBlock)) {
+                continue;
+            }
+            BlockPos doorBase = normalizeOpenableBase(world, scan);
+            if (doorBase == null) {
+                continue;
+            }
+            BlockState state = world.getBlockState(doorBase);
+            if (!(state.getBlock() instanceof DoorBlock) && !(state.getBlock() instanceof FenceGateBlock)) {
+                continue;
+            }
+            if (state.getBlock() instanceof DoorBlock && state.isOf(net.minecraft.block.Blocks.IRON_DOOR)) {
+                continue;
+            }
+            if (botPos.getSquaredDistance(doorBase) > 25.0D) { // keep it local (enclosure escape)
+                continue;
+            }
 
-                    Direction facing;
-                    if (state.getBlock() instanceof DoorBlock && state.contains(DoorBlock.FACING)) {
-                        facing = state.get(DoorBlock.FACING);
-                    } else if (state.getBlock() instanceof FenceGateBlock && state.contains(FenceGateBlock.FACING)) {
-                        facing = state.get(FenceGateBlock.FACING);
-                    } else {
-                        facing = bot.getHorizontalFacing();
-                    }
-                        if (facing == null || !facing.getAxis().isHorizontal()) {
-                            facing = bot.getHorizontalFacing();
-                        }
+            Direction facing;
+            if (state.getBlock() instanceof DoorBlock && state.contains(DoorBlock.FACING)) {
+                facing = state.get(DoorBlock.FACING);
+            } else if (state.getBlock() instanceof FenceGateBlock && state.contains(FenceGateBlock.FACING)) {
+                facing = state.get(FenceGateBlock.FACING);
+            } else {
+                facing = bot.getHorizontalFacing();
+            }
+                if (facing == null || !facing.getAxis().isHorizontal()) {
+                    facing = bot.getHorizontalFacing();
+                }
 
-                        BlockPos sideASeed = doorBase.offset(facing);
-                        BlockPos sideBSeed = doorBase.offset(facing.getOpposite());
+                BlockPos sideASeed = doorBase.offset(facing);
+                BlockPos sideBSeed = doorBase.offset(facing.getOpposite());
 
-                        BlockPos approachSeed = botPos.getSquaredDistance(sideASeed) <= botPos.getSquaredDistance(sideBSeed)
-                                ? sideASeed
-                                : sideBSeed;
-                        BlockPos stepSeed = approachSeed.equals(sideASeed) ? sideBSeed : sideASeed;
+                BlockPos approachSeed = botPos.getSquaredDistance(sideASeed) <= botPos.getSquaredDistance(sideBSeed)
+                        ? sideASeed
+                        : sideBSeed;
+                BlockPos stepSeed = approachSeed.equals(sideASeed) ? sideBSeed : sideASeed;
 
-                        boolean approachFrontSide = isOnDoorFrontSide(doorBase, facing, approachSeed);
-                        boolean stepFrontSide = isOnDoorFrontSide(doorBase, facing, stepSeed);
-                        BlockPos approach = findStandableSameDoorSide(world, doorBase, facing, approachFrontSide, approachSeed, 2);
-                        BlockPos step = findStandableSameDoorSide(world, doorBase, facing, stepFrontSide, stepSeed, 2);
-                        if (approach == null || step == null || approach.equals(step)) {
-                            continue;
-                        }
+                boolean approachFrontSide = isOnDoorFrontSide(doorBase, facing, approachSeed);
+                boolean stepFrontSide = isOnDoorFrontSide(doorBase, facing, stepSeed);
+                BlockPos approach = findStandableSameDoorSide(world, doorBase, facing, approachFrontSide, approachSeed, 2);
+                BlockPos step = findStandableSameDoorSide(world, doorBase, facing, stepFrontSide, stepSeed, 2);
+                if (approach == null || step == null || approach.equals(step)) {
+                    continue;
+                }
 
-                    double improve = currentGoalDistSq - step.getSquaredDistance(goal);
-                    if (improve < 1.0D) {
-                        continue;
-                    }
+            double improve = currentGoalDistSq - step.getSquaredDistance(goal);
+            if (improve < 1.0D) {
+                continue;
+            }
 
-                    // If we're not right next to it, ensure this door is unobstructed (no selecting doors "through walls").
-                    // Do NOT require survival reach here; we can walk to the door before interacting.
-                    if (botPos.getSquaredDistance(doorBase) > 4.0D && !BlockInteractionService.canInteract(bot, doorBase, 400.0D)) {
-                        continue;
-                    }
+            // If we're not right next to it, ensure this door is unobstructed (no selecting doors "through walls").
+            // Do NOT require survival reach here; we can walk to the door before interacting.
+            if (botPos.getSquaredDistance(doorBase) > 4.0D && !BlockInteractionService.canInteract(bot, doorBase, 400.0D)) {
+                continue;
+            }
 
-                    if (improve > bestImprove) {
-                        bestImprove = improve;
-                        bestDoor = doorBase.toImmutable();
-                        bestApproach = approach.toImmutable();
-                        bestStep = step.toImmutable();
-                    }
-                }
+            if (improve > bestImprove) {
+                bestImprove = improve;
+                bestDoor = doorBase.toImmutable();
+                bestApproach = approach.toImmutable();
+                bestStep = step.toImmutable();
             }
         }
 
@@ -1352,7 +1348,7 @@ public final class MovementService {
         if (attempt > 20) {
             return;
         }
-        DOOR_CLOSE_SCHEDULER.schedule(() -> server.execute(() -> {
+        BotScheduler.schedule(botUuid, () -> server.execute(() -> {
             ServerWorld world = server.getWorld(worldKey);
             ServerPlayerEntity bot = server.getPlayerManager().getPlayer(botUuid);
             if (world == null || bot == null || bot.isRemoved() || !world.isChunkLoaded(doorPos.getX() >> 4, doorPos.getZ() >> 4)) {
@@ -2529,15 +2525,7 @@ public final class MovementService {
             action.run();
             return true;
         }
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                action.run();
-                future.complete(null);
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
+        CompletableFuture<Void> future = WorldAccessService.run(server, action);
         try {
             future.get(750, TimeUnit.MILLISECONDS);
             return true;
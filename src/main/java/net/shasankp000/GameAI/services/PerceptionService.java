@@ -0,0 +1,445 @@
+package net.shasankp000.GameAI.services;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.shasankp000.DangerZoneDetector.CliffDetector;
+import net.shasankp000.DangerZoneDetector.LavaDetector;
+import net.shasankp000.Entity.AutoFaceEntity;
+import net.shasankp000.EntityUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-bot, per-tick view of the bot's surroundings, shared by auto-face, the RL loop and threat checks.
+ *
+ * <p>Before this existed every consumer ran its own {@code BlockDistanceLimitedSearch}, entity line-of-sight
+ * sweep and {@code DangerZoneDetector} pass, often several times in the same tick. {@link #snapshot} now builds
+ * one immutable {@link Snapshot} per bot per server tick and hands the same instance to every caller.
+ *
+ * <p>The two block volumes are kept as windows around the bot's block position and shifted as it moves, so only
+ * the slab of blocks that newly entered range is read from the world:
+ * <ul>
+ *     <li>the r=5, dy=±3 cylinder behind {@link Snapshot#nearbyBlocks()} (same order as the old search), and</li>
+ *     <li>the lava presence volume behind {@link LavaDetector#detectNearestLavaWithBoundingBox}'s fallback scan.</li>
+ * </ul>
+ * Block updates patch the windows through {@link #onBlockChanged}; they are also re-read in full every
+ * {@link #FULL_REFRESH_TICKS} ticks in case an update bypassed that hook.
+ */
+public final class PerceptionService {
+
+    /** Horizontal radius and vertical reach of the nearby-block cylinder (matches the old (3, 5) searches). */
+    public static final int BLOCK_RADIUS = 5;
+    public static final int BLOCK_DEPTH = 3;
+    /** Entity sweep range and the lava range {@code DangerZoneDetector} always used. */
+    public static final int ENTITY_RANGE = 10;
+    public static final int LAVA_RANGE = 10;
+
+    private static final long FULL_REFRESH_TICKS = 100L;
+    /**
+     * Lava window extents around the bot's block position. The legacy scan covers the bot's bounding box
+     * expanded by {@link #LAVA_RANGE} with truncated coordinates, which always fits inside these bounds.
+     */
+    private static final int LAVA_WINDOW_HORIZONTAL = LAVA_RANGE + 2;
+    private static final int LAVA_WINDOW_DOWN = LAVA_RANGE + 1;
+    private static final int LAVA_WINDOW_UP = LAVA_RANGE + 3;
+
+    private static final Map<UUID, BotPerception> BOTS = new ConcurrentHashMap<>();
+    private static final Map<Block, String> BLOCK_NAMES = new ConcurrentHashMap<>();
+
+    private PerceptionService() {
+    }
+
+    /**
+     * Everything the per-tick consumers read about a bot's surroundings. Lists are unmodifiable.
+     *
+     * @param lavaDistance       Nearest lava (raycast first, then the bounding-box fallback), 0 when none
+     * @param cliffDistance      Cliff ahead within 10 blocks / 10 deep, 0 when none
+     * @param shortCliffDistance Cliff ahead within 5 blocks / 5 deep, 0 when none
+     */
+    public record Snapshot(long tick,
+                           BlockPos origin,
+                           List<String> nearbyBlocks,
+                           Map<String, Integer> blockHistogram,
+                           List<Entity> nearbyEntities,
+                           List<Entity> hostileEntities,
+                           List<Entity> passiveEntities,
+                           double lavaDistance,
+                           double cliffDistance,
+                           double shortCliffDistance,
+                           boolean sculkNearby) {
+
+        /** Same value as {@code DangerZoneDetector.detectDangerZone(bot, 10, 10, 10)}. */
+        public double dangerDistance() {
+            return lavaDistance + cliffDistance;
+        }
+
+        /** Same value as {@code DangerZoneDetector.detectDangerZone(bot, 10, 5, 5)}. */
+        public double shortRangeDangerDistance() {
+            return lavaDistance + shortCliffDistance;
+        }
+
+        public boolean hasHostiles() {
+            return !hostileEntities.isEmpty();
+        }
+    }
+
+    /**
+     * The bot's snapshot for the current server tick, building it on first use. Safe to call from any thread;
+     * callers in the same tick share the result.
+     */
+    public static Snapshot snapshot(ServerPlayerEntity bot) {
+        return compute(bot, false);
+    }
+
+    /**
+     * Rebuilds the snapshot even if one exists for this tick, e.g. right after the bot acted and the world it
+     * sees has changed within the tick.
+     */
+    public static Snapshot refresh(ServerPlayerEntity bot) {
+        return compute(bot, true);
+    }
+
+    /**
+     * Patches the block windows of every bot in {@code world} that covers {@code pos}. Called from the
+     * server-world block change hook.
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState newState) {
+        if (BOTS.isEmpty() || world == null || pos == null || newState == null) {
+            return;
+        }
+        RegistryKey<World> key = world.getRegistryKey();
+        for (BotPerception perception : BOTS.values()) {
+            perception.onBlockChanged(key, pos, newState);
+        }
+    }
+
+    public static void forget(UUID botUuid) {
+        if (botUuid != null) {
+            BOTS.remove(botUuid);
+        }
+    }
+
+    public static void onServerStopped() {
+        BOTS.clear();
+    }
+
+    private static Snapshot compute(ServerPlayerEntity bot, boolean force) {
+        if (!(bot.getEntityWorld() instanceof ServerWorld world)) {
+            return build(bot, bot.getEntityWorld(), -1L, null);
+        }
+        MinecraftServer server = world.getServer();
+        long tick = server != null ? server.getTicks() : -1L;
+        BotPerception perception = BOTS.computeIfAbsent(bot.getUuid(), uuid -> new BotPerception());
+        synchronized (perception) {
+            Snapshot cached = perception.snapshot;
+            if (!force && cached != null && cached.tick() == tick && tick >= 0) {
+                return cached;
+            }
+            Snapshot snapshot = build(bot, world, tick, perception);
+            perception.snapshot = snapshot;
+            return snapshot;
+        }
+    }
+
+    private static Snapshot build(ServerPlayerEntity bot, World world, long tick, BotPerception perception) {
+        BlockPos origin = bot.getBlockPos();
+
+        List<String> blocks;
+        Map<String, Integer> histogram;
+        double boxLava;
+        if (perception != null) {
+            perception.blocks.update(world, origin, tick);
+            perception.lava.update(world, origin, tick);
+            blocks = perception.blockList();
+            histogram = perception.histogram;
+            boxLava = -1;
+        } else {
+            blocks = Collections.unmodifiableList(scanBlocks(world, origin));
+            histogram = histogramOf(blocks);
+            boxLava = LavaDetector.detectNearestLavaWithBoundingBox(bot, LAVA_RANGE);
+        }
+
+        List<Entity> nearby = AutoFaceEntity.detectNearbyEntities(bot, ENTITY_RANGE);
+        List<Entity> hostiles = new ArrayList<>();
+        List<Entity> passives = new ArrayList<>();
+        for (Entity entity : nearby) {
+            if (EntityUtil.isHostile(entity)) {
+                hostiles.add(entity);
+            } else if (entity instanceof LivingEntity && !(entity instanceof PlayerEntity)) {
+                passives.add(entity);
+            }
+        }
+
+        double lava = LavaDetector.detectNearestLavaWithRaycast(bot, LAVA_RANGE);
+        if (lava == Double.MAX_VALUE) {
+            lava = perception != null ? perception.nearestLava(bot) : boxLava;
+        }
+        double cliff = CliffDetector.detectCliffWithBoundingBox(bot, 10, 10);
+        double shortCliff = CliffDetector.detectCliffWithBoundingBox(bot, 5, 5);
+
+        boolean sculk = histogram.keySet().stream()
+                .anyMatch(name -> name.contains("Sculk Sensor") || name.contains("Sculk Shrieker"));
+
+        return new Snapshot(tick, origin, blocks, histogram,
+                List.copyOf(nearby), List.copyOf(hostiles), List.copyOf(passives),
+                orZero(lava), orZero(cliff), orZero(shortCliff), sculk);
+    }
+
+    private static double orZero(double distance) {
+        return distance == Double.MAX_VALUE ? 0 : distance;
+    }
+
+    private static List<String> scanBlocks(World world, BlockPos origin) {
+        List<String> names = new ArrayList<>();
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        for (int dx = -BLOCK_RADIUS; dx <= BLOCK_RADIUS; dx++) {
+            for (int dz = -BLOCK_RADIUS; dz <= BLOCK_RADIUS; dz++) {
+                if (!inCylinder(dx, dz)) {
+                    continue;
+                }
+                for (int dy = -BLOCK_DEPTH; dy <= BLOCK_DEPTH; dy++) {
+                    String name = blockName(world.getBlockState(mutable.set(origin, dx, dy, dz)));
+                    if (name != null) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, Integer> histogramOf(List<String> names) {
+        Map<String, Integer> histogram = new LinkedHashMap<>();
+        for (String name : names) {
+            histogram.merge(name, 1, Integer::sum);
+        }
+        return Collections.unmodifiableMap(histogram);
+    }
+
+    private static boolean inCylinder(int dx, int dz) {
+        return dx * dx + dz * dz <= BLOCK_RADIUS * BLOCK_RADIUS;
+    }
+
+    /** Display name for non-air blocks, null for air; memoised per block. */
+    private static String blockName(BlockState state) {
+        Block block = state.getBlock();
+        if (block.getDefaultState().isAir()) {
+            return null;
+        }
+        return BLOCK_NAMES.computeIfAbsent(block, b -> b.getName().getString());
+    }
+
+    private static final class BotPerception {
+        final Window blocks = new Window(BLOCK_RADIUS, BLOCK_DEPTH, BLOCK_DEPTH, true) {
+            @Override
+            Object sample(BlockState state) {
+                return blockName(state);
+            }
+        };
+        final Window lava = new Window(LAVA_WINDOW_HORIZONTAL, LAVA_WINDOW_DOWN, LAVA_WINDOW_UP, false) {
+            @Override
+            Object sample(BlockState state) {
+                return state.isOf(Blocks.LAVA) ? Boolean.TRUE : null;
+            }
+        };
+        Snapshot snapshot;
+        List<String> blockList = List.of();
+        Map<String, Integer> histogram = Map.of();
+        long blockListVersion = -1;
+
+        synchronized void onBlockChanged(RegistryKey<World> world, BlockPos pos, BlockState state) {
+            blocks.onBlockChanged(world, pos, state);
+            lava.onBlockChanged(world, pos, state);
+        }
+
+        /** Non-air block names in the legacy dx, dz, dy order; rebuilt only when the window changed. */
+        List<String> blockList() {
+            if (blockListVersion != blocks.version) {
+                List<String> names = new ArrayList<>();
+                for (Object cell : blocks.cells) {
+                    if (cell != null) {
+                        names.add((String) cell);
+                    }
+                }
+                blockList = Collections.unmodifiableList(names);
+                histogram = histogramOf(names);
+                blockListVersion = blocks.version;
+            }
+            return blockList;
+        }
+
+        /** Mirrors {@link LavaDetector#detectNearestLavaWithBoundingBox} using the lava window. */
+        double nearestLava(ServerPlayerEntity bot) {
+            if (lava.present == 0) {
+                return Double.MAX_VALUE;
+            }
+            Box box = bot.getBoundingBox().expand(LAVA_RANGE, LAVA_RANGE, LAVA_RANGE);
+            int minX = (int) box.minX;
+            int maxX = (int) box.maxX;
+            int minY = (int) box.minY;
+            int maxY = (int) box.maxY;
+            int minZ = (int) box.minZ;
+            int maxZ = (int) box.maxZ;
+            Vec3d botPos = bot.getEntityPos();
+            double nearest = Double.MAX_VALUE;
+            Object[] cells = lava.cells;
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] == null) {
+                    continue;
+                }
+                int x = lava.origin.getX() + lava.dx(i);
+                int y = lava.origin.getY() + lava.dy(i);
+                int z = lava.origin.getZ() + lava.dz(i);
+                if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+                    continue;
+                }
+                double distance = botPos.distanceTo(new Vec3d(x + 0.5, y + 0.5, z + 0.5));
+                if (distance < nearest) {
+                    nearest = distance;
+                }
+            }
+            return nearest;
+        }
+    }
+
+    /**
+     * A box of cached per-block values centred on a block position, indexed dx, dz, dy (outer to inner) so a
+     * front-to-back walk reproduces the legacy scan order.
+     */
+    private abstract static class Window {
+        final int horizontal;
+        final int down;
+        final int up;
+        final int width;
+        final int height;
+        final boolean cylinder;
+        Object[] cells;
+        BlockPos origin;
+        RegistryKey<World> world;
+        long refreshedTick;
+        long version;
+        int present;
+
+        Window(int horizontal, int down, int up, boolean cylinder) {
+            this.horizontal = horizontal;
+            this.down = down;
+            this.up = up;
+            this.width = horizontal * 2 + 1;
+            this.height = down + up + 1;
+            this.cylinder = cylinder;
+        }
+
+        /** Cached value for a block; null means "nothing to report" (air, no lava). */
+        abstract Object sample(BlockState state);
+
+        int index(int dx, int dy, int dz) {
+            return ((dx + horizontal) * width + (dz + horizontal)) * height + (dy + down);
+        }
+
+        int dx(int index) {
+            return index / (width * height) - horizontal;
+        }
+
+        int dz(int index) {
+            return (index / height) % width - horizontal;
+        }
+
+        int dy(int index) {
+            return index % height - down;
+        }
+
+        boolean covers(int dx, int dy, int dz) {
+            return dx >= -horizontal && dx <= horizontal
+                    && dz >= -horizontal && dz <= horizontal
+                    && dy >= -down && dy <= up
+                    && (!cylinder || inCylinder(dx, dz));
+        }
+
+        void update(World current, BlockPos center, long tick) {
+            RegistryKey<World> key = current.getRegistryKey();
+            boolean stale = cells == null
+                    || !key.equals(world)
+                    || tick < refreshedTick
+                    || tick - refreshedTick >= FULL_REFRESH_TICKS;
+            if (!stale && center.equals(origin)) {
+                return;
+            }
+            Object[] previous = stale ? null : cells;
+            BlockPos previousOrigin = origin;
+            Object[] next = new Object[width * width * height];
+            BlockPos.Mutable mutable = new BlockPos.Mutable();
+            int count = 0;
+            for (int dx = -horizontal; dx <= horizontal; dx++) {
+                for (int dz = -horizontal; dz <= horizontal; dz++) {
+                    for (int dy = -down; dy <= up; dy++) {
+                        if (!covers(dx, dy, dz)) {
+                            continue;
+                        }
+                        Object value;
+                        if (previous != null) {
+                            int ox = center.getX() + dx - previousOrigin.getX();
+                            int oy = center.getY() + dy - previousOrigin.getY();
+                            int oz = center.getZ() + dz - previousOrigin.getZ();
+                            value = covers(ox, oy, oz)
+                                    ? previous[index(ox, oy, oz)]
+                                    : sample(current.getBlockState(mutable.set(center, dx, dy, dz)));
+                        } else {
+                            value = sample(current.getBlockState(mutable.set(center, dx, dy, dz)));
+                        }
+                        next[index(dx, dy, dz)] = value;
+                        if (value != null) {
+                            count++;
+                        }
+                    }
+                }
+            }
+            cells = next;
+            origin = center;
+            world = key;
+            present = count;
+            version++;
+            if (stale) {
+                refreshedTick = tick;
+            }
+        }
+
+        void onBlockChanged(RegistryKey<World> key, BlockPos pos, BlockState state) {
+            if (cells == null || !key.equals(world)) {
+                return;
+            }
+            int dx = pos.getX() - origin.getX();
+            int dy = pos.getY() - origin.getY();
+            int dz = pos.getZ() - origin.getZ();
+            if (!covers(dx, dy, dz)) {
+                return;
+            }
+            int index = index(dx, dy, dz);
+            Object value = sample(state);
+            Object old = cells[index];
+            if (value == null ? old == null : value.equals(old)) {
+                return;
+            }
+            cells[index] = value;
+            present += (value != null ? 1 : 0) - (old != null ? 1 : 0);
+            version++;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package net.shasankp000.GameAI.services;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Write-behind persistence for the mod's JSON stores (and whole-file writes such as bot inventories).
+ *
+ * <p>A journal owns one JSON object file whose top-level keys are independent entries (an alias, a world, a
+ * bot). Services keep their in-memory model authoritative and only call {@link #markDirty} when an entry
+ * changes; nothing is serialised or written on the caller's thread. A single background writer wakes every
+ * {@link #DRAIN_INTERVAL_MS}, asks the owning service for the current value of each dirty key (so repeated
+ * updates to the same entry coalesce into one write) and appends them to {@code <file>.journal} as JSON lines.
+ * Once the journal grows past {@link #COMPACT_THRESHOLD_BYTES} the full image is rewritten to
+ * {@code <file>.tmp} and atomically renamed over the snapshot, and the journal is truncated.
+ *
+ * <p>{@link #load} replays the journal over the snapshot, ignoring a torn last line, so a crash loses at most
+ * the last drain interval. {@link #flushAll} forces a drain plus compaction and is called from
+ * {@code BotPersistenceService.saveAll}.
+ */
+public final class PersistenceJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("bot-persistence");
+    private static final Gson SNAPSHOT_GSON = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+
+    private static final long DRAIN_INTERVAL_MS = 1_000L;
+    private static final long COMPACT_THRESHOLD_BYTES = 256L * 1024L;
+
+    private static final List<PersistenceJournal> JOURNALS = new CopyOnWriteArrayList<>();
+    private static final Map<Path, FileWrite> PENDING_FILES = new ConcurrentHashMap<>();
+    private static final Map<Path, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AI-Player-PersistenceWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        WRITER.scheduleWithFixedDelay(() -> drainAll(false), DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** A whole-file write; receives the temporary path to write before it is renamed into place. */
+    @FunctionalInterface
+    public interface FileWrite {
+        void writeTo(Path tmp) throws IOException;
+    }
+
+    private final String name;
+    private final Path file;
+    private final Path journalFile;
+    private final Function<String, JsonElement> entryReader;
+    private final Set<String> dirty = new LinkedHashSet<>();
+    /** What is on disk (snapshot + journal), kept so compaction never has to read the service's model. */
+    private final Map<String, JsonElement> image = new LinkedHashMap<>();
+    private long journalBytes;
+
+    private PersistenceJournal(String name, Path file, Function<String, JsonElement> entryReader) {
+        this.name = name;
+        this.file = file;
+        this.journalFile = file.resolveSibling(file.getFileName() + ".journal");
+        this.entryReader = entryReader;
+    }
+
+    /**
+     * Opens (and registers with the background writer) the journal for {@code file}.
+     *
+     * @param entryReader Returns the current serialised value of an entry, or null if it was removed. Runs on
+     *                    the writer thread, so it must read the service's model under the service's own lock.
+     */
+    public static PersistenceJournal open(String name, Path file, Function<String, JsonElement> entryReader) {
+        PersistenceJournal journal = new PersistenceJournal(name, file, entryReader);
+        JOURNALS.add(journal);
+        return journal;
+    }
+
+    /**
+     * Reads the snapshot and replays the journal over it. Entries whose latest record is a removal are absent.
+     */
+    public synchronized Map<String, JsonElement> load() {
+        image.clear();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                JsonElement root = JsonParser.parseReader(reader);
+                if (root != null && root.isJsonObject()) {
+                    for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject().entrySet()) {
+                        image.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                LOGGER.warn("Failed to load {} snapshot: {}", name, e.getMessage());
+            }
+        }
+        journalBytes = 0;
+        if (Files.exists(journalFile)) {
+            int replayed = 0;
+            try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    journalBytes += line.length() + 1L;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+                        String key = record.get("k").getAsString();
+                        JsonElement value = record.get("v");
+                        if (value == null || value.isJsonNull()) {
+                            image.remove(key);
+                        } else {
+                            image.put(key, value);
+                        }
+                        replayed++;
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Skipping torn {} journal record: {}", name, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to replay {} journal: {}", name, e.getMessage());
+            }
+            if (replayed > 0) {
+                LOGGER.info("Replayed {} {} journal record(s).", replayed, name);
+            }
+        }
+        return new LinkedHashMap<>(image);
+    }
+
+    /**
+     * Queues {@code key} for the next background drain. Cheap and safe to call every tick.
+     */
+    public void markDirty(String key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (dirty) {
+            dirty.add(key);
+        }
+    }
+
+    /**
+     * Queues a whole-file write of {@code path}; a later write for the same path replaces one not yet run.
+     * The file is written to a sibling {@code .tmp} and atomically renamed.
+     */
+    public static void writeFileAsync(Path path, FileWrite write) {
+        PENDING_FILES.put(path, write);
+    }
+
+    /**
+     * Runs the pending write for {@code path} (if any) on the caller's thread, e.g. before reading the file back.
+     */
+    public static void flushFile(Path path) {
+        synchronized (fileLock(path)) {
+            FileWrite write = PENDING_FILES.remove(path);
+            if (write != null) {
+                writeAtomically(path, write);
+            }
+        }
+    }
+
+    /**
+     * Drops the pending write for {@code path}, e.g. before deleting the file.
+     */
+    public static void cancelFile(Path path) {
+        synchronized (fileLock(path)) {
+            PENDING_FILES.remove(path);
+        }
+    }
+
+    /**
+     * Drains every journal and pending file write, then compacts the journals, waiting up to
+     * {@code timeoutMs}. Returns false if the writer did not finish in time.
+     */
+    public static boolean flushAll(long timeoutMs) {
+        Future<?> drain = WRITER.submit(() -> drainAll(true));
+        try {
+            drain.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            LOGGER.warn("Persistence flush did not complete: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void drainAll(boolean compact) {
+        for (Path path : new ArrayList<>(PENDING_FILES.keySet())) {
+            flushFile(path);
+        }
+        for (PersistenceJournal journal : JOURNALS) {
+            try {
+                journal.drain(compact);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to drain {} journal: {}", journal.name, e.getMessage());
+            }
+        }
+    }
+
+    private void drain(boolean forceCompact) {
+        List<String> keys;
+        synchronized (dirty) {
+            keys = new ArrayList<>(dirty);
+            dirty.clear();
+        }
+        // Read the service's model before taking this journal's lock, so a service that holds its own lock
+        // while calling load() can never deadlock against the writer.
+        Map<String, JsonElement> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            JsonElement value = entryReader.apply(key);
+            values.put(key, value == null ? JsonNull.INSTANCE : value);
+        }
+        synchronized (this) {
+            Map<String, JsonElement> changed = new LinkedHashMap<>();
+            StringBuilder lines = new StringBuilder();
+            values.forEach((key, value) -> {
+                if (value.equals(image.getOrDefault(key, JsonNull.INSTANCE))) {
+                    return;
+                }
+                JsonObject record = new JsonObject();
+                record.addProperty("k", key);
+                record.add("v", value);
+                lines.append(record).append('\n');
+                changed.put(key, value);
+            });
+            if (!changed.isEmpty()) {
+                if (appendJournal(lines.toString())) {
+                    changed.forEach((key, value) -> {
+                        if (value.isJsonNull()) {
+                            image.remove(key);
+                        } else {
+                            image.put(key, value);
+                        }
+                    });
+                } else {
+                    // Retry on the next drain.
+                    synchronized (dirty) {
+                        dirty.addAll(changed.keySet());
+                    }
+                }
+            }
+            if (journalBytes > 0 && (forceCompact || journalBytes >= COMPACT_THRESHOLD_BYTES)) {
+                compact();
+            }
+        }
+    }
+
+    private boolean appendJournal(String lines) {
+        byte[] bytes = lines.getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.createDirectories(journalFile.getParent());
+            Files.write(journalFile, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+            journalBytes += bytes.length;
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to append {} journal: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void compact() {
+        boolean written = writeAtomically(file, tmp -> {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                SNAPSHOT_GSON.toJson(toJsonObject(image), writer);
+            }
+        });
+        if (!written) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(journalFile);
+            journalBytes = 0;
+            LOGGER.debug("Compacted {} journal into {}", name, file.getFileName());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to truncate {} journal: {}", name, e.getMessage());
+        }
+    }
+
+    private static JsonObject toJsonObject(Map<String, JsonElement> entries) {
+        JsonObject root = new JsonObject();
+        entries.forEach(root::add);
+        return root;
+    }
+
+    private static Object fileLock(Path path) {
+        return FILE_LOCKS.computeIfAbsent(path, ignored -> new Object());
+    }
+
+    private static boolean writeAtomically(Path path, FileWrite write) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            write.writeTo(tmp);
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write {}: {}", path.getFileName(), e.getMessage());
+            return false;
+        }
+    }
+}
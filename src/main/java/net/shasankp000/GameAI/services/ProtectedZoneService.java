@@ -8,6 +8,7 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -29,6 +30,8 @@ public class ProtectedZoneService {
     
     // Map of worldId -> Map of label -> ProtectedZone
     private static final Map<String, Map<String, ProtectedZone>> zones = new ConcurrentHashMap<>();
+    // Map of worldId -> chunk index over that world's zones, replaced whole whenever the zones change
+    private static final Map<String, ZoneIndex> indexes = new ConcurrentHashMap<>();
     
     private static Path getZoneDirectory(MinecraftServer server, String worldId) {
         return server.getRunDirectory().resolve("bot_zones").resolve(worldId);
@@ -112,18 +115,8 @@ public class ProtectedZoneService {
         if (pos == null || world == null) {
             return false;
         }
-        String worldId = getWorldId(world);
-        Map<String, ProtectedZone> worldZones = zones.get(worldId);
-        if (worldZones == null || worldZones.isEmpty()) {
-            return false;
-        }
-        
-        for (ProtectedZone zone : worldZones.values()) {
-            if (zone.contains(pos)) {
-                return true;
-            }
-        }
-        return false;
+        ZoneIndex index = indexes.get(getWorldId(world));
+        return index != null && index.zoneAt(pos) != null;
     }
     
     /**
@@ -134,18 +127,39 @@ public class ProtectedZoneService {
         if (pos == null || world == null) {
             return null;
         }
-        String worldId = getWorldId(world);
-        Map<String, ProtectedZone> worldZones = zones.get(worldId);
-        if (worldZones == null) {
-            return null;
+        ZoneIndex index = indexes.get(getWorldId(world));
+        return index == null ? null : index.zoneAt(pos);
+    }
+    
+    /**
+     * The candidates that are not inside any protected zone, in their original order.
+     * Looks each chunk's zones up once, so whole candidate lists cost about one map lookup per chunk touched.
+     */
+    public static List<BlockPos> filterProtected(Collection<BlockPos> candidates, ServerWorld world) {
+        if (candidates == null || candidates.isEmpty()) {
+            return Collections.emptyList();
         }
-        
-        for (ProtectedZone zone : worldZones.values()) {
-            if (zone.contains(pos)) {
-                return zone;
+        ZoneIndex index = world == null ? null : indexes.get(getWorldId(world));
+        if (index == null) {
+            return candidates instanceof List<BlockPos> list ? list : new ArrayList<>(candidates);
+        }
+        List<BlockPos> allowed = new ArrayList<>(candidates.size());
+        long lastChunk = Long.MIN_VALUE;
+        ProtectedZone[] bucket = null;
+        for (BlockPos pos : candidates) {
+            if (pos == null) {
+                continue;
+            }
+            long chunk = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+            if (chunk != lastChunk) {
+                lastChunk = chunk;
+                bucket = index.bucket(chunk);
+            }
+            if (ZoneIndex.find(bucket, pos) == null && ZoneIndex.find(index.oversized, pos) == null) {
+                allowed.add(pos);
             }
         }
-        return null;
+        return allowed;
     }
     
     /**
@@ -165,6 +179,7 @@ public class ProtectedZoneService {
         
         ProtectedZone zone = new ProtectedZone(label, worldId, center, radius, owner.getUuid(), owner.getName().getString());
         worldZones.put(label, zone);
+        reindex(worldId);
         
         // Save to disk
         save(world.getServer(), worldId);
@@ -199,6 +214,7 @@ public class ProtectedZoneService {
         }
         
         worldZones.remove(label);
+        reindex(worldId);
         save(world.getServer(), worldId);
         
         LOGGER.info("Removed protected zone '{}' from world {}", label, worldId);
@@ -285,6 +301,7 @@ public class ProtectedZoneService {
                 );
                 worldZones.put(data.label, zone);
             }
+            reindex(worldId);
             
             LOGGER.info("Loaded {} protected zones for world {}", zoneDataList.size(), worldId);
         } catch (IOException e) {
@@ -345,14 +362,88 @@ public class ProtectedZoneService {
         }
         String worldId = getWorldId(world);
         zones.remove(worldId);
+        indexes.remove(worldId);
         LOGGER.info("Cleared all protected zones for world {}", worldId);
     }
     
+    /**
+     * Rebuilds a world's index from its zones and swaps it in. {@code compute} serialises rebuilds per world, so the
+     * last one always reflects the latest zones and readers never see a half-built index.
+     */
+    private static void reindex(String worldId) {
+        indexes.compute(worldId, (id, previous) -> {
+            Map<String, ProtectedZone> worldZones = zones.get(id);
+            return worldZones == null || worldZones.isEmpty() ? null : ZoneIndex.of(worldZones.values());
+        });
+    }
+    
     private static String getWorldId(ServerWorld world) {
         RegistryKey<World> key = world.getRegistryKey();
         return key.getValue().toString();
     }
     
+    /**
+     * Immutable chunk-keyed buckets of zones: each zone is listed under every chunk column its cube overlaps.
+     * Zones spanning more than {@link #MAX_INDEXED_CHUNKS} columns are kept in a short list that is always checked.
+     */
+    private static final class ZoneIndex {
+        private static final int MAX_INDEXED_CHUNKS = 4096;
+        private static final ProtectedZone[] NONE = new ProtectedZone[0];
+        
+        private final Map<Long, ProtectedZone[]> buckets;
+        private final ProtectedZone[] oversized;
+        
+        private ZoneIndex(Map<Long, ProtectedZone[]> buckets, ProtectedZone[] oversized) {
+            this.buckets = buckets;
+            this.oversized = oversized;
+        }
+        
+        static ZoneIndex of(Collection<ProtectedZone> zones) {
+            Map<Long, List<ProtectedZone>> building = new HashMap<>();
+            List<ProtectedZone> oversized = new ArrayList<>();
+            for (ProtectedZone zone : zones) {
+                BlockPos center = zone.getCenter();
+                int r = Math.max(0, zone.getRadius());
+                int minCX = (center.getX() - r) >> 4;
+                int maxCX = (center.getX() + r) >> 4;
+                int minCZ = (center.getZ() - r) >> 4;
+                int maxCZ = (center.getZ() + r) >> 4;
+                if ((long) (maxCX - minCX + 1) * (maxCZ - minCZ + 1) > MAX_INDEXED_CHUNKS) {
+                    oversized.add(zone);
+                    continue;
+                }
+                for (int cx = minCX; cx <= maxCX; cx++) {
+                    for (int cz = minCZ; cz <= maxCZ; cz++) {
+                        building.computeIfAbsent(ChunkPos.toLong(cx, cz), k -> new ArrayList<>(1)).add(zone);
+                    }
+                }
+            }
+            Map<Long, ProtectedZone[]> buckets = new HashMap<>(building.size() * 2);
+            building.forEach((chunk, list) -> buckets.put(chunk, list.toArray(NONE)));
+            return new ZoneIndex(buckets, oversized.toArray(NONE));
+        }
+        
+        ProtectedZone[] bucket(long chunk) {
+            return buckets.getOrDefault(chunk, NONE);
+        }
+        
+        @Nullable
+        ProtectedZone zoneAt(BlockPos pos) {
+            ProtectedZone zone = find(bucket(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4)), pos);
+            return zone != null ? zone : find(oversized, pos);
+        }
+        
+        @Nullable
+        static ProtectedZone find(ProtectedZone[] zones, BlockPos pos) {
+            for (ProtectedZone zone : zones) {
+                if (zone.contains(pos)) {
+                    return zone;
+                }
+            }
+            return null;
+        }
+    }
+    
     /**
      * Data class for JSON serialization.
      */
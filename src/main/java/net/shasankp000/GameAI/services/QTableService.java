@@ -0,0 +1,163 @@
+package net.shasankp000.GameAI.services;
+
+import net.shasankp000.Database.QTable;
+import net.shasankp000.Database.QTableStorage;
+import net.shasankp000.GameAI.BotEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The one Q-table every bot learns into and plays from.
+ *
+ * <p>The table is read from disk once, in the background, when the server starts ({@link #preload}); a bot that
+ * spawns before the load finishes waits for it instead of deserialising its own copy. {@link QTable} is safe for
+ * concurrent updates, so learners just update it and call {@link #recordUpdate}. A background checkpoint writes
+ * the table and epsilon when something changed, at the cadence {@link BotRLPersistenceThrottleService} sets.
+ * The tick and learning threads never touch the disk.
+ */
+public final class QTableService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("qtable");
+
+    private static final String CHECKPOINT_LOOP = "qtable-checkpoint";
+    /** How often the loop asks the throttle whether a checkpoint is due; the throttle sets the real interval. */
+    private static final long CHECKPOINT_POLL_MS = 1_000L;
+
+    private static final Object LOAD_LOCK = new Object();
+    private static CompletableFuture<QTable> table;
+    private static Future<?> loader;
+
+    private static final AtomicLong VERSION = new AtomicLong();
+    /** How long the final flush waits for a background checkpoint that is mid-write. */
+    private static final long FLUSH_WAIT_MS = 5_000L;
+
+    private static final ReentrantLock CHECKPOINT_LOCK = new ReentrantLock();
+    // Last version written; updated under CHECKPOINT_LOCK.
+    private static volatile long savedVersion;
+    private static volatile double epsilon = Double.NaN;
+
+    private QTableService() {
+    }
+
+    /**
+     * Starts loading the table (once per JVM) and (re)starts the checkpoint loop. Called on server start.
+     */
+    public static void preload() {
+        load();
+        BotScheduler.scheduleLoop(null, CHECKPOINT_LOOP, () -> {
+            if (VERSION.get() != savedVersion && BotRLPersistenceThrottleService.shouldCheckpointNow()) {
+                BotScheduler.runAsync(null, CHECKPOINT_LOOP, QTableService::checkpoint);
+            }
+        }, CHECKPOINT_POLL_MS, CHECKPOINT_POLL_MS);
+    }
+
+    /**
+     * The shared table. Waits for the initial load if it is still running.
+     */
+    public static QTable shared() {
+        return load().join();
+    }
+
+    /**
+     * Marks the table changed so the next checkpoint writes it, along with the learner's current epsilon.
+     */
+    public static void recordUpdate(double currentEpsilon) {
+        epsilon = currentEpsilon;
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Writes any pending changes on the calling thread. Called when the server stops.
+     */
+    public static void flush() {
+        // Wait for a background checkpoint that is mid-write, then write the table regardless of what it covered.
+        boolean locked;
+        try {
+            locked = CHECKPOINT_LOCK.tryLock(FLUSH_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+        if (!locked) {
+            LOGGER.warn("Background Q-table checkpoint still running after {} ms; skipping the final save", FLUSH_WAIT_MS);
+            return;
+        }
+        try {
+            save(true);
+        } finally {
+            CHECKPOINT_LOCK.unlock();
+        }
+    }
+
+    private static CompletableFuture<QTable> load() {
+        synchronized (LOAD_LOCK) {
+            // A load cancelled by a server stop before it finished is started again.
+            if (table == null || (!table.isDone() && loader.isCancelled())) {
+                CompletableFuture<QTable> loading = new CompletableFuture<>();
+                table = loading;
+                loader = BotScheduler.runAsync(null, "qtable-load", () -> {
+                    QTable loaded;
+                    try {
+                        loaded = QTableStorage.loadQTable();
+                        LOGGER.info("Shared Q-table loaded: {} state-action pairs", loaded.getTable().size());
+                    } catch (Exception e) {
+                        LOGGER.warn("No existing Q-table found. Starting fresh.", e);
+                        loaded = new QTable();
+                    }
+                    loading.complete(loaded);
+                });
+            }
+            return table;
+        }
+    }
+
+    private static void checkpoint() {
+        if (!CHECKPOINT_LOCK.tryLock()) {
+            return;
+        }
+        try {
+            save(false);
+        } finally {
+            CHECKPOINT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Writes the table and epsilon. Caller holds {@link #CHECKPOINT_LOCK}. Unless {@code force}, nothing is
+     * written when the table has not changed since the last successful save.
+     */
+    private static void save(boolean force) {
+        CompletableFuture<QTable> current;
+        synchronized (LOAD_LOCK) {
+            current = table;
+        }
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()) {
+            return;
+        }
+        long version = VERSION.get();
+        if (!force && version == savedVersion) {
+            return;
+        }
+        if (!QTableStorage.saveQTable(current.join(), null)) {
+            LOGGER.warn("Failed to checkpoint shared Q-table (version {}); will retry", version);
+            return;
+        }
+        savedVersion = version;
+        double eps = epsilon;
+        if (!Double.isNaN(eps)) {
+            try {
+                QTableStorage.saveEpsilon(eps, BotEventHandler.qTableDir + "/epsilon.bin");
+            } catch (IOException e) {
+                LOGGER.warn("Failed to checkpoint Q-table epsilon: {}", e.getMessage());
+            }
+        }
+        LOGGER.debug("Checkpointed shared Q-table (version {})", version);
+    }
+}
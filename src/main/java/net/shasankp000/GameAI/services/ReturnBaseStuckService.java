@@ -196,7 +196,12 @@ public final class ReturnBaseStuckService {
     }
 
     public static boolean tickAndCheckStuck(ServerPlayerEntity bot, Vec3d baseTarget, StuckProfile profile) {
-        return tickAndCheckStuckInternal(bot, baseTarget, profile != null ? profile : StuckProfile.DEFAULT);
+        long perfStart = BotPerfService.start();
+        try {
+            return tickAndCheckStuckInternal(bot, baseTarget, profile != null ? profile : StuckProfile.DEFAULT);
+        } finally {
+            BotPerfService.record(bot, BotPerfService.Probe.STUCK_CHECK, perfStart);
+        }
     }
 
     private static boolean tickAndCheckStuckInternal(ServerPlayerEntity bot, Vec3d baseTarget, StuckProfile profile) {
@@ -609,15 +609,7 @@ public final class SleepService {
             action.run();
             return true;
         }
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                action.run();
-                future.complete(null);
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
+        CompletableFuture<Void> future = WorldAccessService.run(server, action);
         try {
             future.get(750, TimeUnit.MILLISECONDS);
             return true;
@@ -337,18 +337,8 @@ public final class SmeltingService {
     }
 
     private static BlockPos findNearestFurnace(ServerWorld world, BlockPos origin, int radius, int ySpan) {
-        BlockPos nearest = null;
-        double best = Double.MAX_VALUE;
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -ySpan, -radius), origin.add(radius, ySpan, radius))) {
-            if (isFurnaceLike(world, pos)) {
-                double dist = origin.getSquaredDistance(pos);
-                if (dist < best) {
-                    best = dist;
-                    nearest = pos.toImmutable();
-                }
-            }
-        }
-        return nearest;
+        List<BlockPos> nearest = BlockLocatorIndex.nearest(world, origin, radius, ySpan, BlockLocatorIndex.Kind.FURNACE, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
     }
 
     private static BlockPos chooseApproach(ServerWorld world, BlockPos station) {
@@ -1010,21 +1000,10 @@ public final class SmeltingService {
     }
 
     private static List<BlockPos> findNearbyChests(ServerWorld world, BlockPos origin, int radius) {
-        List<BlockPos> chests = new ArrayList<>();
         if (world == null || origin == null) {
-            return chests;
-        }
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -2, -radius), origin.add(radius, 2, radius))) {
-            if (!world.isChunkLoaded(pos)) {
-                continue;
-            }
-            var state = world.getBlockState(pos);
-            if (state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST)) {
-                chests.add(pos.toImmutable());
-            }
+            return new ArrayList<>();
         }
-        chests.sort(java.util.Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        return chests;
+        return new ArrayList<>(BlockLocatorIndex.nearbyChests(world, origin, radius, 2));
     }
 
     private static boolean moveNearBlock(ServerPlayerEntity bot, BlockPos target, double reachSq) {
@@ -288,12 +288,17 @@ public final class TaskService {
     /**
      * Records which thread is executing the active skill for this ticket.
      * This enables /bot stop and server shutdown to interrupt long-running/hung skills.
+     * When the caller attaches its own thread, background tasks it starts are tagged with the ticket so an
+     * abort can stop them without touching the bot's other tasks.
      */
     public static void attachExecutingThread(TaskTicket ticket, Thread thread) {
         if (ticket == null || thread == null) {
             return;
         }
         ticket.attachExecutingThread(thread);
+        if (thread == Thread.currentThread()) {
+            BotScheduler.tagCurrentThread(ticket);
+        }
     }
 
     public static boolean requestPause(UUID botUuid, String reason) {
@@ -336,6 +341,7 @@ public final class TaskService {
             finalState = State.ABORTED;
         }
         ticket.setState(finalState);
+        BotScheduler.untagCurrentThread(ticket);
         // Only remove if the ACTIVE slot still points at this exact ticket instance.
         // This prevents stale/hung skill threads from accidentally clearing a newer task.
         ACTIVE.remove(key(ticket.botUuid()), ticket);
@@ -465,6 +471,9 @@ public final class TaskService {
         }
         // Best-effort: interrupt the executing thread so long-running loops/sleeps unwind promptly.
         ticket.interruptExecutingThread();
+        // Also stop background work the skill spawned under this ticket; the bot's other tasks (e.g. a running
+        // function pipeline) and the calling task are left alone.
+        BotScheduler.cancelTasks(ticket.botUuid(), ticket);
         // Force-remove the ticket from ACTIVE immediately so new skills can start.
         // The background thread should check isCancelRequested() and exit gracefully,
         // but we don't want to block new skill starts if pathfinding gets stuck.
@@ -476,7 +485,7 @@ public final class TaskService {
      * <p>
      * Note: this does not guarantee background skill threads are fully stopped, but it does:
      * - request cancel for all known tickets
-     * - interrupt their executing threads
+     * - interrupt their executing threads and any other bot tasks on {@link BotScheduler}
      * - clear the ACTIVE slot map so new worlds don't inherit stale task locks
      */
     public static void resetAll(String reason) {
@@ -489,5 +498,6 @@ public final class TaskService {
         }
         ACTIVE.clear();
         IN_ASCENT_MODE.clear();
+        BotScheduler.cancelAllTasks();
     }
 }
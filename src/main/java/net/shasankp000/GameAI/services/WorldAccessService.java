@@ -0,0 +1,393 @@
+package net.shasankp000.GameAI.services;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * World access for skill threads without one blocking {@code server.execute} round-trip per query.
+ *
+ * <p>Callers build a {@link Batch} of reads (block states, block entities, inventory counts, arbitrary
+ * suppliers) and actions, then {@link Batch#submit()} it. All submitted batches are drained together on the
+ * server thread: the first submission posts a single drain task, and anything that queues up before it runs
+ * rides along. A drain stops once {@link #TICK_BUDGET_NANOS} of server time has been spent in the current
+ * tick; the rest carries over to the end-of-tick drain. A batch is never split across drains.
+ *
+ * <p>Every query returns a {@link CompletableFuture}, so follow-up work can be chained instead of blocking.
+ * {@link #await} is the bridge for code that still needs the value inline. Actions registered under a key
+ * are idempotent: submitting the same key again before the first one has run returns the pending future
+ * instead of queueing a duplicate. Cancelling a query's future drops it only if it has not started on the
+ * server thread yet; {@link #awaitOrDrop} relies on that to tell skipped work from work that happened late.
+ */
+public final class WorldAccessService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("world-access");
+
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5L);
+
+    private static final ConcurrentLinkedQueue<List<Op<?>>> PENDING = new ConcurrentLinkedQueue<>();
+    private static final Map<String, Op<?>> PENDING_ACTIONS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean DRAIN_POSTED = new AtomicBoolean(false);
+    // Server thread only.
+    private static long budgetUsedNanos;
+
+    private static final LongAdder OPS_RUN = new LongAdder();
+    private static final LongAdder BATCHES_RUN = new LongAdder();
+    private static final LongAdder DRAINS = new LongAdder();
+    private static final LongAdder CARRIED_OVER = new LongAdder();
+
+    private WorldAccessService() {
+    }
+
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int DROPPED = 2;
+
+    private static final class Op<T> {
+        private final Supplier<T> body;
+        private final String actionKey;
+        // QUEUED -> STARTED on the server thread, or QUEUED -> DROPPED by a cancel; whichever wins decides.
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CompletableFuture<T> future = new OpFuture<>(this);
+
+        private Op(Supplier<T> body, String actionKey) {
+            this.body = body;
+            this.actionKey = actionKey;
+        }
+
+        private void run() {
+            if (actionKey != null) {
+                PENDING_ACTIONS.remove(actionKey, this);
+            }
+            if (!state.compareAndSet(QUEUED, STARTED)) {
+                // The caller gave up (timed out or cancelled) before the drain got here; skip the work.
+                return;
+            }
+            try {
+                future.complete(body.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            OPS_RUN.increment();
+        }
+
+        private boolean drop() {
+            if (!state.compareAndSet(QUEUED, DROPPED)) {
+                return false;
+            }
+            if (actionKey != null) {
+                // A retry under the same key must queue fresh work, not join this cancelled op.
+                PENDING_ACTIONS.remove(actionKey, this);
+            }
+            return true;
+        }
+
+        private void fail(Throwable cause) {
+            if (actionKey != null) {
+                PENDING_ACTIONS.remove(actionKey, this);
+            }
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * An op's future. {@link #cancel} only succeeds while the op is still queued; once the server thread has
+     * started the body, its result is delivered normally.
+     */
+    private static final class OpFuture<T> extends CompletableFuture<T> {
+        private final Op<T> op;
+
+        private OpFuture(Op<T> op) {
+            this.op = op;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return op.drop() && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * A group of world queries that run back-to-back in the same drain. Not thread-safe; build it on one
+     * thread and submit it once.
+     */
+    public static final class Batch {
+        private final MinecraftServer server;
+        private final List<Op<?>> ops = new ArrayList<>();
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+        private boolean submitted;
+
+        private Batch(MinecraftServer server) {
+            this.server = server;
+        }
+
+        public <T> CompletableFuture<T> read(Supplier<T> query) {
+            return add(new Op<>(query, null));
+        }
+
+        public CompletableFuture<BlockState> blockState(World world, BlockPos pos) {
+            return read(() -> world.getBlockState(pos));
+        }
+
+        public CompletableFuture<BlockEntity> blockEntity(World world, BlockPos pos) {
+            return read(() -> world.getBlockEntity(pos));
+        }
+
+        /**
+         * Total count of stacks in {@code inventory} matching {@code filter}.
+         */
+        public CompletableFuture<Integer> count(Inventory inventory, Predicate<ItemStack> filter) {
+            return read(() -> {
+                int total = 0;
+                for (int i = 0; i < inventory.size(); i++) {
+                    ItemStack stack = inventory.getStack(i);
+                    if (!stack.isEmpty() && filter.test(stack)) {
+                        total += stack.getCount();
+                    }
+                }
+                return total;
+            });
+        }
+
+        public CompletableFuture<Void> run(Runnable action) {
+            return add(new Op<>(() -> {
+                action.run();
+                return null;
+            }, null));
+        }
+
+        /**
+         * Queues an idempotent action. If an action with the same {@code key} is still waiting to run when this
+         * batch is submitted, this one is dropped and its future completes with the pending action's result. A
+         * {@code null} key queues a plain action that is never folded into another.
+         */
+        public <T> CompletableFuture<T> act(String key, Supplier<T> action) {
+            return add(new Op<>(action, key));
+        }
+
+        /**
+         * Queues the batch. Runs it immediately when called on the server thread. The returned future
+         * completes once every query in the batch has finished.
+         */
+        public CompletableFuture<Void> submit() {
+            checkOpen();
+            submitted = true;
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+            List<Op<?>> toRun = new ArrayList<>(ops.size());
+            for (Op<?> op : ops) {
+                if (op.actionKey == null || !joinPending(op)) {
+                    toRun.add(op);
+                }
+            }
+            if (toRun.isEmpty()) {
+                return all;
+            }
+            if (server == null) {
+                IllegalStateException noServer = new IllegalStateException("No server");
+                toRun.forEach(op -> op.fail(noServer));
+                return all;
+            }
+            if (server.isOnThread()) {
+                long perfStart = BotPerfService.start();
+                toRun.forEach(Op::run);
+                BotPerfService.record(BotPerfService.SHARED, BotPerfService.Probe.WORLD_ACCESS, perfStart);
+                BATCHES_RUN.increment();
+                return all;
+            }
+            PENDING.add(toRun);
+            if (DRAIN_POSTED.compareAndSet(false, true)) {
+                server.execute(WorldAccessService::drainPosted);
+            }
+            return all;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> boolean joinPending(Op<T> op) {
+            while (true) {
+                Op<?> existing = PENDING_ACTIONS.putIfAbsent(op.actionKey, op);
+                if (existing == null || existing == op) {
+                    return false;
+                }
+                if (existing.future.isDone()) {
+                    // Cancelled or failed but not yet drained; take its place instead of inheriting the outcome.
+                    if (PENDING_ACTIONS.replace(op.actionKey, existing, op)) {
+                        return false;
+                    }
+                    continue;
+                }
+                ((CompletableFuture<T>) existing.future).whenComplete((value, error) -> {
+                    if (error != null) {
+                        op.future.completeExceptionally(error);
+                    } else {
+                        op.future.complete(value);
+                    }
+                });
+                return true;
+            }
+        }
+
+        private <T> CompletableFuture<T> add(Op<T> op) {
+            checkOpen();
+            ops.add(op);
+            futures.add(op.future);
+            return op.future;
+        }
+
+        private void checkOpen() {
+            if (submitted) {
+                throw new IllegalStateException("Batch already submitted");
+            }
+        }
+    }
+
+    public static Batch batch(MinecraftServer server) {
+        return new Batch(server);
+    }
+
+    /**
+     * Single read, submitted on its own. Prefer {@link #batch} when a decision needs several values.
+     */
+    public static <T> CompletableFuture<T> read(MinecraftServer server, Supplier<T> query) {
+        Batch batch = batch(server);
+        CompletableFuture<T> result = batch.read(query);
+        batch.submit();
+        return result;
+    }
+
+    public static CompletableFuture<Void> run(MinecraftServer server, Runnable action) {
+        Batch batch = batch(server);
+        CompletableFuture<Void> result = batch.run(action);
+        batch.submit();
+        return result;
+    }
+
+    public static <T> CompletableFuture<T> act(MinecraftServer server, String key, Supplier<T> action) {
+        Batch batch = batch(server);
+        CompletableFuture<T> result = batch.act(key, action);
+        batch.submit();
+        return result;
+    }
+
+    /**
+     * Blocking read with a fallback, for call sites that still need the value inline. A read that has not run
+     * when the timeout expires is dropped.
+     */
+    public static <T> T call(MinecraftServer server, Supplier<T> query, long timeoutMs, T fallback) {
+        return awaitOrDrop(read(server, query), timeoutMs, fallback);
+    }
+
+    /**
+     * Like {@link #await}, but cancels {@code future} if it has not completed by the timeout, so a queued read or
+     * action that has not started yet is skipped instead of running after the caller has moved on. Returns
+     * {@code fallback} only when the work really was skipped (or failed): if the server thread had already
+     * started it, this waits for and returns its result, since its effects happen either way.
+     */
+    public static <T> T awaitOrDrop(CompletableFuture<T> future, long timeoutMs, T fallback) {
+        if (future == null) {
+            return fallback;
+        }
+        await(future, timeoutMs, fallback);
+        if (!future.isDone() && future.cancel(false)) {
+            return fallback;
+        }
+        // Done (possibly just after the timeout), or running on the server thread right now, which the drain
+        // finishes without yielding: report what actually happened.
+        return await(future, Long.MAX_VALUE, fallback);
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for {@code future}, returning {@code fallback} on timeout, failure or
+     * interrupt (the interrupt flag is preserved). The underlying work is not cancelled.
+     */
+    public static <T> T await(CompletableFuture<T> future, long timeoutMs, T fallback) {
+        if (future == null) {
+            return fallback;
+        }
+        try {
+            T value = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return value != null ? value : fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * End-of-tick drain: resets the per-tick budget and runs whatever the last drain had to leave behind.
+     */
+    public static void onServerTick(MinecraftServer server) {
+        budgetUsedNanos = 0L;
+        if (!PENDING.isEmpty()) {
+            drain();
+        }
+    }
+
+    /**
+     * Fails everything still queued so no skill thread waits on a server that is gone.
+     */
+    public static void onServerStopped() {
+        CancellationException stopped = new CancellationException("Server stopped");
+        List<Op<?>> batch;
+        while ((batch = PENDING.poll()) != null) {
+            batch.forEach(op -> op.fail(stopped));
+        }
+        PENDING_ACTIONS.clear();
+        DRAIN_POSTED.set(false);
+        budgetUsedNanos = 0L;
+    }
+
+    public static String metricsSummary() {
+        return String.format("world access: queued=%d batches=%d ops=%d drains=%d carried over=%d",
+                PENDING.size(), BATCHES_RUN.sum(), OPS_RUN.sum(), DRAINS.sum(), CARRIED_OVER.sum());
+    }
+
+    private static void drainPosted() {
+        DRAIN_POSTED.set(false);
+        drain();
+    }
+
+    private static void drain() {
+        long start = System.nanoTime();
+        int drained = 0;
+        List<Op<?>> batch;
+        while ((batch = PENDING.peek()) != null) {
+            if (drained > 0 && budgetUsedNanos + (System.nanoTime() - start) >= TICK_BUDGET_NANOS) {
+                CARRIED_OVER.add(PENDING.size());
+                LOGGER.debug("World access budget spent; {} batch(es) carried over to the next tick", PENDING.size());
+                break;
+            }
+            PENDING.poll();
+            long perfStart = BotPerfService.start();
+            batch.forEach(Op::run);
+            BotPerfService.record(BotPerfService.SHARED, BotPerfService.Probe.WORLD_ACCESS, perfStart);
+            drained++;
+        }
+        budgetUsedNanos += System.nanoTime() - start;
+        BATCHES_RUN.add(drained);
+        DRAINS.increment();
+    }
+}
@@ -4,6 +4,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.shasankp000.GameAI.BotEventHandler;
 import net.shasankp000.GameAI.DropSweeper;
 import net.shasankp000.GameAI.services.BotCommandStateService;
+import net.shasankp000.GameAI.services.BotPerfService;
 import net.shasankp000.GameAI.services.DebugFileLogger;
 import net.shasankp000.GameAI.services.TaskService;
 import net.shasankp000.GameAI.skills.impl.CollectDirtSkill;
@@ -38,7 +39,7 @@ public final class SkillManager {
     private static final String WOODCUT_SCAFFOLD_MEMORY_UPDATED_AT_KEY = "woodcut.scaffoldMemory.updatedAt";
 
     static {
-        DebugFileLogger.log("SkillManager.staticInit start");
+        DebugFileLogger.event("skill", "registry.init.start");
         register(new DirtShovelSkill());
         register(new CollectDirtSkill());
         register(new MiningSkill());
@@ -53,7 +54,7 @@ public final class SkillManager {
         register(new net.shasankp000.GameAI.skills.impl.WoolSkill());
         register(new net.shasankp000.GameAI.skills.impl.FlareSkill());
         register(new HuntSkill());
-        DebugFileLogger.log("SkillManager.staticInit end");
+        DebugFileLogger.event("skill", "registry.init.end", "skills", SKILLS.size());
     }
 
     private SkillManager() {
@@ -61,7 +62,7 @@ public final class SkillManager {
 
     public static void register(Skill skill) {
         if (skill != null) {
-            DebugFileLogger.log("SkillManager.register " + skill.name());
+            DebugFileLogger.event("skill", "register", "name", skill.name());
         }
         SKILLS.put(skill.name(), skill);
     }
@@ -74,14 +75,10 @@ public final class SkillManager {
         }
         ServerPlayerEntity botPlayer = context.botSource().getPlayer();
         String botName = botPlayer != null ? botPlayer.getName().getString() : "(unknown)";
-        System.out.println("[SkillManager] start name=" + name + " bot=" + botName + " thread=" + Thread.currentThread().getName());
-        DebugFileLogger.log("SkillManager.start name=" + name + " bot=" + botName + " thread=" + Thread.currentThread().getName());
-        LOGGER.info("Skill '{}' starting for bot {} on thread {}", name, botName, Thread.currentThread().getName());
+        DebugFileLogger.event("skill", "start", "name", name, "bot", botName);
         UUID botUuid = botPlayer != null ? botPlayer.getUuid() : null;
         var ticketOpt = TaskService.beginSkill(name, context.botSource(), botUuid);
         if (ticketOpt.isEmpty()) {
-            System.out.println("[SkillManager] blocked name=" + name + " bot=" + botName);
-            DebugFileLogger.log("SkillManager.blocked name=" + name + " bot=" + botName);
             LOGGER.warn("Skill '{}' blocked for bot {}: active task already running", name, botName);
             return SkillExecutionResult.failure("Another skill is already running.");
         }
@@ -127,6 +124,7 @@ public final class SkillManager {
 
         BotEventHandler.setExternalOverrideActive(true);
         SkillExecutionResult result = SkillExecutionResult.failure("Skill '" + name + "' ended unexpectedly.");
+        long perfStart = BotPerfService.start();
         try {
             LOGGER.info("Skill '{}' executing for bot {}", name, botName);
             result = skill.execute(context);
@@ -141,20 +139,17 @@ public final class SkillManager {
             result = SkillExecutionResult.failure("Skill '" + name + "' crashed: " + (t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName()));
             return result;
         } finally {
+            BotPerfService.record(botPlayer, BotPerfService.Probe.SKILL, perfStart);
             boolean abortRequested = TaskService.isAbortRequested(botUuid);
             String abortReason = TaskService.getCancelReason(botUuid).orElse("");
             String resultMsg = result != null ? result.message() : "null";
-            DebugFileLogger.log("SkillManager.exit name=" + name + " bot=" + botName
-                    + " success=" + (result != null && result.success())
-                    + " abortRequested=" + abortRequested
-                    + " reason=" + abortReason
-                    + " msg=" + resultMsg);
-            LOGGER.info("Skill '{}' exit: success={} abortRequested={} reason='{}' message='{}'",
-                    name,
-                    result != null && result.success(),
-                    abortRequested,
-                    abortReason,
-                    resultMsg);
+            DebugFileLogger.event("skill", "exit",
+                    "name", name,
+                    "bot", botName,
+                    "success", result != null && result.success(),
+                    "abortRequested", abortRequested,
+                    "reason", abortReason,
+                    "msg", resultMsg);
             try {
                 // Only perform post-task drop_sweep if inventory isn't full and the skill permits it.
                 // Woodcut handles its own sweep after completion to avoid tower disruption.
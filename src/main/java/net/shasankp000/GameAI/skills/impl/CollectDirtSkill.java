@@ -27,6 +27,7 @@ import net.shasankp000.GameAI.skills.SkillExecutionResult;
 import net.shasankp000.GameAI.skills.SkillPreferences;
 import net.shasankp000.Entity.LookController;
 import net.shasankp000.GameAI.BotActions;
+import net.shasankp000.GameAI.services.BlockLocatorIndex;
 import net.shasankp000.GameAI.services.ChestStoreService;
 import net.shasankp000.GameAI.services.MovementService;
 import net.shasankp000.GameAI.services.LavaHazardService;
@@ -34,6 +35,7 @@ import net.shasankp000.GameAI.services.TaskService;
 import net.shasankp000.GameAI.skills.SkillManager;
 import net.shasankp000.GameAI.services.SkillResumeService;
 import net.shasankp000.GameAI.services.WorkDirectionService;
+import net.shasankp000.GameAI.services.WorldAccessService;
 import net.shasankp000.FunctionCaller.SharedStateUtils;
 import net.shasankp000.PathFinding.GoTo;
 import net.shasankp000.GameAI.BotEventHandler;
@@ -1093,16 +1095,7 @@ public class CollectDirtSkill implements Skill {
         if (server.isOnThread()) {
             action.run();
         } else {
-            CompletableFuture<Void> future = new CompletableFuture<>();
-            server.execute(() -> {
-                try {
-                    action.run();
-                    future.complete(null);
-                } catch (Throwable t) {
-                    future.completeExceptionally(t);
-                }
-            });
-            future.join();
+            WorldAccessService.run(server, action).join();
         }
     }
 
@@ -2179,18 +2172,7 @@ public class CollectDirtSkill implements Skill {
         if (world == null || origin == null) {
             return List.of();
         }
-        List<BlockPos> found = new ArrayList<>();
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -vertical, -radius), origin.add(radius, vertical, radius))) {
-            if (!world.isChunkLoaded(pos)) {
-                continue;
-            }
-            BlockState state = world.getBlockState(pos);
-            if (state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST)) {
-                found.add(pos.toImmutable());
-            }
-        }
-        found.sort(Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        return found;
+        return BlockLocatorIndex.nearbyChests(world, origin, radius, vertical);
     }
 
     private LavaThreat detectLavaThreat(ServerPlayerEntity player) {
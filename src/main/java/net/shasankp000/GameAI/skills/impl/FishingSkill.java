@@ -24,6 +24,7 @@ import net.shasankp000.GameAI.BotActions;
 import net.shasankp000.GameAI.DropSweeper;
 import net.shasankp000.GameAI.services.ChestStoreService;
 import net.shasankp000.GameAI.services.BlockInteractionService;
+import net.shasankp000.GameAI.services.BlockLocatorIndex;
 import net.shasankp000.GameAI.services.CraftingHelper;
 import net.shasankp000.GameAI.services.FollowPathService;
 import net.shasankp000.GameAI.services.MovementService;
@@ -799,23 +800,10 @@ public final class FishingSkill implements Skill {
         if (bot == null || radius <= 0) {
             return List.of();
         }
-        World world = bot.getEntityWorld();
-        if (!(world instanceof ServerWorld serverWorld)) {
+        if (!(bot.getEntityWorld() instanceof ServerWorld serverWorld)) {
             return List.of();
         }
-        BlockPos origin = bot.getBlockPos();
-        List<BlockPos> chests = new ArrayList<>();
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -2, -radius), origin.add(radius, 2, radius))) {
-            if (!serverWorld.isChunkLoaded(pos)) {
-                continue;
-            }
-            var state = serverWorld.getBlockState(pos);
-            if (state.isOf(Blocks.CHEST) || state.isOf(Blocks.TRAPPED_CHEST)) {
-                chests.add(pos.toImmutable());
-            }
-        }
-        chests.sort(Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        return chests;
+        return BlockLocatorIndex.nearbyChests(serverWorld, bot.getBlockPos(), radius, 2);
     }
 
     private static BlockPos placeChestNearby(ServerPlayerEntity bot, BlockPos near) {
@@ -89,12 +89,9 @@ public final class HuntSkill implements Skill {
         if (!(bot.getEntityWorld() instanceof ServerWorld world)) {
             return SkillExecutionResult.failure("I can only hunt in a loaded world.");
         }
-        System.out.println("[HuntSkill] execute start bot=" + bot.getName().getString()
-                + " world=" + world.getRegistryKey().getValue()
-                + " thread=" + Thread.currentThread().getName());
-        DebugFileLogger.log("HuntSkill.execute start bot=" + bot.getName().getString()
-                + " world=" + world.getRegistryKey().getValue()
-                + " thread=" + Thread.currentThread().getName());
+        DebugFileLogger.event("skill", "hunt.start",
+                "bot", bot.getName().getString(),
+                "world", world.getRegistryKey().getValue().toString());
         LOGGER.info("Hunt execute start: bot={} world={} thread={}",
                 bot.getName().getString(),
                 world.getRegistryKey().getValue(),
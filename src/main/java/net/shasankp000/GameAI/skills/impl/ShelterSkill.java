@@ -19,6 +19,7 @@ import net.shasankp000.GameAI.BotEventHandler;
 import net.shasankp000.GameAI.DropSweeper;
 import net.shasankp000.GameAI.services.BotStuckService;
 import net.shasankp000.GameAI.services.MovementService;
+import net.shasankp000.GameAI.services.WorldAccessService;
 import net.shasankp000.GameAI.services.BlockInteractionService;
 import net.shasankp000.GameAI.services.TaskService;
 import net.shasankp000.GameAI.services.WorkDirectionService;
@@ -751,7 +752,8 @@ public final class ShelterSkill implements Skill {
                     chestPos.toShortString(), bot.getBlockPos().toShortString());
             return;
         }
-        Integer moved = callOnServer(world, () -> moveCheapItems(bot, chest));
+        Integer moved = WorldAccessService.await(WorldAccessService.act(world.getServer(),
+                "burrow-deposit:" + bot.getUuid(), () -> moveCheapItems(bot, chest)), 200, null);
         if (moved == null) {
             LOGGER.warn("Burrow deposit: could not move items into chest at {}", chestPos.toShortString());
             return;
@@ -794,15 +796,23 @@ public final class ShelterSkill implements Skill {
         if (world == null || pos == null) {
             return null;
         }
-        for (int attempt = 0; attempt < 5; attempt++) {
-            var be = callOnServer(world, () -> world.getBlockEntity(pos));
+        for (int attempt = 0; attempt < 6; attempt++) {
+            // Block entity and block state come back from the same server round-trip.
+            WorldAccessService.Batch batch = WorldAccessService.batch(world.getServer());
+            var beFuture = batch.blockEntity(world, pos);
+            var stateFuture = batch.blockState(world, pos);
+            batch.submit();
+            var be = WorldAccessService.await(beFuture, 200, null);
             if (be instanceof net.minecraft.block.entity.ChestBlockEntity chest) {
                 return chest;
             }
-            BlockState state = callOnServer(world, () -> world.getBlockState(pos));
+            BlockState state = WorldAccessService.await(stateFuture, 50, null);
             if (state == null || !(state.getBlock() instanceof net.minecraft.block.ChestBlock)) {
                 return null; // something else replaced the spot
             }
+            if (attempt == 5) {
+                break;
+            }
             try {
                 Thread.sleep(60L);
             } catch (InterruptedException e) {
@@ -810,35 +820,7 @@ public final class ShelterSkill implements Skill {
                 break;
             }
         }
-        var be = callOnServer(world, () -> world.getBlockEntity(pos));
-        return be instanceof net.minecraft.block.entity.ChestBlockEntity chest ? chest : null;
-    }
-
-    private <T> T callOnServer(ServerWorld world, java.util.function.Supplier<T> task) {
-        if (world == null || task == null) {
-            return null;
-        }
-        var server = world.getServer();
-        if (server == null) {
-            return null;
-        }
-        if (server.isOnThread()) {
-            return task.get();
-        }
-        java.util.concurrent.CompletableFuture<T> future = new java.util.concurrent.CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                future.complete(task.get());
-            } catch (Throwable t) {
-                future.complete(null);
-            }
-        });
-        try {
-            return future.get(200, java.util.concurrent.TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-            future.cancel(true);
-            return null;
-        }
+        return null;
     }
 
     private int moveCheapItems(ServerPlayerEntity bot, net.minecraft.block.entity.ChestBlockEntity chest) {
@@ -16,13 +16,13 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.world.RaycastContext;
-import net.minecraft.world.World;
 import net.shasankp000.ChatUtils.ChatUtils;
 import net.shasankp000.Entity.LookController;
 import net.shasankp000.GameAI.BotActions;
 import net.shasankp000.GameAI.services.CraftingHelper;
 import net.shasankp000.GameAI.services.ChestStoreService;
 import net.shasankp000.GameAI.services.BlockInteractionService;
+import net.shasankp000.GameAI.services.BlockLocatorIndex;
 import net.shasankp000.GameAI.services.MovementService;
 import net.shasankp000.GameAI.services.ReturnBaseStuckService;
 import net.shasankp000.GameAI.services.SkillResumeService;
@@ -37,7 +37,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.HashMap;
@@ -615,22 +614,8 @@ public final class WoodcutSkill implements Skill {
         if (!(bot.getEntityWorld() instanceof ServerWorld world)) {
             return List.of();
         }
-        BlockPos origin = bot.getBlockPos();
-        List<BlockPos> found = new ArrayList<>();
-        int scanned = 0;
-        for (BlockPos pos : BlockPos.iterate(origin.add(-radius, -vertical, -radius), origin.add(radius, vertical, radius))) {
-            if (!world.isChunkLoaded(pos)) {
-                continue;
-            }
-            BlockState state = world.getBlockState(pos);
-            if (!state.isOf(Blocks.CHEST) && !state.isOf(Blocks.TRAPPED_CHEST)) {
-                continue;
-            }
-            scanned++;
-            found.add(pos.toImmutable());
-        }
-        found.sort(Comparator.comparingDouble(p -> p.getSquaredDistance(origin)));
-        LOGGER.info("Chest scan: scanned={} found={} nearest={}", scanned, found.size(), found.isEmpty() ? "none" : found.get(0).toShortString());
+        List<BlockPos> found = BlockLocatorIndex.nearbyChests(world, bot.getBlockPos(), radius, vertical);
+        LOGGER.info("Chest scan: found={} nearest={}", found.size(), found.isEmpty() ? "none" : found.get(0).toShortString());
         return found;
     }
 
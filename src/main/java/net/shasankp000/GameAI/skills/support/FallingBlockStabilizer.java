@@ -10,6 +10,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.shasankp000.ChatUtils.ChatUtils;
 import net.shasankp000.GameAI.BotActions;
+import net.shasankp000.GameAI.services.WorldAccessService;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
@@ -205,15 +206,7 @@ public final class FallingBlockStabilizer {
             action.run();
             return;
         }
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        server.execute(() -> {
-            try {
-                action.run();
-                future.complete(null);
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
+        CompletableFuture<Void> future = WorldAccessService.run(server, action);
         future.join();
     }
 }
@@ -214,9 +214,9 @@ public final class MiningHazardDetector {
         }
         
         // Check if position is in a protected zone
-        if (ProtectedZoneService.isProtected(pos, world, null)) {
-            ProtectedZoneService.ProtectedZone zone = ProtectedZoneService.getZoneAt(pos, world);
-            String zoneName = zone != null ? zone.getLabel() : "protected area";
+        ProtectedZoneService.ProtectedZone zone = ProtectedZoneService.getZoneAt(pos, world);
+        if (zone != null) {
+            String zoneName = zone.getLabel();
             return hazard(pos, "This is a protected zone (" + zoneName + ").", true, 
                     "Cannot break blocks in protected zone: " + zoneName);
         }
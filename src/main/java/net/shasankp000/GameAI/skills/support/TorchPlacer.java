@@ -13,11 +13,13 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.LightType;
+import net.shasankp000.GameAI.services.BotScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles torch placement for bots during mining operations.
@@ -70,20 +72,15 @@ public final class TorchPlacer {
         RECENTLY_PLACED_TORCHES.computeIfAbsent(botId, k -> ConcurrentHashMap.newKeySet()).add(pos);
         
         // Schedule removal after protection period
-        new Thread(() -> {
-            try {
-                Thread.sleep(TORCH_PROTECTION_MS);
-                Set<BlockPos> torches = RECENTLY_PLACED_TORCHES.get(botId);
-                if (torches != null) {
-                    torches.remove(pos);
-                    if (torches.isEmpty()) {
-                        RECENTLY_PLACED_TORCHES.remove(botId);
-                    }
+        BotScheduler.schedule(null, () -> {
+            Set<BlockPos> torches = RECENTLY_PLACED_TORCHES.get(botId);
+            if (torches != null) {
+                torches.remove(pos);
+                if (torches.isEmpty()) {
+                    RECENTLY_PLACED_TORCHES.remove(botId);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
             }
-        }).start();
+        }, TORCH_PROTECTION_MS, TimeUnit.MILLISECONDS);
     }
 
     /**
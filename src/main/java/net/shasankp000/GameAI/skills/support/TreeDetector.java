@@ -9,6 +9,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.shasankp000.GameAI.services.ProtectedZoneService;
+import net.shasankp000.GameAI.services.BlockLocatorIndex;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -79,8 +80,8 @@ public final class TreeDetector {
         double bestDistSq = Double.MAX_VALUE;
         TreeTarget best = null;
 
-        for (BlockPos candidate : BlockPos.iterate(origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
-                origin.add(horizontalRadius, verticalRange, horizontalRadius))) {
+        for (BlockPos candidate : BlockLocatorIndex.within(world, origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
+                origin.add(horizontalRadius, verticalRange, horizontalRadius), BlockLocatorIndex.Kind.LOG)) {
             if (visitedBases != null && visitedBases.contains(candidate)) {
                 continue;
             }
@@ -88,6 +89,12 @@ public final class TreeDetector {
             if (!isLog(state)) {
                 continue;
             }
+            // Every log of a trunk resolves to the same base; let the lowest unvisited one in range stand for it.
+            BlockPos below = candidate.down();
+            if (below.getY() >= origin.getY() - verticalRange && isLog(world.getBlockState(below))
+                    && (visitedBases == null || !visitedBases.contains(below))) {
+                continue;
+            }
             Optional<TreeTarget> target = detectTreeAt(world, candidate);
             if (target.isEmpty()) {
                 continue;
@@ -116,8 +123,8 @@ public final class TreeDetector {
         BlockPos origin = bot.getBlockPos();
         double bestDistSq = Double.MAX_VALUE;
         BlockPos best = null;
-        for (BlockPos candidate : BlockPos.iterate(origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
-                origin.add(horizontalRadius, verticalRange, horizontalRadius))) {
+        for (BlockPos candidate : BlockLocatorIndex.within(world, origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
+                origin.add(horizontalRadius, verticalRange, horizontalRadius), BlockLocatorIndex.Kind.LOG)) {
             if (visited != null && visited.contains(candidate)) {
                 continue;
             }
@@ -153,8 +160,8 @@ public final class TreeDetector {
         BlockPos origin = bot.getBlockPos();
         double bestDistSq = Double.MAX_VALUE;
         BlockPos best = null;
-        for (BlockPos candidate : BlockPos.iterate(origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
-                origin.add(horizontalRadius, verticalRange, horizontalRadius))) {
+        for (BlockPos candidate : ProtectedZoneService.filterProtected(BlockLocatorIndex.within(world, origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
+                origin.add(horizontalRadius, verticalRange, horizontalRadius), BlockLocatorIndex.Kind.LOG), world)) {
             if (visited != null && visited.contains(candidate)) {
                 continue;
             }
@@ -165,9 +172,6 @@ public final class TreeDetector {
             if (isNearHumanBlocks(world, candidate, 3)) {
                 continue;
             }
-            if (ProtectedZoneService.isProtected(candidate, world, null)) {
-                continue;
-            }
             double distSq = origin.getSquaredDistance(candidate);
             if (distSq < bestDistSq) {
                 bestDistSq = distSq;
@@ -190,8 +194,8 @@ public final class TreeDetector {
         BlockPos origin = bot.getBlockPos();
         double bestDistSq = Double.MAX_VALUE;
         BlockPos best = null;
-        for (BlockPos candidate : BlockPos.iterate(origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
-                origin.add(horizontalRadius, verticalRange, horizontalRadius))) {
+        for (BlockPos candidate : ProtectedZoneService.filterProtected(BlockLocatorIndex.within(world, origin.add(-horizontalRadius, -verticalRange, -horizontalRadius),
+                origin.add(horizontalRadius, verticalRange, horizontalRadius), BlockLocatorIndex.Kind.LOG), world)) {
             if (visited != null && visited.contains(candidate)) {
                 continue;
             }
@@ -199,7 +203,7 @@ public final class TreeDetector {
             if (!isLog(state)) {
                 continue;
             }
-            if (isNearHumanBlocks(world, candidate, 3) || ProtectedZoneService.isProtected(candidate, world, null)) {
+            if (isNearHumanBlocks(world, candidate, 3)) {
                 continue;
             }
             boolean hasLogNeighbor = false;
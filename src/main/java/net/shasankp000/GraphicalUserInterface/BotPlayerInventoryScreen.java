@@ -969,16 +969,14 @@ public class BotPlayerInventoryScreen extends HandledScreen<BotPlayerInventorySc
             // Send immediately
             this.client.player.sendMessage(msgText, true);
             // Schedule repeats at 0.5s, 1.0s, 1.5s, 2.0s to keep message visible for ~2.5s
-            java.util.concurrent.ScheduledExecutorService scheduler = java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
             final net.minecraft.client.MinecraftClient clientRef = this.client;
             for (int delayMs : new int[]{500, 1000, 1500, 2000}) {
-                scheduler.schedule(() -> {
+                net.shasankp000.GameAI.services.BotScheduler.schedule(null, () -> {
                     if (clientRef.player != null) {
                         clientRef.execute(() -> clientRef.player.sendMessage(msgText, true));
                     }
                 }, delayMs, java.util.concurrent.TimeUnit.MILLISECONDS);
             }
-            scheduler.shutdown();
         }
     }
 
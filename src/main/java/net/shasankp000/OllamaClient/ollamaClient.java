@@ -5,7 +5,6 @@ import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import io.github.amithkoujalgi.ollama4j.core.OllamaAPI;
 import io.github.amithkoujalgi.ollama4j.core.models.chat.*;
-import io.github.amithkoujalgi.ollama4j.core.types.OllamaModelType;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.command.argument.EntityArgumentType;
 import net.minecraft.server.MinecraftServer;
@@ -20,7 +19,9 @@ import net.shasankp000.ChatUtils.NLPProcessor;
 import net.shasankp000.Database.SQLiteDB;
 import net.shasankp000.Exception.intentMisclassification;
 import net.shasankp000.FunctionCaller.FunctionCallerV2;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.Overlay.ThinkingStateManager;
+import net.shasankp000.ServiceLLMClients.EmbeddingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,8 +29,6 @@ import org.slf4j.LoggerFactory;
 import java.net.http.HttpTimeoutException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,7 +42,6 @@ public class ollamaClient {
     public static String initialResponse = "";
     public static final OllamaAPI ollamaAPI = new OllamaAPI(host);
     private static final Pattern THINK_BLOCK = Pattern.compile("<think>([\\s\\S]*?)</think>");
-    private static final ExecutorService BOT_TASK_POOL = Executors.newCachedThreadPool();
 
     public static void runFromChat(String botName, String message, UUID playerUUID) {
         MinecraftServer server = AIPlayer.serverInstance;
@@ -97,8 +95,7 @@ public class ollamaClient {
 
         switch (intent) {
             case GENERAL_CONVERSATION, ASK_INFORMATION -> {
-                BOT_TASK_POOL.submit(() -> {
-                    Thread.currentThread().setName("RAG2-Worker");
+                BotScheduler.runAsync(null, "RAG2-Worker", () -> {
                     LOGGER.info("🧵 Started RAG2 worker thread");
                     RAG2.run(message, botSource, intent);
                     LOGGER.info("✅ Finished RAG2 worker thread");
@@ -106,8 +103,7 @@ public class ollamaClient {
             }
 
             case REQUEST_ACTION -> {
-                BOT_TASK_POOL.submit(() -> {
-                    Thread.currentThread().setName("Function-Caller-Worker");
+                BotScheduler.runAsync(null, "Function-Caller-Worker", () -> {
                     LOGGER.info("🧵 Started FunctionCallerV2 worker thread");
                     try {
                         new FunctionCallerV2(botSource, playerUUID);
@@ -128,15 +124,13 @@ public class ollamaClient {
                 LOGGER.info("📨 Retry intent: {}", retry);
 
                 if (retry == NLPProcessor.Intent.GENERAL_CONVERSATION || retry == NLPProcessor.Intent.ASK_INFORMATION) {
-                    BOT_TASK_POOL.submit(() -> {
-                        Thread.currentThread().setName("RAG2-Retry-Worker");
+                    BotScheduler.runAsync(null, "RAG2-Retry-Worker", () -> {
                         LOGGER.info("🧵 Started RAG2 retry worker thread");
                         RAG2.run(message, botSource, retry);
                         LOGGER.info("✅ Finished RAG2 retry worker thread");
                     });
                 } else if (retry == NLPProcessor.Intent.REQUEST_ACTION) {
-                    BOT_TASK_POOL.submit(() -> {
-                        Thread.currentThread().setName("Function-Caller-Retry-Worker");
+                    BotScheduler.runAsync(null, "Function-Caller-Retry-Worker", () -> {
                         LOGGER.info("🧵 Started FunctionCallerV2 retry worker thread");
                         try {
                             new FunctionCallerV2(botSource, playerUUID);
@@ -260,17 +254,14 @@ public class ollamaClient {
 
             List<SQLiteDB.Memory> memories = SQLiteDB.fetchInitialResponse();
             if (memories.isEmpty()) {
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        List<Double> embedding = ollamaAPI.generateEmbeddings(
-                                OllamaModelType.NOMIC_EMBED_TEXT,
-                                generateSystemPrompt()
-                        );
-                        SQLiteDB.storeMemory("conversation", generateSystemPrompt(), initialResponse, embedding);
-                        LOGGER.info("✅ Saved initial response.");
-                    } catch (Exception e) {
-                        LOGGER.error("❌ Failed saving initial response: {}", e.getMessage(), e);
+                String systemPrompt = generateSystemPrompt();
+                EmbeddingService.embed(systemPrompt).whenComplete((embedding, error) -> {
+                    if (error != null) {
+                        LOGGER.error("❌ Failed saving initial response: {}", error.getMessage(), error);
+                        return;
                     }
+                    SQLiteDB.storeMemory("conversation", systemPrompt, initialResponse, embedding);
+                    LOGGER.info("✅ Saved initial response.");
                 });
             } else {
                 LOGGER.info("🗃️ Initial response already in DB.");
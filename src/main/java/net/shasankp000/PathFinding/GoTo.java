@@ -16,6 +16,47 @@ import static net.shasankp000.PathFinding.PathFinder.*;
 
 public class GoTo {
 
+    private static final int MAX_LEGS = 48;
+
+    /**
+     * Moves the bot toward {@code target} in legs of a few sections each: the coarse region route picks the next
+     * waypoint and only that stretch is refined to a block-level path. The route is planned once and only planned
+     * again if the bot ends a leg away from it. Stops (leaving the rest to the caller) once the target is within
+     * flat-planning range, or as soon as a leg cannot be planned or makes no progress.
+     */
+    private static void travelByLegs(MinecraftServer server, ServerCommandSource botSource, String botName,
+                                     ServerPlayerEntity bot, ServerWorld world, BlockPos target, boolean sprint) throws Exception {
+        SectionGraphPlanner.Route route = null;
+        for (int leg = 0; leg < MAX_LEGS; leg++) {
+            BlockPos from = bot.getBlockPos();
+            if (from.isWithinDistance(target, SectionGraphPlanner.MIN_HIERARCHICAL_DISTANCE)) {
+                return;
+            }
+            BlockPos waypoint = route != null ? route.next(from, SectionGraphPlanner.DEFAULT_LOOKAHEAD_SECTIONS) : null;
+            if (waypoint == null) {
+                route = SectionGraphPlanner.route(world, from, target);
+                waypoint = route != null ? route.next(from, SectionGraphPlanner.DEFAULT_LOOKAHEAD_SECTIONS) : null;
+            }
+            if (waypoint == null) {
+                LOGGER.info("No region route from {} to {}; falling back to flat planning", from, target);
+                return;
+            }
+
+            List<PathNode> legPath = simplifyPath(calculatePath(from, waypoint, world), world);
+            Queue<Segment> segments = convertPathToSegments(legPath, sprint);
+            if (segments.isEmpty()) {
+                LOGGER.info("Leg {} -> {} produced no segments; falling back to flat planning", from, waypoint);
+                return;
+            }
+            String result = PathTracer.tracePath(server, botSource, botName, segments, sprint).get(60, TimeUnit.SECONDS);
+            if (!result.startsWith("Bot moved to position") || bot.getBlockPos().equals(from)) {
+                LOGGER.info("Leg {} -> {} stalled ({}); falling back to flat planning", from, waypoint, result);
+                return;
+            }
+            LOGGER.debug("Leg {} complete: {} -> {}", leg + 1, from, bot.getBlockPos());
+        }
+    }
+
     public static String goTo(ServerCommandSource botSource, int x, int y, int z, boolean sprint) {
         MinecraftServer server = botSource.getServer();
         ServerPlayerEntity bot = botSource.getPlayer();
@@ -37,6 +78,11 @@ public class GoTo {
                 return String.format("Bot moved to position - x: %d y: %d z: %d",
                         target.getX(), target.getY(), target.getZ());
             }
+            // Long trips: walk region-planned legs until the target is close, then finish with the flat planner.
+            if (!bot.getBlockPos().isWithinDistance(target, SectionGraphPlanner.MIN_HIERARCHICAL_DISTANCE)) {
+                travelByLegs(server, botSource, botName, bot, world, target, sprint);
+            }
+
             // Calculate the path
             List<PathNode> rawPath = calculatePath(bot.getBlockPos(), target, world);
 
@@ -0,0 +1,386 @@
+package net.shasankp000.PathFinding;
+
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-light bi-directional A* over packed {@code long} block positions.
+ *
+ * <p>Nodes are keyed by {@link BlockPos#asLong(int, int, int)} and stored in parallel primitive arrays.
+ * Each search side owns an open-addressing position table and an indexed binary heap with a real
+ * decrease-key, so improving a node's score is O(log n) instead of the O(n) {@code remove()+add()}
+ * the legacy {@code PriorityQueue} needed. The arrays are pooled per thread and reused between
+ * searches; a generation stamp invalidates the previous search without clearing anything.
+ *
+ * <p>The engine knows nothing about worlds. Callers supply a {@link NeighborExpander} that writes
+ * neighbour positions into a scratch buffer, which keeps the search usable on snapshots and
+ * synthetic grids (benchmarks) as well as live worlds.
+ */
+public final class LongPathSearch {
+
+    /** Upper bound on expansions per side before a search gives up. */
+    public static final int DEFAULT_MAX_EXPANSIONS = 200_000;
+
+    /**
+     * Scratch buffer size handed to expanders. Block-level expanders need a handful; the section planner's region
+     * graph can link one region to every region on all six neighbouring faces.
+     */
+    public static final int MAX_NEIGHBORS = 768;
+
+    /** Pooled workspaces larger than this are dropped after a search instead of being retained. */
+    private static final int MAX_RETAINED_NODES = 1 << 16;
+
+    private static final ThreadLocal<Workspace> POOL = ThreadLocal.withInitial(Workspace::new);
+
+    private LongPathSearch() {
+    }
+
+    /**
+     * Writes the packed neighbours of {@code packedPos} into {@code out} and returns how many were written.
+     * Implementations must not write more than {@link #MAX_NEIGHBORS} entries.
+     */
+    @FunctionalInterface
+    public interface NeighborExpander {
+        int expand(long packedPos, long[] out);
+    }
+
+    /**
+     * Expander that also writes the cost of each move into {@code costs}. Costs must be at least the straight-line
+     * distance between the two positions, or the search's heuristic stops being admissible.
+     */
+    @FunctionalInterface
+    public interface WeightedNeighborExpander {
+        int expand(long packedPos, long[] out, double[] costs);
+    }
+
+    /**
+     * Runs a bi-directional search between {@code start} and {@code goal}.
+     *
+     * @return the packed path from start to goal (inclusive), or {@code null} if none was found within the budget
+     */
+    public static long[] search(long start, long goal, NeighborExpander expander) {
+        return search(start, goal, expander, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    public static long[] search(long start, long goal, NeighborExpander expander, int maxExpansions) {
+        return search(start, goal, (WeightedNeighborExpander) (packedPos, out, costs) -> {
+            int count = expander.expand(packedPos, out);
+            for (int i = 0; i < count; i++) {
+                costs[i] = distance(packedPos, out[i]);
+            }
+            return count;
+        }, maxExpansions);
+    }
+
+    /**
+     * Like {@link #search(long, long, NeighborExpander, int)}, with move costs supplied by the expander instead of
+     * the straight-line distance between neighbours.
+     */
+    public static long[] search(long start, long goal, WeightedNeighborExpander expander, int maxExpansions) {
+        Workspace ws = POOL.get();
+        if (ws.busy) {
+            // Re-entrant call from inside an expander; fall back to a throwaway workspace.
+            ws = new Workspace();
+        }
+        ws.busy = true;
+        try {
+            return ws.run(start, goal, expander, Math.max(1, maxExpansions));
+        } finally {
+            ws.busy = false;
+            ws.trim();
+        }
+    }
+
+    private static double distance(long a, long b) {
+        double dx = BlockPos.unpackLongX(a) - BlockPos.unpackLongX(b);
+        double dy = BlockPos.unpackLongY(a) - BlockPos.unpackLongY(b);
+        double dz = BlockPos.unpackLongZ(a) - BlockPos.unpackLongZ(b);
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static final class Workspace {
+        private final Side forward = new Side();
+        private final Side backward = new Side();
+        private final long[] scratch = new long[MAX_NEIGHBORS];
+        private final double[] costs = new double[MAX_NEIGHBORS];
+        private boolean busy;
+
+        long[] run(long start, long goal, WeightedNeighborExpander expander, int maxExpansions) {
+            if (start == goal) {
+                return new long[]{start};
+            }
+            forward.reset(goal);
+            backward.reset(start);
+            forward.push(start, -1, 0.0D);
+            backward.push(goal, -1, 0.0D);
+
+            int expansions = 0;
+            while (forward.heapSize > 0 && backward.heapSize > 0) {
+                if (++expansions > maxExpansions) {
+                    PathFinder.LOGGER.warn("LongPathSearch: expansion budget {} exhausted", maxExpansions);
+                    return null;
+                }
+
+                int meet = expand(forward, backward, expander);
+                if (meet >= 0) {
+                    return merge(forward, meet, backward, backward.find(forward.pos[meet]));
+                }
+
+                meet = expand(backward, forward, expander);
+                if (meet >= 0) {
+                    return merge(forward, forward.find(backward.pos[meet]), backward, meet);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Pops the best node of {@code side}, relaxes its neighbours and returns the id (in {@code side}) of the
+         * first neighbour already closed by {@code other}, or -1.
+         */
+        private int expand(Side side, Side other, WeightedNeighborExpander expander) {
+            int current = side.pop();
+            long currentPos = side.pos[current];
+            double currentG = side.g[current];
+
+            int count = expander.expand(currentPos, scratch, costs);
+            for (int i = 0; i < count; i++) {
+                long neighbor = scratch[i];
+                int id = side.find(neighbor);
+                if (id >= 0 && side.heapIndex[id] == Side.CLOSED) {
+                    continue;
+                }
+
+                double tentativeG = currentG + costs[i];
+                if (id < 0) {
+                    id = side.push(neighbor, current, tentativeG);
+                } else if (tentativeG < side.g[id]) {
+                    side.decrease(id, current, tentativeG);
+                }
+
+                int otherId = other.find(neighbor);
+                if (otherId >= 0 && other.heapIndex[otherId] == Side.CLOSED) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        private long[] merge(Side fwd, int fwdId, Side bwd, int bwdId) {
+            int fwdLen = 0;
+            for (int n = fwdId; n >= 0; n = fwd.parent[n]) {
+                fwdLen++;
+            }
+            int bwdLen = 0;
+            for (int n = bwdId; n >= 0; n = bwd.parent[n]) {
+                bwdLen++;
+            }
+
+            // The meeting node appears on both chains; keep it once.
+            long[] path = new long[fwdLen + bwdLen - 1];
+            int idx = fwdLen - 1;
+            for (int n = fwdId; n >= 0; n = fwd.parent[n]) {
+                path[idx--] = fwd.pos[n];
+            }
+            idx = fwdLen;
+            for (int n = bwd.parent[bwdId]; n >= 0; n = bwd.parent[n]) {
+                path[idx++] = bwd.pos[n];
+            }
+            PathFinder.LOGGER.debug("LongPathSearch: paths merged, {} raw nodes", path.length);
+            return path;
+        }
+
+        void trim() {
+            forward.trim();
+            backward.trim();
+        }
+    }
+
+    /**
+     * One direction of the search: node arrays, an open-addressing {@code long -> node id} table and an
+     * indexed min-heap over f-score.
+     */
+    private static final class Side {
+        static final int CLOSED = -2;
+        private static final int INITIAL_NODES = 1024;
+
+        // Node storage, indexed by node id.
+        long[] pos;
+        int[] parent;
+        double[] g;
+        double[] f;
+        int[] heapIndex;
+        int size;
+
+        // Heap of node ids ordered by f.
+        int[] heap;
+        int heapSize;
+
+        // Open-addressing table; a slot is live only when its stamp matches the current generation.
+        long[] tableKeys;
+        int[] tableValues;
+        int[] tableStamps;
+        int tableMask;
+        int generation;
+
+        long heuristicTarget;
+
+        Side() {
+            allocate(INITIAL_NODES);
+        }
+
+        private void allocate(int nodes) {
+            pos = new long[nodes];
+            parent = new int[nodes];
+            g = new double[nodes];
+            f = new double[nodes];
+            heapIndex = new int[nodes];
+            heap = new int[nodes];
+            int tableSize = Integer.highestOneBit(nodes * 4 - 1) << 1;
+            tableKeys = new long[tableSize];
+            tableValues = new int[tableSize];
+            tableStamps = new int[tableSize];
+            tableMask = tableSize - 1;
+            generation = 0;
+        }
+
+        void reset(long target) {
+            heuristicTarget = target;
+            size = 0;
+            heapSize = 0;
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(tableStamps, 0);
+                generation = 1;
+            }
+        }
+
+        void trim() {
+            if (pos.length > MAX_RETAINED_NODES) {
+                allocate(INITIAL_NODES);
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        int find(long key) {
+            int s = slot(key, tableMask);
+            while (tableStamps[s] == generation) {
+                if (tableKeys[s] == key) {
+                    return tableValues[s];
+                }
+                s = (s + 1) & tableMask;
+            }
+            return -1;
+        }
+
+        private void tableInsert(long key, int value) {
+            int s = slot(key, tableMask);
+            while (tableStamps[s] == generation) {
+                s = (s + 1) & tableMask;
+            }
+            tableKeys[s] = key;
+            tableValues[s] = value;
+            tableStamps[s] = generation;
+        }
+
+        private void grow() {
+            int nodes = pos.length * 2;
+            pos = Arrays.copyOf(pos, nodes);
+            parent = Arrays.copyOf(parent, nodes);
+            g = Arrays.copyOf(g, nodes);
+            f = Arrays.copyOf(f, nodes);
+            heapIndex = Arrays.copyOf(heapIndex, nodes);
+            heap = Arrays.copyOf(heap, nodes);
+
+            int tableSize = tableKeys.length * 2;
+            tableKeys = new long[tableSize];
+            tableValues = new int[tableSize];
+            tableStamps = new int[tableSize];
+            tableMask = tableSize - 1;
+            generation = 1;
+            for (int id = 0; id < size; id++) {
+                tableInsert(pos[id], id);
+            }
+        }
+
+        int push(long key, int parentId, double gScore) {
+            if (size == pos.length) {
+                grow();
+            }
+            int id = size++;
+            pos[id] = key;
+            parent[id] = parentId;
+            g[id] = gScore;
+            f[id] = gScore + distance(key, heuristicTarget);
+            tableInsert(key, id);
+
+            heapIndex[id] = heapSize;
+            heap[heapSize++] = id;
+            siftUp(heapIndex[id]);
+            return id;
+        }
+
+        void decrease(int id, int parentId, double gScore) {
+            double h = f[id] - g[id];
+            parent[id] = parentId;
+            g[id] = gScore;
+            f[id] = gScore + h;
+            siftUp(heapIndex[id]);
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--heapSize];
+            if (heapSize > 0) {
+                heap[0] = last;
+                heapIndex[last] = 0;
+                siftDown(0);
+            }
+            heapIndex[top] = CLOSED;
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int id = heap[i];
+            double key = f[id];
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                int pid = heap[p];
+                if (f[pid] <= key) {
+                    break;
+                }
+                heap[i] = pid;
+                heapIndex[pid] = i;
+                i = p;
+            }
+            heap[i] = id;
+            heapIndex[id] = i;
+        }
+
+        private void siftDown(int i) {
+            int id = heap[i];
+            double key = f[id];
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int c = (i << 1) + 1;
+                int r = c + 1;
+                if (r < heapSize && f[heap[r]] < f[heap[c]]) {
+                    c = r;
+                }
+                int cid = heap[c];
+                if (key <= f[cid]) {
+                    break;
+                }
+                heap[i] = cid;
+                heapIndex[cid] = i;
+                i = c;
+            }
+            heap[i] = id;
+            heapIndex[id] = i;
+        }
+    }
+}
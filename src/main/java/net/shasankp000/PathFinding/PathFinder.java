@@ -4,7 +4,6 @@ import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.DoorBlock;
-import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
@@ -14,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Function;
 
 public class PathFinder {
 
@@ -75,6 +75,62 @@ public class PathFinder {
     public static List<PathNode> calculatePath(BlockPos start, BlockPos target, ServerWorld world) {
         LOGGER.info("Starting Bi-directional A* pathfinding with block tagging...");
 
+        // One server-thread hop to snapshot the corridor; the search itself only reads the snapshot.
+        WalkabilityCache.prefetch(world, start, target);
+        WalkabilityCache.View view = WalkabilityCache.view(world);
+        WorldNeighborExpander expander = new WorldNeighborExpander(view);
+
+        // Reuses (or repairs) a cached path to the same target when there is one nearby.
+        List<BlockPos> rawPath = PathPlannerService.plan(world, PathPlannerService.Profile.WALK, start, target,
+                (from, to) -> search(from, to, expander));
+        if (rawPath.isEmpty()) {
+            LOGGER.warn("No path found between {} and {}", start, target);
+            return new ArrayList<>();
+        }
+        return tagBlocks(rawPath, view);
+    }
+
+    /**
+     * Uncached search plus block tagging over {@code view}: what {@link #calculatePath} does on a planner miss.
+     * Needs no world, so the benchmarks run it against a fake one.
+     */
+    static List<PathNode> searchAndTag(BlockPos start, BlockPos target, WalkabilityCache.View view) {
+        List<BlockPos> rawPath = search(start, target, new WorldNeighborExpander(view));
+        return rawPath.isEmpty() ? new ArrayList<>() : tagBlocks(rawPath, view);
+    }
+
+    private static List<BlockPos> search(BlockPos from, BlockPos to, WorldNeighborExpander expander) {
+        long[] packed = LongPathSearch.search(from.asLong(), to.asLong(), expander);
+        if (packed == null) {
+            return List.of();
+        }
+        List<BlockPos> rawPath = new ArrayList<>(packed.length);
+        for (long p : packed) {
+            rawPath.add(BlockPos.fromLong(p));
+        }
+        return rawPath;
+    }
+
+    /**
+     * Original object-based bi-directional A* ({@code HashMap} + {@code PriorityQueue}). Kept for comparison
+     * against {@link LongPathSearch} and as a fallback while the new engine beds in.
+     */
+    public static List<PathNode> calculatePathLegacy(BlockPos start, BlockPos target, ServerWorld world) {
+        LOGGER.info("Starting legacy Bi-directional A* pathfinding with block tagging...");
+        List<BlockPos> rawPath = legacySearch(start, target, pos -> getNeighbors(pos, world));
+        if (rawPath == null) {
+            LOGGER.warn("No path found between {} and {}", start, target);
+            return new ArrayList<>();
+        }
+        return tagBlocks(rawPath, WalkabilityCache.view(world));
+    }
+
+    /**
+     * Legacy search core, parameterised over the neighbour function so it can be benchmarked off-world.
+     * Returns the raw merged path, or {@code null} when the open sets drain.
+     */
+    public static List<BlockPos> legacySearch(BlockPos start, BlockPos target, Function<BlockPos, List<BlockPos>> neighbors) {
+
         PriorityQueue<Node> openForward = new PriorityQueue<>();
         PriorityQueue<Node> openBackward = new PriorityQueue<>();
         Map<BlockPos, Node> openMapForward = new HashMap<>();
@@ -98,7 +154,7 @@ public class PathFinder {
             openMapForward.remove(currentForward.position);
             closedForward.put(currentForward.position, currentForward);
 
-            for (BlockPos neighbor : getNeighbors(currentForward.position, world)) {
+            for (BlockPos neighbor : neighbors.apply(currentForward.position)) {
                 if (closedForward.containsKey(neighbor)) continue;
 
                 double tentativeG = currentForward.gScore + getDistance(currentForward.position, neighbor);
@@ -121,8 +177,7 @@ public class PathFinder {
 
                 if (closedBackward.containsKey(neighbor)) {
                 LOGGER.debug("Path overlap detected; merging paths");
-                    List<BlockPos> rawPath = mergePaths(openMapForward.get(neighbor), closedBackward.get(neighbor));
-                    return tagBlocks(rawPath, world);
+                    return mergePaths(openMapForward.get(neighbor), closedBackward.get(neighbor));
                 }
             }
 
@@ -131,7 +186,7 @@ public class PathFinder {
             openMapBackward.remove(currentBackward.position);
             closedBackward.put(currentBackward.position, currentBackward);
 
-            for (BlockPos neighbor : getNeighbors(currentBackward.position, world)) {
+            for (BlockPos neighbor : neighbors.apply(currentBackward.position)) {
                 if (closedBackward.containsKey(neighbor)) continue;
 
                 double tentativeG = currentBackward.gScore + getDistance(currentBackward.position, neighbor);
@@ -153,20 +208,20 @@ public class PathFinder {
 
                 if (closedForward.containsKey(neighbor)) {
                     LOGGER.info("Path overlap detected! Merging paths...");
-                    List<BlockPos> rawPath = mergePaths(closedForward.get(neighbor), openMapBackward.get(neighbor));
-                    return tagBlocks(rawPath, world);
+                    return mergePaths(closedForward.get(neighbor), openMapBackward.get(neighbor));
                 }
             }
         }
 
-        LOGGER.warn("No path found between {} and {}", start, target);
-        return new ArrayList<>();
+        return null;
     }
 
 
     public static List<PathNode> simplifyPath(List<PathNode> path, ServerWorld world) {
         if (path.isEmpty()) return path;
 
+        WalkabilityCache.View view = WalkabilityCache.view(world);
+
         List<PathNode> simplifiedPath = new ArrayList<>();
         PathNode prev = null;
 
@@ -177,9 +232,9 @@ public class PathFinder {
             BlockPos bodyPos = pos;
             BlockPos headPos = pos.up();
 
-            boolean solidBelow = isSolidBlock(world, feetPos);
-            boolean bodyClear = isPassable(world, bodyPos);
-            boolean headClear = isPassable(world, headPos);
+            boolean solidBelow = isSolidBlock(view, feetPos);
+            boolean bodyClear = isPassable(view, bodyPos);
+            boolean headClear = isPassable(view, headPos);
 
             boolean canStand = solidBelow && bodyClear && headClear;
             boolean jumpNeeded = current.jumpNeeded();
@@ -190,9 +245,9 @@ public class PathFinder {
                 BlockPos upBodyPos = bodyPos.up();
                 BlockPos upHeadPos = headPos.up();
 
-                boolean solidBelowUp = isSolidBlock(world, upFeetPos);
-                boolean bodyClearUp = isPassable(world, upBodyPos);
-                boolean headClearUp = isPassable(world, upHeadPos);
+                boolean solidBelowUp = isSolidBlock(view, upFeetPos);
+                boolean bodyClearUp = isPassable(view, upBodyPos);
+                boolean headClearUp = isPassable(view, upHeadPos);
 
                 if (solidBelowUp && bodyClearUp && headClearUp) {
                     canStand = true;
@@ -204,7 +259,7 @@ public class PathFinder {
             }
             }
 
-            String feetBlockType = world.getBlockState(feetPos).getBlock().getName().getString().toLowerCase();
+            String feetBlockType = WalkabilityCache.describe(view.get(feetPos));
 
             PathNode node = new PathNode(pos, feetBlockType, canStand, jumpNeeded);
 
@@ -358,7 +413,7 @@ public class PathFinder {
 //    }
 
 
-    private static List<PathNode> tagBlocks(List<BlockPos> rawPath, ServerWorld world) {
+    private static List<PathNode> tagBlocks(List<BlockPos> rawPath, WalkabilityCache.View view) {
         List<PathNode> taggedPath = new ArrayList<>();
 
         for (int i = 0; i < rawPath.size(); i++) {
@@ -367,23 +422,15 @@ public class PathFinder {
             BlockPos bodyPos = pos;
             BlockPos headPos = pos.up();
 
-            boolean solidBelow = isSolidBlock(world, feetPos);
-            boolean bodyIsSlab = isSlab(world, bodyPos);
-            boolean canStepUpSlab = solidBelow && bodyIsSlab && isPassable(world, headPos);
-            boolean bodyClear = isPassable(world, bodyPos);
-            boolean headClear = isPassable(world, headPos);
+            boolean solidBelow = isSolidBlock(view, feetPos);
+            boolean bodyIsSlab = isSlab(view, bodyPos);
+            boolean canStepUpSlab = solidBelow && bodyIsSlab && isPassable(view, headPos);
+            boolean bodyClear = isPassable(view, bodyPos);
+            boolean headClear = isPassable(view, headPos);
 
             boolean canStand = solidBelow && bodyClear && headClear;
             boolean jumpRequired = false;
 
-            BlockState bodyState = world.getBlockState(bodyPos);
-            boolean isCrop = bodyState.isIn(BlockTags.CROPS);
-
-            if (bodyClear && isCrop) {
-                LOGGER.debug("Detected crops at {}, setting jumpRequired=false", pos);
-                jumpRequired = false;
-            }
-
             // Extra: check for stepping up
             if (i > 0) {
                 BlockPos prev = rawPath.get(i - 1);
@@ -402,9 +449,9 @@ public class PathFinder {
                     // Same level: check block in front
                     Vec3i dir = pos.subtract(prev);
                     BlockPos forward = prev.add(dir.getX(), 0, dir.getZ());
-                    if (isSolidBlock(world, forward) && !isSlab(world, forward)) {
+                    if (isSolidBlock(view, forward) && !isSlab(view, forward)) {
                         jumpRequired = true;
-                    } else if (isSlab(world, forward)) {
+                    } else if (isSlab(view, forward)) {
                         LOGGER.debug("Stepping onto slab in front at {}, no jump needed", forward);
                         jumpRequired = false;
                     }
@@ -416,12 +463,11 @@ public class PathFinder {
                 BlockPos upBody = bodyPos.up();
                 BlockPos upHead = headPos.up();
 
-                boolean canStandUp = isSolidBlock(world, upFeet) && isPassable(world, upBody) && isPassable(world, upHead);
+                boolean canStandUp = isSolidBlock(view, upFeet) && isPassable(view, upBody) && isPassable(view, upHead);
 
                 if (canStandUp) {
-                    BlockState upHeadState = world.getBlockState(upHead);
-                    boolean isSlab = upHeadState.isIn(BlockTags.SLABS);
-                    boolean hasCollision = !upHeadState.getCollisionShape(world, upHead).isEmpty();
+                    boolean isSlab = isSlab(view, upHead);
+                    boolean hasCollision = view.hasCollision(upHead.getX(), upHead.getY(), upHead.getZ());
 
                     if (isSlab || hasCollision) {
                         LOGGER.debug("Jump blocked: obstacle above {} is slab/partial block", upHead);
@@ -436,7 +482,7 @@ public class PathFinder {
                 }
             }
 
-            String feetBlockType = world.getBlockState(feetPos).getBlock().getName().getString().toLowerCase();
+            String feetBlockType = WalkabilityCache.describe(view.get(feetPos));
             PathNode node = new PathNode(pos, feetBlockType, canStand, jumpRequired);
             taggedPath.add(node);
 
@@ -449,12 +495,17 @@ public class PathFinder {
 
 
 
-    private static boolean isSlab(ServerWorld world, BlockPos pos) {
-        BlockState state = world.getBlockState(pos);
-        return state.isIn(BlockTags.SLABS);
+    private static boolean isSlab(WalkabilityCache.View view, BlockPos pos) {
+        return view.isSlab(pos.getX(), pos.getY(), pos.getZ());
     }
 
+    private static boolean isPassable(WalkabilityCache.View view, BlockPos pos) {
+        return view.isPassable(pos.getX(), pos.getY(), pos.getZ());
+    }
 
+    private static boolean isSolidBlock(WalkabilityCache.View view, BlockPos pos) {
+        return view.isSolid(pos.getX(), pos.getY(), pos.getZ());
+    }
 
     private static boolean isPassable(ServerWorld world, BlockPos pos) {
         BlockState blockState = world.getBlockState(pos);
@@ -556,6 +607,54 @@ public class PathFinder {
     }
 
 
+    /**
+     * Primitive twin of {@link #getNeighbors}: same candidate moves and campfire filter, but reads only the
+     * walkability snapshot and emits packed longs instead of allocating a {@code BlockPos} per candidate.
+     */
+    private static final class WorldNeighborExpander implements LongPathSearch.NeighborExpander {
+        private static final int[][] FLAT = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+        private final WalkabilityCache.View view;
+
+        WorldNeighborExpander(WalkabilityCache.View view) {
+            this.view = view;
+        }
+
+        @Override
+        public int expand(long packedPos, long[] out) {
+            int x = BlockPos.unpackLongX(packedPos);
+            int y = BlockPos.unpackLongY(packedPos);
+            int z = BlockPos.unpackLongZ(packedPos);
+            int count = 0;
+
+            for (int[] d : FLAT) {
+                count = offer(out, count, x + d[0], y, z + d[1]);
+            }
+            count = offer(out, count, x, y - 1, z);
+            count = offer(out, count, x, y + 1, z);
+
+            // Smart step-up moves: only when there's a block in front with two clear blocks above it
+            for (int[] d : FLAT) {
+                int fx = x + d[0];
+                int fz = z + d[1];
+                if (view.isSolid(fx, y, fz) && view.isPassable(fx, y + 1, fz) && view.isPassable(fx, y + 2, fz)) {
+                    count = offer(out, count, fx, y + 1, fz);
+                }
+            }
+            return count;
+        }
+
+        private int offer(long[] out, int count, int x, int y, int z) {
+            if (view.isNearExposedCampfire(x, y, z, 2)) {
+                LOGGER.debug("PathFinder: skipping {} {} {} - too close to exposed campfire", x, y, z);
+                return count;
+            }
+            out[count] = BlockPos.asLong(x, y, z);
+            return count + 1;
+        }
+    }
+
+
     private static double getDistance(BlockPos pos1, BlockPos pos2) {
         return Math.sqrt(pos1.getSquaredDistance(pos2));
     }
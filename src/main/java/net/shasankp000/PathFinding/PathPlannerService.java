@@ -0,0 +1,394 @@
+package net.shasankp000.PathFinding;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared front door for block-level path planning ({@link PathFinder#calculatePath} and the follow planner).
+ *
+ * <p>Planned paths are cached per world, planner {@link Profile} and goal cell. A later request towards the same
+ * goal cell reuses a cached path instead of searching again: if the bot stands on the path it gets the remaining
+ * suffix, and if it is within {@link #JOIN_RADIUS} of it (another bot following the same commander, say) only the
+ * short hop onto the path is searched. Block updates are matched against cached paths as they happen; a path with
+ * a few changed cells is repaired by re-searching just the damaged stretch between two intact nodes and splicing
+ * it in, so every bot sharing it benefits. Paths that were hit too hard, grew stale or could not be repaired are
+ * dropped and planned from scratch.
+ *
+ * <p>The service knows nothing about step rules: callers pass a {@link SegmentPlanner} that searches with their
+ * own rules and data source.
+ */
+public final class PathPlannerService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("path-planner");
+
+    /** Cached paths older than this are replanned even if no block update touched them. */
+    private static final long MAX_PATH_AGE_MS = 15_000L;
+    /** A bot within this many blocks of a cached path joins it instead of planning its own. */
+    private static final double JOIN_RADIUS = 6.0D;
+    /** More changed cells than this on one path, or a damaged stretch longer than {@link #MAX_REPAIR_SPAN}, forces a replan. */
+    private static final int MAX_REPAIR_CELLS = 12;
+    private static final int MAX_REPAIR_SPAN = 32;
+    /** Intact nodes kept clear of the damage on each side when choosing repair anchors. */
+    private static final int REPAIR_MARGIN = 2;
+    private static final int MAX_GOALS = 64;
+    private static final int MAX_PATHS_PER_GOAL = 4;
+
+    private static final Map<GoalKey, List<Entry>> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<GoalKey, List<Entry>> eldest) {
+            return size() > MAX_GOALS;
+        }
+    };
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder JOINS = new LongAdder();
+    private static final LongAdder REPAIRS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private PathPlannerService() {
+    }
+
+    /** Which planner produced a path; paths are only shared between requests of the same profile. */
+    public enum Profile {
+        /** {@link PathFinder}: exact goal block. */
+        WALK(0),
+        /** Follow planning: goals within the same 4x4x4 cell share paths, since the commander keeps moving. */
+        FOLLOW(2);
+
+        private final int goalCellShift;
+
+        Profile(int goalCellShift) {
+            this.goalCellShift = goalCellShift;
+        }
+
+        private long goalCell(BlockPos goal) {
+            return BlockPos.asLong(goal.getX() >> goalCellShift, goal.getY() >> goalCellShift, goal.getZ() >> goalCellShift);
+        }
+    }
+
+    /**
+     * Searches from {@code from} to {@code to} with the caller's step rules. Returns the path including both ends,
+     * or an empty list when there is none.
+     */
+    @FunctionalInterface
+    public interface SegmentPlanner {
+        List<BlockPos> plan(BlockPos from, BlockPos to);
+    }
+
+    private record GoalKey(RegistryKey<World> world, Profile profile, long goalCell) {
+    }
+
+    private static final class Entry {
+        private final List<BlockPos> path;
+        private final Set<Long> cells;
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private final long createdAt;
+        /** Packed positions of block updates that touched this path since it was planned. Guarded by CACHE. */
+        private final Set<Long> changed = new HashSet<>();
+        private boolean broken;
+
+        private Entry(List<BlockPos> path, long createdAt) {
+            this.path = List.copyOf(path);
+            this.createdAt = createdAt;
+            this.cells = new HashSet<>(path.size() * 2);
+            int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, z0 = Integer.MAX_VALUE;
+            int x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE, z1 = Integer.MIN_VALUE;
+            for (BlockPos pos : this.path) {
+                cells.add(pos.asLong());
+                x0 = Math.min(x0, pos.getX());
+                y0 = Math.min(y0, pos.getY());
+                z0 = Math.min(z0, pos.getZ());
+                x1 = Math.max(x1, pos.getX());
+                y1 = Math.max(y1, pos.getY());
+                z1 = Math.max(z1, pos.getZ());
+            }
+            // A node depends on the block below it (floor) and above it (head room).
+            this.minX = x0;
+            this.minY = y0 - 1;
+            this.minZ = z0;
+            this.maxX = x1;
+            this.maxY = y1 + 1;
+            this.maxZ = z1;
+        }
+
+        private boolean touches(BlockPos pos) {
+            int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+            if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+                return false;
+            }
+            return cells.contains(pos.asLong())
+                    || cells.contains(BlockPos.asLong(x, y + 1, z))
+                    || cells.contains(BlockPos.asLong(x, y - 1, z));
+        }
+
+        private boolean affected(BlockPos node) {
+            return changed.contains(node.asLong())
+                    || changed.contains(BlockPos.asLong(node.getX(), node.getY() - 1, node.getZ()))
+                    || changed.contains(BlockPos.asLong(node.getX(), node.getY() + 1, node.getZ()));
+        }
+    }
+
+    /**
+     * Cached path from {@code start} towards {@code goal} if one can be reused, else plans it with {@code planner}
+     * and caches the result. Returns an empty list when no path exists.
+     */
+    public static List<BlockPos> plan(ServerWorld world, Profile profile, BlockPos start, BlockPos goal, SegmentPlanner planner) {
+        if (world == null || profile == null || start == null || goal == null || planner == null) {
+            return List.of();
+        }
+        List<BlockPos> reused = reuse(world, profile, start, goal, planner);
+        if (!reused.isEmpty()) {
+            return reused;
+        }
+        List<BlockPos> planned = planner.plan(start.toImmutable(), goal.toImmutable());
+        if (planned == null || planned.isEmpty()) {
+            return List.of();
+        }
+        remember(world, profile, goal, planned);
+        return planned;
+    }
+
+    /**
+     * Reuses (and if needed repairs or joins) a cached path towards {@code goal}'s cell, without planning from
+     * scratch. Returns an empty list on a miss; the caller plans and {@link #remember}s the result itself.
+     * {@code segments} is only invoked for the short join hop and for repairs.
+     */
+    public static List<BlockPos> reuse(ServerWorld world, Profile profile, BlockPos start, BlockPos goal, SegmentPlanner segments) {
+        if (world == null || profile == null || start == null || goal == null) {
+            return List.of();
+        }
+        GoalKey key = new GoalKey(world.getRegistryKey(), profile, profile.goalCell(goal));
+        long now = System.currentTimeMillis();
+        double joinSq = JOIN_RADIUS * JOIN_RADIUS;
+
+        Entry best = null;
+        int bestIndex = -1;
+        double bestDistSq = Double.MAX_VALUE;
+        boolean damaged;
+        synchronized (CACHE) {
+            List<Entry> entries = CACHE.get(key);
+            if (entries == null) {
+                MISSES.increment();
+                return List.of();
+            }
+            entries.removeIf(entry -> entry.broken || now - entry.createdAt > MAX_PATH_AGE_MS);
+            for (Entry entry : entries) {
+                int index = nearestIndex(entry.path, start, joinSq);
+                if (index < 0) {
+                    continue;
+                }
+                double distSq = entry.path.get(index).getSquaredDistance(start);
+                if (distSq < bestDistSq) {
+                    best = entry;
+                    bestIndex = index;
+                    bestDistSq = distSq;
+                }
+            }
+            if (best == null) {
+                MISSES.increment();
+                return List.of();
+            }
+            damaged = !best.changed.isEmpty();
+        }
+
+        List<BlockPos> path = best.path;
+        if (damaged) {
+            path = repair(key, best, segments);
+            if (path.isEmpty()) {
+                MISSES.increment();
+                return List.of();
+            }
+            // Splicing shifts indices; find the join node again on the repaired path.
+            bestIndex = nearestIndex(path, start, joinSq);
+            if (bestIndex < 0) {
+                MISSES.increment();
+                return List.of();
+            }
+            bestDistSq = path.get(bestIndex).getSquaredDistance(start);
+        }
+
+        List<BlockPos> suffix = path.subList(bestIndex, path.size());
+        if (bestDistSq == 0.0D) {
+            HITS.increment();
+            return new ArrayList<>(suffix);
+        }
+        if (segments == null) {
+            MISSES.increment();
+            return List.of();
+        }
+        BlockPos joinNode = path.get(bestIndex);
+        List<BlockPos> hop = segments.plan(start.toImmutable(), joinNode);
+        if (hop == null || hop.isEmpty() || !hop.get(hop.size() - 1).equals(joinNode)) {
+            MISSES.increment();
+            return List.of();
+        }
+        List<BlockPos> joined = new ArrayList<>(hop.size() + suffix.size() - 1);
+        joined.addAll(hop);
+        joined.addAll(suffix.subList(1, suffix.size()));
+        JOINS.increment();
+        return joined;
+    }
+
+    /**
+     * Caches {@code path} (start to goal, inclusive) for later requests towards {@code goal}'s cell.
+     */
+    public static void remember(ServerWorld world, Profile profile, BlockPos goal, List<BlockPos> path) {
+        if (world == null || profile == null || goal == null || path == null || path.size() < 2) {
+            return;
+        }
+        GoalKey key = new GoalKey(world.getRegistryKey(), profile, profile.goalCell(goal));
+        Entry entry = new Entry(path, System.currentTimeMillis());
+        synchronized (CACHE) {
+            List<Entry> entries = CACHE.computeIfAbsent(key, ignored -> new ArrayList<>(MAX_PATHS_PER_GOAL));
+            // A fresh path from (nearly) the same start replaces the old one.
+            entries.removeIf(old -> old.path.get(0).getSquaredDistance(path.get(0)) <= 2.0D);
+            if (entries.size() >= MAX_PATHS_PER_GOAL) {
+                entries.remove(0);
+            }
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Block-update hook (server thread): records the change on every cached path whose floor, body or head cells
+     * it touches.
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos) {
+        if (world == null || pos == null) {
+            return;
+        }
+        synchronized (CACHE) {
+            if (CACHE.isEmpty()) {
+                return;
+            }
+            RegistryKey<World> worldKey = world.getRegistryKey();
+            for (Map.Entry<GoalKey, List<Entry>> bucket : CACHE.entrySet()) {
+                if (!bucket.getKey().world().equals(worldKey)) {
+                    continue;
+                }
+                for (Entry entry : bucket.getValue()) {
+                    if (entry.broken || !entry.touches(pos)) {
+                        continue;
+                    }
+                    entry.changed.add(pos.asLong());
+                    if (entry.changed.size() > MAX_REPAIR_CELLS) {
+                        entry.broken = true;
+                        DROPPED.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    public static void onServerStopped() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public static String metricsSummary() {
+        int paths;
+        synchronized (CACHE) {
+            paths = CACHE.values().stream().mapToInt(List::size).sum();
+        }
+        return String.format("path planner: cached=%d hits=%d joins=%d repairs=%d misses=%d dropped=%d",
+                paths, HITS.sum(), JOINS.sum(), REPAIRS.sum(), MISSES.sum(), DROPPED.sum());
+    }
+
+    /**
+     * Re-searches the stretch of {@code entry} damaged by block updates and swaps the repaired path into the cache.
+     * Returns the repaired path, or an empty list (and drops the entry) when the damage is too wide or the detour
+     * cannot be found.
+     */
+    private static List<BlockPos> repair(GoalKey key, Entry entry, SegmentPlanner segments) {
+        List<BlockPos> path = entry.path;
+        int first = -1;
+        int last = -1;
+        synchronized (CACHE) {
+            for (int i = 0; i < path.size(); i++) {
+                if (entry.affected(path.get(i))) {
+                    if (first < 0) {
+                        first = i;
+                    }
+                    last = i;
+                }
+            }
+        }
+        if (first < 0) {
+            // The change was next to the path but no node depends on it.
+            synchronized (CACHE) {
+                entry.changed.clear();
+            }
+            return path;
+        }
+        if (segments == null || last - first > MAX_REPAIR_SPAN
+                || first == 0 || last == path.size() - 1) {
+            // Lost the start or the goal itself; a repair would just be a full replan.
+            drop(key, entry);
+            return List.of();
+        }
+        int from = Math.max(0, first - REPAIR_MARGIN);
+        int to = Math.min(path.size() - 1, last + REPAIR_MARGIN);
+        List<BlockPos> detour = segments.plan(path.get(from), path.get(to));
+        if (detour == null || detour.isEmpty() || !detour.get(0).equals(path.get(from))
+                || !detour.get(detour.size() - 1).equals(path.get(to))) {
+            drop(key, entry);
+            return List.of();
+        }
+        List<BlockPos> repaired = new ArrayList<>(path.size() + detour.size());
+        repaired.addAll(path.subList(0, from));
+        repaired.addAll(detour);
+        repaired.addAll(path.subList(to + 1, path.size()));
+
+        Entry replacement = new Entry(repaired, entry.createdAt);
+        synchronized (CACHE) {
+            List<Entry> entries = CACHE.get(key);
+            if (entries != null) {
+                int index = entries.indexOf(entry);
+                if (index >= 0) {
+                    entries.set(index, replacement);
+                }
+            }
+        }
+        REPAIRS.increment();
+        LOGGER.debug("Repaired cached path: replaced nodes {}..{} with a {}-node detour", from, to, detour.size());
+        return replacement.path;
+    }
+
+    private static void drop(GoalKey key, Entry entry) {
+        synchronized (CACHE) {
+            List<Entry> entries = CACHE.get(key);
+            if (entries != null) {
+                entries.remove(entry);
+            }
+        }
+        DROPPED.increment();
+    }
+
+    /** Index of the path node nearest {@code start} within {@code maxSq}; later nodes win ties, being closer to the goal. */
+    private static int nearestIndex(List<BlockPos> path, BlockPos start, double maxSq) {
+        int best = -1;
+        double bestSq = Double.MAX_VALUE;
+        for (int i = 0; i < path.size(); i++) {
+            double distSq = path.get(i).getSquaredDistance(start);
+            if (distSq <= maxSq && distSq <= bestSq) {
+                best = i;
+                bestSq = distSq;
+            }
+        }
+        return best;
+    }
+}
@@ -7,8 +7,6 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.block.BlockState;
-import net.minecraft.world.World;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -257,14 +255,15 @@ public final class PathTracer {
     }
 
     private static BlockPos findSafeLanding(ServerWorld world, BlockPos target) {
-        if (isStandable(world, target)) {
+        WalkabilityCache.View view = WalkabilityCache.view(world);
+        if (isStandable(view, target)) {
             return target;
         }
 
         BlockPos cursor = target;
         for (int i = 0; i < 4; i++) {
             cursor = cursor.up();
-            if (isStandable(world, cursor)) {
+            if (isStandable(view, cursor)) {
                 return cursor;
             }
         }
@@ -277,7 +276,7 @@ public final class PathTracer {
         final int maxDistance = 4;
         while (!queue.isEmpty()) {
             BlockPos pos = queue.poll();
-            if (isStandable(world, pos)) {
+            if (isStandable(view, pos)) {
                 return pos;
             }
             if (target.getManhattanDistance(pos) >= maxDistance) {
@@ -292,15 +291,10 @@ public final class PathTracer {
         }
 
         BlockPos fallback = target.up(6);
-        return isStandable(world, fallback) ? fallback : target.up();
+        return isStandable(view, fallback) ? fallback : target.up();
     }
 
-    private static boolean isStandable(World world, BlockPos pos) {
-        BlockState body = world.getBlockState(pos);
-        BlockState head = world.getBlockState(pos.up());
-        BlockState foot = world.getBlockState(pos.down());
-        return body.getCollisionShape(world, pos).isEmpty()
-                && head.getCollisionShape(world, pos.up()).isEmpty()
-                && !foot.getCollisionShape(world, pos.down()).isEmpty();
+    private static boolean isStandable(WalkabilityCache.View view, BlockPos pos) {
+        return view.isStandable(pos.getX(), pos.getY(), pos.getZ());
     }
 }
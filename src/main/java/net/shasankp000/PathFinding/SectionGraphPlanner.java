@@ -0,0 +1,559 @@
+package net.shasankp000.PathFinding;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hierarchical planner for long trips (hundreds of blocks).
+ *
+ * <p>Loaded terrain is abstracted per 16x16x16 section into walkable regions: connected components of standable
+ * cells under the same step rules the follow planner uses (flat, step up/down one block, swim vertically in water).
+ * Each region is represented by one real cell near its centroid, and regions in neighbouring sections are linked
+ * through the boundary cells ("portals") where a bot can step across. A link costs the walking distance from the
+ * region's representative to the cheapest portal plus the walk on to the neighbour's representative, using each
+ * region's cached distance field. The coarse search runs {@link LongPathSearch} over those representative cells,
+ * so a 300-block trip touches a few hundred region nodes instead of tens of thousands of blocks.
+ *
+ * <p>Abstractions are cached per section and tied to the identity of the {@link WalkabilityCache} arrays they were
+ * built from. A block change replaces only the affected snapshot array, so only that section (and the links that
+ * point at it) is rebuilt on next use. Callers refine just the next few sections to a block-level path with
+ * {@link PathFinder#calculatePath}, walking one {@link Route} and only planning it again once the bot strays.
+ */
+public final class SectionGraphPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ai-player");
+
+    /** Trips shorter than this go straight to the block-level planner. */
+    public static final int MIN_HIERARCHICAL_DISTANCE = 64;
+    /** How many region hops ahead callers refine to a block-level path per leg. */
+    public static final int DEFAULT_LOOKAHEAD_SECTIONS = 3;
+
+    private static final int MAX_REGIONS_PER_SECTION = 127;
+    private static final int MAX_COARSE_EXPANSIONS = 20_000;
+    private static final int ENDPOINT_SEARCH_RADIUS = 3;
+    private static final float DIAGONAL_STEP = (float) Math.sqrt(2.0D);
+
+    // Direction order: +X, -X, +Z, -Z, +Y, -Y
+    private static final int[][] SECTION_DIRS = {{1, 0, 0}, {-1, 0, 0}, {0, 0, 1}, {0, 0, -1}, {0, 1, 0}, {0, -1, 0}};
+    private static final int[][] FLAT = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[] STEP_ORDER = {0, 1, -1};
+
+    private static final Map<RegistryKey<World>, Map<Long, Regions>> WORLDS = new ConcurrentHashMap<>();
+
+    private SectionGraphPlanner() {
+    }
+
+    /**
+     * Coarse plan from {@code start} to {@code goal} as a list of representative cells, ending with {@code goal}.
+     * Empty when either endpoint is not on walkable, loaded terrain or no region route exists.
+     */
+    public static List<BlockPos> planCoarse(ServerWorld world, BlockPos start, BlockPos goal) {
+        if (world == null || start == null || goal == null) {
+            return List.of();
+        }
+        WalkabilityCache.prefetch(world, start, goal);
+        Planner planner = new Planner(world);
+
+        long startRep = planner.endpointRep(start);
+        long goalRep = planner.endpointRep(goal);
+        if (startRep == Long.MIN_VALUE || goalRep == Long.MIN_VALUE) {
+            LOGGER.debug("SectionGraphPlanner: no walkable region at start {} or goal {}", start, goal);
+            return List.of();
+        }
+
+        long t0 = System.nanoTime();
+        long[] coarse = LongPathSearch.search(startRep, goalRep, planner, MAX_COARSE_EXPANSIONS);
+        if (coarse == null) {
+            LOGGER.debug("SectionGraphPlanner: no region route {} -> {}", start, goal);
+            return List.of();
+        }
+        List<BlockPos> waypoints = new ArrayList<>(coarse.length);
+        for (int i = 1; i < coarse.length - 1; i++) {
+            waypoints.add(BlockPos.fromLong(coarse[i]));
+        }
+        waypoints.add(goal.toImmutable());
+        LOGGER.debug("SectionGraphPlanner: {} -> {} via {} regions in {}us",
+                start, goal, coarse.length, (System.nanoTime() - t0) / 1000L);
+        return waypoints;
+    }
+
+    /**
+     * Next block-level target for a long trip: the waypoint {@code lookahead} regions along the coarse route, or
+     * {@code goal} itself when it is that close. Returns null when no coarse route exists.
+     */
+    public static BlockPos nextWaypoint(ServerWorld world, BlockPos from, BlockPos goal, int lookahead) {
+        List<BlockPos> coarse = planCoarse(world, from, goal);
+        if (coarse.isEmpty()) {
+            return null;
+        }
+        int idx = Math.min(Math.max(0, lookahead - 1), coarse.size() - 1);
+        return coarse.get(idx);
+    }
+
+    /**
+     * Coarse route from {@code start} to {@code goal} for a trip walked in several legs, or null when none exists.
+     */
+    public static Route route(ServerWorld world, BlockPos start, BlockPos goal) {
+        List<BlockPos> coarse = planCoarse(world, start, goal);
+        return coarse.isEmpty() ? null : new Route(coarse);
+    }
+
+    /**
+     * A planned coarse route. Each leg asks it for the next target relative to where the bot actually is, so the
+     * corridor prefetch and coarse search run once per trip rather than once per leg. Not thread-safe.
+     */
+    public static final class Route {
+        /** A bot farther than this from every remaining waypoint has left the route. */
+        private static final int REJOIN_DISTANCE = 24;
+
+        private final List<BlockPos> waypoints;
+        private int cursor;
+        private boolean started;
+
+        private Route(List<BlockPos> waypoints) {
+            this.waypoints = waypoints;
+        }
+
+        /**
+         * The waypoint {@code lookahead} regions past the remaining waypoint nearest {@code from}, or null when the
+         * bot is no longer near the route and it should be planned again. The first call, made from the start of
+         * the route, returns what {@link #nextWaypoint} would.
+         */
+        public BlockPos next(BlockPos from, int lookahead) {
+            if (!started) {
+                started = true;
+                return waypoints.get(Math.min(Math.max(0, lookahead - 1), waypoints.size() - 1));
+            }
+            int nearest = -1;
+            double nearestSq = (double) REJOIN_DISTANCE * REJOIN_DISTANCE;
+            for (int i = cursor; i < waypoints.size(); i++) {
+                double distSq = from.getSquaredDistance(waypoints.get(i));
+                if (distSq <= nearestSq) {
+                    nearest = i;
+                    nearestSq = distSq;
+                }
+            }
+            if (nearest < 0) {
+                return null;
+            }
+            cursor = nearest;
+            int idx = Math.min(nearest + Math.max(0, lookahead - 1), waypoints.size() - 1);
+            if (idx < waypoints.size() - 1 && from.isWithinDistance(waypoints.get(idx), 2.0D)) {
+                idx++;
+            }
+            return waypoints.get(idx);
+        }
+    }
+
+    public static void onChunkUnload(ServerWorld world, WorldChunk chunk) {
+        if (world == null || chunk == null) {
+            return;
+        }
+        Map<Long, Regions> regions = WORLDS.get(world.getRegistryKey());
+        if (regions == null) {
+            return;
+        }
+        ChunkPos cp = chunk.getPos();
+        regions.keySet().removeIf(key ->
+                ChunkSectionPos.unpackX(key) == cp.x && ChunkSectionPos.unpackZ(key) == cp.z);
+    }
+
+    public static void onServerStopped() {
+        WORLDS.clear();
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Walkable regions of one section. Immutable apart from the lazily filled link table; valid while the snapshot
+     * arrays it was built from are still the current ones.
+     */
+    private static final class Regions {
+        final byte[] self;
+        final byte[] below;
+        final byte[] above;
+        /** Region id (1-based) per local cell; 0 = not standable. */
+        final byte[] region;
+        /** Packed representative cell per region, index {@code id - 1}. */
+        final long[] reps;
+        /** Walking cost from each cell's region representative to the cell, within this section. */
+        final float[] repCost;
+        final AtomicReferenceArray<Links> links = new AtomicReferenceArray<>(SECTION_DIRS.length);
+
+        Regions(byte[] self, byte[] below, byte[] above, byte[] region, long[] reps, float[] repCost) {
+            this.self = self;
+            this.below = below;
+            this.above = above;
+            this.region = region;
+            this.reps = reps;
+            this.repCost = repCost;
+        }
+
+        boolean isCurrent(WalkabilityCache.View view, int sx, int sy, int sz) {
+            return view.sectionData(sx, sy, sz) == self
+                    && view.sectionData(sx, sy - 1, sz) == below
+                    && view.sectionData(sx, sy + 1, sz) == above;
+        }
+    }
+
+    /**
+     * Portal links from each region of a section into one neighbour, with the cost of each link; valid while the
+     * neighbour is unchanged.
+     */
+    private record Links(Regions neighbor, long[][] targets, double[][] costs) {
+    }
+
+    private static final class Planner implements LongPathSearch.WeightedNeighborExpander {
+        private final Map<Long, Regions> cache;
+        private final WalkabilityCache.View view;
+        private boolean truncationLogged;
+
+        Planner(ServerWorld world) {
+            this.cache = WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new ConcurrentHashMap<>());
+            this.view = WalkabilityCache.view(world);
+        }
+
+        long endpointRep(BlockPos pos) {
+            int r = ENDPOINT_SEARCH_RADIUS;
+            long best = Long.MIN_VALUE;
+            int bestDist = Integer.MAX_VALUE;
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dy = -r; dy <= r; dy++) {
+                    for (int dz = -r; dz <= r; dz++) {
+                        int d = dx * dx + dy * dy + dz * dz;
+                        if (d >= bestDist) {
+                            continue;
+                        }
+                        int x = pos.getX() + dx, y = pos.getY() + dy, z = pos.getZ() + dz;
+                        Regions regions = regionsAt(x >> 4, y >> 4, z >> 4);
+                        if (regions == null) {
+                            continue;
+                        }
+                        int id = regions.region[localIndex(x, y, z)];
+                        if (id > 0) {
+                            best = regions.reps[id - 1];
+                            bestDist = d;
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public int expand(long rep, long[] out, double[] costs) {
+            int x = BlockPos.unpackLongX(rep), y = BlockPos.unpackLongY(rep), z = BlockPos.unpackLongZ(rep);
+            int sx = x >> 4, sy = y >> 4, sz = z >> 4;
+            Regions regions = regionsAt(sx, sy, sz);
+            if (regions == null) {
+                return 0;
+            }
+            int id = regions.region[localIndex(x, y, z)];
+            if (id <= 0) {
+                return 0;
+            }
+            int count = 0;
+            for (int d = 0; d < SECTION_DIRS.length; d++) {
+                Links links = linksFor(regions, sx, sy, sz, d);
+                if (links == null) {
+                    continue;
+                }
+                long[] targets = links.targets()[id - 1];
+                double[] linkCosts = links.costs()[id - 1];
+                for (int i = 0; i < targets.length; i++) {
+                    if (count == out.length) {
+                        if (!truncationLogged) {
+                            truncationLogged = true;
+                            LOGGER.warn("SectionGraphPlanner: region at {} has more than {} links; dropping the rest",
+                                    BlockPos.fromLong(rep), out.length);
+                        }
+                        return count;
+                    }
+                    costs[count] = linkCosts[i];
+                    out[count++] = targets[i];
+                }
+            }
+            return count;
+        }
+
+        private Regions regionsAt(int sx, int sy, int sz) {
+            long key = ChunkSectionPos.asLong(sx, sy, sz);
+            Regions cached = cache.get(key);
+            if (cached != null && cached.isCurrent(view, sx, sy, sz)) {
+                return cached;
+            }
+            byte[] self = view.sectionData(sx, sy, sz);
+            if (self == null) {
+                if (cached != null) {
+                    cache.remove(key, cached);
+                }
+                return null;
+            }
+            Regions built = build(sx, sy, sz, self);
+            cache.put(key, built);
+            return built;
+        }
+
+        private Links linksFor(Regions regions, int sx, int sy, int sz, int dir) {
+            int[] d = SECTION_DIRS[dir];
+            Regions neighbor = regionsAt(sx + d[0], sy + d[1], sz + d[2]);
+            if (neighbor == null) {
+                return null;
+            }
+            Links links = regions.links.get(dir);
+            if (links != null && links.neighbor() == neighbor) {
+                return links;
+            }
+            links = computeLinks(regions, sx, sy, sz, neighbor, d);
+            regions.links.set(dir, links);
+            return links;
+        }
+
+        /**
+         * Collects, per region of {@code regions}, the distinct neighbour regions reachable in one step and the
+         * cheapest representative-to-representative walk through any of the portals between them.
+         */
+        private Links computeLinks(Regions regions, int sx, int sy, int sz, Regions neighbor, int[] d) {
+            int regionCount = regions.reps.length;
+            double[][] best = new double[regionCount][neighbor.reps.length];
+            for (double[] row : best) {
+                Arrays.fill(row, Double.POSITIVE_INFINITY);
+            }
+            int baseX = sx << 4, baseY = sy << 4, baseZ = sz << 4;
+            int nbX = (sx + d[0]) << 4, nbY = (sy + d[1]) << 4, nbZ = (sz + d[2]) << 4;
+
+            for (int ly = 0; ly < 16; ly++) {
+                for (int lz = 0; lz < 16; lz++) {
+                    for (int lx = 0; lx < 16; lx++) {
+                        if (!onFace(lx, ly, lz, d)) {
+                            continue;
+                        }
+                        int id = regions.region[localIndex(lx, ly, lz)];
+                        if (id <= 0) {
+                            continue;
+                        }
+                        int x = baseX + lx, y = baseY + ly, z = baseZ + lz;
+                        for (int[] move : moves(x, y, z)) {
+                            int tx = move[0], ty = move[1], tz = move[2];
+                            if (tx - nbX < 0 || tx - nbX > 15 || ty - nbY < 0 || ty - nbY > 15 || tz - nbZ < 0 || tz - nbZ > 15) {
+                                continue;
+                            }
+                            int targetCell = localIndex(tx, ty, tz);
+                            int target = neighbor.region[targetCell];
+                            if (target > 0) {
+                                double cost = regions.repCost[localIndex(lx, ly, lz)] + stepCost(x, y, z, tx, ty, tz)
+                                        + neighbor.repCost[targetCell];
+                                if (cost < best[id - 1][target - 1]) {
+                                    best[id - 1][target - 1] = cost;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            long[][] targets = new long[regionCount][];
+            double[][] costs = new double[regionCount][];
+            for (int i = 0; i < regionCount; i++) {
+                int n = 0;
+                long[] row = new long[neighbor.reps.length];
+                double[] rowCosts = new double[neighbor.reps.length];
+                for (int j = 0; j < neighbor.reps.length; j++) {
+                    if (best[i][j] < Double.POSITIVE_INFINITY) {
+                        row[n] = neighbor.reps[j];
+                        rowCosts[n++] = best[i][j];
+                    }
+                }
+                targets[i] = Arrays.copyOf(row, n);
+                costs[i] = Arrays.copyOf(rowCosts, n);
+            }
+            return new Links(neighbor, targets, costs);
+        }
+
+        /** Straight-line length of one move: 1 for flat moves and swimming, sqrt(2) for a step up or down. */
+        private static float stepCost(int x, int y, int z, int tx, int ty, int tz) {
+            boolean horizontal = x != tx || z != tz;
+            return horizontal && y != ty ? DIAGONAL_STEP : 1.0F;
+        }
+
+        private static boolean onFace(int lx, int ly, int lz, int[] d) {
+            if (d[0] != 0) return lx == (d[0] > 0 ? 15 : 0);
+            if (d[2] != 0) return lz == (d[2] > 0 ? 15 : 0);
+            return ly == (d[1] > 0 ? 15 : 0);
+        }
+
+        /** Candidate moves from a standable cell, using the same step rules as region flood-fill. */
+        private List<int[]> moves(int x, int y, int z) {
+            List<int[]> result = new ArrayList<>(6);
+            for (int[] f : FLAT) {
+                for (int dy : STEP_ORDER) {
+                    if (isStandable(x + f[0], y + dy, z + f[1])) {
+                        result.add(new int[]{x + f[0], y + dy, z + f[1]});
+                        break;
+                    }
+                }
+            }
+            if ((view.get(x, y, z) & WalkabilityCache.LIQUID) != 0) {
+                result.add(new int[]{x, y + 1, z});
+                result.add(new int[]{x, y - 1, z});
+            }
+            return result;
+        }
+
+        private boolean isStandable(int x, int y, int z) {
+            byte body = view.get(x, y, z);
+            if (body == WalkabilityCache.UNLOADED || (body & WalkabilityCache.PASSABLE) == 0
+                    || (body & WalkabilityCache.HAZARD) != 0) {
+                return false;
+            }
+            byte head = view.get(x, y + 1, z);
+            if (head != WalkabilityCache.UNLOADED && (head & WalkabilityCache.PASSABLE) == 0) {
+                return false;
+            }
+            if ((body & WalkabilityCache.LIQUID) != 0) {
+                return true;
+            }
+            byte floor = view.get(x, y - 1, z);
+            return (floor & WalkabilityCache.COLLISION) != 0 && (floor & WalkabilityCache.HAZARD) == 0;
+        }
+
+        private Regions build(int sx, int sy, int sz, byte[] self) {
+            byte[] below = view.sectionData(sx, sy - 1, sz);
+            byte[] above = view.sectionData(sx, sy + 1, sz);
+            int baseX = sx << 4, baseY = sy << 4, baseZ = sz << 4;
+
+            boolean[] standable = new boolean[4096];
+            for (int ly = 0; ly < 16; ly++) {
+                for (int lz = 0; lz < 16; lz++) {
+                    for (int lx = 0; lx < 16; lx++) {
+                        standable[localIndex(lx, ly, lz)] = isStandable(baseX + lx, baseY + ly, baseZ + lz);
+                    }
+                }
+            }
+
+            byte[] region = new byte[4096];
+            List<Long> reps = new ArrayList<>();
+            int[] queue = new int[4096];
+            int[] members = new int[4096];
+            for (int start = 0; start < 4096 && reps.size() < MAX_REGIONS_PER_SECTION; start++) {
+                if (!standable[start] || region[start] != 0) {
+                    continue;
+                }
+                byte id = (byte) (reps.size() + 1);
+                int head = 0, tail = 0, count = 0;
+                long sumX = 0, sumY = 0, sumZ = 0;
+                queue[tail++] = start;
+                region[start] = id;
+                while (head < tail) {
+                    int cell = queue[head++];
+                    members[count++] = cell;
+                    int lx = cell & 15, lz = (cell >> 4) & 15, ly = cell >> 8;
+                    sumX += lx;
+                    sumY += ly;
+                    sumZ += lz;
+                    for (int[] move : moves(baseX + lx, baseY + ly, baseZ + lz)) {
+                        int tx = move[0] - baseX, ty = move[1] - baseY, tz = move[2] - baseZ;
+                        if (tx < 0 || tx > 15 || ty < 0 || ty > 15 || tz < 0 || tz > 15) {
+                            continue;
+                        }
+                        int next = localIndex(tx, ty, tz);
+                        if (standable[next] && region[next] == 0) {
+                            region[next] = id;
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+
+                // Representative: the member closest to the region centroid, so coarse costs stay meaningful.
+                double cx = sumX / (double) count, cy = sumY / (double) count, cz = sumZ / (double) count;
+                int bestCell = members[0];
+                double bestDist = Double.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    int cell = members[i];
+                    double ex = (cell & 15) - cx, ey = (cell >> 8) - cy, ez = ((cell >> 4) & 15) - cz;
+                    double dist = ex * ex + ey * ey + ez * ez;
+                    if (dist < bestDist) {
+                        bestDist = dist;
+                        bestCell = cell;
+                    }
+                }
+                reps.add(BlockPos.asLong(baseX + (bestCell & 15), baseY + (bestCell >> 8), baseZ + ((bestCell >> 4) & 15)));
+            }
+
+            long[] repArray = new long[reps.size()];
+            for (int i = 0; i < repArray.length; i++) {
+                repArray[i] = reps.get(i);
+            }
+            return new Regions(self, below, above, region, repArray, repCosts(baseX, baseY, baseZ, region, repArray));
+        }
+
+        /**
+         * Dijkstra from every representative at once, each confined to its own region, so every cell ends up with
+         * the walking cost from its region's representative.
+         */
+        private float[] repCosts(int baseX, int baseY, int baseZ, byte[] region, long[] reps) {
+            float[] cost = new float[4096];
+            Arrays.fill(cost, Float.POSITIVE_INFINITY);
+            // Entries pack (cost bits << 32 | cell); non-negative float bits sort like the floats themselves.
+            PriorityQueue<Long> open = new PriorityQueue<>();
+            for (long rep : reps) {
+                int cell = localIndex(BlockPos.unpackLongX(rep), BlockPos.unpackLongY(rep), BlockPos.unpackLongZ(rep));
+                cost[cell] = 0.0F;
+                open.add((long) cell);
+            }
+            while (!open.isEmpty()) {
+                long entry = open.poll();
+                int cell = (int) entry;
+                float current = Float.intBitsToFloat((int) (entry >>> 32));
+                if (current > cost[cell]) {
+                    continue;
+                }
+                int lx = cell & 15, lz = (cell >> 4) & 15, ly = cell >> 8;
+                for (int[] move : moves(baseX + lx, baseY + ly, baseZ + lz)) {
+                    int tx = move[0] - baseX, ty = move[1] - baseY, tz = move[2] - baseZ;
+                    if (tx < 0 || tx > 15 || ty < 0 || ty > 15 || tz < 0 || tz > 15) {
+                        continue;
+                    }
+                    int next = localIndex(tx, ty, tz);
+                    if (region[next] != region[cell]) {
+                        continue;
+                    }
+                    float candidate = current + stepCost(baseX + lx, baseY + ly, baseZ + lz, move[0], move[1], move[2]);
+                    if (candidate < cost[next]) {
+                        cost[next] = candidate;
+                        open.add(((long) Float.floatToIntBits(candidate) << 32) | next);
+                    }
+                }
+            }
+            // One-way steps can leave a cell of the flood-filled region unreachable from its representative; fall
+            // back to the straight-line distance, which keeps link costs admissible.
+            for (int cell = 0; cell < 4096; cell++) {
+                if (region[cell] > 0 && cost[cell] == Float.POSITIVE_INFINITY) {
+                    long rep = reps[region[cell] - 1];
+                    double ex = (baseX + (cell & 15)) - BlockPos.unpackLongX(rep);
+                    double ey = (baseY + (cell >> 8)) - BlockPos.unpackLongY(rep);
+                    double ez = (baseZ + ((cell >> 4) & 15)) - BlockPos.unpackLongZ(rep);
+                    cost[cell] = (float) Math.sqrt(ex * ex + ey * ey + ez * ez);
+                }
+            }
+            return cost;
+        }
+    }
+}
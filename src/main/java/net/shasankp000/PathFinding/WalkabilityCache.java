@@ -0,0 +1,567 @@
+package net.shasankp000.PathFinding;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.DoorBlock;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.EmptyBlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import net.shasankp000.GameAI.services.BotCampfireAvoidanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-world walkability cache built from immutable 16x16x16 chunk-section snapshots.
+ *
+ * <p>Each block is reduced to one byte of flags ({@link #SOLID}, {@link #PASSABLE}, {@link #LIQUID}, {@link #DOOR},
+ * {@link #HAZARD}, {@link #CAMPFIRE}, {@link #COLLISION}, {@link #SLAB}). Classification is done once per
+ * {@link BlockState} and memoised, so capturing a section never touches registries or block names.
+ *
+ * <p>Sections are captured on the server thread (lazily, or via {@link #prefetch}) and replaced copy-on-write when
+ * a block update changes a block's class, so readers on any thread always see a consistent array. A prefetch from
+ * a worker only copies the sections' block-state palettes on the server thread and classifies the copies on the
+ * worker. Planners should query a {@link View} instead of calling {@code world.getBlockState} per probe.
+ */
+public final class WalkabilityCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ai-player");
+
+    /** Section not captured (or chunk not loaded). Every captured block has at least one flag set. */
+    public static final byte UNLOADED = 0;
+    /** Opaque, non-air block: matches {@code PathFinder.isSolidBlock}. */
+    public static final byte SOLID = 1;
+    /** Body/head can occupy it: air, water, empty collision, or a wooden/open door. */
+    public static final byte PASSABLE = 1 << 1;
+    public static final byte LIQUID = 1 << 2;
+    public static final byte DOOR = 1 << 3;
+    /** Lava, fire, magma, cactus, berry bushes, powder snow. */
+    public static final byte HAZARD = 1 << 4;
+    /** Campfire or soul campfire, as {@link BotCampfireAvoidanceService#isCampfireBlock} defines it. */
+    public static final byte CAMPFIRE = 1 << 5;
+    /** Non-empty collision shape (something to stand on). */
+    public static final byte COLLISION = 1 << 6;
+    public static final byte SLAB = (byte) (1 << 7);
+
+    /** Sections older than this are re-captured by {@link #prefetch} in case a block update was missed. */
+    private static final long MAX_SECTION_AGE_MS = 30_000L;
+    /** Corridor half-width (blocks) captured around the start-target line by {@link #prefetch}. */
+    private static final int PREFETCH_MARGIN = 24;
+    private static final int MAX_PREFETCH_SECTIONS = 768;
+    private static final long PREFETCH_TIMEOUT_MS = 1500L;
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+    /** Header of {@link #exportSections} files. */
+    private static final int EXPORT_MAGIC = 0x41495743; // "AIWC"
+
+    private static final Map<RegistryKey<World>, WorldCache> WORLDS = new ConcurrentHashMap<>();
+    private static final Map<BlockState, Byte> STATE_CLASSES = new ConcurrentHashMap<>();
+
+    private WalkabilityCache() {
+    }
+
+    private record Section(byte[] data, long capturedAt) {
+    }
+
+    /** A section's block states copied on the server thread; {@code states} is null for an all-air section. */
+    private record SectionCopy(long key, PalettedContainer<BlockState> states, Object token) {
+    }
+
+    private static final class WorldCache {
+        final Map<Long, Section> sections = new ConcurrentHashMap<>();
+        /** Section keys per {@link ChunkPos#toLong}, so unloading a chunk does not scan every section. */
+        final Map<Long, Set<Long>> byChunk = new ConcurrentHashMap<>();
+        /**
+         * Sections copied for off-thread classification. A block update or chunk unload removes the entry, and
+         * a classified copy is only stored while its token is still here.
+         */
+        final Map<Long, Object> pendingCopies = new ConcurrentHashMap<>();
+
+        void put(long key, Section section) {
+            sections.put(key, section);
+            byChunk.computeIfAbsent(ChunkPos.toLong(ChunkSectionPos.unpackX(key), ChunkSectionPos.unpackZ(key)),
+                    k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private static WorldCache cacheFor(ServerWorld world) {
+        return WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new WorldCache());
+    }
+
+    /**
+     * Returns a reader over the cached snapshots. On the server thread, missing sections are captured on demand;
+     * on other threads they read as {@link #UNLOADED}. Views memoise the last section and are not thread-safe:
+     * create one per search.
+     */
+    public static View view(ServerWorld world) {
+        MinecraftServer server = world.getServer();
+        boolean captureOnMiss = server != null && server.isOnThread();
+        return new View(world, cacheFor(world), captureOnMiss);
+    }
+
+    /**
+     * Ensures sections along the corridor between {@code from} and {@code to} are captured and fresh. Worker
+     * callers pay a single server round-trip that only copies block-state palettes, instead of one unsafe world
+     * read per probe; the copies are classified on the calling thread.
+     */
+    public static void prefetch(ServerWorld world, BlockPos from, BlockPos to) {
+        if (world == null || from == null || to == null) {
+            return;
+        }
+        MinecraftServer server = world.getServer();
+        if (server == null) {
+            return;
+        }
+        BlockPos a = from.toImmutable();
+        BlockPos b = to.toImmutable();
+        WorldCache cache = cacheFor(world);
+        if (server.isOnThread()) {
+            classifyCopies(cache, copyCorridor(world, cache, a, b));
+            return;
+        }
+        // Only the palette copies run on the server thread; classifying 4096 blocks per section happens here.
+        CompletableFuture<List<SectionCopy>> future = new CompletableFuture<>();
+        server.execute(() -> {
+            if (future.isDone()) {
+                return; // the caller already gave up
+            }
+            try {
+                List<SectionCopy> copies = copyCorridor(world, cache, a, b);
+                if (!future.complete(copies)) {
+                    copies.forEach(copy -> cache.pendingCopies.remove(copy.key(), copy.token()));
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        List<SectionCopy> copies;
+        try {
+            copies = future.get(PREFETCH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (future.cancel(false) || future.isCompletedExceptionally()) {
+                LOGGER.debug("WalkabilityCache: prefetch {} -> {} timed out; planning on partial snapshot", a, b);
+                return;
+            }
+            // Completed just after the timeout: classify rather than leave the copies pending.
+            copies = future.join();
+        }
+        classifyCopies(cache, copies);
+    }
+
+    /** Server thread only. Copies the block states of every stale or missing section along the corridor. */
+    private static List<SectionCopy> copyCorridor(ServerWorld world, WorldCache cache, BlockPos from, BlockPos to) {
+        List<SectionCopy> copies = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        int minSx = ChunkSectionPos.getSectionCoord(Math.min(from.getX(), to.getX()) - PREFETCH_MARGIN);
+        int maxSx = ChunkSectionPos.getSectionCoord(Math.max(from.getX(), to.getX()) + PREFETCH_MARGIN);
+        int minSy = ChunkSectionPos.getSectionCoord(Math.min(from.getY(), to.getY()) - PREFETCH_MARGIN);
+        int maxSy = ChunkSectionPos.getSectionCoord(Math.max(from.getY(), to.getY()) + PREFETCH_MARGIN);
+        int minSz = ChunkSectionPos.getSectionCoord(Math.min(from.getZ(), to.getZ()) - PREFETCH_MARGIN);
+        int maxSz = ChunkSectionPos.getSectionCoord(Math.max(from.getZ(), to.getZ()) + PREFETCH_MARGIN);
+
+        double ax = from.getX(), ay = from.getY(), az = from.getZ();
+        double dx = to.getX() - ax, dy = to.getY() - ay, dz = to.getZ() - az;
+        double lenSq = dx * dx + dy * dy + dz * dz;
+        // Section centre to segment distance, padded by the section half-diagonal (~14).
+        double reach = PREFETCH_MARGIN + 14.0D;
+        double reachSq = reach * reach;
+
+        for (int sx = minSx; sx <= maxSx; sx++) {
+            for (int sz = minSz; sz <= maxSz; sz++) {
+                for (int sy = minSy; sy <= maxSy; sy++) {
+                    double cx = (sx << 4) + 8.0D, cy = (sy << 4) + 8.0D, cz = (sz << 4) + 8.0D;
+                    double t = lenSq == 0.0D ? 0.0D
+                            : Math.max(0.0D, Math.min(1.0D, ((cx - ax) * dx + (cy - ay) * dy + (cz - az) * dz) / lenSq));
+                    double ex = ax + dx * t - cx, ey = ay + dy * t - cy, ez = az + dz * t - cz;
+                    if (ex * ex + ey * ey + ez * ez > reachSq) {
+                        continue;
+                    }
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    Section existing = cache.sections.get(key);
+                    if (existing != null && now - existing.capturedAt() <= MAX_SECTION_AGE_MS) {
+                        continue;
+                    }
+                    if (copies.size() >= MAX_PREFETCH_SECTIONS) {
+                        LOGGER.debug("WalkabilityCache: prefetch capped at {} sections", MAX_PREFETCH_SECTIONS);
+                        return copies;
+                    }
+                    ChunkSection section = loadedSection(world, sx, sy, sz);
+                    if (section == null) {
+                        continue;
+                    }
+                    Object token = new Object();
+                    cache.pendingCopies.put(key, token);
+                    copies.add(new SectionCopy(key,
+                            section.isEmpty() ? null : section.getBlockStateContainer().copy(), token));
+                }
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Classifies palette copies on the calling thread and stores each one whose section has not changed or been
+     * unloaded since it was copied.
+     */
+    private static void classifyCopies(WorldCache cache, List<SectionCopy> copies) {
+        for (SectionCopy copy : copies) {
+            byte[] data = new byte[SECTION_VOLUME];
+            if (copy.states() == null) {
+                Arrays.fill(data, classify(Blocks.AIR.getDefaultState()));
+            } else {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            data[(y << 8) | (z << 4) | x] = classify(copy.states().get(x, y, z));
+                        }
+                    }
+                }
+            }
+            Section section = new Section(data, System.currentTimeMillis());
+            cache.pendingCopies.computeIfPresent(copy.key(), (key, token) -> {
+                if (token == copy.token()) {
+                    cache.put(key, section);
+                    return null;
+                }
+                return token;
+            });
+        }
+    }
+
+    /** Server thread only. Null when the chunk is not loaded or the section is outside the world. */
+    private static ChunkSection loadedSection(ServerWorld world, int sx, int sy, int sz) {
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(sx, sz);
+        if (chunk == null) {
+            return null;
+        }
+        int index = chunk.getSectionIndex(ChunkSectionPos.getBlockCoord(sy));
+        if (index < 0 || index >= chunk.getSectionArray().length) {
+            return null;
+        }
+        return chunk.getSection(index);
+    }
+
+    /** Server thread only. Returns null when the chunk is not loaded or the section is outside the world. */
+    private static byte[] capture(ServerWorld world, WorldCache cache, int sx, int sy, int sz) {
+        ChunkSection section = loadedSection(world, sx, sy, sz);
+        if (section == null) {
+            return null;
+        }
+        byte[] data = new byte[SECTION_VOLUME];
+        if (section.isEmpty()) {
+            Arrays.fill(data, classify(Blocks.AIR.getDefaultState()));
+        } else {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        data[(y << 8) | (z << 4) | x] = classify(section.getBlockState(x, y, z));
+                    }
+                }
+            }
+        }
+        long key = ChunkSectionPos.asLong(sx, sy, sz);
+        // Anything copied earlier is older than this capture.
+        cache.pendingCopies.remove(key);
+        cache.put(key, new Section(data, System.currentTimeMillis()));
+        return data;
+    }
+
+    /**
+     * Block-update hook (server thread). Only sections that are already cached are touched, and only when the
+     * block's class actually changes; the section array is replaced, never mutated in place.
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState newState) {
+        if (world == null || pos == null || newState == null) {
+            return;
+        }
+        WorldCache cache = WORLDS.get(world.getRegistryKey());
+        if (cache == null) {
+            return;
+        }
+        long key = ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getY()),
+                ChunkSectionPos.getSectionCoord(pos.getZ()));
+        // A copy taken before this update is stale; drop it instead of storing it over the patched section.
+        cache.pendingCopies.remove(key);
+        Section section = cache.sections.get(key);
+        if (section == null) {
+            return;
+        }
+        int idx = localIndex(pos.getX(), pos.getY(), pos.getZ());
+        byte updated = classify(newState);
+        if (section.data()[idx] == updated) {
+            return;
+        }
+        byte[] copy = section.data().clone();
+        copy[idx] = updated;
+        cache.put(key, new Section(copy, section.capturedAt()));
+    }
+
+    public static void onChunkUnload(ServerWorld world, WorldChunk chunk) {
+        if (world == null || chunk == null) {
+            return;
+        }
+        WorldCache cache = WORLDS.get(world.getRegistryKey());
+        if (cache == null) {
+            return;
+        }
+        ChunkPos cp = chunk.getPos();
+        if (!cache.pendingCopies.isEmpty()) {
+            cache.pendingCopies.keySet().removeIf(key ->
+                    ChunkSectionPos.unpackX(key) == cp.x && ChunkSectionPos.unpackZ(key) == cp.z);
+        }
+        Set<Long> keys = cache.byChunk.remove(cp.toLong());
+        if (keys != null) {
+            keys.forEach(cache.sections::remove);
+        }
+    }
+
+    public static void onServerStopped() {
+        WORLDS.clear();
+    }
+
+    /**
+     * Reader over caller-supplied section arrays keyed by {@link ChunkSectionPos#asLong}, with no world behind it.
+     * Missing sections read as {@link #UNLOADED}. Used by the benchmarks' fake world and offline tools.
+     */
+    public static View detached(Map<Long, byte[]> sections) {
+        WorldCache cache = new WorldCache();
+        long now = System.currentTimeMillis();
+        sections.forEach((key, data) -> {
+            if (data != null && data.length == SECTION_VOLUME) {
+                cache.put(key, new Section(data, now));
+            }
+        });
+        return new View(null, cache, false);
+    }
+
+    /**
+     * Writes every section currently cached for {@code world} to {@code file}, so a real area can be replayed
+     * through {@link #detached}/{@link #readSections}. Returns the number of sections written.
+     */
+    public static int exportSections(ServerWorld world, Path file) throws IOException {
+        WorldCache cache = WORLDS.get(world.getRegistryKey());
+        Map<Long, Section> sections = cache != null ? Map.copyOf(cache.sections) : Map.of();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(EXPORT_MAGIC);
+            out.writeInt(sections.size());
+            for (Map.Entry<Long, Section> entry : sections.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.write(entry.getValue().data());
+            }
+        }
+        return sections.size();
+    }
+
+    /**
+     * Reads a file written by {@link #exportSections}.
+     */
+    public static Map<Long, byte[]> readSections(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != EXPORT_MAGIC) {
+                throw new IOException("Not a walkability export: " + file);
+            }
+            int count = in.readInt();
+            Map<Long, byte[]> sections = new HashMap<>(Math.max(16, count * 2));
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                byte[] data = new byte[SECTION_VOLUME];
+                in.readFully(data);
+                sections.put(key, data);
+            }
+            return sections;
+        }
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    static byte classify(BlockState state) {
+        Byte cached = STATE_CLASSES.get(state);
+        if (cached != null) {
+            return cached;
+        }
+        boolean air = state.isAir();
+        boolean emptyCollision = state.getCollisionShape(EmptyBlockView.INSTANCE, BlockPos.ORIGIN).isEmpty();
+        boolean door = state.getBlock() instanceof DoorBlock;
+
+        int flags = 0;
+        if (!air && state.isOpaque()) {
+            flags |= SOLID;
+        }
+        if (!emptyCollision) {
+            flags |= COLLISION;
+        }
+        boolean passable;
+        if (door) {
+            flags |= DOOR;
+            // Wooden doors can be opened on approach; iron doors only count when already open.
+            passable = !state.isOf(Blocks.IRON_DOOR) || emptyCollision;
+        } else {
+            passable = air || state.isOf(Blocks.WATER) || emptyCollision;
+        }
+        if (passable) {
+            flags |= PASSABLE;
+        }
+        if (!state.getFluidState().isEmpty()) {
+            flags |= LIQUID;
+        }
+        if (BotCampfireAvoidanceService.isCampfireBlock(state)) {
+            flags |= CAMPFIRE;
+        }
+        if (state.isOf(Blocks.LAVA) || state.isIn(BlockTags.FIRE) || state.isOf(Blocks.MAGMA_BLOCK)
+                || state.isOf(Blocks.CACTUS) || state.isOf(Blocks.SWEET_BERRY_BUSH) || state.isOf(Blocks.POWDER_SNOW)) {
+            flags |= HAZARD;
+        }
+        if (state.isIn(BlockTags.SLABS)) {
+            flags |= SLAB;
+        }
+        byte result = (byte) flags;
+        STATE_CLASSES.put(state, result);
+        return result;
+    }
+
+    /** Short label for a flag byte; used where the old code logged the block name. */
+    public static String describe(byte flags) {
+        if (flags == UNLOADED) return "unloaded";
+        if ((flags & CAMPFIRE) != 0) return "campfire";
+        if ((flags & HAZARD) != 0) return "hazard";
+        if ((flags & DOOR) != 0) return "door";
+        if ((flags & LIQUID) != 0) return "liquid";
+        if ((flags & SLAB) != 0) return "slab";
+        if ((flags & SOLID) != 0) return "solid";
+        if ((flags & COLLISION) != 0) return "partial";
+        return "air";
+    }
+
+    /**
+     * Snapshot reader. Memoises the last section lookup, so sequential probes in the same section cost one array
+     * read each.
+     */
+    public static final class View {
+        private final ServerWorld world;
+        private final WorldCache cache;
+        private final boolean captureOnMiss;
+        private long lastKey = Long.MIN_VALUE;
+        private byte[] lastData;
+
+        private View(ServerWorld world, WorldCache cache, boolean captureOnMiss) {
+            this.world = world;
+            this.cache = cache;
+            this.captureOnMiss = captureOnMiss;
+        }
+
+        public byte get(int x, int y, int z) {
+            int sx = x >> 4, sy = y >> 4, sz = z >> 4;
+            long key = ChunkSectionPos.asLong(sx, sy, sz);
+            byte[] data;
+            if (key == lastKey) {
+                data = lastData;
+            } else {
+                Section section = cache.sections.get(key);
+                data = section != null ? section.data() : null;
+                if (data == null && captureOnMiss) {
+                    data = capture(world, cache, sx, sy, sz);
+                }
+                lastKey = key;
+                lastData = data;
+            }
+            return data == null ? UNLOADED : data[localIndex(x, y, z)];
+        }
+
+        public byte get(BlockPos pos) {
+            return get(pos.getX(), pos.getY(), pos.getZ());
+        }
+
+        /** Current snapshot array for a section (identity changes whenever the section is replaced), or null. */
+        byte[] sectionData(int sx, int sy, int sz) {
+            Section section = cache.sections.get(ChunkSectionPos.asLong(sx, sy, sz));
+            return section != null ? section.data() : null;
+        }
+
+        public boolean isLoaded(int x, int y, int z) {
+            return get(x, y, z) != UNLOADED;
+        }
+
+        public boolean isSolid(int x, int y, int z) {
+            return (get(x, y, z) & SOLID) != 0;
+        }
+
+        public boolean isPassable(int x, int y, int z) {
+            return (get(x, y, z) & PASSABLE) != 0;
+        }
+
+        public boolean hasCollision(int x, int y, int z) {
+            return (get(x, y, z) & COLLISION) != 0;
+        }
+
+        public boolean isSlab(int x, int y, int z) {
+            return (get(x, y, z) & SLAB) != 0;
+        }
+
+        public boolean isLiquid(int x, int y, int z) {
+            return (get(x, y, z) & LIQUID) != 0;
+        }
+
+        public boolean isHazard(int x, int y, int z) {
+            return (get(x, y, z) & HAZARD) != 0;
+        }
+
+        /** Body and head clear of collision with a collidable floor, as {@code PathTracer} uses it. */
+        public boolean isStandable(int x, int y, int z) {
+            return !hasCollision(x, y, z) && !hasCollision(x, y + 1, z) && hasCollision(x, y - 1, z)
+                    && isLoaded(x, y, z);
+        }
+
+        /** Snapshot twin of {@link BotCampfireAvoidanceService#isNearExposedCampfire}. */
+        public boolean isNearExposedCampfire(int x, int y, int z, int radius) {
+            int r = Math.max(1, radius);
+            for (int px = x - r; px <= x + r; px++) {
+                for (int py = y - 1; py <= y + 1; py++) {
+                    for (int pz = z - r; pz <= z + r; pz++) {
+                        if ((get(px, py, pz) & CAMPFIRE) != 0 && isCampfireExposed(px, py, pz)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean isCampfireExposed(int x, int y, int z) {
+            // Unloaded neighbours don't count as walls, matching the live check.
+            return !(isSolid(x, y, z - 1) && isSolid(x, y, z + 1) && isSolid(x + 1, y, z) && isSolid(x - 1, y, z));
+        }
+    }
+}
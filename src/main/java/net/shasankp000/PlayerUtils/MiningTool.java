@@ -9,13 +9,12 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockPos;
 import net.shasankp000.Entity.LookController;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.GameAI.skills.SkillManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -28,17 +27,6 @@ public class MiningTool {
     private static final double SURVIVAL_REACH_SQ = 4.5 * 4.5;
     public static final Logger LOGGER = LoggerFactory.getLogger("mining-tool");
 
-    private static final AtomicInteger MINING_THREAD_ID = new AtomicInteger(0);
-    /**
-     * Shared executor to avoid spawning a brand-new thread/executor per mined block (which can cause huge lag spikes
-     * and thread churn in heavily modded servers/worlds).
-     */
-    private static final ScheduledExecutorService MINING_EXECUTOR = Executors.newScheduledThreadPool(2, runnable -> {
-        Thread thread = new Thread(runnable, "mining-tool-" + MINING_THREAD_ID.incrementAndGet());
-        thread.setDaemon(true);
-        return thread;
-    });
-
     public static CompletableFuture<String> mineBlock(ServerPlayerEntity bot, BlockPos targetBlockPos) {
         CompletableFuture<String> miningResult = new CompletableFuture<>();
         MinecraftServer server = bot.getEntityWorld().getServer();
@@ -95,7 +83,7 @@ public class MiningTool {
             return miningResult;
         }
 
-        ScheduledFuture<?> task = MINING_EXECUTOR.scheduleAtFixedRate(() -> {
+        ScheduledFuture<?> task = BotScheduler.scheduleAtFixedRate(bot.getUuid(), () -> {
             if (canceled.get()) {
                 return;
             }
@@ -148,7 +136,7 @@ public class MiningTool {
             });
         }, 0, MINING_TICK_MS, TimeUnit.MILLISECONDS);
 
-        ScheduledFuture<?> timeoutTask = MINING_EXECUTOR.schedule(() -> {
+        ScheduledFuture<?> timeoutTask = BotScheduler.schedule(bot.getUuid(), () -> {
             if (!miningResult.isDone()) {
                 LOGGER.warn("Mining timeout reached for {}", targetBlockPos);
                 miningResult.complete("⚠️ Mining attempt timed out.");
@@ -22,39 +22,14 @@ public class AnthropicClient implements LLMClient {
     public AnthropicClient(String apiKey, String modelName) {
         this.apiKey = apiKey;
         this.modelName = modelName;
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
     public String sendPrompt(String systemPrompt, String userPrompt) {
         try {
-            JsonObject requestBody = new JsonObject();
-            requestBody.addProperty("model", this.modelName);
-
-            JsonArray messages = new JsonArray();
-
-            // 1. Create the system message object and add it to the array
-            JsonObject systemMessage = new JsonObject();
-            systemMessage.addProperty("role", "system");
-            systemMessage.addProperty("content", systemPrompt);
-            messages.add(systemMessage);
-
-            // 2. Create the user message object and add it to the array
-            JsonObject userMessage = new JsonObject();
-            userMessage.addProperty("role", "user");
-            userMessage.addProperty("content", userPrompt);
-            messages.add(userMessage);
-
-            requestBody.add("messages", messages);
-            requestBody.addProperty("max_tokens", 1024);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.anthropic.com/v1/messages"))
-                    .header("x-api-key", apiKey)
-                    .header("anthropic-version", "2023-06-01") // Required header
-                    .header("Content-Type", "application/json")
-                    .POST(BodyPublishers.ofString(requestBody.toString()))
-                    .build();
+            JsonObject requestBody = buildRequestBody(systemPrompt, userPrompt);
+            HttpRequest request = buildChatRequest(requestBody);
 
             HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
 
@@ -73,6 +48,89 @@ public class AnthropicClient implements LLMClient {
         }
     }
 
+    /**
+     * Streams the completion over server-sent events, passing each text delta to {@code listener}.
+     */
+    @Override
+    public void streamPrompt(String systemPrompt, String userPrompt, LLMStreamListener listener) {
+        JsonObject requestBody = buildRequestBody(systemPrompt, userPrompt);
+        requestBody.addProperty("stream", true);
+        LLMHttp.streamSse(buildChatRequest(requestBody), getProvider(), listener, AnthropicClient::textDelta);
+    }
+
+    private JsonObject buildRequestBody(String systemPrompt, String userPrompt) {
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", this.modelName);
+
+        // The Messages API takes the system prompt as a top-level field, not as a "system" role message.
+        requestBody.add("system", systemBlocks(systemPrompt));
+
+        JsonArray messages = new JsonArray();
+        JsonObject userMessage = new JsonObject();
+        userMessage.addProperty("role", "user");
+        userMessage.addProperty("content", userPrompt);
+        messages.add(userMessage);
+
+        requestBody.add("messages", messages);
+        requestBody.addProperty("max_tokens", 1024);
+        return requestBody;
+    }
+
+    /**
+     * The system prompt as text blocks, with a cache breakpoint after the stable prefix (everything before
+     * {@link LLMClient#CONTEXT_BOUNDARY}) so repeated commands are billed and processed as cached input.
+     */
+    private static JsonArray systemBlocks(String systemPrompt) {
+        String prompt = systemPrompt == null ? "" : systemPrompt;
+        int boundary = prompt.indexOf(CONTEXT_BOUNDARY);
+        String prefix = boundary >= 0 ? prompt.substring(0, boundary) : prompt;
+        JsonArray blocks = new JsonArray();
+        JsonObject stable = textBlock(prefix);
+        JsonObject cacheControl = new JsonObject();
+        cacheControl.addProperty("type", "ephemeral");
+        stable.add("cache_control", cacheControl);
+        blocks.add(stable);
+        if (boundary >= 0) {
+            blocks.add(textBlock(prompt.substring(boundary)));
+        }
+        return blocks;
+    }
+
+    private static JsonObject textBlock(String text) {
+        JsonObject block = new JsonObject();
+        block.addProperty("type", "text");
+        block.addProperty("text", text);
+        return block;
+    }
+
+    private HttpRequest buildChatRequest(JsonObject requestBody) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create("https://api.anthropic.com/v1/messages"))
+                .header("x-api-key", apiKey)
+                .header("anthropic-version", "2023-06-01") // Required header
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofString(requestBody.toString()))
+                .build();
+    }
+
+    /**
+     * Text of a {@code content_block_delta} event, or an {@code Error: ...} line for an {@code error} event (an
+     * overload or a mid-stream failure, which still arrives with status 200); other event types carry no text.
+     */
+    static String textDelta(String data) {
+        JsonObject event = JsonParser.parseString(data).getAsJsonObject();
+        String type = event.has("type") ? event.get("type").getAsString() : "";
+        if ("error".equals(type)) {
+            JsonObject error = event.has("error") && event.get("error").isJsonObject() ? event.getAsJsonObject("error") : null;
+            return "Error: " + (error != null && error.has("message") ? error.get("message").getAsString() : data);
+        }
+        if (!"content_block_delta".equals(type)) {
+            return null;
+        }
+        JsonObject delta = event.getAsJsonObject("delta");
+        return delta != null && delta.has("text") ? delta.get("text").getAsString() : null;
+    }
+
     /**
      * Checks if the Claude API is reachable and the key is valid by making a
      * quick, lightweight request to the models endpoint.
@@ -16,7 +16,7 @@ public class ClaudeModelFetcher implements ModelFetcher {
     private final HttpClient client;
 
     public ClaudeModelFetcher() {
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
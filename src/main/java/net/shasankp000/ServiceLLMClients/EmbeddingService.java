@@ -0,0 +1,499 @@
+package net.shasankp000.ServiceLLMClients;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.loader.api.FabricLoader;
+import net.shasankp000.AIPlayer;
+import net.shasankp000.GameAI.services.BotScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Text embeddings from the local Ollama server, batched and cached.
+ *
+ * <p>{@link #embed} never blocks: a cached vector comes back as a completed future, anything else is queued and
+ * a single background drainer sends everything queued at that moment as one {@code /api/embed} request (falling
+ * back to one {@code /api/embeddings} call per text on servers that predate the batch endpoint). Concurrent
+ * requests for the same text share one future.
+ *
+ * <p>Vectors are keyed by a hash of the model and the exact text and persisted to an append-only file of
+ * float32 records ({@code config/ai-player/embedding_cache.bin}). The file is memory-mapped when first used,
+ * so earlier sessions' vectors cost a page read rather than a round trip; vectors computed this session are
+ * appended to it and also kept in a small in-memory LRU.
+ */
+public final class EmbeddingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("embeddings");
+
+    public static final String DEFAULT_MODEL = "nomic-embed-text";
+
+    private static final String FILE_NAME = "embedding_cache.bin";
+    private static final int FILE_MAGIC = 0x41494542; // "AIEB"
+    private static final int FILE_HEADER_BYTES = 8;
+    /** Key (two longs) plus dimension count ahead of each vector. */
+    private static final int RECORD_HEADER_BYTES = 16 + 4;
+    private static final long MAX_FILE_BYTES = 256L * 1024L * 1024L;
+    private static final int MAX_DIMENSIONS = 16_384;
+    private static final int RECENT_CAPACITY = 4096;
+    private static final int MAX_BATCH = 32;
+    /** How long the drainer waits for more texts before sending the first request of a burst. */
+    private static final long COALESCE_MS = 5L;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private record Key(long hi, long lo) {
+    }
+
+    private record Pending(Key key, String model, String text, CompletableFuture<List<Double>> result) {
+    }
+
+    private static final ConcurrentLinkedQueue<Pending> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final Map<Key, CompletableFuture<List<Double>>> IN_FLIGHT = new ConcurrentHashMap<>();
+    /** Token of the drainer currently responsible for the queue, or null when none is. */
+    private static final AtomicReference<Object> DRAIN_OWNER = new AtomicReference<>();
+    private static volatile Future<?> drainer;
+    private static volatile boolean legacyEndpoint;
+
+    private static final Object CACHE_LOCK = new Object();
+    // Guarded by CACHE_LOCK.
+    private static Map<Key, Integer> mappedIndex;
+    private static ByteBuffer mapped;
+    private static FileChannel appendChannel;
+    private static long fileSize;
+    private static boolean fileFull;
+    private static final Map<Key, float[]> RECENT = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, float[]> eldest) {
+            return size() > RECENT_CAPACITY;
+        }
+    };
+
+    private static final LongAdder MEMORY_HITS = new LongAdder();
+    private static final LongAdder FILE_HITS = new LongAdder();
+    private static final LongAdder SHARED = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder FAILURES = new LongAdder();
+    private static final LongAdder REQUEST_NANOS = new LongAdder();
+
+    private EmbeddingService() {
+    }
+
+    /**
+     * Embedding of {@code text} with {@link #DEFAULT_MODEL}.
+     */
+    public static CompletableFuture<List<Double>> embed(String text) {
+        return embed(DEFAULT_MODEL, text);
+    }
+
+    /**
+     * Embedding of {@code text} with {@code model}. Completes immediately on a cache hit; otherwise on the
+     * drainer thread once the batch holding it returns. Blank text yields an empty vector.
+     */
+    public static CompletableFuture<List<Double>> embed(String model, String text) {
+        if (text == null || text.isBlank()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        Key key = keyOf(model, text);
+        float[] cached = lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(toList(cached));
+        }
+        CompletableFuture<List<Double>> fresh = new CompletableFuture<>();
+        CompletableFuture<List<Double>> existing = IN_FLIGHT.putIfAbsent(key, fresh);
+        if (existing != null) {
+            SHARED.increment();
+            return existing;
+        }
+        MISSES.increment();
+        QUEUE.add(new Pending(key, model, text, fresh));
+        startDrainer();
+        return fresh;
+    }
+
+    /**
+     * Embeddings of several texts, in order; they usually go out in a single request.
+     */
+    public static CompletableFuture<List<List<Double>>> embedAll(List<String> texts) {
+        List<CompletableFuture<List<Double>>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            futures.add(embed(text));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Closes the cache file; the next lookup maps it again. Called when the server stops.
+     */
+    public static void close() {
+        synchronized (CACHE_LOCK) {
+            if (appendChannel != null) {
+                try {
+                    appendChannel.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Closing embedding cache failed: {}", e.getMessage());
+                }
+            }
+            appendChannel = null;
+            mapped = null;
+            mappedIndex = null;
+            fileFull = false;
+            RECENT.clear();
+        }
+    }
+
+    public static String metricsSummary() {
+        long requests = REQUESTS.sum();
+        return String.format("embeddings: hits(memory)=%d hits(file)=%d shared=%d misses=%d requests=%d avg=%.1fms failures=%d queued=%d",
+                MEMORY_HITS.sum(), FILE_HITS.sum(), SHARED.sum(), MISSES.sum(), requests,
+                requests == 0 ? 0.0D : REQUEST_NANOS.sum() / (requests * 1_000_000.0D), FAILURES.sum(), QUEUE.size());
+    }
+
+    private static void startDrainer() {
+        Future<?> current = drainer;
+        Object token = new Object();
+        if (DRAIN_OWNER.compareAndSet(null, token)) {
+            drainer = BotScheduler.runAsync(null, "embedding-batch", () -> drain(token));
+        } else if (current != null && current.isCancelled() && !QUEUE.isEmpty()) {
+            // A drainer cancelled by a server stop never releases ownership; take it over.
+            DRAIN_OWNER.set(token);
+            drainer = BotScheduler.runAsync(null, "embedding-batch", () -> drain(token));
+        }
+    }
+
+    private static void drain(Object token) {
+        try {
+            do {
+                try {
+                    Thread.sleep(COALESCE_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                List<Pending> batch = new ArrayList<>(MAX_BATCH);
+                Pending next;
+                while ((next = QUEUE.poll()) != null) {
+                    batch.add(next);
+                    if (batch.size() == MAX_BATCH) {
+                        send(batch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+                DRAIN_OWNER.compareAndSet(token, null);
+                // Texts queued after the last poll but before ownership was released are picked up here.
+            } while (!QUEUE.isEmpty() && DRAIN_OWNER.compareAndSet(null, token));
+        } finally {
+            // Only release if a newer drainer has not taken over in the meantime.
+            DRAIN_OWNER.compareAndSet(token, null);
+        }
+    }
+
+    private static void send(List<Pending> batch) {
+        // One request per model; in practice every caller uses the default.
+        Map<String, List<Pending>> byModel = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            byModel.computeIfAbsent(pending.model(), m -> new ArrayList<>()).add(pending);
+        }
+        for (Map.Entry<String, List<Pending>> entry : byModel.entrySet()) {
+            List<Pending> group = entry.getValue();
+            long start = System.nanoTime();
+            try {
+                List<float[]> vectors = request(entry.getKey(), group.stream().map(Pending::text).toList());
+                REQUEST_NANOS.add(System.nanoTime() - start);
+                for (int i = 0; i < group.size(); i++) {
+                    Pending pending = group.get(i);
+                    store(pending.key(), vectors.get(i));
+                    IN_FLIGHT.remove(pending.key());
+                    pending.result().complete(toList(vectors.get(i)));
+                }
+            } catch (Exception e) {
+                FAILURES.increment();
+                LOGGER.warn("Embedding request for {} text(s) failed: {}", group.size(), e.getMessage());
+                for (Pending pending : group) {
+                    IN_FLIGHT.remove(pending.key());
+                    pending.result().completeExceptionally(e);
+                }
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static List<float[]> request(String model, List<String> texts) throws IOException, InterruptedException {
+        if (!legacyEndpoint) {
+            JsonObject body = new JsonObject();
+            body.addProperty("model", model);
+            JsonArray input = new JsonArray();
+            texts.forEach(input::add);
+            body.add("input", input);
+            REQUESTS.increment();
+            HttpResponse<String> response = post("/api/embed", body);
+            if (response.statusCode() == 200) {
+                JsonArray embeddings = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("embeddings");
+                if (embeddings == null || embeddings.size() != texts.size()) {
+                    throw new IOException("Expected " + texts.size() + " embeddings, got "
+                            + (embeddings == null ? 0 : embeddings.size()));
+                }
+                List<float[]> vectors = new ArrayList<>(texts.size());
+                for (int i = 0; i < embeddings.size(); i++) {
+                    vectors.add(toFloats(embeddings.get(i).getAsJsonArray()));
+                }
+                return vectors;
+            }
+            if (response.statusCode() != 404) {
+                throw new IOException("HTTP " + response.statusCode() + " - " + response.body());
+            }
+            legacyEndpoint = true;
+            LOGGER.info("Ollama has no /api/embed; embedding one text per request.");
+        }
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            JsonObject body = new JsonObject();
+            body.addProperty("model", model);
+            body.addProperty("prompt", text);
+            REQUESTS.increment();
+            HttpResponse<String> response = post("/api/embeddings", body);
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + " - " + response.body());
+            }
+            vectors.add(toFloats(JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("embedding")));
+        }
+        return vectors;
+    }
+
+    private static HttpResponse<String> post(String path, JsonObject body) throws IOException, InterruptedException {
+        String baseUrl = AIPlayer.CONFIG != null ? AIPlayer.CONFIG.getOllamaBaseUrl() : "http://127.0.0.1:11434";
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return LLMHttp.client().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static float[] lookup(Key key) {
+        synchronized (CACHE_LOCK) {
+            float[] recent = RECENT.get(key);
+            if (recent != null) {
+                MEMORY_HITS.increment();
+                return recent;
+            }
+            ensureLoaded();
+            Integer offset = mappedIndex.get(key);
+            if (offset == null) {
+                return null;
+            }
+            float[] vector = readRecord(offset);
+            if (vector == null) {
+                return null;
+            }
+            RECENT.put(key, vector);
+            FILE_HITS.increment();
+            return vector;
+        }
+    }
+
+    private static void store(Key key, float[] vector) {
+        synchronized (CACHE_LOCK) {
+            RECENT.put(key, vector);
+            ensureLoaded();
+            if (appendChannel == null || fileFull) {
+                return;
+            }
+            int bytes = RECORD_HEADER_BYTES + vector.length * Float.BYTES;
+            if (fileSize + bytes > MAX_FILE_BYTES) {
+                fileFull = true;
+                LOGGER.info("Embedding cache file reached {} MB; new vectors are kept in memory only.", MAX_FILE_BYTES >> 20);
+                return;
+            }
+            ByteBuffer record = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            record.putLong(key.hi()).putLong(key.lo()).putInt(vector.length);
+            for (float v : vector) {
+                record.putFloat(v);
+            }
+            record.flip();
+            try {
+                while (record.hasRemaining()) {
+                    appendChannel.write(record);
+                }
+                mappedIndex.put(key, (int) fileSize);
+                fileSize += bytes;
+            } catch (IOException e) {
+                LOGGER.warn("Embedding cache append failed; continuing without it: {}", e.getMessage());
+                fileFull = true;
+            }
+        }
+    }
+
+    /**
+     * Vector of the record at {@code offset}. Records from the load-time mapping are read from it; records
+     * appended since are read back from the file. Caller holds {@link #CACHE_LOCK}.
+     */
+    private static float[] readRecord(int offset) {
+        if (offset + RECORD_HEADER_BYTES <= mapped.limit()) {
+            int dims = mapped.getInt(offset + 16);
+            float[] vector = new float[dims];
+            for (int i = 0; i < dims; i++) {
+                vector[i] = mapped.getFloat(offset + RECORD_HEADER_BYTES + i * Float.BYTES);
+            }
+            return vector;
+        }
+        if (appendChannel == null) {
+            return null;
+        }
+        try {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(header, offset);
+            int dims = header.getInt(16);
+            if (dims <= 0 || dims > MAX_DIMENSIONS) {
+                return null;
+            }
+            ByteBuffer body = ByteBuffer.allocate(dims * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(body, offset + RECORD_HEADER_BYTES);
+            float[] vector = new float[dims];
+            body.asFloatBuffer().get(vector);
+            return vector;
+        } catch (IOException e) {
+            LOGGER.debug("Reading embedding record at {} failed: {}", offset, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (appendChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of embedding cache");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Maps the cache file and indexes its complete records; a record cut short by a crash is truncated away
+     * before appending resumes. Caller holds {@link #CACHE_LOCK}.
+     */
+    private static void ensureLoaded() {
+        if (mappedIndex != null) {
+            return;
+        }
+        mappedIndex = new HashMap<>();
+        mapped = ByteBuffer.allocate(0);
+        Path file = FabricLoader.getInstance().getConfigDir().resolve("ai-player").resolve(FILE_NAME);
+        try {
+            Files.createDirectories(file.getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            long valid = FILE_HEADER_BYTES;
+            if (size < FILE_HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(FILE_MAGIC).putInt(0).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+            } else {
+                // Appends stop at MAX_FILE_BYTES, so the whole file always fits in one mapping.
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.getInt(0) != FILE_MAGIC) {
+                    LOGGER.warn("{} is not an embedding cache; starting a new one.", file);
+                    channel.truncate(0);
+                    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    header.putInt(FILE_MAGIC).putInt(0).flip();
+                    channel.write(header, 0);
+                } else {
+                    int offset = FILE_HEADER_BYTES;
+                    while (offset + RECORD_HEADER_BYTES <= buffer.limit()) {
+                        int dims = buffer.getInt(offset + 16);
+                        if (dims <= 0 || dims > MAX_DIMENSIONS) {
+                            break;
+                        }
+                        int end = offset + RECORD_HEADER_BYTES + dims * Float.BYTES;
+                        if (end > buffer.limit()) {
+                            break;
+                        }
+                        mappedIndex.put(new Key(buffer.getLong(offset), buffer.getLong(offset + 8)), offset);
+                        offset = end;
+                    }
+                    valid = offset;
+                    mapped = buffer;
+                    if (valid < size) {
+                        channel.truncate(valid);
+                    }
+                }
+            }
+            channel.position(valid);
+            appendChannel = channel;
+            fileSize = valid;
+            fileFull = valid >= MAX_FILE_BYTES;
+            LOGGER.info("Embedding cache loaded: {} vectors ({} KB).", mappedIndex.size(), valid >> 10);
+        } catch (IOException e) {
+            LOGGER.warn("Embedding cache unavailable; vectors are kept in memory only: {}", e.getMessage());
+        }
+    }
+
+    private static Key keyOf(String model, String text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(model.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        return new Key(hash.getLong(), hash.getLong());
+    }
+
+    private static float[] toFloats(JsonArray values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i).getAsFloat();
+        }
+        return vector;
+    }
+
+    private static List<Double> toList(float[] vector) {
+        Double[] boxed = new Double[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            boxed[i] = (double) vector[i];
+        }
+        return Collections.unmodifiableList(Arrays.asList(boxed));
+    }
+}
@@ -1,6 +1,7 @@
 package net.shasankp000.ServiceLLMClients;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.slf4j.Logger;
@@ -22,28 +23,13 @@ public class GeminiClient implements LLMClient {
     public GeminiClient(String apiKey, String modelName) {
         this.apiKey = apiKey;
         this.modelName = modelName;
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
     public String sendPrompt(String systemPrompt, String userPrompt) {
         try {
-            JsonObject requestBody = new JsonObject();
-            JsonArray contents = new JsonArray();
-
-            // 1. Combine the system and user prompts into a single user message
-            JsonObject userPart = new JsonObject();
-            userPart.addProperty("role", "user");
-
-            JsonArray partsArray = new JsonArray();
-            JsonObject combinedTextPart = new JsonObject();
-            // Combining them is one of the ways to send system and user prompts
-            combinedTextPart.addProperty("text", systemPrompt + "\n\n" + userPrompt);
-            partsArray.add(combinedTextPart);
-
-            userPart.add("parts", partsArray);
-            contents.add(userPart);
-            requestBody.add("contents", contents);
+            JsonObject requestBody = buildRequestBody(systemPrompt, userPrompt);
 
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create("https://generativelanguage.googleapis.com/v1beta/models/" + modelName + ":generateContent?key=" + apiKey))
@@ -71,6 +57,62 @@ public class GeminiClient implements LLMClient {
         }
     }
 
+    /**
+     * Streams the completion from {@code streamGenerateContent} as server-sent events.
+     */
+    @Override
+    public void streamPrompt(String systemPrompt, String userPrompt, LLMStreamListener listener) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("https://generativelanguage.googleapis.com/v1beta/models/" + modelName + ":streamGenerateContent?alt=sse&key=" + apiKey))
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofString(buildRequestBody(systemPrompt, userPrompt).toString()))
+                .build();
+        LLMHttp.streamSse(request, getProvider(), listener, GeminiClient::textDelta);
+    }
+
+    private JsonObject buildRequestBody(String systemPrompt, String userPrompt) {
+        JsonObject requestBody = new JsonObject();
+        JsonArray contents = new JsonArray();
+
+        // 1. Combine the system and user prompts into a single user message
+        JsonObject userPart = new JsonObject();
+        userPart.addProperty("role", "user");
+
+        JsonArray partsArray = new JsonArray();
+        JsonObject combinedTextPart = new JsonObject();
+        // Combining them is one of the ways to send system and user prompts
+        combinedTextPart.addProperty("text", systemPrompt + "\n\n" + userPrompt);
+        partsArray.add(combinedTextPart);
+
+        userPart.add("parts", partsArray);
+        contents.add(userPart);
+        requestBody.add("contents", contents);
+        return requestBody;
+    }
+
+    /**
+     * Concatenated text parts of one streamed {@code GenerateContentResponse}.
+     */
+    private static String textDelta(String data) {
+        JsonObject chunk = JsonParser.parseString(data).getAsJsonObject();
+        JsonArray candidates = chunk.getAsJsonArray("candidates");
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        JsonObject content = candidates.get(0).getAsJsonObject().getAsJsonObject("content");
+        if (content == null || !content.has("parts")) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (JsonElement part : content.getAsJsonArray("parts")) {
+            JsonObject partObject = part.getAsJsonObject();
+            if (partObject.has("text")) {
+                text.append(partObject.get("text").getAsString());
+            }
+        }
+        return text.toString();
+    }
+
     /**
      * Checks if the Gemini API is reachable and the key is valid by making a
      * quick, lightweight request to the models endpoint.
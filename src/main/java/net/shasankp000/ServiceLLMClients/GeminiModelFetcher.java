@@ -16,7 +16,7 @@ public class GeminiModelFetcher implements ModelFetcher {
     private final HttpClient client;
 
     public GeminiModelFetcher() {
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
@@ -33,39 +33,14 @@ public class GenericOpenAIClient implements LLMClient {
         }
         String trimmedUrl = baseUrl.trim();
         this.baseUrl = trimmedUrl.endsWith("/") ? trimmedUrl : trimmedUrl + "/";
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
     public String sendPrompt(String systemPrompt, String userPrompt) {
         try {
-            // Construct the request body for chat completions
-            JsonObject requestBody = new JsonObject();
-            requestBody.addProperty("model", this.modelName);
-
-            JsonArray messages = new JsonArray();
-
-            // 1. Create the system message object and add it to the array
-            JsonObject systemMessage = new JsonObject();
-            systemMessage.addProperty("role", "system");
-            systemMessage.addProperty("content", systemPrompt);
-            messages.add(systemMessage);
-
-            // 2. Create the user message object and add it to the array
-            JsonObject userMessage = new JsonObject();
-            userMessage.addProperty("role", "user");
-            userMessage.addProperty("content", userPrompt);
-            messages.add(userMessage);
-
-            requestBody.add("messages", messages);
-            requestBody.addProperty("max_tokens", 150);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(baseUrl + "chat/completions"))
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .POST(BodyPublishers.ofString(requestBody.toString()))
-                    .build();
+            JsonObject requestBody = buildRequestBody(systemPrompt, userPrompt);
+            HttpRequest request = buildChatRequest(requestBody);
 
             HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
 
@@ -89,6 +64,49 @@ public class GenericOpenAIClient implements LLMClient {
         }
     }
 
+    /**
+     * Streams the completion over server-sent events, passing each text delta to {@code listener}.
+     */
+    @Override
+    public void streamPrompt(String systemPrompt, String userPrompt, LLMStreamListener listener) {
+        JsonObject requestBody = buildRequestBody(systemPrompt, userPrompt);
+        requestBody.addProperty("stream", true);
+        LLMHttp.streamSse(buildChatRequest(requestBody), getProvider(), listener, LLMHttp::openAiDelta);
+    }
+
+    private JsonObject buildRequestBody(String systemPrompt, String userPrompt) {
+        // Construct the request body for chat completions
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", this.modelName);
+
+        JsonArray messages = new JsonArray();
+
+        // 1. Create the system message object and add it to the array
+        JsonObject systemMessage = new JsonObject();
+        systemMessage.addProperty("role", "system");
+        systemMessage.addProperty("content", systemPrompt);
+        messages.add(systemMessage);
+
+        // 2. Create the user message object and add it to the array
+        JsonObject userMessage = new JsonObject();
+        userMessage.addProperty("role", "user");
+        userMessage.addProperty("content", userPrompt);
+        messages.add(userMessage);
+
+        requestBody.add("messages", messages);
+        requestBody.addProperty("max_tokens", 150);
+        return requestBody;
+    }
+
+    private HttpRequest buildChatRequest(JsonObject requestBody) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "chat/completions"))
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofString(requestBody.toString()))
+                .build();
+    }
+
     /**
      * Checks if the API is reachable and the key is valid by making a
      * quick, lightweight request to the models endpoint.
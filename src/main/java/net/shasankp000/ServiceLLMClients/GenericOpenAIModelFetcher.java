@@ -25,7 +25,7 @@ public class GenericOpenAIModelFetcher implements ModelFetcher {
     private static final Logger LOGGER = LoggerFactory.getLogger("GenericOpenAIModelFetcher");
 
     public GenericOpenAIModelFetcher(String baseUrl) {
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
         // Ensure baseUrl ends with "/" but doesn't have double slashes
         if (baseUrl == null || baseUrl.trim().isEmpty()) {
             throw new IllegalArgumentException("Base URL cannot be null or empty");
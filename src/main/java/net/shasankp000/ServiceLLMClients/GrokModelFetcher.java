@@ -16,7 +16,7 @@ public class GrokModelFetcher implements ModelFetcher {
     private final HttpClient client;
 
     public GrokModelFetcher() {
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
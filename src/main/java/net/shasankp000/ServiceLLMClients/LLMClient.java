@@ -2,6 +2,12 @@ package net.shasankp000.ServiceLLMClients;
 
 // Base interface for all LLM clients
 public interface LLMClient {
+    /**
+     * Separates the stable part of a system prompt from the per-request bot context that follows it. Everything
+     * before the boundary is identical between requests, so clients may mark it for provider-side prefix caching.
+     */
+    String CONTEXT_BOUNDARY = "\n\nBot's context information:\n";
+
     /**
      * Send a prompt to the LLM and receive the response.
      * @param systemPrompt The system prompt
@@ -23,14 +29,26 @@ public interface LLMClient {
     String getProvider();
 
     /**
-     * Optional: If the provider supports streaming responses.
+     * Streams the response as it is generated. Providers without a streaming endpoint deliver the
+     * whole response as a single chunk.
+     * @param systemPrompt The system prompt
+     * @param userPrompt The input prompt
+     * @param listener Receives each chunk; returning false stops generation early
+     */
+    default void streamPrompt(String systemPrompt, String userPrompt, LLMStreamListener listener) {
+        listener.onToken(sendPrompt(systemPrompt, userPrompt));
+    }
+
+    /**
+     * Streams the response, handing each chunk to {@code callback} as it arrives.
      * @param systemPrompt The system prompt
      * @param userPrompt The input prompt
      * @param callback Function to handle streaming chunks
      */
     default void sendPromptStreaming(String systemPrompt, String userPrompt, java.util.function.Consumer<String> callback) {
-        // Default: not supported
-        callback.accept(sendPrompt(systemPrompt, userPrompt));
+        streamPrompt(systemPrompt, userPrompt, chunk -> {
+            callback.accept(chunk);
+            return true;
+        });
     }
 }
-
@@ -0,0 +1,141 @@
+package net.shasankp000.ServiceLLMClients;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Shared HTTP plumbing for the LLM clients.
+ *
+ * <p>All providers go through one {@link HttpClient} so connections (and HTTP/2 sessions where the server
+ * offers them) are reused across requests instead of each client instance opening its own pool. The
+ * {@code stream*} helpers read a response incrementally and hand each token to an {@link LLMStreamListener}
+ * as soon as its line arrives.
+ */
+public final class LLMHttp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("LLM-Http");
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private LLMHttp() {
+    }
+
+    public static HttpClient client() {
+        return CLIENT;
+    }
+
+    /**
+     * Streams a {@code text/event-stream} response. Each event's data payload is mapped to a token by
+     * {@code tokenOf} (null to skip); a {@code [DONE]} payload ends the stream.
+     */
+    static void streamSse(HttpRequest request, String provider, LLMStreamListener listener, Function<String, String> tokenOf) {
+        stream(request, provider, listener, tokenOf, true);
+    }
+
+    /**
+     * Streams a newline-delimited JSON response, mapping each line to a token with {@code tokenOf}.
+     */
+    static void streamNdjson(HttpRequest request, String provider, LLMStreamListener listener, Function<String, String> tokenOf) {
+        stream(request, provider, listener, tokenOf, false);
+    }
+
+    private static void stream(HttpRequest request, String provider, LLMStreamListener listener,
+                               Function<String, String> tokenOf, boolean sse) {
+        boolean emitted = false;
+        try {
+            HttpResponse<InputStream> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                if (response.statusCode() != 200) {
+                    StringBuilder error = new StringBuilder();
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        error.append(line);
+                    }
+                    listener.onToken("Error: " + response.statusCode() + " - " + error);
+                    return;
+                }
+
+                StringBuilder data = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String payload;
+                    if (sse) {
+                        if (line.startsWith("data:")) {
+                            if (!data.isEmpty()) {
+                                data.append('\n');
+                            }
+                            data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+                            continue;
+                        }
+                        if (!line.isEmpty() || data.isEmpty()) {
+                            continue; // event:, id:, comments, or keep-alive blank lines
+                        }
+                        payload = data.toString();
+                        data.setLength(0);
+                    } else {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        payload = line;
+                    }
+
+                    if (sse && payload.equals("[DONE]")) {
+                        return;
+                    }
+                    String token = tokenOf.apply(payload);
+                    if (token != null && !token.isEmpty()) {
+                        emitted = true;
+                        if (!listener.onToken(token)) {
+                            return; // closing the body cancels the exchange
+                        }
+                    }
+                }
+                if (sse && !data.isEmpty() && !data.toString().equals("[DONE]")) {
+                    String token = tokenOf.apply(data.toString());
+                    if (token != null && !token.isEmpty()) {
+                        listener.onToken(token);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            LOGGER.error("Error streaming from {}: {}", provider, message);
+            if (!emitted) {
+                listener.onToken("Error: " + message);
+            }
+        }
+    }
+
+    /**
+     * Text delta of an OpenAI-style {@code chat.completion.chunk}, or null if the chunk carries none.
+     */
+    static String openAiDelta(String data) {
+        JsonObject chunk = JsonParser.parseString(data).getAsJsonObject();
+        if (!chunk.has("choices") || chunk.getAsJsonArray("choices").isEmpty()) {
+            return null;
+        }
+        JsonObject choice = chunk.getAsJsonArray("choices").get(0).getAsJsonObject();
+        if (!choice.has("delta") || !choice.get("delta").isJsonObject()) {
+            return null;
+        }
+        JsonObject delta = choice.getAsJsonObject("delta");
+        return delta.has("content") && !delta.get("content").isJsonNull() ? delta.get("content").getAsString() : null;
+    }
+}
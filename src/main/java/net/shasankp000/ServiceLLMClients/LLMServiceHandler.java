@@ -10,6 +10,7 @@ import net.shasankp000.ChatUtils.Helper.RAG2;
 import net.shasankp000.ChatUtils.NLPProcessor;
 import net.shasankp000.Exception.intentMisclassification;
 import net.shasankp000.FunctionCaller.FunctionCallerV2;
+import net.shasankp000.GameAI.services.BotScheduler;
 import net.shasankp000.GameAI.llm.LLMActionQueue;
 import net.shasankp000.GameAI.llm.LLMJobTracker;
 import net.shasankp000.FilingSystem.LLMClientFactory;
@@ -21,14 +22,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class LLMServiceHandler {
     public static final Logger LOGGER = LoggerFactory.getLogger("LLMServiceHandler");
-    private static final ExecutorService BOT_TASK_POOL = Executors.newCachedThreadPool();
     private static final Pattern THINK_BLOCK = Pattern.compile("<think>([\\s\\S]*?)</think>");
     public static String initialResponse = "";
     private static final String host = "http://localhost:11434";
@@ -243,8 +241,7 @@ public class LLMServiceHandler {
 
         switch (intent) {
             case GENERAL_CONVERSATION, ASK_INFORMATION -> {
-                BOT_TASK_POOL.submit(() -> {
-                    Thread.currentThread().setName("LLM-RAG2-Worker");
+                BotScheduler.runAsync(null, "LLM-RAG2-Worker", () -> {
                     LOGGER.info("🧵 Started RAG2 worker thread");
                     RAG2.run(message, botSource, intent, client);
                     LOGGER.info("✅ Finished RAG2 worker thread");
@@ -252,8 +249,7 @@ public class LLMServiceHandler {
             }
 
             case REQUEST_ACTION -> {
-                BOT_TASK_POOL.submit(() -> {
-                    Thread.currentThread().setName("LLM-Function-Caller-Worker");
+                BotScheduler.runAsync(null, "LLM-Function-Caller-Worker", () -> {
                     LOGGER.info("🧵 Started FunctionCallerV2 worker thread");
                     try {
                         new FunctionCallerV2(botSource, playerUUID);
@@ -274,15 +270,13 @@ public class LLMServiceHandler {
                 LOGGER.info("📨 Retry intent: {}", retry);
 
                 if (retry == NLPProcessor.Intent.GENERAL_CONVERSATION || retry == NLPProcessor.Intent.ASK_INFORMATION) {
-                    BOT_TASK_POOL.submit(() -> {
-                        Thread.currentThread().setName("LLM-RAG2-Retry-Worker");
+                    BotScheduler.runAsync(null, "LLM-RAG2-Retry-Worker", () -> {
                         LOGGER.info("🧵 Started RAG2 retry worker thread");
                         RAG2.run(message, botSource, retry, client);
                         LOGGER.info("✅ Finished RAG2 retry worker thread");
                     });
                 } else if (retry == NLPProcessor.Intent.REQUEST_ACTION) {
-                    BOT_TASK_POOL.submit(() -> {
-                        Thread.currentThread().setName("LLM-Function-Caller-Retry-Worker");
+                    BotScheduler.runAsync(null, "LLM-Function-Caller-Retry-Worker", () -> {
                         LOGGER.info("🧵 Started FunctionCallerV2 retry worker thread");
                         try {
                             new FunctionCallerV2(botSource, playerUUID);
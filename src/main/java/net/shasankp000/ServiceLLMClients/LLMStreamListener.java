@@ -0,0 +1,13 @@
+package net.shasankp000.ServiceLLMClients;
+
+/**
+ * Receives a streamed completion chunk by chunk.
+ */
+@FunctionalInterface
+public interface LLMStreamListener {
+    /**
+     * @param chunk The next piece of generated text
+     * @return false to stop generation and close the stream early
+     */
+    boolean onToken(String chunk);
+}
@@ -5,11 +5,16 @@ import io.github.amithkoujalgi.ollama4j.core.models.chat.OllamaChatMessageRole;
 import io.github.amithkoujalgi.ollama4j.core.models.chat.OllamaChatRequestBuilder;
 import io.github.amithkoujalgi.ollama4j.core.models.chat.OllamaChatRequestModel;
 import io.github.amithkoujalgi.ollama4j.core.models.chat.OllamaChatResult;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 
 /**
  * Simple LLMClient implementation that talks to a locally running Ollama instance.
@@ -17,6 +22,7 @@ import java.net.URL;
 public final class OllamaLocalClient implements LLMClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("ollama-client");
+    private static final String KEEP_ALIVE = "30m";
 
     private final OllamaAPI api;
     private final String baseUrl;
@@ -51,17 +57,55 @@ public final class OllamaLocalClient implements LLMClient {
         }
     }
 
+    /**
+     * Streams {@code /api/chat}, which answers with one JSON object per line as tokens are generated.
+     */
+    @Override
+    public void streamPrompt(String systemPrompt, String userPrompt, LLMStreamListener listener) {
+        JsonArray messages = new JsonArray();
+        JsonObject systemMessage = new JsonObject();
+        systemMessage.addProperty("role", "system");
+        systemMessage.addProperty("content", systemPrompt == null ? "" : systemPrompt);
+        messages.add(systemMessage);
+        JsonObject userMessage = new JsonObject();
+        userMessage.addProperty("role", "user");
+        userMessage.addProperty("content", userPrompt == null ? "" : userPrompt);
+        messages.add(userMessage);
+
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", model);
+        requestBody.add("messages", messages);
+        requestBody.addProperty("stream", true);
+        // Keep the model loaded so the next command's identical system-prompt prefix is served from its KV cache.
+        requestBody.addProperty("keep_alive", KEEP_ALIVE);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/chat"))
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
+                .build();
+        LLMHttp.streamNdjson(request, getProvider(), listener, OllamaLocalClient::messageDelta);
+    }
+
+    static String messageDelta(String line) {
+        JsonObject chunk = JsonParser.parseString(line).getAsJsonObject();
+        if (chunk.has("error")) {
+            return "Error: " + chunk.get("error").getAsString();
+        }
+        JsonObject message = chunk.getAsJsonObject("message");
+        return message != null && message.has("content") ? message.get("content").getAsString() : null;
+    }
+
     @Override
     public boolean isReachable() {
         try {
-            URL url = new URL(baseUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setConnectTimeout(1500);
-            connection.setReadTimeout(1500);
-            connection.setRequestMethod("GET");
-            connection.connect();
-            connection.getResponseCode(); // any response code indicates the service is reachable
-            connection.disconnect();
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl))
+                    .timeout(Duration.ofMillis(1500))
+                    .GET()
+                    .build();
+            LLMHttp.client().send(request, HttpResponse.BodyHandlers.discarding()); // any response code indicates the service is reachable
             return true;
         } catch (Exception e) {
             LOGGER.warn("Ollama host {} unreachable: {}", baseUrl, e.getMessage());
@@ -16,7 +16,7 @@ public class OpenAIModelFetcher implements ModelFetcher {
     private final HttpClient client;
 
     public OpenAIModelFetcher() {
-        this.client = HttpClient.newHttpClient();
+        this.client = LLMHttp.client();
     }
 
     @Override
@@ -0,0 +1,27 @@
+package net.shasankp000.mixin;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.shasankp000.GameAI.services.BlockLocatorIndex;
+import net.shasankp000.GameAI.services.PerceptionService;
+import net.shasankp000.PathFinding.PathPlannerService;
+import net.shasankp000.PathFinding.WalkabilityCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerWorld.class)
+public class ServerWorldBlockChangeMixin {
+
+    // Required: this is the only block-change signal the walkability, perception, locator and path caches get, so
+    // a missing target after a mappings bump must fail at load rather than leave them silently stale.
+    @Inject(method = "onBlockChanged", at = @At("TAIL"), require = 1)
+    private void updateWalkabilityCache(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        WalkabilityCache.onBlockChanged((ServerWorld) (Object) this, pos, newBlock);
+        PerceptionService.onBlockChanged((ServerWorld) (Object) this, pos, newBlock);
+        BlockLocatorIndex.onBlockChanged((ServerWorld) (Object) this, pos, newBlock);
+        PathPlannerService.onBlockChanged((ServerWorld) (Object) this, pos);
+    }
+}